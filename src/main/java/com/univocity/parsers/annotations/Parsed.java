@@ -90,4 +90,16 @@ public @interface Parsed {
 	 * @return flag indicating whether the default conversion, based on the field type, is to be applied for this field.
 	 */
 	boolean applyDefaultConversion() default true;
+
+	/**
+	 * The maximum number of distinct parsed values of this field whose converted results will be cached, so conversions
+	 * are executed only once for each distinct value while it remains in the cache.
+	 * Useful for fields with few distinct values such as dates or enumerations. The least recently used value is evicted from a full cache.
+	 * <p>Caching is disabled by default (i.e. when this value is 0).
+	 *
+	 * @return the maximum size of the cache of converted values of this field.
+	 *
+	 * @see BeanProcessor#cacheConvertedFields(int)
+	 */
+	int conversionCacheSize() default 0;
 }
@@ -39,6 +39,27 @@ public class AnnotationHelper {
 
     }
 
+    /**
+     * Returns the {@link BeanMapper} generated for a java bean class by {@link com.univocity.parsers.annotations.processing.BeanMapperGenerator}, if any.
+     * @param beanClass the java bean class
+     * @param <T> the type of the java bean
+     * @return a new instance of the mapper of the given class, or null if no mapper was generated for it.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> BeanMapper<T> getBeanMapper(Class<T> beanClass) {
+        try {
+            Class<?> mapperClass = Class.forName(beanClass.getName() + BeanMapper.CLASS_NAME_SUFFIX, true, beanClass.getClassLoader());
+            if (BeanMapper.class.isAssignableFrom(mapperClass)) {
+                return (BeanMapper<T>) mapperClass.newInstance();
+            }
+        } catch (ClassNotFoundException e) {
+            //no mapper generated for this class.
+        } catch (Throwable e) {
+            //mapper not usable. Ignore and use reflection.
+        }
+        return null;
+    }
+
     /**
      * Converts the special "null" strings that might be provided by {@link Parsed#defaultNullRead() and  Parsed#defaultNullWrite()}
      * @param defaultValue The string returned by {@link Parsed#defaultNullRead() and  Parsed#defaultNullWrite()}
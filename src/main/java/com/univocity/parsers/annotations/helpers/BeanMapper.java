@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.annotations.helpers;
+
+import com.univocity.parsers.annotations.*;
+import com.univocity.parsers.annotations.processing.*;
+
+/**
+ * Provides access to the fields annotated with {@link Parsed} in a java bean without using reflection.
+ *
+ * <p>Implementations of this interface are generated at compile time by the {@link BeanMapperGenerator} annotation processor, in the same package of each bean class,
+ * and are named after the binary name of the bean class followed by {@link #CLASS_NAME_SUFFIX}. When available, they are used automatically by
+ * {@link FieldMapping} and by the bean processors in {@link com.univocity.parsers.common.processor}. Any field or operation not supported by a mapper
+ * is handled with reflection, as usual.
+ *
+ * @param <T> the type of the java bean
+ *
+ * @see BeanMapperGenerator
+ * @see AnnotationHelper#getBeanMapper(Class)
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+public interface BeanMapper<T> {
+
+	/**
+	 * The suffix appended to the binary name of a java bean class to produce the name of the {@link BeanMapper} generated for it.
+	 */
+	public static final String CLASS_NAME_SUFFIX = "_BeanMapper";
+
+	/**
+	 * Creates a new instance of the java bean using its constructor without arguments.
+	 * @return a new instance of the java bean, or null if the constructor is not accessible to the mapper.
+	 */
+	public T newInstance();
+
+	/**
+	 * Returns the position of a field of the java bean in this mapper
+	 * @param fieldName the name of the field declared in the java bean class (or in one of its superclasses)
+	 * @return the position of the given field, or -1 if the field is not handled by this mapper.
+	 */
+	public int indexOf(String fieldName);
+
+	/**
+	 * Assigns a value to a field of the java bean, using its setter method when one is available.
+	 * @param bean the java bean instance to modify
+	 * @param field the position of the field, as given by {@link #indexOf(String)}
+	 * @param value the value to assign to the field
+	 * @return true if the value was assigned, or false if the field is not writable by this mapper or the value is not an instance of the field type.
+	 */
+	public boolean write(T bean, int field, Object value);
+
+	/**
+	 * Queries whether the value of a field can be read by this mapper
+	 * @param field the position of the field, as given by {@link #indexOf(String)}
+	 * @return true if {@link #read(Object, int)} can be invoked for the given field
+	 */
+	public boolean isReadable(int field);
+
+	/**
+	 * Reads the value of a field of the java bean, using its getter method when one is available.
+	 * @param bean the java bean instance to read
+	 * @param field the position of a readable field, as given by {@link #indexOf(String)}
+	 * @return the value of the given field.
+	 */
+	public Object read(T bean, int field);
+}
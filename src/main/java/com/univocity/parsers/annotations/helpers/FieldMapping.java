@@ -23,6 +23,9 @@ import com.univocity.parsers.annotations.*;
 /**
  * A helper class with information about the location of an field annotated with {@link Parsed} in a record.
  *
+ * <p>The accessors of the field are resolved and made accessible once, when the mapping is created. Values of primitive fields that are accessed
+ * directly (i.e. without getters and setters) are written with the typed methods of {@link Field}, such as {@link Field#setInt(Object, int)}.
+ *
  * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
  *
  */
@@ -33,7 +36,12 @@ public class FieldMapping {
 	private final Class<?> beanClass;
 	private final Method readMethod;
 	private final Method writeMethod;
-	private boolean accessible = false;
+	private final Class<?> fieldType;
+
+	@SuppressWarnings("rawtypes")
+	private final BeanMapper mapper;
+	private final int mapperIndex;
+	private final boolean readableByMapper;
 
 	/**
 	 * Creates the mapping and identifies how it is mapped (by name or by index)
@@ -42,12 +50,48 @@ public class FieldMapping {
 	 * @param property the property descriptor of this field, if any. If this bean does not have getters/setters, it will be acessed directly.
 	 */
 	public FieldMapping(Class<?> beanClass, Field field, PropertyDescriptor property) {
+		this(beanClass, field, property, null);
+	}
+
+	/**
+	 * Creates the mapping and identifies how it is mapped (by name or by index)
+	 * @param beanClass the class that contains a the given field.
+	 * @param field a {@link java.lang.reflect.Field} annotated with {@link Parsed}
+	 * @param property the property descriptor of this field, if any. If this bean does not have getters/setters, it will be acessed directly.
+	 * @param mapper the {@link BeanMapper} generated for the bean class, if any. Used to read and write the field without reflection.
+	 */
+	public FieldMapping(Class<?> beanClass, Field field, PropertyDescriptor property, BeanMapper<?> mapper) {
 		this.beanClass = beanClass;
 		this.field = field;
 		this.readMethod = property != null ? property.getReadMethod() : null;
 		this.writeMethod = property != null ? property.getWriteMethod() : null;
+		this.fieldType = field.getType();
+		this.mapperIndex = mapper == null ? -1 : mapper.indexOf(field.getName());
+		this.mapper = mapperIndex == -1 ? null : mapper;
+		this.readableByMapper = this.mapper != null && mapper.isReadable(mapperIndex);
 
 		determineFieldMapping();
+		resolveAccess();
+	}
+
+	/**
+	 * Disables the access checks performed by the JVM on each invocation of the accessors of the field.
+	 * If a security manager prevents this, the checks will be performed as usual.
+	 */
+	private void resolveAccess() {
+		try {
+			if (readMethod == null || writeMethod == null) {
+				field.setAccessible(true);
+			}
+			if (readMethod != null) {
+				readMethod.setAccessible(true);
+			}
+			if (writeMethod != null) {
+				writeMethod.setAccessible(true);
+			}
+		} catch (SecurityException e) {
+			//ignore and use the accessors with access checks.
+		}
 	}
 
 	private void determineFieldMapping() {
@@ -109,17 +153,12 @@ public class FieldMapping {
 		return fieldName;
 	}
 
-	private void setAccessible(Method accessor) {
-		if (accessor == null && !accessible) {
-			this.field.setAccessible(true);
-			accessible = true;
-		}
-	}
-
+	@SuppressWarnings("unchecked")
 	public Object read(Object instance) {
-		setAccessible(readMethod);
 		try {
-			if (readMethod != null) {
+			if (readableByMapper) {
+				return mapper.read(instance, mapperIndex);
+			} else if (readMethod != null) {
 				return readMethod.invoke(instance);
 			} else {
 				return field.get(instance);
@@ -129,12 +168,14 @@ public class FieldMapping {
 		}
 	}
 
+	@SuppressWarnings("unchecked")
 	public void write(Object instance, Object value) {
-		setAccessible(writeMethod);
 		try {
-			if (writeMethod != null) {
+			if (mapper != null && mapper.write(instance, mapperIndex, value)) {
+				return;
+			} else if (writeMethod != null) {
 				writeMethod.invoke(instance, value);
-			} else {
+			} else if (!fieldType.isPrimitive() || !writePrimitive(instance, value)) {
 				field.set(instance, value);
 			}
 		} catch (Throwable e) {
@@ -142,4 +183,112 @@ public class FieldMapping {
 		}
 
 	}
+
+	/**
+	 * Writes the value of a primitive field with the typed setter of {@link Field}, if the value is a wrapper of the same primitive type.
+	 * @param instance the instance whose field will be modified
+	 * @param value the value to assign to the field
+	 * @return true if the value was written, false if it must be written with {@link Field#set(Object, Object)}.
+	 * @throws IllegalAccessException if the field cannot be written
+	 */
+	private boolean writePrimitive(Object instance, Object value) throws IllegalAccessException {
+		if (fieldType == int.class) {
+			if (value instanceof Integer) {
+				field.setInt(instance, ((Integer) value).intValue());
+				return true;
+			}
+		} else if (fieldType == long.class) {
+			if (value instanceof Long) {
+				field.setLong(instance, ((Long) value).longValue());
+				return true;
+			}
+		} else if (fieldType == double.class) {
+			if (value instanceof Double) {
+				field.setDouble(instance, ((Double) value).doubleValue());
+				return true;
+			}
+		} else if (fieldType == boolean.class) {
+			if (value instanceof Boolean) {
+				field.setBoolean(instance, ((Boolean) value).booleanValue());
+				return true;
+			}
+		} else if (fieldType == float.class) {
+			if (value instanceof Float) {
+				field.setFloat(instance, ((Float) value).floatValue());
+				return true;
+			}
+		} else if (fieldType == short.class) {
+			if (value instanceof Short) {
+				field.setShort(instance, ((Short) value).shortValue());
+				return true;
+			}
+		} else if (fieldType == byte.class) {
+			if (value instanceof Byte) {
+				field.setByte(instance, ((Byte) value).byteValue());
+				return true;
+			}
+		} else if (fieldType == char.class) {
+			if (value instanceof Character) {
+				field.setChar(instance, ((Character) value).charValue());
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the declared type of the field
+	 * @return the type of the field
+	 */
+	public Class<?> getFieldType() {
+		return fieldType;
+	}
+
+	/**
+	 * Identifies whether the field is primitive and can be read directly with the typed getters of {@link Field},
+	 * i.e. it is not read through a getter method or a field mapper.
+	 * @return true if the field value can be read with {@link #readLong(Object)}, {@link #readDouble(Object)} or {@link #readFloat(Object)}
+	 */
+	public boolean isPrimitiveReadable() {
+		return fieldType.isPrimitive() && !readableByMapper && readMethod == null;
+	}
+
+	/**
+	 * Reads the value of a primitive integral field without boxing it, using {@link Field#getLong(Object)}
+	 * @param instance the instance whose field will be read
+	 * @return the value of the field
+	 */
+	public long readLong(Object instance) {
+		try {
+			return field.getLong(instance);
+		} catch (Throwable e) {
+			throw new IllegalStateException("Unable to get value from field " + field.getName() + "' in " + this.beanClass.getName());
+		}
+	}
+
+	/**
+	 * Reads the value of a primitive numeric field without boxing it, using {@link Field#getDouble(Object)}
+	 * @param instance the instance whose field will be read
+	 * @return the value of the field
+	 */
+	public double readDouble(Object instance) {
+		try {
+			return field.getDouble(instance);
+		} catch (Throwable e) {
+			throw new IllegalStateException("Unable to get value from field " + field.getName() + "' in " + this.beanClass.getName());
+		}
+	}
+
+	/**
+	 * Reads the value of a primitive {@code float} field without boxing it, using {@link Field#getFloat(Object)}
+	 * @param instance the instance whose field will be read
+	 * @return the value of the field
+	 */
+	public float readFloat(Object instance) {
+		try {
+			return field.getFloat(instance);
+		} catch (Throwable e) {
+			throw new IllegalStateException("Unable to get value from field " + field.getName() + "' in " + this.beanClass.getName());
+		}
+	}
 }
@@ -0,0 +1,301 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.annotations.processing;
+
+import java.beans.*;
+import java.io.*;
+import java.util.*;
+
+import javax.annotation.processing.*;
+import javax.lang.model.*;
+import javax.lang.model.element.*;
+import javax.lang.model.type.*;
+import javax.lang.model.util.*;
+import javax.tools.*;
+
+import com.univocity.parsers.annotations.*;
+import com.univocity.parsers.annotations.helpers.*;
+
+/**
+ * An annotation processor that generates a {@link BeanMapper} for each class with fields annotated with {@link Parsed}, so the bean processors
+ * can create java beans and access their fields without reflection.
+ *
+ * <p>This processor is optional, and is not registered as a service. To use it, add the univocity-parsers jar to the annotation processor path
+ * of the compiler and enable it explicitly, e.g. with:
+ * <hr><blockquote><pre>
+ * javac -processor com.univocity.parsers.annotations.processing.BeanMapperGenerator ...
+ * </pre></blockquote><hr>
+ *
+ * <p>The generated mappers follow the same rules applied at runtime with reflection: fields are written with their setters and read with their getters,
+ * as identified by {@link Introspector}, and are accessed directly otherwise. Fields that cannot be accessed from the package of the bean (e.g. private
+ * fields without accessors, or final fields) are left to be handled with reflection. No mapper is generated for private or non-static nested classes.
+ *
+ * <p>Conversions are not generated: they are still configured at runtime from the annotations of each field, and can be combined with the conversions
+ * given to each processor.
+ *
+ * @see BeanMapper
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+@SupportedAnnotationTypes("com.univocity.parsers.annotations.Parsed")
+public class BeanMapperGenerator extends AbstractProcessor {
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		Set<TypeElement> beans = new LinkedHashSet<TypeElement>();
+		for (VariableElement field : ElementFilter.fieldsIn(roundEnv.getElementsAnnotatedWith(Parsed.class))) {
+			Element enclosing = field.getEnclosingElement();
+			if (enclosing.getKind() == ElementKind.CLASS) {
+				beans.add((TypeElement) enclosing);
+			}
+		}
+
+		for (TypeElement bean : beans) {
+			if (!isSupported(bean)) {
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "No bean mapper generated for " + bean.getQualifiedName() + ": class is not accessible from its package", bean);
+				continue;
+			}
+			try {
+				generate(bean);
+			} catch (IOException e) {
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to generate bean mapper for " + bean.getQualifiedName() + ": " + e.getMessage(), bean);
+			}
+		}
+		return false;
+	}
+
+	private boolean isSupported(TypeElement bean) {
+		Element element = bean;
+		while (element.getKind().isClass() || element.getKind().isInterface()) {
+			Set<Modifier> modifiers = element.getModifiers();
+			if (modifiers.contains(Modifier.PRIVATE)) {
+				return false;
+			}
+			Element enclosing = element.getEnclosingElement();
+			if (enclosing.getKind() != ElementKind.PACKAGE && !modifiers.contains(Modifier.STATIC)) {
+				return false;
+			}
+			element = enclosing;
+		}
+		return element.getKind() == ElementKind.PACKAGE;
+	}
+
+	private void generate(TypeElement bean) throws IOException {
+		Elements elements = processingEnv.getElementUtils();
+		PackageElement beanPackage = elements.getPackageOf(bean);
+		String packageName = beanPackage.isUnnamed() ? "" : beanPackage.getQualifiedName().toString();
+		String binaryName = elements.getBinaryName(bean).toString();
+		String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + BeanMapper.CLASS_NAME_SUFFIX;
+		DeclaredType declaredType = (DeclaredType) types().erasure(bean.asType());
+		String beanType = declaredType.toString();
+
+		List<VariableElement> fields = collectFields(bean);
+		List<ExecutableElement> methods = ElementFilter.methodsIn(elements.getAllMembers(bean));
+
+		StringBuilder indexOf = new StringBuilder();
+		StringBuilder write = new StringBuilder();
+		StringBuilder isReadable = new StringBuilder();
+		StringBuilder read = new StringBuilder();
+
+		for (int i = 0; i < fields.size(); i++) {
+			VariableElement field = fields.get(i);
+			String name = field.getSimpleName().toString();
+			TypeMirror type = types().asMemberOf(declaredType, field);
+
+			indexOf.append("\t\tif (\"").append(name).append("\".equals(fieldName)) {\n\t\t\treturn ").append(i).append(";\n\t\t}\n");
+
+			String setter = getAccessor(declaredType, name, type, methods, true);
+			String getter = getAccessor(declaredType, name, type, methods, false);
+			boolean accessibleField = isAccessible(field, beanPackage);
+
+			String assignment = null;
+			if (setter != null) {
+				assignment = setter.isEmpty() ? null : "bean." + setter + "(%s);";
+			} else if (accessibleField && !field.getModifiers().contains(Modifier.FINAL)) {
+				assignment = "bean." + name + " = %s;";
+			}
+			if (assignment != null) {
+				String check;
+				String value;
+				if (type.getKind().isPrimitive()) {
+					String wrapper = types().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+					check = "value instanceof " + wrapper;
+					value = "((" + wrapper + ") value)." + type.toString() + "Value()";
+				} else {
+					String erasure = types().erasure(type).toString();
+					check = "value == null || value instanceof " + erasure;
+					value = "(" + erasure + ") value";
+				}
+				write.append("\t\t\tcase ").append(i).append(":\n");
+				write.append("\t\t\t\tif (").append(check).append(") {\n");
+				write.append("\t\t\t\t\t").append(String.format(assignment, value)).append('\n');
+				write.append("\t\t\t\t\treturn true;\n\t\t\t\t}\n\t\t\t\treturn false;\n");
+			}
+
+			String access = null;
+			if (getter != null) {
+				access = getter.isEmpty() ? null : "bean." + getter + "()";
+			} else if (accessibleField) {
+				access = "bean." + name;
+			}
+			if (access != null) {
+				isReadable.append("\t\t\tcase ").append(i).append(":\n");
+				read.append("\t\t\tcase ").append(i).append(":\n\t\t\t\treturn ").append(access).append(";\n");
+			}
+		}
+
+		boolean constructorAccessible = false;
+		for (ExecutableElement constructor : ElementFilter.constructorsIn(bean.getEnclosedElements())) {
+			if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE) && !bean.getModifiers().contains(Modifier.ABSTRACT)) {
+				constructorAccessible = true;
+			}
+		}
+
+		StringBuilder out = new StringBuilder();
+		if (!packageName.isEmpty()) {
+			out.append("package ").append(packageName).append(";\n\n");
+		}
+		out.append("/**\n * {@link com.univocity.parsers.annotations.helpers.BeanMapper} of {@link ").append(bean.getQualifiedName()).append("}, generated by {@link ").append(getClass().getName()).append("}\n */\n");
+		out.append("@SuppressWarnings({ \"unchecked\", \"rawtypes\" })\n");
+		out.append("public final class ").append(simpleName).append(" implements com.univocity.parsers.annotations.helpers.BeanMapper<").append(beanType).append("> {\n\n");
+
+		out.append("\t@Override\n\tpublic ").append(beanType).append(" newInstance() {\n");
+		out.append("\t\treturn ").append(constructorAccessible ? "new " + beanType + "()" : "null").append(";\n\t}\n\n");
+
+		out.append("\t@Override\n\tpublic int indexOf(String fieldName) {\n").append(indexOf).append("\t\treturn -1;\n\t}\n\n");
+
+		out.append("\t@Override\n\tpublic boolean write(").append(beanType).append(" bean, int field, Object value) {\n");
+		out.append("\t\tswitch (field) {\n").append(write).append("\t\t\tdefault:\n\t\t\t\treturn false;\n\t\t}\n\t}\n\n");
+
+		out.append("\t@Override\n\tpublic boolean isReadable(int field) {\n");
+		out.append("\t\tswitch (field) {\n").append(isReadable);
+		if (isReadable.length() > 0) {
+			out.append("\t\t\t\treturn true;\n");
+		}
+		out.append("\t\t\tdefault:\n\t\t\t\treturn false;\n\t\t}\n\t}\n\n");
+
+		out.append("\t@Override\n\tpublic Object read(").append(beanType).append(" bean, int field) {\n");
+		out.append("\t\tswitch (field) {\n").append(read).append("\t\t\tdefault:\n\t\t\t\tthrow new IllegalArgumentException(\"Field at position \" + field + \" is not readable\");\n\t\t}\n\t}\n");
+		out.append("}\n");
+
+		String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+		JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, bean);
+		Writer writer = file.openWriter();
+		try {
+			writer.write(out.toString());
+		} finally {
+			writer.close();
+		}
+	}
+
+	private Types types() {
+		return processingEnv.getTypeUtils();
+	}
+
+	/**
+	 * Collects the fields annotated with {@link Parsed} in a class and its superclasses, in the same order used to map beans at runtime.
+	 * Fields hidden by fields with the same name in subclasses are discarded.
+	 */
+	private List<VariableElement> collectFields(TypeElement bean) {
+		List<VariableElement> out = new ArrayList<VariableElement>();
+		Set<String> used = new HashSet<String>();
+		TypeElement type = bean;
+		while (type != null && !type.getQualifiedName().contentEquals(Object.class.getName())) {
+			for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+				String name = field.getSimpleName().toString();
+				if (used.contains(name)) {
+					continue;
+				}
+				if (field.getAnnotation(Parsed.class) != null && !field.getModifiers().contains(Modifier.STATIC)) {
+					out.add(field);
+					used.add(name);
+				}
+			}
+			TypeMirror superclass = type.getSuperclass();
+			type = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) types().asElement(superclass) : null;
+		}
+		return out;
+	}
+
+	private boolean isAccessible(VariableElement field, PackageElement beanPackage) {
+		Set<Modifier> modifiers = field.getModifiers();
+		if (modifiers.contains(Modifier.PRIVATE)) {
+			return false;
+		}
+		if (modifiers.contains(Modifier.PUBLIC)) {
+			return true;
+		}
+		return processingEnv.getElementUtils().getPackageOf(field).equals(beanPackage);
+	}
+
+	/**
+	 * Identifies the setter or getter of a property, following the conventions of {@link Introspector}.
+	 *
+	 * @return the name of the accessor method; an empty String if the property has accessor methods that do not match the field type
+	 * 	(so the field must be handled with reflection); or null if the field has no accessors and must be accessed directly.
+	 */
+	private String getAccessor(DeclaredType bean, String fieldName, TypeMirror type, List<ExecutableElement> methods, boolean setter) {
+		String capitalized = Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+		if (!Introspector.decapitalize(capitalized).equals(fieldName)) {
+			return null;
+		}
+
+		ExecutableElement getter = null;
+		ExecutableElement write = null;
+		boolean mismatch = false;
+		for (ExecutableElement method : methods) {
+			Set<Modifier> modifiers = method.getModifiers();
+			if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.STATIC)) {
+				continue;
+			}
+			String name = method.getSimpleName().toString();
+			ExecutableType methodType = (ExecutableType) types().asMemberOf(bean, method);
+			List<? extends TypeMirror> parameters = methodType.getParameterTypes();
+			TypeMirror returnType = methodType.getReturnType();
+			boolean isGetter = name.equals("is" + capitalized) && returnType.getKind() == TypeKind.BOOLEAN;
+			if (parameters.isEmpty() && (isGetter || name.equals("get" + capitalized))) {
+				if (returnType.getKind() == TypeKind.VOID) {
+					continue;
+				}
+				if (types().isSameType(returnType, type)) {
+					if (isGetter || getter == null) {
+						getter = method;
+					}
+				} else {
+					mismatch = true;
+				}
+			} else if (parameters.size() == 1 && name.equals("set" + capitalized)) {
+				if (types().isSameType(parameters.get(0), type) && returnType.getKind() == TypeKind.VOID) {
+					write = method;
+				} else {
+					mismatch = true;
+				}
+			}
+		}
+
+		if (mismatch) {
+			return "";
+		}
+		ExecutableElement accessor = setter ? write : getter;
+		return accessor == null ? null : accessor.getSimpleName().toString();
+	}
+}
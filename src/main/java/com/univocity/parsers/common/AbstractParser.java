@@ -76,6 +76,7 @@ public abstract class AbstractParser<T extends CommonParserSettings<?>> {
 	 */
 	public final void parse(Reader reader) {
 		beginParsing(reader);
+		output.enableCharRangeHandling(processor, context);
 		try {
 			while (!context.stopped) {
 				ch = input.nextChar();
@@ -171,6 +172,7 @@ public abstract class AbstractParser<T extends CommonParserSettings<?>> {
 		}
 		context = new DefaultParsingContext(input, output);
 		context.stopped = false;
+		output.disableCharRangeHandling();
 		input.start(reader);
 		processor.processStarted(context);
 	}
@@ -17,9 +17,12 @@ package com.univocity.parsers.common;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 import com.univocity.parsers.common.fields.*;
 import com.univocity.parsers.common.input.*;
+import com.univocity.parsers.common.output.*;
+import com.univocity.parsers.common.output.concurrent.*;
 import com.univocity.parsers.common.processor.*;
 
 /**
@@ -46,15 +49,21 @@ import com.univocity.parsers.common.processor.*;
  */
 public abstract class AbstractWriter<S extends CommonWriterSettings<?>> {
 
+    private static final int INITIAL_VALUE_LENGTH = 128;
+    private static final int INITIAL_ROW_LENGTH = 1024;
+
     @SuppressWarnings("rawtypes")
     private final RowWriterProcessor writerProcessor;
+    @SuppressWarnings("rawtypes")
+    private final BeanWriterProcessor beanWriterProcessor;
 
-    private final BufferedWriter writer;
+    private final Writer writer;
     private final boolean skipEmptyLines;
     private final char comment;
     private final StringBuilder freeText = new StringBuilder();
     private final WriterCharAppender rowAppender;
-    private final boolean isHeaderWritingEnabled;
+    private boolean isHeaderWritingEnabled;
+    private final S settings;
 
     private final Object[] outputRow;
     private final int[] indexesToWrite;
@@ -70,6 +79,12 @@ public abstract class AbstractWriter<S extends CommonWriterSettings<?>> {
     private final Object[] partialLine;
     private int partialLineIndex = 0;
     private Map<String, Integer> headerIndexes;
+    private FormattedValue[] partialValues;
+    private RowBuilder rowBuilder;
+
+    private final RollingFileWriter rollingWriter;
+    private boolean writingHeaders;
+    private char[] headerLine;
 
     /**
      * All writers must support, at the very least, the settings provided by {@link CommonWriterSettings}. The AbstractWriter requires its configuration to be properly initialized.
@@ -77,7 +92,19 @@ public abstract class AbstractWriter<S extends CommonWriterSettings<?>> {
      * @param settings the parser configuration
      */
     public AbstractWriter(Writer writer, S settings) {
+        this(writer, settings, false);
+    }
+
+    /**
+     * Creates a writer that, if {@code formattingOnly} is set, is only used to format records into a given output on behalf of another writer.
+     * Such writer never writes headers automatically, and always writes to the given output on the caller thread, without additional buffering.
+     * @param writer the output resource that will receive the format-specific records as defined by subclasses of {@link AbstractWriter}.
+     * @param settings the parser configuration
+     * @param formattingOnly flag indicating whether this writer only formats records on behalf of another writer (in {@link #writeRowsParallel(Iterable, int, int)})
+     */
+    protected AbstractWriter(Writer writer, S settings, boolean formattingOnly) {
         settings.autoConfigure();
+        this.settings = settings;
         this.nullValue = settings.getNullValue();
         this.emptyValue = settings.getEmptyValue();
 
@@ -85,12 +112,19 @@ public abstract class AbstractWriter<S extends CommonWriterSettings<?>> {
         this.comment = settings.getFormat().getComment();
         this.skipEmptyLines = settings.getSkipEmptyLines();
         this.writerProcessor = settings.getRowWriterProcessor();
+        this.beanWriterProcessor = getBeanWriterProcessor(writerProcessor);
+
+        this.appender = new WriterCharAppender(INITIAL_VALUE_LENGTH, settings.getMaxCharsPerColumn(), "", ' ', settings.getFormat());
+        this.rowAppender = new WriterCharAppender(INITIAL_ROW_LENGTH, settings.getMaxCharsPerRow(), "", ' ', settings.getFormat());
 
-        this.appender = new WriterCharAppender(settings.getMaxCharsPerColumn(), "", settings.getFormat());
-        this.rowAppender = new WriterCharAppender(settings.getMaxCharsPerColumn() * settings.getMaxColumns(), "", settings.getFormat());
+        this.rollingWriter = !formattingOnly && writer instanceof RollingFileWriter ? (RollingFileWriter) writer : null;
 
-        if (writer instanceof BufferedWriter) {
-            this.writer = (BufferedWriter) writer;
+        if (formattingOnly || rollingWriter != null || writer instanceof PartitionedWriter.PartitionOutput) {
+            this.writer = writer;
+        } else if (settings.getWriteOutputOnSeparateThread()) {
+            this.writer = new ConcurrentWriter(writer, settings.getOutputBufferSize(), settings.getOutputBufferQuantity());
+        } else if (writer instanceof BufferedWriter || writer instanceof EncodingWriter) {
+            this.writer = writer;
         } else {
             this.writer = new BufferedWriter(writer);
         }
@@ -107,7 +141,7 @@ public abstract class AbstractWriter<S extends CommonWriterSettings<?>> {
         }
 
         this.partialLine = new Object[settings.getMaxColumns()];
-        this.isHeaderWritingEnabled = settings.isHeaderWritingEnabled();
+        this.isHeaderWritingEnabled = !formattingOnly && settings.isHeaderWritingEnabled();
     }
 
     /**
@@ -146,6 +180,16 @@ public abstract class AbstractWriter<S extends CommonWriterSettings<?>> {
         rowAppender.append(ch);
     }
 
+    /**
+     * Appends a range of characters to the output row in bulk. Newlines are not converted to the line separator defined in {@link Format#getLineSeparator()}.
+     * @param chars the characters to append to the output row
+     * @param offset the position of the first character to append
+     * @param length the number of characters to append
+     */
+    protected final void appendToRow(char[] chars, int offset, int length) {
+        rowAppender.append(chars, offset, length);
+    }
+
     /**
      * Writes the headers defined in {@link CommonSettings#getHeaders()}
      * <p> A {@link TextWritingException} will be thrown if no headers were defined or if records were already written to the output.
@@ -179,7 +223,12 @@ public abstract class AbstractWriter<S extends CommonWriterSettings<?>> {
         if (headers != null && headers.length > 0) {
             processRow(headers);
             this.headers = headers;
-            writeRow();
+            writingHeaders = true;
+            try {
+                writeRow();
+            } finally {
+                writingHeaders = false;
+            }
         } else {
             throwExceptionAndClose("No headers defined", headers, null);
         }
@@ -267,10 +316,35 @@ public abstract class AbstractWriter<S extends CommonWriterSettings<?>> {
             }
         }
 
-        Object[] row = writerProcessor.write(record, headers, indexesToWrite);
+        Object[] row;
+        if (beanWriterProcessor != null) {
+            row = beanWriterProcessor.writeFormatted(record, headers, indexesToWrite);
+        } else {
+            row = writerProcessor.write(record, headers, indexesToWrite);
+        }
         writeRow(row);
     }
 
+    /**
+     * Returns the given processor if it is a {@link BeanWriterProcessor} that does not override its {@link BeanWriterProcessor#write(Object, String[], int[])} method, so java beans
+     * can be written using {@link BeanWriterProcessor#writeFormatted(Object, String[], int[])}
+     * @param processor the processor provided in the writer settings
+     * @return the processor as a {@link BeanWriterProcessor}, or null if it can't be used to format values directly.
+     */
+    @SuppressWarnings("rawtypes")
+    private static BeanWriterProcessor getBeanWriterProcessor(RowWriterProcessor processor) {
+        if (processor instanceof BeanWriterProcessor) {
+            try {
+                if (processor.getClass().getMethod("write", Object.class, String[].class, int[].class).getDeclaringClass() == BeanWriterProcessor.class) {
+                    return (BeanWriterProcessor) processor;
+                }
+            } catch (NoSuchMethodException e) {
+                //not expected. Proceed using the write method.
+            }
+        }
+        return null;
+    }
+
     /**
      * Iterates over all records, writes them and closes the output.
      * <p><b>Note</b> this method will not use the {@link RowWriterProcessor}. Use {@link AbstractWriter#processRecordsAndClose(Iterable)} for that.
@@ -354,6 +428,150 @@ public abstract class AbstractWriter<S extends CommonWriterSettings<?>> {
         }
     }
 
+    /**
+     * Writes the given collection of rows to the output, formatting them in parallel. Rows are split into chunks of 1000, each chunk is formatted by one of
+     * the given number of threads, and the formatted chunks are written to the output in the original order of the rows.
+     * <p> Works as {@link #writeRows(Collection)}, and {@link RowWriterProcessor} is not used.
+     * <p> A {@link TextWritingException} will be thrown if any row can't be written, and the {@link java.io.Writer} given in the constructor will be closed.
+     *
+     * @param rows the rows to be written to the output
+     * @param threads the number of threads that will format the rows
+     */
+    public final void writeRowsParallel(Iterable<Object[]> rows, int threads) {
+        writeRowsParallel(rows, threads, 1000);
+    }
+
+    /**
+     * Writes the given collection of rows to the output, formatting them in parallel. Rows are split into chunks, each chunk is formatted by one of
+     * the given number of threads, and the formatted chunks are written to the output in the original order of the rows.
+     * <p> Works as {@link #writeRows(Collection)}, and {@link RowWriterProcessor} is not used.
+     * <p> Each thread formats rows with its own writer, created with the settings given in the constructor of this class. Writers that don't support
+     *     this (i.e. when {@link #newFormatter(Writer, CommonWriterSettings)} returns null) write all rows on the caller thread. The same applies when writing to a {@link RollingFileWriter},
+     *     as each record must be assigned to a file before it is written.
+     * <p> A {@link TextWritingException} will be thrown if any row can't be written, and the {@link java.io.Writer} given in the constructor will be closed.
+     *
+     * @param rows the rows to be written to the output
+     * @param threads the number of threads that will format the rows
+     * @param rowsPerChunk the number of rows each thread formats at a time
+     */
+    public final void writeRowsParallel(Iterable<Object[]> rows, int threads, final int rowsPerChunk) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Number of threads must be positive. Got " + threads);
+        }
+        if (rowsPerChunk < 1) {
+            throw new IllegalArgumentException("Number of rows per chunk must be positive. Got " + rowsPerChunk);
+        }
+
+        final ArrayBlockingQueue<ChunkFormatter> formatters = new ArrayBlockingQueue<ChunkFormatter>(threads);
+        if (threads > 1 && rollingWriter == null) {
+            for (int i = 0; i < threads; i++) {
+                CharArrayWriter output = new CharArrayWriter();
+                AbstractWriter<S> formatter = newFormatter(output, settings);
+                if (formatter == null) {
+                    break;
+                }
+                formatters.add(new ChunkFormatter(formatter, output));
+            }
+        }
+
+        Iterator<Object[]> iterator = rows.iterator();
+        if (formatters.isEmpty()) {
+            while (iterator.hasNext()) {
+                writeRow(iterator.next());
+            }
+            return;
+        }
+
+        if (recordCount == 0 && isHeaderWritingEnabled && headers != null) {
+            writeHeaders();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(formatters.size());
+        try {
+            LinkedList<Future<ChunkFormatter.Chunk>> pending = new LinkedList<Future<ChunkFormatter.Chunk>>();
+            int maxPending = formatters.size() * 2;
+            while (iterator.hasNext() || !pending.isEmpty()) {
+                while (iterator.hasNext() && pending.size() < maxPending) {
+                    final List<Object[]> chunk = new ArrayList<Object[]>(rowsPerChunk);
+                    while (iterator.hasNext() && chunk.size() < rowsPerChunk) {
+                        chunk.add(iterator.next());
+                    }
+                    pending.add(executor.submit(new Callable<ChunkFormatter.Chunk>() {
+                        @Override
+                        public ChunkFormatter.Chunk call() throws Exception {
+                            ChunkFormatter formatter = formatters.take();
+                            try {
+                                return formatter.format(chunk);
+                            } finally {
+                                formatters.put(formatter);
+                            }
+                        }
+                    }));
+                }
+
+                ChunkFormatter.Chunk formatted = pending.removeFirst().get();
+                writer.write(formatted.chars, 0, formatted.chars.length);
+                recordCount += formatted.records;
+            }
+        } catch (ExecutionException ex) {
+            throwExceptionAndClose("Error formatting rows in parallel", (Object[]) null, ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throwExceptionAndClose("Interrupted while writing rows in parallel", (Object[]) null, ex);
+        } catch (Throwable ex) {
+            throwExceptionAndClose("Error writing rows in parallel", (Object[]) null, ex);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Creates a writer that formats records into the given output on behalf of this writer, in {@link #writeRowsParallel(Iterable, int, int)}.
+     * Implementations should return a new instance created with the {@link #AbstractWriter(Writer, CommonWriterSettings, boolean)} constructor, with {@code formattingOnly} set to {@code true}.
+     * <p> Returns null by default, meaning rows can't be formatted in parallel.
+     *
+     * @param output the output that will receive the formatted records
+     * @param settings the settings given in the constructor of this writer
+     * @return a new writer that formats records into the given output, or null if not supported.
+     */
+    protected AbstractWriter<S> newFormatter(Writer output, S settings) {
+        return null;
+    }
+
+    /**
+     * Formats chunks of rows with a writer created by {@link AbstractWriter#newFormatter(Writer, CommonWriterSettings)}
+     */
+    private static final class ChunkFormatter {
+
+        private static final class Chunk {
+            final char[] chars;
+            final long records;
+
+            Chunk(char[] chars, long records) {
+                this.chars = chars;
+                this.records = records;
+            }
+        }
+
+        private final AbstractWriter<?> writer;
+        private final CharArrayWriter output;
+
+        ChunkFormatter(AbstractWriter<?> writer, CharArrayWriter output) {
+            this.writer = writer;
+            this.output = output;
+        }
+
+        Chunk format(List<Object[]> rows) {
+            long before = writer.recordCount;
+            for (Object[] row : rows) {
+                writer.writeRow(row);
+            }
+            char[] chars = output.toCharArray();
+            output.reset();
+            return new Chunk(chars, writer.recordCount - before);
+        }
+    }
+
     /**
      * Writes the data given for an individual record.
      * <p> The output will remain open for further writing.
@@ -468,6 +686,9 @@ public abstract class AbstractWriter<S extends CommonWriterSettings<?>> {
     private void writeRow() {
         try {
             rowAppender.appendNewLine();
+            if (rollingWriter != null) {
+                rollIfRequired();
+            }
             rowAppender.writeCharsAndReset(writer);
             recordCount++;
         } catch (Throwable ex) {
@@ -475,6 +696,25 @@ public abstract class AbstractWriter<S extends CommonWriterSettings<?>> {
         }
     }
 
+    /**
+     * Switches the {@link RollingFileWriter} given in the constructor of this class to a new file if the record in {@link AbstractWriter#rowAppender}
+     * does not fit in the current one. The headers are written again at the beginning of the new file.
+     * @throws IOException if an error occurs switching files.
+     */
+    private void rollIfRequired() throws IOException {
+        if (writingHeaders) {
+            headerLine = Arrays.copyOf(rowAppender.getChars(), rowAppender.length());
+            return;
+        }
+        if (rollingWriter.isRollRequired(rowAppender.length())) {
+            rollingWriter.roll();
+            if (headerLine != null) {
+                writer.write(headerLine);
+            }
+        }
+        rollingWriter.recordWritten();
+    }
+
     /**
      * Writes text (potentially free-text given be the user), followed by a newline, to the output.
      * <p> The newline character sequence will conform to what is specified in {@link Format#getLineSeparator()}
@@ -496,6 +736,16 @@ public abstract class AbstractWriter<S extends CommonWriterSettings<?>> {
      * @return the index of the first non-whitespace character in the given element.
      */
     protected final int skipLeadingWhitespace(String element) {
+        return skipLeadingWhitespace((CharSequence) element);
+    }
+
+    /**
+     * Identifies the starting character index of a value being written if leading whitespaces are to be discarded.
+     * <p><b>Implementation note</b> whitespaces are considered all characters where {@code ch <= ' '} evaluates to {@code true}
+     * @param element the sequence of characters to be scanned for leading whitespaces.
+     * @return the index of the first non-whitespace character in the given element.
+     */
+    protected final int skipLeadingWhitespace(CharSequence element) {
         for (int i = 0; i < element.length(); i++) {
             char nextChar = element.charAt(i);
             if (!(nextChar <= ' ')) {
@@ -505,6 +755,13 @@ public abstract class AbstractWriter<S extends CommonWriterSettings<?>> {
         return 0;
     }
 
+    /**
+     * Prevents this writer from writing the headers automatically, e.g. when its output is appended to a file that already has headers (see {@link PartitionedWriter}).
+     */
+    void disableHeaderWriting() {
+        this.isHeaderWritingEnabled = false;
+    }
+
     /**
      * Flushes the {@link java.io.Writer} given in this class constructor.
      * <p> An IllegalStateException will be thrown in case of any errors, and the writer will be closed.
@@ -586,6 +843,27 @@ public abstract class AbstractWriter<S extends CommonWriterSettings<?>> {
         return string;
     }
 
+    /**
+     * Converts a given object to the sequence of characters to be written to the output.
+     * <ul>
+     * 	<li>If the object is a {@link FormattedValue} produced by a {@link BeanWriterProcessor}, its characters are written directly, without creating a String. If it is empty, then {@link AbstractWriter#emptyValue} is returned.</li>
+     *  <li>Any other object is converted using {@link AbstractWriter#getStringValue(Object)}</li>
+     * </ul>
+     *
+     * @param element the object to be converted into a sequence of characters.
+     * @return the characters that represent the given object
+     */
+    protected final CharSequence getCharSequenceValue(Object element) {
+        if (element instanceof FormattedValue) {
+            FormattedValue value = (FormattedValue) element;
+            if (value.length() == 0) {
+                return emptyValue;
+            }
+            return value;
+        }
+        return getStringValue(element);
+    }
+
     /**
      * Writes as sequence of values to a row in memory. Subsequent calls to this method will add the given values in a new column of the same row, until {@link #writeValuesToRow} is called to flush
      * all values accumulated and effectively write a new record to the output
@@ -605,6 +883,93 @@ public abstract class AbstractWriter<S extends CommonWriterSettings<?>> {
         partialLine[partialLineIndex++] = value;
     }
 
+    /**
+     * Writes a character to a row in memory. Subsequent calls to this method will add the given values in a new column of the same row, until {@link #writeValuesToRow} is called to flush
+     * all values accumulated and effectively write a new record to the output.
+     * <p>The character is written as is, and not as its numeric code.
+     * @param value the value to be written
+     */
+    public final void writeValue(char value) {
+        writeValue((Object) value);
+    }
+
+    /**
+     * Writes a number to a row in memory. Subsequent calls to this method will add the given values in a new column of the same row, until {@link #writeValuesToRow} is called to flush
+     * all values accumulated and effectively write a new record to the output.
+     * <p>The number is formatted into a buffer reused by this writer, and no objects are created for it.
+     * @param value the value to be written
+     */
+    public final void writeValue(int value) {
+        writeValue((long) value);
+    }
+
+    /**
+     * Writes a number to a row in memory. Subsequent calls to this method will add the given values in a new column of the same row, until {@link #writeValuesToRow} is called to flush
+     * all values accumulated and effectively write a new record to the output.
+     * <p>The number is formatted into a buffer reused by this writer, and no objects are created for it.
+     * @param value the value to be written
+     */
+    public final void writeValue(long value) {
+        partialLine[partialLineIndex] = getValueBuffer(partialLineIndex).append(value);
+        partialLineIndex++;
+    }
+
+    /**
+     * Writes a number with a fixed number of decimal places (rounded half-up) to a row in memory. Subsequent calls to this method will add the given values in a new column of the same row,
+     * until {@link #writeValuesToRow} is called to flush all values accumulated and effectively write a new record to the output.
+     * <p>The number is formatted into a buffer reused by this writer, and no objects are created for it in most cases.
+     * @param value the value to be written
+     * @param decimalPlaces the number of digits to write after the decimal point
+     */
+    public final void writeDecimal(double value, int decimalPlaces) {
+        partialLine[partialLineIndex] = getValueBuffer(partialLineIndex).appendDecimal(value, decimalPlaces);
+        partialLineIndex++;
+    }
+
+    /**
+     * Writes a sequence of characters to a row in memory. Subsequent calls to this method will add the given values in a new column of the same row, until {@link #writeValuesToRow} is called to flush
+     * all values accumulated and effectively write a new record to the output.
+     * <p>The characters are copied into a buffer reused by this writer, so the given array can be modified as soon as this method returns.
+     * @param chars the array that contains the characters to write
+     * @param offset the position of the first character to write
+     * @param length the number of characters to write
+     */
+    public final void writeValue(char[] chars, int offset, int length) {
+        partialLine[partialLineIndex] = getValueBuffer(partialLineIndex).append(chars, offset, length);
+        partialLineIndex++;
+    }
+
+    /**
+     * Returns the reusable buffer of a column of the in-memory row, cleared of any characters written to it before.
+     * @param index the position of the column in the row
+     * @return the buffer of the given column.
+     */
+    final FormattedValue getValueBuffer(int index) {
+        if (partialValues == null) {
+            partialValues = new FormattedValue[partialLine.length];
+        }
+        FormattedValue buffer = partialValues[index];
+        if (buffer == null) {
+            buffer = new FormattedValue();
+            partialValues[index] = buffer;
+        } else {
+            buffer.reset();
+        }
+        return buffer;
+    }
+
+    /**
+     * Returns a {@link RowBuilder} that writes typed values to the in-memory row of this writer (the same row that receives values from {@link #writeValue(Object)} and similar methods).
+     * The same builder instance is returned in every call to this method.
+     * @return the row builder of this writer.
+     */
+    public final RowBuilder getRowBuilder() {
+        if (rowBuilder == null) {
+            rowBuilder = new RowBuilder(this);
+        }
+        return rowBuilder;
+    }
+
     /**
      * Writes the contents written to an internal in-memory row (using {@link #writeValues(Object...) or #writeValue()} as a new record to the output.
      */
@@ -641,7 +1006,7 @@ public abstract class AbstractWriter<S extends CommonWriterSettings<?>> {
      * @param headerName the name of the header whose position will be identified
      * @return the position of the given header
      */
-    private int getFieldIndex(String headerName) {
+    int getFieldIndex(String headerName) {
         if (headerIndexes == null) {
             headerIndexes = new HashMap<String, Integer>();
         }
@@ -290,7 +290,7 @@ public abstract class CommonSettings<F extends Format> {
      * Returns the FieldSelector object, which handles selected fields.
      * @return the FieldSelector object, which handles selected fields. Null if no field was selected/excluded
      */
-    FieldSelector getFieldSelector() {
+    protected FieldSelector getFieldSelector() {
         return this.fieldSelector;
     }
 
@@ -325,7 +325,10 @@ public abstract class CommonSettings<F extends Format> {
      */
     protected abstract F createDefaultFormat();
 
-    final void autoConfigure() {
+    /**
+     * Derives configuration options automatically, if enabled (see {@link #isAutoConfigurationEnabled()}). Invoked by parsers and writers before they start using this configuration.
+     */
+    protected final void autoConfigure() {
         if (!this.autoConfigurationEnabled) {
             return;
         }
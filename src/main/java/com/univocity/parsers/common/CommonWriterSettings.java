@@ -19,6 +19,7 @@ import java.util.*;
 
 import com.univocity.parsers.annotations.*;
 import com.univocity.parsers.annotations.helpers.*;
+import com.univocity.parsers.common.output.*;
 import com.univocity.parsers.common.processor.*;
 
 /**
@@ -47,6 +48,22 @@ public abstract class CommonWriterSettings<F extends Format> extends CommonSetti
 
     private String emptyValue = "";
 
+    private int maxCharsPerRow = -1;
+
+    private boolean writeOutputOnSeparateThread = false;
+
+    private int outputBufferSize = 1024 * 1024;
+
+    private int outputBufferQuantity = 2;
+
+    private OutputCompression outputCompression = OutputCompression.NONE;
+
+    private int compressionThreads = 1;
+
+    private long maxRecordsPerOutput = -1;
+
+    private long maxBytesPerOutput = -1;
+
     /**
      * Returns the String representation of an empty value (defaults to null)
      *
@@ -115,11 +132,193 @@ public abstract class CommonWriterSettings<F extends Format> extends CommonSetti
         this.headerWritingEnabled = headerWritingEnabled;
     }
 
+    /**
+     * Returns the maximum number of characters allowed for a record being written. Used to avoid OutOfMemoryErrors.
+     *
+     * <p>Defaults to {@link #getMaxCharsPerColumn()} * {@link #getMaxColumns()}. The writer only allocates the memory it needs for the records it actually writes, up to this limit.</p>
+     *
+     * @return the maximum number of characters allowed for a record being written.
+     */
+    public int getMaxCharsPerRow() {
+        if (maxCharsPerRow > 0) {
+            return maxCharsPerRow;
+        }
+        long max = (long) getMaxCharsPerColumn() * getMaxColumns();
+        return max > Integer.MAX_VALUE - 8 ? Integer.MAX_VALUE - 8 : (int) max;
+    }
+
+    /**
+     * Defines the maximum number of characters allowed for a record being written. Used to avoid OutOfMemoryErrors.
+     *
+     * <p>Defaults to {@link #getMaxCharsPerColumn()} * {@link #getMaxColumns()}. The writer only allocates the memory it needs for the records it actually writes, up to this limit.</p>
+     *
+     * @param maxCharsPerRow the maximum number of characters allowed for a record being written.
+     */
+    public void setMaxCharsPerRow(int maxCharsPerRow) {
+        if (maxCharsPerRow <= 0) {
+            throw new IllegalArgumentException("Maximum number of characters per row must be positive. Got " + maxCharsPerRow);
+        }
+        this.maxCharsPerRow = maxCharsPerRow;
+    }
+
+    /**
+     * Indicates whether or not a separate thread will be used to write characters to the output (defaults to false).
+     * <p>When enabled, records are accumulated in large buffers (of {@link #getOutputBufferSize()} characters) and a writing thread
+     *    (in <code>com.univocity.parsers.common.output.concurrent.ConcurrentWriter</code>) will write each full buffer to the output,
+     *    while the writer keeps producing records into the next buffer. Errors writing to the output are reported in the next operation performed by the writer.
+     * <p>When disabled, records are written to a {@link java.io.BufferedWriter} on the thread that produces them.
+     * @return true if the output should be written on a separate thread, false otherwise
+     */
+    public boolean getWriteOutputOnSeparateThread() {
+        return writeOutputOnSeparateThread;
+    }
+
+    /**
+     * Defines whether or not a separate thread will be used to write characters to the output (defaults to false).
+     * <p>When enabled, records are accumulated in large buffers (of {@link #getOutputBufferSize()} characters) and a writing thread
+     *    (in <code>com.univocity.parsers.common.output.concurrent.ConcurrentWriter</code>) will write each full buffer to the output,
+     *    while the writer keeps producing records into the next buffer. Errors writing to the output are reported in the next operation performed by the writer.
+     * <p>When disabled, records are written to a {@link java.io.BufferedWriter} on the thread that produces them.
+     * @param writeOutputOnSeparateThread the flag indicating whether or not the output should be written on a separate thread
+     */
+    public void setWriteOutputOnSeparateThread(boolean writeOutputOnSeparateThread) {
+        this.writeOutputOnSeparateThread = writeOutputOnSeparateThread;
+    }
+
+    /**
+     * Returns the size of each buffer used to accumulate characters that are written to the output on a separate thread (defaults to 1024*1024 characters).
+     * Only used when {@link #getWriteOutputOnSeparateThread()} evaluates to {@code true}
+     * @return the number of characters of each output buffer.
+     */
+    public int getOutputBufferSize() {
+        return outputBufferSize;
+    }
+
+    /**
+     * Defines the size of each buffer used to accumulate characters that are written to the output on a separate thread (defaults to 1024*1024 characters).
+     * Only used when {@link #getWriteOutputOnSeparateThread()} evaluates to {@code true}
+     * @param outputBufferSize the number of characters of each output buffer.
+     */
+    public void setOutputBufferSize(int outputBufferSize) {
+        if (outputBufferSize <= 0) {
+            throw new IllegalArgumentException("Output buffer size must be positive. Got " + outputBufferSize);
+        }
+        this.outputBufferSize = outputBufferSize;
+    }
+
+    /**
+     * Returns the number of buffers used to accumulate characters that are written to the output on a separate thread (defaults to 2).
+     * The writer blocks when all buffers are full and waiting to be written. Only used when {@link #getWriteOutputOnSeparateThread()} evaluates to {@code true}
+     * @return the number of output buffers.
+     */
+    public int getOutputBufferQuantity() {
+        return outputBufferQuantity;
+    }
+
+    /**
+     * Defines the number of buffers used to accumulate characters that are written to the output on a separate thread (defaults to 2).
+     * The writer blocks when all buffers are full and waiting to be written. Only used when {@link #getWriteOutputOnSeparateThread()} evaluates to {@code true}
+     * @param outputBufferQuantity the number of output buffers. Must be at least 2.
+     */
+    public void setOutputBufferQuantity(int outputBufferQuantity) {
+        if (outputBufferQuantity < 2) {
+            throw new IllegalArgumentException("Number of output buffers must be at least 2. Got " + outputBufferQuantity);
+        }
+        this.outputBufferQuantity = outputBufferQuantity;
+    }
+
+    /**
+     * Returns the compression applied to the output of writers created with an {@link java.io.OutputStream}, a {@link java.nio.channels.WritableByteChannel} or a {@link java.io.File} (defaults to {@link OutputCompression#NONE}).
+     * <p>Compression is performed in a separate thread, while the writer keeps producing records.
+     * @return the compression applied to the output.
+     */
+    public OutputCompression getOutputCompression() {
+        return outputCompression;
+    }
+
+    /**
+     * Defines the compression applied to the output of writers created with an {@link java.io.OutputStream}, a {@link java.nio.channels.WritableByteChannel} or a {@link java.io.File} (defaults to {@link OutputCompression#NONE}).
+     * <p>Compression is performed in a separate thread, while the writer keeps producing records.
+     * @param outputCompression the compression to apply to the output.
+     */
+    public void setOutputCompression(OutputCompression outputCompression) {
+        this.outputCompression = outputCompression == null ? OutputCompression.NONE : outputCompression;
+    }
+
+    /**
+     * Returns the number of threads used to compress the output (defaults to 1).
+     * <p>With more than one thread, {@link OutputCompression#GZIP} compresses independent blocks of the output in parallel, and writes them as a multi-member GZIP stream.
+     *    Other compression algorithms always use one thread.
+     * @return the number of threads used to compress the output.
+     */
+    public int getCompressionThreads() {
+        return compressionThreads;
+    }
+
+    /**
+     * Defines the number of threads used to compress the output (defaults to 1).
+     * <p>With more than one thread, {@link OutputCompression#GZIP} compresses independent blocks of the output in parallel, and writes them as a multi-member GZIP stream.
+     *    Other compression algorithms always use one thread.
+     * @param compressionThreads the number of threads used to compress the output.
+     */
+    public void setCompressionThreads(int compressionThreads) {
+        if (compressionThreads < 1) {
+            throw new IllegalArgumentException("Number of compression threads must be positive. Got " + compressionThreads);
+        }
+        this.compressionThreads = compressionThreads;
+    }
+
+    /**
+     * Returns the maximum number of records written to each file produced by a {@link RollingFileWriter}. A new file is started when this limit is reached.
+     * A zero or negative value indicates there's no limit (defaults to -1).
+     * @return the maximum number of records per output file.
+     */
+    public long getMaxRecordsPerOutput() {
+        return maxRecordsPerOutput;
+    }
+
+    /**
+     * Defines the maximum number of records written to each file produced by a {@link RollingFileWriter}. A new file is started when this limit is reached.
+     * A zero or negative value indicates there's no limit (defaults to -1).
+     * @param maxRecordsPerOutput the maximum number of records per output file.
+     */
+    public void setMaxRecordsPerOutput(long maxRecordsPerOutput) {
+        this.maxRecordsPerOutput = maxRecordsPerOutput;
+    }
+
+    /**
+     * Returns the maximum number of bytes written to each file produced by a {@link RollingFileWriter}. A new file is started before a record that would exceed this limit.
+     * If the output is compressed, the limit applies to the number of bytes before compression.
+     * A zero or negative value indicates there's no limit (defaults to -1).
+     * @return the maximum number of bytes per output file.
+     */
+    public long getMaxBytesPerOutput() {
+        return maxBytesPerOutput;
+    }
+
+    /**
+     * Defines the maximum number of bytes written to each file produced by a {@link RollingFileWriter}. A new file is started before a record that would exceed this limit.
+     * If the output is compressed, the limit applies to the number of bytes before compression.
+     * A zero or negative value indicates there's no limit (defaults to -1).
+     * @param maxBytesPerOutput the maximum number of bytes per output file.
+     */
+    public void setMaxBytesPerOutput(long maxBytesPerOutput) {
+        this.maxBytesPerOutput = maxBytesPerOutput;
+    }
+
     @Override
     protected void addConfiguration(Map<String, Object> out) {
         super.addConfiguration(out);
         out.put("Empty value", emptyValue);
         out.put("Header writing enabled", headerWritingEnabled);
+        out.put("Maximum number of characters per row", getMaxCharsPerRow());
+        out.put("Write output on separate thread", writeOutputOnSeparateThread);
+        out.put("Output buffer size", outputBufferSize);
+        out.put("Output buffer quantity", outputBufferQuantity);
+        out.put("Output compression", outputCompression);
+        out.put("Compression threads", compressionThreads);
+        out.put("Maximum records per output", maxRecordsPerOutput <= 0 ? "unlimited" : maxRecordsPerOutput);
+        out.put("Maximum bytes per output", maxBytesPerOutput <= 0 ? "unlimited" : maxBytesPerOutput);
         out.put("Row processor", rowWriterProcessor == null ? "none" : rowWriterProcessor.getClass().getName());
     }
 
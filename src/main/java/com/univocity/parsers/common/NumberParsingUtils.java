@@ -0,0 +1,287 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common;
+
+import java.math.*;
+
+/**
+ * An utility class for parsing numeric values directly from ranges of a character array, without creating intermediate String objects.
+ *
+ * <p>These methods are used by components that receive the characters of values parsed from the input through a {@link com.univocity.parsers.common.input.CharRangeHandler}.</p>
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+public class NumberParsingUtils {
+
+	/**
+	 * Maximum number of significant decimal digits a double can represent exactly.
+	 */
+	private static final int MAX_EXACT_DIGITS = 15;
+
+	/**
+	 * Powers of ten that are exactly representable as doubles.
+	 */
+	private static final double[] POWERS_OF_TEN = {
+			1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+			1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	private NumberParsingUtils() {
+
+	}
+
+	/**
+	 * Parses an integer from a range of characters, following the same rules of {@link Integer#parseInt(String)}
+	 * @param chars the characters to parse
+	 * @param offset the position of the first character to parse
+	 * @param length the number of characters to parse
+	 * @return the integer represented by the given characters
+	 * @throws NumberFormatException if the characters do not represent a valid integer
+	 */
+	public static int parseInt(char[] chars, int offset, int length) {
+		long value = parseLong(chars, offset, length, Integer.MIN_VALUE, Integer.MAX_VALUE);
+		return (int) value;
+	}
+
+	/**
+	 * Parses a long from a range of characters, following the same rules of {@link Long#parseLong(String)}
+	 * @param chars the characters to parse
+	 * @param offset the position of the first character to parse
+	 * @param length the number of characters to parse
+	 * @return the long represented by the given characters
+	 * @throws NumberFormatException if the characters do not represent a valid long
+	 */
+	public static long parseLong(char[] chars, int offset, int length) {
+		return parseLong(chars, offset, length, Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+
+	private static long parseLong(char[] chars, int offset, int length, long min, long max) {
+		if (length <= 0) {
+			throw invalidNumber(chars, offset, length);
+		}
+
+		int i = offset;
+		final int end = offset + length;
+		boolean negative = false;
+		long limit = -max;
+
+		char ch = chars[i];
+		if (ch < '0') {
+			if (ch == '-') {
+				negative = true;
+				limit = min;
+			} else if (ch != '+') {
+				throw invalidNumber(chars, offset, length);
+			}
+			if (length == 1) {
+				throw invalidNumber(chars, offset, length);
+			}
+			i++;
+		}
+
+		//accumulates negatively to be able to represent the minimum value
+		final long multiplicationLimit = limit / 10;
+		long result = 0;
+		while (i < end) {
+			int digit = chars[i++] - '0';
+			if (digit < 0 || digit > 9 || result < multiplicationLimit) {
+				throw invalidNumber(chars, offset, length);
+			}
+			result *= 10;
+			if (result < limit + digit) {
+				throw invalidNumber(chars, offset, length);
+			}
+			result -= digit;
+		}
+		return negative ? result : -result;
+	}
+
+	/**
+	 * Parses a double from a range of characters, following the same rules of {@link Double#parseDouble(String)}.
+	 *
+	 * <p>Plain decimal numbers with up to 15 significant digits and small exponents, which are the vast majority of values found in text files, are
+	 * computed directly without any allocation. Other representations are delegated to {@link Double#parseDouble(String)}.</p>
+	 *
+	 * @param chars the characters to parse
+	 * @param offset the position of the first character to parse
+	 * @param length the number of characters to parse
+	 * @return the double represented by the given characters
+	 * @throws NumberFormatException if the characters do not represent a valid double
+	 */
+	public static double parseDouble(char[] chars, int offset, int length) {
+		if (length <= 0) {
+			throw invalidNumber(chars, offset, length);
+		}
+
+		int i = offset;
+		final int end = offset + length;
+		boolean negative = false;
+
+		char ch = chars[i];
+		if (ch == '-' || ch == '+') {
+			negative = ch == '-';
+			i++;
+		}
+
+		long mantissa = 0;
+		int digits = 0;
+		int exponent = 0;
+		boolean anyDigit = false;
+		boolean dot = false;
+
+		for (; i < end; i++) {
+			ch = chars[i];
+			if (ch >= '0' && ch <= '9') {
+				anyDigit = true;
+				if (mantissa == 0 && ch == '0') {
+					//leading zeros are not significant
+					if (dot) {
+						exponent--;
+					}
+					continue;
+				}
+				if (++digits > MAX_EXACT_DIGITS) {
+					return slowParseDouble(chars, offset, length);
+				}
+				mantissa = mantissa * 10 + (ch - '0');
+				if (dot) {
+					exponent--;
+				}
+			} else if (ch == '.' && !dot) {
+				dot = true;
+			} else if ((ch == 'e' || ch == 'E') && anyDigit) {
+				i++;
+				if (i == end) {
+					return slowParseDouble(chars, offset, length);
+				}
+				boolean negativeExponent = false;
+				ch = chars[i];
+				if (ch == '-' || ch == '+') {
+					negativeExponent = ch == '-';
+					i++;
+					if (i == end) {
+						return slowParseDouble(chars, offset, length);
+					}
+				}
+				int exp = 0;
+				for (; i < end; i++) {
+					int digit = chars[i] - '0';
+					if (digit < 0 || digit > 9) {
+						//trailing whitespace and type suffixes are handled by the JDK
+						return slowParseDouble(chars, offset, length);
+					}
+					if (exp > 10000) {
+						return slowParseDouble(chars, offset, length);
+					}
+					exp = exp * 10 + digit;
+				}
+				exponent += negativeExponent ? -exp : exp;
+				break;
+			} else {
+				//NaN, Infinity, hexadecimal notation and type suffixes are handled by the JDK
+				return slowParseDouble(chars, offset, length);
+			}
+		}
+
+		if (!anyDigit) {
+			throw invalidNumber(chars, offset, length);
+		}
+
+		if (mantissa == 0) {
+			return negative ? -0.0d : 0.0d;
+		}
+
+		double value = (double) mantissa;
+		if (exponent < 0) {
+			if (-exponent >= POWERS_OF_TEN.length) {
+				return slowParseDouble(chars, offset, length);
+			}
+			value = value / POWERS_OF_TEN[-exponent];
+		} else if (exponent > 0) {
+			if (exponent >= POWERS_OF_TEN.length) {
+				return slowParseDouble(chars, offset, length);
+			}
+			value = value * POWERS_OF_TEN[exponent];
+		}
+		return negative ? -value : value;
+	}
+
+	/**
+	 * Parses a BigDecimal from a range of characters, following the same rules of {@link BigDecimal#BigDecimal(String)}.
+	 *
+	 * <p>Plain decimal numbers with up to 18 digits are built from their unscaled value and scale, without copying the characters. Other representations are
+	 * delegated to {@link BigDecimal#BigDecimal(char[], int, int)}.</p>
+	 *
+	 * @param chars the characters to parse
+	 * @param offset the position of the first character to parse
+	 * @param length the number of characters to parse
+	 * @return the BigDecimal represented by the given characters
+	 * @throws NumberFormatException if the characters do not represent a valid BigDecimal
+	 */
+	public static BigDecimal parseBigDecimal(char[] chars, int offset, int length) {
+		if (length <= 0) {
+			throw invalidNumber(chars, offset, length);
+		}
+
+		int i = offset;
+		final int end = offset + length;
+		boolean negative = false;
+
+		char ch = chars[i];
+		if (ch == '-' || ch == '+') {
+			negative = ch == '-';
+			i++;
+		}
+
+		long unscaled = 0;
+		int digits = 0;
+		int scale = 0;
+		boolean dot = false;
+
+		for (; i < end; i++) {
+			ch = chars[i];
+			if (ch >= '0' && ch <= '9') {
+				if (++digits > 18) {
+					return new BigDecimal(chars, offset, length);
+				}
+				unscaled = unscaled * 10 + (ch - '0');
+				if (dot) {
+					scale++;
+				}
+			} else if (ch == '.' && !dot) {
+				dot = true;
+			} else {
+				//exponents and invalid characters are handled by BigDecimal
+				return new BigDecimal(chars, offset, length);
+			}
+		}
+
+		if (digits == 0) {
+			throw invalidNumber(chars, offset, length);
+		}
+
+		return BigDecimal.valueOf(negative ? -unscaled : unscaled, scale);
+	}
+
+	private static double slowParseDouble(char[] chars, int offset, int length) {
+		return Double.parseDouble(new String(chars, offset, length));
+	}
+
+	private static NumberFormatException invalidNumber(char[] chars, int offset, int length) {
+		return new NumberFormatException("For input string: \"" + new String(chars, offset, length < 0 ? 0 : length) + "\"");
+	}
+}
@@ -19,6 +19,7 @@ import java.util.*;
 
 import com.univocity.parsers.common.fields.*;
 import com.univocity.parsers.common.input.*;
+import com.univocity.parsers.common.processor.*;
 
 /**
  * The ParserOutput is the component that manages records parsed by {@link AbstractParser} and their values.
@@ -76,6 +77,16 @@ public class ParserOutput {
 
 	private long currentRecord;
 
+	/**
+	 * <p>Stores the {@link CharRangeHandler} provided by a {@link CharRangeRowProcessor} for each potential column (as given by {@link CommonSettings#getMaxColumns()}).
+	 * <p>Non-empty values parsed for columns with a handler are delivered directly from the {@link CharAppender} buffer to the handler, and no String is created for them.
+	 * <p>Null when char range handling is disabled.
+	 */
+	private CharRangeHandler[] charRangeHandlers;
+	private CharRangeRowProcessor charRangeProcessor;
+	private ParsingContext context;
+	private String[] fieldSequence;
+
 	/**
 	 * Initializes the ParserOutput with the configuration specified in {@link CommonParserSettings}
 	 * @param settings the parser configuration
@@ -99,17 +110,78 @@ public class ParserOutput {
 		this.appender = settings.newCharAppender();
 		Arrays.fill(appenders, appender);
 
+		this.fieldSequence = null;
+
 		this.headers = settings.getHeaders();
 		if (headers != null) {
 			headers = headers.clone();
+			fieldSequence = headers;
 			initializeColumnsToExtract(headers);
 		} else if (column > 0) { //we only initialize headers from a parsed row if it is not empty
-			initializeColumnsToExtract(Arrays.copyOf(parsedValues, column));
+			fieldSequence = Arrays.copyOf(parsedValues, column);
+			initializeColumnsToExtract(fieldSequence);
 			if (settings.isHeaderExtractionEnabled()) {
 				headers = new String[column];
 				System.arraycopy(parsedValues, 0, headers, 0, column);
 			}
 		}
+
+		if (charRangeProcessor != null) {
+			initializeCharRangeHandlers();
+		}
+	}
+
+	/**
+	 * Enables the delivery of parsed values directly to the {@link CharRangeHandler} instances provided by a {@link CharRangeRowProcessor}.
+	 * If the given processor does not implement {@link CharRangeRowProcessor}, char range handling is disabled and all values are collected as Strings.
+	 *
+	 * @param processor the processor of the current parsing process
+	 * @param context the context of the current parsing process
+	 */
+	void enableCharRangeHandling(RowProcessor processor, ParsingContext context) {
+		this.charRangeHandlers = null;
+		this.context = context;
+		if (processor instanceof CharRangeRowProcessor) {
+			this.charRangeProcessor = (CharRangeRowProcessor) processor;
+			if (columnsToExtractInitialized && fieldSequence != null) {
+				initializeCharRangeHandlers();
+			}
+		} else {
+			this.charRangeProcessor = null;
+		}
+	}
+
+	/**
+	 * Disables the delivery of parsed values to any {@link CharRangeHandler}, so all values are collected as Strings.
+	 */
+	void disableCharRangeHandling() {
+		this.charRangeProcessor = null;
+		this.charRangeHandlers = null;
+		this.context = null;
+	}
+
+	private void initializeCharRangeHandlers() {
+		charRangeHandlers = null;
+		if (fieldSequence == null) {
+			return;
+		}
+		CharRangeHandler[] handlers = charRangeProcessor.getCharRangeHandlers(fieldSequence, context);
+		if (handlers == null) {
+			return;
+		}
+
+		CharRangeHandler[] out = new CharRangeHandler[appenders.length];
+		boolean enabled = false;
+		int length = handlers.length < out.length ? handlers.length : out.length;
+		for (int i = 0; i < length; i++) {
+			if (handlers[i] != null && appenders[i] != NoopCharAppender.getInstance()) {
+				out[i] = handlers[i];
+				enabled = true;
+			}
+		}
+		if (enabled) {
+			charRangeHandlers = out;
+		}
 	}
 
 	/**
@@ -243,7 +315,13 @@ public class ParserOutput {
 	 * Adds the accumulated value in the appender object to the output and prepares the next position in the record to receive more values.
 	 */
 	public void valueParsed() {
-		this.parsedValues[column++] = appender.getAndReset();
+		if (charRangeHandlers != null && charRangeHandlers[column] != null && appender.length() > 0) {
+			charRangeHandlers[column].handle(appender.getChars(), 0, appender.length());
+			appender.reset();
+			this.parsedValues[column++] = null;
+		} else {
+			this.parsedValues[column++] = appender.getAndReset();
+		}
 		this.appender = appenders[column];
 	}
 
@@ -0,0 +1,34 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common;
+
+/**
+ * Identifies the partition of the output a row must be written to, when using a {@link PartitionedWriter}.
+ *
+ * @see PartitionedWriter
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+public interface PartitionKeyExtractor {
+
+	/**
+	 * Returns the key of the partition that must receive the given row. Rows with the same key are written to the same file.
+	 * @param row the row to be written
+	 * @return the partition key of the given row. Must not be null or empty.
+	 */
+	public String getPartitionKey(Object[] row);
+}
@@ -0,0 +1,429 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.util.*;
+
+import com.univocity.parsers.common.output.*;
+
+/**
+ * A writer that distributes rows among multiple output files, according to a partition key extracted from each row.
+ *
+ * <p> The file of each partition is given by a path template, where every occurrence of {@value #KEY_PLACEHOLDER} is replaced by the partition key.
+ *     Characters of the key that are not ASCII letters, digits, '-', '_' or '.' are replaced by a percent-encoded sequence ({@code %XX}, or {@code %uXXXX} for non-ASCII characters),
+ *     so keys can't refer to files outside of the intended location, and distinct keys are always written to distinct files.
+ * <p> At most {@code maxOpenPartitions} files are kept open at the same time. When a row must be written to a partition that is not open, and the limit has been reached,
+ *     the least recently used partition is closed, and its buffer is recycled to write the new partition. A partition that was closed is reopened in append mode when it receives more rows.
+ * <p> If header writing is enabled in the settings ({@link CommonWriterSettings#isHeaderWritingEnabled()}), headers are written only once to each partition, when it is created.
+ *     Files that existed before the first row of a partition is written are overwritten.
+ * <p> Every partition is written by its own instance of {@link AbstractWriter}, created by {@link #newWriter(Writer, CommonWriterSettings)} with the same settings.
+ *     The output is encoded with an {@link EncodingWriter}, and compressed as configured in {@link CommonWriterSettings#getOutputCompression()}.
+ *     Partitions are always written and compressed on the caller thread: {@link CommonWriterSettings#getWriteOutputOnSeparateThread()} and
+ *     {@link CommonWriterSettings#getCompressionThreads()} are ignored, as each open partition would otherwise require its own threads and buffers.
+ *     {@link OutputCompression#DEFLATE} is not supported, as compressed data can't be appended to an existing DEFLATE stream.
+ * <p> In case of errors, a {@link TextWritingException} is thrown and all partitions are closed.
+ *
+ * @param <S> the settings class used by the writer of each partition
+ *
+ * @see PartitionKeyExtractor
+ * @see AbstractWriter
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+public abstract class PartitionedWriter<S extends CommonWriterSettings<?>> {
+
+	/**
+	 * The placeholder to be replaced by the partition key in the path template given to the constructor of this class.
+	 */
+	public static final String KEY_PLACEHOLDER = "{key}";
+
+	private static final int BUFFER_SIZE = 16 * 1024;
+	private static final int COMPRESSION_BUFFER_SIZE = 4 * 1024;
+
+	private final String pathTemplate;
+	private final Charset encoding;
+	private final PartitionKeyExtractor keyExtractor;
+	private final int maxOpenPartitions;
+	private final S settings;
+	private final OutputCompression compression;
+
+	private final LinkedHashMap<String, Partition> openPartitions;
+	private final Set<String> createdPartitions = new HashSet<String>();
+	private final Set<File> createdFiles = new HashSet<File>();
+	private final LinkedList<byte[]> freeBuffers = new LinkedList<byte[]>();
+	private long recordCount;
+
+	private final class Partition {
+		private final AbstractWriter<S> writer;
+		private final byte[] buffer;
+
+		private Partition(AbstractWriter<S> writer, byte[] buffer) {
+			this.writer = writer;
+			this.buffer = buffer;
+		}
+	}
+
+	/**
+	 * Creates a partitioned writer that uses the given {@link PartitionKeyExtractor} to identify the partition of each row.
+	 * @param pathTemplate the path of the output files, where every occurrence of {@value #KEY_PLACEHOLDER} will be replaced by the partition key of the rows written to them.
+	 * @param encoding the encoding of the output files
+	 * @param keyExtractor the component that identifies the partition key of each row.
+	 * @param maxOpenPartitions the maximum number of files kept open at the same time.
+	 * @param settings the configuration of the writer of each partition
+	 */
+	public PartitionedWriter(String pathTemplate, Charset encoding, PartitionKeyExtractor keyExtractor, int maxOpenPartitions, S settings) {
+		if (pathTemplate == null || !pathTemplate.contains(KEY_PLACEHOLDER)) {
+			throw new IllegalArgumentException("Path template must contain the partition key placeholder " + KEY_PLACEHOLDER + ". Got " + pathTemplate);
+		}
+		if (encoding == null) {
+			throw new IllegalArgumentException("Encoding cannot be null");
+		}
+		if (keyExtractor == null) {
+			throw new IllegalArgumentException("Partition key extractor cannot be null");
+		}
+		if (maxOpenPartitions < 1) {
+			throw new IllegalArgumentException("Maximum number of open partitions must be positive. Got " + maxOpenPartitions);
+		}
+		if (settings == null) {
+			throw new IllegalArgumentException("Settings cannot be null");
+		}
+		if (settings.getOutputCompression() == OutputCompression.DEFLATE) {
+			throw new IllegalArgumentException("DEFLATE compression is not supported by partitioned writers");
+		}
+
+		this.pathTemplate = pathTemplate;
+		this.encoding = encoding;
+		this.keyExtractor = keyExtractor;
+		this.maxOpenPartitions = maxOpenPartitions;
+		this.settings = settings;
+		this.compression = settings.getOutputCompression() == null ? OutputCompression.NONE : settings.getOutputCompression();
+		this.openPartitions = new LinkedHashMap<String, Partition>(16, 0.75f, true);
+	}
+
+	/**
+	 * Creates a partitioned writer that uses the value of the given column of each row as its partition key.
+	 * @param pathTemplate the path of the output files, where every occurrence of {@value #KEY_PLACEHOLDER} will be replaced by the partition key of the rows written to them.
+	 * @param encoding the encoding of the output files
+	 * @param keyColumn the index of the column whose values are the partition keys.
+	 * @param maxOpenPartitions the maximum number of files kept open at the same time.
+	 * @param settings the configuration of the writer of each partition
+	 */
+	public PartitionedWriter(String pathTemplate, Charset encoding, int keyColumn, int maxOpenPartitions, S settings) {
+		this(pathTemplate, encoding, columnKey(keyColumn), maxOpenPartitions, settings);
+	}
+
+	/**
+	 * Creates a partitioned writer that uses the value of the given column of each row as its partition key.
+	 * @param pathTemplate the path of the output files, where every occurrence of {@value #KEY_PLACEHOLDER} will be replaced by the partition key of the rows written to them.
+	 * @param encoding the encoding of the output files
+	 * @param keyColumn the name of the column whose values are the partition keys, as given by {@link CommonSettings#getHeaders()}.
+	 * @param maxOpenPartitions the maximum number of files kept open at the same time.
+	 * @param settings the configuration of the writer of each partition
+	 */
+	public PartitionedWriter(String pathTemplate, Charset encoding, String keyColumn, int maxOpenPartitions, S settings) {
+		this(pathTemplate, encoding, columnKey(getColumnIndex(keyColumn, settings)), maxOpenPartitions, settings);
+	}
+
+	private static int getColumnIndex(String column, CommonWriterSettings<?> settings) {
+		if (settings == null) {
+			throw new IllegalArgumentException("Settings cannot be null");
+		}
+		String[] headers = settings.getHeaders();
+		if (headers != null) {
+			for (int i = 0; i < headers.length; i++) {
+				if (headers[i] != null && headers[i].equals(column)) {
+					return i;
+				}
+			}
+		}
+		throw new IllegalArgumentException("Partition key column '" + column + "' not found in headers " + Arrays.toString(headers));
+	}
+
+	private static PartitionKeyExtractor columnKey(final int column) {
+		if (column < 0) {
+			throw new IllegalArgumentException("Partition key column index must not be negative. Got " + column);
+		}
+		return new PartitionKeyExtractor() {
+			@Override
+			public String getPartitionKey(Object[] row) {
+				if (row == null || column >= row.length || row[column] == null) {
+					return null;
+				}
+				return String.valueOf(row[column]);
+			}
+		};
+	}
+
+	/**
+	 * Creates the writer of a partition.
+	 * @param output the output of the partition.
+	 * @param settings the writer configuration given in the constructor of this class.
+	 * @return a new writer of the format produced by this class.
+	 */
+	protected abstract AbstractWriter<S> newWriter(Writer output, S settings);
+
+	/**
+	 * Writes the given row to the file of its partition.
+	 * @param row the data to be written
+	 */
+	public final void writeRow(Object... row) {
+		String key = keyExtractor.getPartitionKey(row);
+		if (key == null || key.length() == 0) {
+			throwExceptionAndClose("Partition key of row cannot be null or empty", row, null);
+		}
+		try {
+			getPartition(key, row).writer.writeRow(row);
+		} catch (RuntimeException ex) {
+			closeQuietly();
+			throw ex;
+		}
+		recordCount++;
+	}
+
+	/**
+	 * Writes the given row to the file of its partition.
+	 * @param row the data to be written
+	 */
+	public final void writeRow(Collection<Object> row) {
+		if (row == null) {
+			writeRow((Object[]) null);
+		} else {
+			writeRow(row.toArray());
+		}
+	}
+
+	/**
+	 * Writes each row in the given collection to the file of its partition.
+	 * @param rows the rows to be written
+	 */
+	public final void writeRows(Collection<Object[]> rows) {
+		for (Object[] row : rows) {
+			writeRow(row);
+		}
+	}
+
+	/**
+	 * Writes each row in the given collection to the file of its partition, then closes all partitions.
+	 * @param rows the rows to be written
+	 */
+	public final void writeRowsAndClose(Collection<Object[]> rows) {
+		try {
+			writeRows(rows);
+		} finally {
+			close();
+		}
+	}
+
+	private Partition getPartition(String key, Object[] row) {
+		Partition partition = openPartitions.get(key);
+		if (partition != null) {
+			return partition;
+		}
+
+		if (openPartitions.size() >= maxOpenPartitions) {
+			Iterator<Map.Entry<String, Partition>> eldest = openPartitions.entrySet().iterator();
+			Partition evicted = eldest.next().getValue();
+			eldest.remove();
+			closePartition(evicted);
+		}
+
+		File file = getPartitionFile(key).getAbsoluteFile();
+		boolean created = createdFiles.add(file);
+		OutputStream output;
+		try {
+			File parent = file.getAbsoluteFile().getParentFile();
+			if (parent != null && !parent.exists()) {
+				parent.mkdirs();
+			}
+			output = new FileOutputStream(file, !created);
+			try {
+				output = compression.wrap(output, COMPRESSION_BUFFER_SIZE);
+			} catch (IOException ex) {
+				output.close();
+				throw ex;
+			}
+		} catch (Throwable ex) {
+			if (created) {
+				createdFiles.remove(file);
+			}
+			throwExceptionAndClose("Unable to open file of partition '" + key + "': " + file.getAbsolutePath(), row, ex);
+			return null;
+		}
+
+		byte[] buffer = freeBuffers.isEmpty() ? new byte[BUFFER_SIZE] : freeBuffers.removeFirst();
+		AbstractWriter<S> writer = newWriter(new PartitionOutput(new EncodingWriter(output, encoding, buffer)), settings);
+		if (!created) {
+			writer.disableHeaderWriting();
+		}
+		partition = new Partition(writer, buffer);
+		openPartitions.put(key, partition);
+		createdPartitions.add(key);
+		return partition;
+	}
+
+	private void closePartition(Partition partition) {
+		partition.writer.close();
+		freeBuffers.add(partition.buffer);
+	}
+
+	/**
+	 * Returns the file that receives the rows of a given partition.
+	 * @param key the partition key
+	 * @return the file of the given partition.
+	 */
+	public final File getPartitionFile(String key) {
+		StringBuilder name = new StringBuilder(key.length());
+		for (int i = 0; i < key.length(); i++) {
+			char ch = key.charAt(i);
+			if ((ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9') || ch == '-' || ch == '_' || ch == '.') {
+				name.append(ch);
+			} else {
+				appendEncoded(name, ch);
+			}
+		}
+		String partitionName = name.toString();
+		if (partitionName.replace(".", "").length() == 0) { // "." and ".." refer to directories
+			partitionName = partitionName.replace(".", "%2E");
+		}
+		return new File(pathTemplate.replace(KEY_PLACEHOLDER, partitionName));
+	}
+
+	private static void appendEncoded(StringBuilder out, char ch) {
+		String hex = Integer.toHexString(ch).toUpperCase();
+		if (ch < 0x80) {
+			out.append('%');
+			if (hex.length() < 2) {
+				out.append('0');
+			}
+		} else {
+			out.append("%u");
+			for (int i = hex.length(); i < 4; i++) {
+				out.append('0');
+			}
+		}
+		out.append(hex);
+	}
+
+	/**
+	 * Returns the keys of all partitions that received rows from this writer.
+	 * @return the keys of all partitions written so far.
+	 */
+	public final Set<String> getPartitions() {
+		return Collections.unmodifiableSet(createdPartitions);
+	}
+
+	/**
+	 * Returns the number of files currently open.
+	 * @return the number of partitions currently open.
+	 */
+	public final int getOpenPartitionCount() {
+		return openPartitions.size();
+	}
+
+	/**
+	 * Returns the number of rows written to all partitions.
+	 * @return the number of rows written so far.
+	 */
+	public final long getRecordCount() {
+		return recordCount;
+	}
+
+	/**
+	 * Flushes the output of all open partitions.
+	 */
+	public final void flush() {
+		for (Partition partition : openPartitions.values()) {
+			partition.writer.flush();
+		}
+	}
+
+	/**
+	 * Closes all open partitions. Rows written afterwards reopen their partitions in append mode.
+	 * <p> An IllegalStateException will be thrown in case of any errors, after attempting to close all partitions.
+	 */
+	public final void close() {
+		RuntimeException error = null;
+		for (Partition partition : openPartitions.values()) {
+			try {
+				closePartition(partition);
+			} catch (RuntimeException ex) {
+				if (error == null) {
+					error = ex;
+				}
+			}
+		}
+		openPartitions.clear();
+		if (error != null) {
+			throw error;
+		}
+	}
+
+	private void closeQuietly() {
+		try {
+			close();
+		} catch (Throwable ex) {
+			//ignore: an error has already been reported
+		}
+	}
+
+	private void throwExceptionAndClose(String message, Object[] row, Throwable cause) {
+		try {
+			throw new TextWritingException(message, recordCount, row, cause);
+		} finally {
+			closeQuietly();
+		}
+	}
+
+	/**
+	 * The output of a partition writer. {@link AbstractWriter} writes to it directly, without a {@link com.univocity.parsers.common.output.concurrent.ConcurrentWriter},
+	 * as a separate thread and its buffers for each open partition would take far more resources than the partition itself.
+	 */
+	static final class PartitionOutput extends Writer {
+		private final EncodingWriter output;
+
+		PartitionOutput(EncodingWriter output) {
+			this.output = output;
+		}
+
+		@Override
+		public void write(int c) throws IOException {
+			output.write(c);
+		}
+
+		@Override
+		public void write(char[] cbuf, int off, int len) throws IOException {
+			output.write(cbuf, off, len);
+		}
+
+		@Override
+		public void write(String str, int off, int len) throws IOException {
+			output.write(str, off, len);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			output.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			output.close();
+		}
+	}
+}
@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common;
+
+/**
+ * A builder of records written by an {@link AbstractWriter}. Values are accumulated in the in-memory row of the writer, and primitive values are formatted
+ * into buffers reused by the writer, without creating wrapper objects or intermediate Strings for them.
+ *
+ * <p>Use {@link AbstractWriter#getRowBuilder()} to obtain an instance of this class. For example:
+ *
+ * <hr><blockquote><pre>
+ * RowBuilder row = writer.getRowBuilder();
+ * row.add(10L).add(3.14159, 2).add("text").write(); // writes 10, 3.14 and text
+ * row.set("amount", 99.999, 2).set(0, 5L).write();  // writes 5 and 100.00 in the positions of the first and "amount" columns
+ * </pre></blockquote><hr>
+ *
+ * @see AbstractWriter
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+public final class RowBuilder {
+
+	private final AbstractWriter<?> writer;
+
+	RowBuilder(AbstractWriter<?> writer) {
+		this.writer = writer;
+	}
+
+	/**
+	 * Adds a value to the next column of the row
+	 * @param value the value to be written
+	 * @return this builder, for chaining
+	 */
+	public RowBuilder add(Object value) {
+		writer.writeValue(value);
+		return this;
+	}
+
+	/**
+	 * Adds a character to the next column of the row
+	 * @param value the value to be written
+	 * @return this builder, for chaining
+	 */
+	public RowBuilder add(char value) {
+		writer.writeValue(value);
+		return this;
+	}
+
+	/**
+	 * Adds a number to the next column of the row
+	 * @param value the value to be written
+	 * @return this builder, for chaining
+	 */
+	public RowBuilder add(long value) {
+		writer.writeValue(value);
+		return this;
+	}
+
+	/**
+	 * Adds a number with a fixed number of decimal places (rounded half-up) to the next column of the row
+	 * @param value the value to be written
+	 * @param decimalPlaces the number of digits to write after the decimal point
+	 * @return this builder, for chaining
+	 */
+	public RowBuilder add(double value, int decimalPlaces) {
+		writer.writeDecimal(value, decimalPlaces);
+		return this;
+	}
+
+	/**
+	 * Adds a sequence of characters to the next column of the row. The characters are copied, so the given array can be modified as soon as this method returns.
+	 * @param chars the array that contains the characters to write
+	 * @param offset the position of the first character to write
+	 * @param length the number of characters to write
+	 * @return this builder, for chaining
+	 */
+	public RowBuilder add(char[] chars, int offset, int length) {
+		writer.writeValue(chars, offset, length);
+		return this;
+	}
+
+	/**
+	 * Sets the value of a column of the row
+	 * @param index the position of the column in the row
+	 * @param value the value to be written
+	 * @return this builder, for chaining
+	 */
+	public RowBuilder set(int index, Object value) {
+		writer.writeValue(index, value);
+		return this;
+	}
+
+	/**
+	 * Sets the value of a column of the row with a character
+	 * @param index the position of the column in the row
+	 * @param value the value to be written
+	 * @return this builder, for chaining
+	 */
+	public RowBuilder set(int index, char value) {
+		writer.writeValue(index, (Object) value);
+		return this;
+	}
+
+	/**
+	 * Sets the value of a column of the row
+	 * @param index the position of the column in the row
+	 * @param value the value to be written
+	 * @return this builder, for chaining
+	 */
+	public RowBuilder set(int index, long value) {
+		writer.writeValue(index, writer.getValueBuffer(index).append(value));
+		return this;
+	}
+
+	/**
+	 * Sets the value of a column of the row with a number with a fixed number of decimal places (rounded half-up)
+	 * @param index the position of the column in the row
+	 * @param value the value to be written
+	 * @param decimalPlaces the number of digits to write after the decimal point
+	 * @return this builder, for chaining
+	 */
+	public RowBuilder set(int index, double value, int decimalPlaces) {
+		writer.writeValue(index, writer.getValueBuffer(index).appendDecimal(value, decimalPlaces));
+		return this;
+	}
+
+	/**
+	 * Sets the value of a column of the row
+	 * @param headerName the name of the column that should receive the value.
+	 * @param value the value to be written
+	 * @return this builder, for chaining
+	 */
+	public RowBuilder set(String headerName, Object value) {
+		return set(writer.getFieldIndex(headerName), value);
+	}
+
+	/**
+	 * Sets the value of a column of the row with a character
+	 * @param headerName the name of the column that should receive the value.
+	 * @param value the value to be written
+	 * @return this builder, for chaining
+	 */
+	public RowBuilder set(String headerName, char value) {
+		return set(writer.getFieldIndex(headerName), value);
+	}
+
+	/**
+	 * Sets the value of a column of the row
+	 * @param headerName the name of the column that should receive the value.
+	 * @param value the value to be written
+	 * @return this builder, for chaining
+	 */
+	public RowBuilder set(String headerName, long value) {
+		return set(writer.getFieldIndex(headerName), value);
+	}
+
+	/**
+	 * Sets the value of a column of the row with a number with a fixed number of decimal places (rounded half-up)
+	 * @param headerName the name of the column that should receive the value.
+	 * @param value the value to be written
+	 * @param decimalPlaces the number of digits to write after the decimal point
+	 * @return this builder, for chaining
+	 */
+	public RowBuilder set(String headerName, double value, int decimalPlaces) {
+		return set(writer.getFieldIndex(headerName), value, decimalPlaces);
+	}
+
+	/**
+	 * Writes the values accumulated so far as a new record to the output (as in {@link AbstractWriter#writeValuesToRow()}), and clears the row.
+	 */
+	public void write() {
+		writer.writeValuesToRow();
+	}
+
+	/**
+	 * Discards the values accumulated so far (as in {@link AbstractWriter#discardValues()})
+	 */
+	public void discard() {
+		writer.discardValues();
+	}
+}
@@ -0,0 +1,322 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common.fields;
+
+import java.util.*;
+
+/**
+ * A bounded cache of the results of the conversions applied to a column, indexed by the original value parsed for the column.
+ *
+ * <p>Columns with few distinct values (such as dates, enumerations or codes) can have their conversions executed only once per distinct value.
+ * When the cache is full, the least recently used entry is evicted to make room for the new value.
+ * Values of type {@link Date} and {@link Calendar} are cloned when retrieved from the cache, as they are mutable.
+ * Results of other types are shared, and should not be modified.</p>
+ *
+ * <p>Only use caches for columns whose conversions always produce the same result for the same input.
+ * Values that fail to be converted are not cached. This class is not thread-safe.</p>
+ *
+ * @see FieldConversionMapping
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+public final class ConversionCache {
+
+	/**
+	 * Returned by the lookup methods when a value is not in the cache (as null may be a cached conversion result).
+	 */
+	static final Object NOT_CACHED = new Object();
+
+	private static final int MAXIMUM_INITIAL_CAPACITY = 1024;
+
+	private final int maxSize;
+	private Entry[] table;
+	private int size;
+
+	/**
+	 * Head (most recently used) and tail (least recently used) of the list of entries
+	 */
+	private Entry head;
+	private Entry tail;
+
+	private long hits;
+	private long misses;
+	private long evictions;
+
+	/**
+	 * Creates a cache that holds at most the given number of values
+	 * @param maxSize the maximum number of values to keep in the cache
+	 */
+	public ConversionCache(int maxSize) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("Maximum size of conversion cache must be a positive number. Got " + maxSize);
+		}
+		this.maxSize = maxSize;
+		this.table = new Entry[tableSizeFor(Math.min(maxSize, MAXIMUM_INITIAL_CAPACITY))];
+	}
+
+	private static int tableSizeFor(int size) {
+		int capacity = 16;
+		while (capacity < Integer.MAX_VALUE / 2 && (long) capacity * 3 < (long) size * 4) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	/**
+	 * Returns the cached result of a value
+	 * @param value the original value of the column
+	 * @return the converted value, or {@link #NOT_CACHED} if the value is not in the cache.
+	 */
+	Object get(String value) {
+		if (value == null) {
+			return NOT_CACHED;
+		}
+		int hash = value.hashCode();
+		for (Entry e = table[hash & (table.length - 1)]; e != null; e = e.next) {
+			if (e.hash == hash && e.key.equals(value)) {
+				return hit(e);
+			}
+		}
+		misses++;
+		return NOT_CACHED;
+	}
+
+	/**
+	 * Returns the cached result of a value, given by a sequence of characters
+	 * @param chars the buffer that contains the characters of the original value of the column
+	 * @param offset the position of the first character of the value
+	 * @param length the number of characters of the value
+	 * @return the converted value, or {@link #NOT_CACHED} if the value is not in the cache.
+	 */
+	Object get(char[] chars, int offset, int length) {
+		int hash = 0;
+		int end = offset + length;
+		for (int i = offset; i < end; i++) {
+			hash = 31 * hash + chars[i];
+		}
+		for (Entry e = table[hash & (table.length - 1)]; e != null; e = e.next) {
+			if (e.hash == hash && matches(e.key, chars, offset, length)) {
+				return hit(e);
+			}
+		}
+		misses++;
+		return NOT_CACHED;
+	}
+
+	private static boolean matches(String key, char[] chars, int offset, int length) {
+		if (key.length() != length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (key.charAt(i) != chars[offset + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private Object hit(Entry e) {
+		hits++;
+		if (e != head) {
+			unlink(e);
+			linkFirst(e);
+		}
+		Object value = e.value;
+		if (value instanceof Date) {
+			return ((Date) value).clone();
+		} else if (value instanceof Calendar) {
+			return ((Calendar) value).clone();
+		}
+		return value;
+	}
+
+	/**
+	 * Stores the result of the conversion of a value. Evicts the least recently used value if the cache is full.
+	 * @param value the original value of the column
+	 * @param result the converted value
+	 */
+	void put(String value, Object result) {
+		if (value == null) {
+			return;
+		}
+		int hash = value.hashCode();
+		for (Entry e = table[hash & (table.length - 1)]; e != null; e = e.next) {
+			if (e.hash == hash && e.key.equals(value)) {
+				e.value = result;
+				return;
+			}
+		}
+
+		if (size == maxSize) {
+			Entry eldest = tail;
+			unlink(eldest);
+			removeFromTable(eldest);
+			size--;
+			evictions++;
+		} else if (size * 4 >= table.length * 3 && table.length < tableSizeFor(maxSize)) {
+			resize();
+		}
+
+		if (result instanceof Date) {
+			result = ((Date) result).clone();
+		} else if (result instanceof Calendar) {
+			result = ((Calendar) result).clone();
+		}
+
+		Entry e = new Entry(value, hash, result);
+		int bucket = hash & (table.length - 1);
+		e.next = table[bucket];
+		table[bucket] = e;
+		linkFirst(e);
+		size++;
+	}
+
+	private void resize() {
+		Entry[] newTable = new Entry[table.length * 2];
+		for (Entry e = head; e != null; e = e.after) {
+			int bucket = e.hash & (newTable.length - 1);
+			e.next = newTable[bucket];
+			newTable[bucket] = e;
+		}
+		table = newTable;
+	}
+
+	private void removeFromTable(Entry entry) {
+		int bucket = entry.hash & (table.length - 1);
+		Entry previous = null;
+		for (Entry e = table[bucket]; e != null; e = e.next) {
+			if (e == entry) {
+				if (previous == null) {
+					table[bucket] = e.next;
+				} else {
+					previous.next = e.next;
+				}
+				return;
+			}
+			previous = e;
+		}
+	}
+
+	private void linkFirst(Entry e) {
+		e.before = null;
+		e.after = head;
+		if (head != null) {
+			head.before = e;
+		}
+		head = e;
+		if (tail == null) {
+			tail = e;
+		}
+	}
+
+	private void unlink(Entry e) {
+		if (e.before != null) {
+			e.before.after = e.after;
+		} else {
+			head = e.after;
+		}
+		if (e.after != null) {
+			e.after.before = e.before;
+		} else {
+			tail = e.before;
+		}
+		e.before = null;
+		e.after = null;
+	}
+
+	/**
+	 * Returns the maximum number of values held by this cache
+	 * @return the maximum size of the cache
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Returns the number of values currently held by this cache
+	 * @return the current size of the cache
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of lookups that found a converted value in this cache
+	 * @return the number of cache hits
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Returns the number of lookups that did not find a converted value in this cache
+	 * @return the number of cache misses
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Returns the number of values removed from this cache to make room for new values
+	 * @return the number of evictions
+	 */
+	public long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * Returns the ratio of lookups that found a converted value in this cache
+	 * @return the hit rate, between 0.0 and 1.0, or 0.0 if no lookups were made
+	 */
+	public double getHitRate() {
+		long lookups = hits + misses;
+		return lookups == 0 ? 0.0 : (double) hits / lookups;
+	}
+
+	/**
+	 * Removes all values from this cache and resets its statistics
+	 */
+	public void clear() {
+		Arrays.fill(table, null);
+		head = null;
+		tail = null;
+		size = 0;
+		hits = 0;
+		misses = 0;
+		evictions = 0;
+	}
+
+	@Override
+	public String toString() {
+		return "ConversionCache [size=" + size + ", maxSize=" + maxSize + ", hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + "]";
+	}
+
+	private static final class Entry {
+		final String key;
+		final int hash;
+		Object value;
+		Entry next;
+		Entry before;
+		Entry after;
+
+		Entry(String key, int hash, Object value) {
+			this.key = key;
+			this.hash = hash;
+			this.value = value;
+		}
+	}
+}
@@ -57,35 +57,241 @@ public class FieldConversionMapping {
 	};
 
 	/**
-	 * This is the final sequence of conversions applied to each index in a record. It is populated when {@link FieldConversionMapping#prepareExecution(String[])} is invoked.
+	 * This is the final sequence of conversions applied to each index in a record, where each position of the array corresponds to a column index.
+	 * Columns without conversions have a null sequence. It is populated when {@link FieldConversionMapping#prepareExecution(String[])} is invoked.
 	 */
-	private Map<Integer, List<Conversion<?, ?>>> conversionsByIndex = Collections.emptyMap();
+	@SuppressWarnings("rawtypes")
+	private Conversion[][] conversionsByIndex;
+
+	/**
+	 * The sequences of conversions reverted for each index, in the order of their declaration.
+	 * Unlike {@link FieldConversionMapping#conversionsByIndex}, string transformations are not combined here.
+	 */
+	@SuppressWarnings("rawtypes")
+	private Conversion[][] declaredConversionsByIndex;
+
+	/**
+	 * The same sequences in {@link FieldConversionMapping#declaredConversionsByIndex}, in the reverse order of their declaration.
+	 */
+	@SuppressWarnings("rawtypes")
+	private Conversion[][] reverseConversionsByIndex;
+
+	/**
+	 * The indexes of all columns that have at least one conversion associated with them, in ascending order.
+	 */
+	private int[] convertedIndexes = new int[0];
+
+	/**
+	 * The maximum number of converted values to cache for each selection of fields given to {@link FieldConversionMapping#cacheConversionsOnFieldNames(int)}
+	 * or {@link FieldConversionMapping#cacheConversionsOnFieldIndexes(int)}
+	 */
+	private Map<FieldSelector, Integer> cacheSizes;
+
+	/**
+	 * The caches of conversion results of each column, indexed by column. Columns whose results are not cached have a null cache.
+	 */
+	private ConversionCache[] cachesByIndex;
+
+	/**
+	 * The field sequence given to {@link FieldConversionMapping#prepareExecution(String[])}
+	 */
+	private String[] preparedFields;
 
 	/**
 	 * Prepares the conversions registered in this object to be executed against a given sequence of fields
 	 *
+	 * <p>The conversions associated with each field are compiled into a flat sequence per column, so no further lookups are required to convert values.
+	 *
 	 * @param values The field sequence that identifies how records will be organized.
 	 * <p> This is generally the sequence of headers in a record, but it might be just the first parsed row from a given input (as field selection by index is allowed).
 	 */
+	@SuppressWarnings("rawtypes")
 	public void prepareExecution(String[] values) {
 		if (fieldNameConversionMapping.isEmpty() && fieldIndexConversionMapping.isEmpty() && convertAllMapping.isEmpty()) {
 			return;
 		}
 
-		if (!conversionsByIndex.isEmpty()) {
+		if (conversionsByIndex != null) {
 			return;
 		}
 
-		//Note this property is shared across all conversion mappings. This is required so
+		//Note this map is shared across all conversion mappings. This is required so
 		//the correct conversion sequence is registered for all fields.
-		conversionsByIndex = new HashMap<Integer, List<Conversion<?, ?>>>();
+		Map<Integer, List<Conversion<?, ?>>> conversionsPerIndex = new TreeMap<Integer, List<Conversion<?, ?>>>();
 
 		// adds the conversions in the sequence they were created.
 		for (FieldSelector next : conversionSequence) {
-			fieldNameConversionMapping.prepareExecution(next, conversionsByIndex, values);
-			fieldIndexConversionMapping.prepareExecution(next, conversionsByIndex, values);
-			convertAllMapping.prepareExecution(next, conversionsByIndex, values);
+			fieldNameConversionMapping.prepareExecution(next, conversionsPerIndex, values);
+			fieldIndexConversionMapping.prepareExecution(next, conversionsPerIndex, values);
+			convertAllMapping.prepareExecution(next, conversionsPerIndex, values);
+		}
+
+		if (conversionsPerIndex.isEmpty()) {
+			return;
 		}
+
+		int length = ((TreeMap<Integer, List<Conversion<?, ?>>>) conversionsPerIndex).lastKey() + 1;
+		Conversion[][] sequences = new Conversion[length][];
+		Conversion[][] declaredSequences = new Conversion[length][];
+		Conversion[][] reverseSequences = new Conversion[length][];
+		int[] indexes = new int[conversionsPerIndex.size()];
+
+		int i = 0;
+		for (Map.Entry<Integer, List<Conversion<?, ?>>> e : conversionsPerIndex.entrySet()) {
+			int index = e.getKey();
+			Conversion[] sequence = e.getValue().toArray(new Conversion[e.getValue().size()]);
+			Conversion[] reverseSequence = new Conversion[sequence.length];
+			for (int j = 0; j < sequence.length; j++) {
+				reverseSequence[j] = sequence[sequence.length - 1 - j];
+			}
+			sequences[index] = combineStringTransforms(sequence);
+			declaredSequences[index] = sequence;
+			reverseSequences[index] = reverseSequence;
+			indexes[i++] = index;
+		}
+
+		this.cachesByIndex = createCaches(values, sequences);
+		this.preparedFields = values;
+		this.declaredConversionsByIndex = declaredSequences;
+		this.reverseConversionsByIndex = reverseSequences;
+		this.convertedIndexes = indexes;
+		this.conversionsByIndex = sequences;
+	}
+
+	@SuppressWarnings("rawtypes")
+	private ConversionCache[] createCaches(String[] values, Conversion[][] sequences) {
+		if (cacheSizes == null) {
+			return null;
+		}
+		ConversionCache[] caches = new ConversionCache[sequences.length];
+		for (Map.Entry<FieldSelector, Integer> e : cacheSizes.entrySet()) {
+			for (int index : e.getKey().getFieldIndexes(values)) {
+				if (index < sequences.length && sequences[index] != null) {
+					caches[index] = new ConversionCache(e.getValue());
+				}
+			}
+		}
+		return caches;
+	}
+
+	/**
+	 * Replaces consecutive string transformations in a sequence of conversions (such as trim, lower case and null strings) by a single {@link StringTransformConversion},
+	 * which processes each value in one pass.
+	 * @param sequence the conversions applied to a column, in order of execution
+	 * @return the sequence of conversions to execute, with each run of string transformations combined into one conversion.
+	 */
+	@SuppressWarnings("rawtypes")
+	private static Conversion[] combineStringTransforms(Conversion[] sequence) {
+		List<Conversion> out = new ArrayList<Conversion>(sequence.length);
+		int i = 0;
+		while (i < sequence.length) {
+			int end = i;
+			while (end < sequence.length && StringTransformConversion.isSupported(sequence[end])) {
+				end++;
+			}
+			if (end > i) {
+				out.add(new StringTransformConversion(Arrays.copyOfRange(sequence, i, end)));
+				i = end;
+			} else {
+				out.add(sequence[i++]);
+			}
+		}
+		return out.toArray(new Conversion[out.size()]);
+	}
+
+	/**
+	 * Queries whether any conversion is associated with a given index. Only meaningful after {@link FieldConversionMapping#prepareExecution(String[])} is invoked.
+	 * @param index The index of a value in a record
+	 * @return true if the values of the given index must be converted, false otherwise.
+	 */
+	public boolean hasConversions(int index) {
+		return conversionsByIndex != null && index >= 0 && index < conversionsByIndex.length && conversionsByIndex[index] != null;
+	}
+
+	/**
+	 * Returns the conversion of a given index if it is the only conversion associated with the index and implements {@link FormattedValueConversion}.
+	 * Only meaningful after {@link FieldConversionMapping#prepareExecution(String[])} is invoked.
+	 * @param index The index of a value in a record
+	 * @return the conversion able to format values of the given index into a {@link com.univocity.parsers.common.input.FormattedValue}, or null if not applicable.
+	 */
+	public FormattedValueConversion<?> getFormattedValueConversion(int index) {
+		if (hasConversions(index) && reverseConversionsByIndex[index].length == 1 && reverseConversionsByIndex[index][0] instanceof FormattedValueConversion) {
+			return (FormattedValueConversion<?>) reverseConversionsByIndex[index][0];
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the conversions associated with a given index, in the order they are declared. Only meaningful after {@link FieldConversionMapping#prepareExecution(String[])} is invoked.
+	 * @param index The index of a value in a record
+	 * @return a copy of the sequence of conversions associated with the given index, or an empty array if there are none.
+	 */
+	public Conversion<?, ?>[] getConversions(int index) {
+		if (!hasConversions(index)) {
+			return new Conversion<?, ?>[0];
+		}
+		return declaredConversionsByIndex[index].clone();
+	}
+
+	/**
+	 * Returns the indexes of all columns that have at least one conversion associated with them, in ascending order. Only meaningful after {@link FieldConversionMapping#prepareExecution(String[])} is invoked.
+	 * @return the indexes of all columns to be converted.
+	 */
+	public int[] getConvertedIndexes() {
+		return convertedIndexes.clone();
+	}
+
+	/**
+	 * Enables caching the results of the conversions applied to a selection of fields, identified by name.
+	 * @param maxSize the maximum number of distinct values whose conversion results will be cached for each field
+	 * @return a FieldSet to select the names of the fields whose conversion results should be cached.
+	 */
+	public FieldSet<String> cacheConversionsOnFieldNames(int maxSize) {
+		return registerCache(new FieldNameSelector(), maxSize);
+	}
+
+	/**
+	 * Enables caching the results of the conversions applied to a selection of fields, identified by index.
+	 * @param maxSize the maximum number of distinct values whose conversion results will be cached for each field
+	 * @return a FieldSet to select the indexes of the fields whose conversion results should be cached.
+	 */
+	public FieldSet<Integer> cacheConversionsOnFieldIndexes(int maxSize) {
+		return registerCache(new FieldIndexSelector(), maxSize);
+	}
+
+	private <T extends FieldSelector> T registerCache(T selector, int maxSize) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("Maximum size of conversion cache must be a positive number. Got " + maxSize);
+		}
+		if (cacheSizes == null) {
+			cacheSizes = new LinkedHashMap<FieldSelector, Integer>();
+		}
+		cacheSizes.put(selector, maxSize);
+		return selector;
+	}
+
+	/**
+	 * Returns the cache of conversion results of a given column. Only available after {@link FieldConversionMapping#prepareExecution(String[])} is invoked.
+	 * @param index the index of the column
+	 * @return the cache of conversion results of the given column, or null if its results are not cached.
+	 */
+	public ConversionCache getConversionCache(int index) {
+		if (cachesByIndex == null || index < 0 || index >= cachesByIndex.length) {
+			return null;
+		}
+		return cachesByIndex[index];
+	}
+
+	/**
+	 * Returns the cache of conversion results of a given field. Only available after {@link FieldConversionMapping#prepareExecution(String[])} is invoked.
+	 * @param fieldName the name of the field
+	 * @return the cache of conversion results of the given field, or null if its results are not cached.
+	 */
+	public ConversionCache getConversionCache(String fieldName) {
+		if (preparedFields == null || fieldName == null) {
+			return null;
+		}
+		return getConversionCache(ArgumentUtils.indexOf(ArgumentUtils.normalize(preparedFields), ArgumentUtils.normalize(fieldName)));
 	}
 
 	public void applyConversionsOnAllFields(Conversion<String, ?>... conversions) {
@@ -109,27 +315,20 @@ public class FieldConversionMapping {
 	 */
 	@SuppressWarnings({ "unchecked", "rawtypes" })
 	public Object reverseConversions(boolean executeInReverseOrder, int index, Object value) {
-		List<Conversion<?, ?>> conversions = conversionsByIndex.get(index);
+		Conversion[][] sequences = executeInReverseOrder ? reverseConversionsByIndex : declaredConversionsByIndex;
+		if (sequences == null || index >= sequences.length) {
+			return value;
+		}
+		Conversion[] conversions = sequences[index];
 		if (conversions != null) {
 			Conversion conversion = null;
 			try {
-				if (executeInReverseOrder) {
-					for (int i = conversions.size() - 1; i >= 0; i--) {
-						conversion = conversions.get(i);
-						value = conversion.revert(value);
-					}
-				} else {
-					for (Conversion<?, ?> c : conversions) {
-						conversion = c;
-						value = conversion.revert(value);
-					}
+				for (int i = 0; i < conversions.length; i++) {
+					conversion = conversions[i];
+					value = conversion.revert(value);
 				}
 			} catch (Throwable ex) {
-				if (conversion != null) {
-					throw new IllegalStateException("Error converting value '" + value + "' using conversion " + conversion.getClass().getName(), ex);
-				} else {
-					throw new IllegalStateException("Error converting value '" + value + "'", ex);
-				}
+				throw new IllegalStateException("Error converting value '" + value + "' using conversion " + conversion.getClass().getName(), ex);
 			}
 		}
 		return value;
@@ -141,21 +340,94 @@ public class FieldConversionMapping {
 	 * @param stringValue The parsed value in a record
 	 * @return the Object produced by a sequence of conversions against the original String value.
 	 */
-	@SuppressWarnings({ "rawtypes", "unchecked" })
 	public Object applyConversions(int index, String stringValue) {
-		List<Conversion<?, ?>> conversions = conversionsByIndex.get(index);
-		if (conversions != null) {
-			Object result = stringValue;
-			for (Conversion conversion : conversions) {
-				try {
-					result = conversion.execute(result);
-				} catch (Throwable ex) {
-					throw new IllegalStateException("Error converting value '" + result + "' using conversion " + conversion.getClass().getName(), ex);
+		if (conversionsByIndex == null || index >= conversionsByIndex.length || conversionsByIndex[index] == null) {
+			return stringValue;
+		}
+		if (cachesByIndex != null && cachesByIndex[index] != null && stringValue != null) {
+			ConversionCache cache = cachesByIndex[index];
+			Object result = cache.get(stringValue);
+			if (result == ConversionCache.NOT_CACHED) {
+				result = execute(conversionsByIndex[index], stringValue);
+				cache.put(stringValue, result);
+			}
+			return result;
+		}
+		return execute(conversionsByIndex[index], stringValue);
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private Object execute(Conversion[] conversions, String stringValue) {
+		Object result = stringValue;
+		Conversion conversion = null;
+		try {
+			for (int i = 0; i < conversions.length; i++) {
+				conversion = conversions[i];
+				result = conversion.execute(result);
+			}
+		} catch (Throwable ex) {
+			throw new IllegalStateException("Error converting value '" + result + "' using conversion " + conversion.getClass().getName(), ex);
+		}
+		return result;
+	}
+
+	/**
+	 * Queries whether the conversion sequence associated with a given index can start from a range of characters, i.e.
+	 * if its first conversion is a {@link CharRangeConversion}, or if its results are cached.
+	 * @param index The index of parsed value in a record
+	 * @return true if {@link #applyConversions(int, char[], int, int)} can be used to convert values of the given index
+	 */
+	public boolean isCharRangeConversionSupported(int index) {
+		return hasConversions(index) && (conversionsByIndex[index][0] instanceof CharRangeConversion || getConversionCache(index) != null);
+	}
+
+	/**
+	 * Applies a sequence of conversions associated with a value parsed from a given index, where the first conversion is a {@link CharRangeConversion}
+	 * or the results of the conversions are cached (see {@link #isCharRangeConversionSupported(int)}).
+	 * @param index The index of parsed value in a record
+	 * @param chars the buffer that contains the characters of the parsed value
+	 * @param offset the position of the first character of the parsed value
+	 * @param length the number of characters of the parsed value
+	 * @return the Object produced by a sequence of conversions against the original characters.
+	 */
+	public Object applyConversions(int index, char[] chars, int offset, int length) {
+		Conversion<?, ?>[] conversions = conversionsByIndex[index];
+		ConversionCache cache = cachesByIndex == null ? null : cachesByIndex[index];
+		if (cache != null) {
+			Object result = cache.get(chars, offset, length);
+			if (result == ConversionCache.NOT_CACHED) {
+				String value = new String(chars, offset, length);
+				if (conversions[0] instanceof CharRangeConversion) {
+					result = convert(conversions, chars, offset, length);
+				} else {
+					result = execute(conversions, value);
 				}
+				cache.put(value, result);
 			}
 			return result;
 		}
-		return stringValue;
+		return convert(conversions, chars, offset, length);
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private Object convert(Conversion[] conversions, char[] chars, int offset, int length) {
+		Object first = conversions[0];
+		Object result;
+		try {
+			result = ((CharRangeConversion) first).convert(chars, offset, length);
+		} catch (Throwable ex) {
+			throw new IllegalStateException("Error converting value '" + new String(chars, offset, length) + "' using conversion " + first.getClass().getName(), ex);
+		}
+		Conversion conversion = null;
+		try {
+			for (int i = 1; i < conversions.length; i++) {
+				conversion = conversions[i];
+				result = conversion.execute(result);
+			}
+		} catch (Throwable ex) {
+			throw new IllegalStateException("Error converting value '" + result + "' using conversion " + conversion.getClass().getName(), ex);
+		}
+		return result;
 	}
 }
 
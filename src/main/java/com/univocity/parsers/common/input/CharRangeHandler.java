@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common.input;
+
+import com.univocity.parsers.common.*;
+import com.univocity.parsers.common.processor.*;
+
+/**
+ * A callback that consumes the characters of a parsed value directly from the internal buffer of a {@link CharAppender}, before (and instead of) having them converted into a String.
+ *
+ * <p>Handlers are provided by implementations of {@link CharRangeRowProcessor} and invoked by the {@link ParserOutput} for each non-empty value parsed from the columns they were assigned to.</p>
+ *
+ * @see CharRangeRowProcessor
+ * @see ParserOutput
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+public interface CharRangeHandler {
+
+	/**
+	 * Handles the characters of a value parsed from the input.
+	 * <p><b>Important:</b> the given character array is the internal buffer of the parser. Its contents are only valid during the invocation of this method and must not be modified.
+	 *
+	 * @param chars the buffer that contains the characters of the parsed value
+	 * @param offset the position of the first character of the value in the buffer
+	 * @param length the number of characters of the value. Always greater than zero.
+	 */
+	public void handle(char[] chars, int offset, int length);
+}
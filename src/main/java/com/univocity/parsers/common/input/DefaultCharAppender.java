@@ -20,7 +20,7 @@ import java.util.*;
 public class DefaultCharAppender implements CharAppender {
 
 	final char[] emptyChars; // default value to return when no characters have been accumulated
-	final char[] chars;
+	char[] chars;
 	final char padding;
 	int index = 0;
 	final String emptyValue; // default value to return when no characters have been accumulated
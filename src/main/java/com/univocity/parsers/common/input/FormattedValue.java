@@ -0,0 +1,350 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common.input;
+
+import java.math.*;
+
+/**
+ * A reusable buffer of characters that holds the String representation of a value to be written, so that values such as numbers and dates
+ * can be formatted without creating intermediate String objects.
+ *
+ * <p>Numbers are represented exactly as {@link String#valueOf(long)}, {@link String#valueOf(double)}, {@link String#valueOf(float)} and {@link BigDecimal#toString()} would represent them.
+ * Only values whose representation is simple to produce (integers, integral floating point values and decimals with less than 19 digits in plain notation) are formatted directly.
+ * Other values are appended using their String representation.</p>
+ *
+ * <p>Instances of this class are reused by the {@link com.univocity.parsers.common.processor.BeanWriterProcessor} to write values of each column
+ * of a row. Their contents are only valid until the next row is produced.</p>
+ *
+ * @see com.univocity.parsers.conversions.FormattedValueConversion
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+public final class FormattedValue implements CharSequence {
+
+	private static final char[] MIN_LONG = String.valueOf(Long.MIN_VALUE).toCharArray();
+	private static final double[] POWERS_OF_TEN = { 1.0, 1.0E1, 1.0E2, 1.0E3, 1.0E4, 1.0E5, 1.0E6, 1.0E7, 1.0E8, 1.0E9 };
+
+	private char[] chars;
+	private int length;
+
+	/**
+	 * Creates an empty buffer
+	 */
+	public FormattedValue() {
+		this(32);
+	}
+
+	/**
+	 * Creates an empty buffer with the given initial capacity
+	 * @param capacity the number of characters the buffer can hold before it has to grow
+	 */
+	public FormattedValue(int capacity) {
+		chars = new char[capacity < 1 ? 1 : capacity];
+	}
+
+	/**
+	 * Discards all characters accumulated in this buffer
+	 * @return this buffer, for chaining
+	 */
+	public FormattedValue reset() {
+		length = 0;
+		return this;
+	}
+
+	private void ensureCapacity(int additional) {
+		if (length + additional > chars.length) {
+			int capacity = chars.length * 2;
+			if (capacity < length + additional) {
+				capacity = length + additional;
+			}
+			char[] tmp = new char[capacity];
+			System.arraycopy(chars, 0, tmp, 0, length);
+			chars = tmp;
+		}
+	}
+
+	/**
+	 * Appends a character to this buffer
+	 * @param ch the character to append
+	 * @return this buffer, for chaining
+	 */
+	public FormattedValue append(char ch) {
+		ensureCapacity(1);
+		chars[length++] = ch;
+		return this;
+	}
+
+	/**
+	 * Appends a String to this buffer
+	 * @param string the String to append. Nothing is appended if it is null.
+	 * @return this buffer, for chaining
+	 */
+	public FormattedValue append(String string) {
+		if (string != null) {
+			int stringLength = string.length();
+			ensureCapacity(stringLength);
+			string.getChars(0, stringLength, chars, length);
+			length += stringLength;
+		}
+		return this;
+	}
+
+	/**
+	 * Appends a sequence of characters to this buffer
+	 * @param chars the characters to append
+	 * @param offset the position of the first character to append
+	 * @param length the number of characters to append
+	 * @return this buffer, for chaining
+	 */
+	public FormattedValue append(char[] chars, int offset, int length) {
+		ensureCapacity(length);
+		System.arraycopy(chars, offset, this.chars, this.length, length);
+		this.length += length;
+		return this;
+	}
+
+	/**
+	 * Appends the decimal representation of a number, as given by {@link String#valueOf(long)}
+	 * @param value the number to append
+	 * @return this buffer, for chaining
+	 */
+	public FormattedValue append(long value) {
+		if (value == Long.MIN_VALUE) {
+			ensureCapacity(MIN_LONG.length);
+			System.arraycopy(MIN_LONG, 0, chars, length, MIN_LONG.length);
+			length += MIN_LONG.length;
+			return this;
+		}
+		if (value < 0) {
+			append('-');
+			value = -value;
+		}
+		int digits = digitCount(value);
+		ensureCapacity(digits);
+		appendDigits(value, length + digits);
+		length += digits;
+		return this;
+	}
+
+	/**
+	 * Appends the representation of a number, as given by {@link String#valueOf(double)}
+	 * @param value the number to append
+	 * @return this buffer, for chaining
+	 */
+	public FormattedValue append(double value) {
+		if (value == (long) value && value > -1.0E7 && value < 1.0E7) {
+			if (value == 0.0 && 1.0 / value < 0) {
+				return append("-0.0");
+			}
+			append((long) value);
+			ensureCapacity(2);
+			chars[length++] = '.';
+			chars[length++] = '0';
+			return this;
+		}
+		return append(Double.toString(value));
+	}
+
+	/**
+	 * Appends the representation of a number, as given by {@link String#valueOf(float)}
+	 * @param value the number to append
+	 * @return this buffer, for chaining
+	 */
+	public FormattedValue append(float value) {
+		if (value == (long) value && value > -1.0E7f && value < 1.0E7f) {
+			return append((double) value);
+		}
+		return append(Float.toString(value));
+	}
+
+	/**
+	 * Appends a number with a fixed number of decimal places, rounded half-up. The result is the same as
+	 * {@code BigDecimal.valueOf(value).setScale(decimalPlaces, RoundingMode.HALF_UP).toPlainString()}. NaN and infinite values
+	 * are appended as given by {@link String#valueOf(double)}.
+	 *
+	 * @param value the number to append
+	 * @param decimalPlaces the number of digits after the decimal point
+	 * @return this buffer, for chaining
+	 */
+	public FormattedValue appendDecimal(double value, int decimalPlaces) {
+		if (decimalPlaces < 0) {
+			throw new IllegalArgumentException("Number of decimal places must not be negative. Got " + decimalPlaces);
+		}
+		if (Double.isNaN(value) || Double.isInfinite(value)) {
+			return append(Double.toString(value));
+		}
+
+		if (decimalPlaces < POWERS_OF_TEN.length) {
+			double scaled = Math.abs(value) * POWERS_OF_TEN[decimalPlaces];
+			//only values that can't be affected by the rounding errors of the multiplication are formatted here
+			if (scaled < 1.0E12) {
+				double fraction = scaled - Math.floor(scaled);
+				if (Math.abs(fraction - 0.5) > 1.0E-3) {
+					long rounded = (long) Math.floor(scaled + 0.5);
+					if (rounded != 0 && value < 0) {
+						append('-');
+					}
+					appendFixed(rounded, decimalPlaces);
+					return this;
+				}
+			}
+		}
+		return append(BigDecimal.valueOf(value).setScale(decimalPlaces, RoundingMode.HALF_UP).toPlainString());
+	}
+
+	/**
+	 * Appends the digits of a positive number, placing a decimal point before the given number of decimal places.
+	 */
+	private void appendFixed(long value, int decimalPlaces) {
+		int digits = digitCount(value);
+		if (digits <= decimalPlaces) {
+			digits = decimalPlaces + 1;
+		}
+		int total = decimalPlaces > 0 ? digits + 1 : digits;
+		ensureCapacity(total);
+
+		int position = length + total;
+		for (int i = 0; i < decimalPlaces; i++) {
+			long quotient = value / 10;
+			chars[--position] = (char) ('0' + (value - quotient * 10));
+			value = quotient;
+		}
+		if (decimalPlaces > 0) {
+			chars[--position] = '.';
+		}
+		while (position > length) {
+			long quotient = value / 10;
+			chars[--position] = (char) ('0' + (value - quotient * 10));
+			value = quotient;
+		}
+		length += total;
+	}
+
+	/**
+	 * Appends the representation of a number, as given by {@link BigDecimal#toString()}
+	 * @param value the number to append. Nothing is appended if it is null.
+	 * @return this buffer, for chaining
+	 */
+	public FormattedValue append(BigDecimal value) {
+		if (value == null) {
+			return this;
+		}
+		int scale = value.scale();
+		BigInteger unscaled = value.unscaledValue();
+		if (scale < 0 || unscaled.bitLength() > 62) {
+			return append(value.toString());
+		}
+
+		long digitsValue = unscaled.longValue();
+		boolean negative = digitsValue < 0;
+		if (negative) {
+			digitsValue = -digitsValue;
+		}
+		int digits = digitCount(digitsValue);
+		if (scale == 0) {
+			if (negative) {
+				append('-');
+			}
+			ensureCapacity(digits);
+			appendDigits(digitsValue, length + digits);
+			length += digits;
+			return this;
+		}
+
+		int adjustedExponent = digits - 1 - scale;
+		if (adjustedExponent < -6) {
+			return append(value.toString());
+		}
+
+		if (negative) {
+			append('-');
+		}
+		if (digits > scale) {
+			ensureCapacity(digits + 1);
+			int integerDigits = digits - scale;
+			appendDigits(digitsValue, length + digits + 1);
+			System.arraycopy(chars, length + 1, chars, length, integerDigits);
+			chars[length + integerDigits] = '.';
+			length += digits + 1;
+		} else {
+			int leadingZeros = scale - digits;
+			ensureCapacity(2 + leadingZeros + digits);
+			chars[length++] = '0';
+			chars[length++] = '.';
+			for (int i = 0; i < leadingZeros; i++) {
+				chars[length++] = '0';
+			}
+			appendDigits(digitsValue, length + digits);
+			length += digits;
+		}
+		return this;
+	}
+
+	/**
+	 * Writes the digits of a positive number backwards, ending right before the given position.
+	 */
+	private void appendDigits(long value, int end) {
+		int position = end;
+		while (value >= 10) {
+			long quotient = value / 10;
+			chars[--position] = (char) ('0' + (value - quotient * 10));
+			value = quotient;
+		}
+		chars[--position] = (char) ('0' + value);
+	}
+
+	private static int digitCount(long value) {
+		int digits = 1;
+		long limit = 10;
+		while (digits < 19 && value >= limit) {
+			digits++;
+			limit *= 10;
+		}
+		return digits;
+	}
+
+	/**
+	 * Returns the internal buffer of characters. Only the first {@link #length()} characters are valid.
+	 * @return the internal buffer of this value
+	 */
+	public char[] getChars() {
+		return chars;
+	}
+
+	@Override
+	public int length() {
+		return length;
+	}
+
+	@Override
+	public char charAt(int index) {
+		if (index >= length) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + length);
+		}
+		return chars[index];
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		return new String(chars, start, end - start);
+	}
+
+	@Override
+	public String toString() {
+		return new String(chars, 0, length);
+	}
+}
@@ -16,6 +16,7 @@
 package com.univocity.parsers.common.input;
 
 import java.io.*;
+import java.util.*;
 
 import com.univocity.parsers.common.*;
 
@@ -24,6 +25,7 @@ import com.univocity.parsers.common.*;
  *
  * <p> This class introduces the handling of the normalized newline character defined in {@link Format#getNormalizedNewline()} and converts it to the newline sequence in {@link Format#getLineSeparator()}
  * <p> It also introduces methods to write to an instance of  {@link java.io.Writer} directly to avoid unnecessary String instantiations.
+ * <p> The internal buffer can start small and grow on demand, up to a maximum number of characters. An {@link IllegalStateException} is thrown when more characters than that are appended.
  *
  * @see com.univocity.parsers.common.Format
  * @see com.univocity.parsers.common.AbstractWriter
@@ -36,6 +38,7 @@ public class WriterCharAppender extends DefaultCharAppender {
 	private final char lineSeparator1;
 	private final char lineSeparator2;
 	private final char newLine;
+	private final int maxLength;
 
 	/**
 	 * Creates a WriterCharAppender with:
@@ -71,7 +74,27 @@ public class WriterCharAppender extends DefaultCharAppender {
 	 * @param format the output format specification used for newline handling
 	 */
 	public WriterCharAppender(int maxLength, String emptyValue, char padding, Format format) {
-		super(maxLength, emptyValue, padding);
+		this(maxLength, maxLength, emptyValue, padding, format);
+	}
+
+	/**
+	 * Creates a WriterCharAppender with:
+	 * <ul>
+	 *  <li>an initial buffer size, which grows on demand</li>
+	 *  <li>a maximum limit of characters to append</li>
+	 *  <li>the default value to return when no characters have been accumulated.</li>
+	 *  <li>the basic {@link Format} specification for handling newlines</li>
+	 * </ul>
+	 *
+	 * @param initialLength initial size of the internal buffer
+	 * @param maxLength maximum limit of characters to append
+	 * @param emptyValue default value to return when no characters have been accumulated
+	 * @param padding the padding character to ignore when calling {@link WriterCharAppender#appendIgnoringWhitespaceAndPadding(char)}.
+	 * @param format the output format specification used for newline handling
+	 */
+	public WriterCharAppender(int initialLength, int maxLength, String emptyValue, char padding, Format format) {
+		super(initialLength < maxLength ? initialLength : maxLength, emptyValue, padding);
+		this.maxLength = maxLength;
 
 		char[] lineSeparator = format.getLineSeparator();
 
@@ -90,6 +113,9 @@ public class WriterCharAppender extends DefaultCharAppender {
 	 */
 	@Override
 	public void appendIgnoringWhitespace(char ch) {
+		if (index + 2 > chars.length) {
+			ensureCapacity(ch == newLine ? lineSeparatorLength() : 1);
+		}
 		if (ch == newLine) {
 			super.appendIgnoringWhitespace(lineSeparator1);
 			if (lineSeparator2 != '\0') {
@@ -109,6 +135,9 @@ public class WriterCharAppender extends DefaultCharAppender {
 	 */
 	@Override
 	public void appendIgnoringPadding(char ch) {
+		if (index + 2 > chars.length) {
+			ensureCapacity(ch == newLine ? lineSeparatorLength() : 1);
+		}
 		if (ch == newLine) {
 			super.appendIgnoringPadding(lineSeparator1);
 			if (lineSeparator2 != '\0') {
@@ -128,6 +157,9 @@ public class WriterCharAppender extends DefaultCharAppender {
 	 */
 	@Override
 	public void appendIgnoringWhitespaceAndPadding(char ch) {
+		if (index + 2 > chars.length) {
+			ensureCapacity(ch == newLine ? lineSeparatorLength() : 1);
+		}
 		if (ch == newLine) {
 			super.appendIgnoringWhitespaceAndPadding(lineSeparator1);
 			if (lineSeparator2 != '\0') {
@@ -150,10 +182,52 @@ public class WriterCharAppender extends DefaultCharAppender {
 		if (ch == newLine) {
 			appendNewLine();
 		} else {
+			if (index == chars.length) {
+				ensureCapacity(1);
+			}
 			super.append(ch);
 		}
 	}
 
+	/**
+	 * Appends a range of characters from a given sequence in bulk. The characters are copied as they are: newlines are not converted and whitespaces are not tracked.
+	 *
+	 * @param sequence the sequence of characters
+	 * @param from the position of the first character to append
+	 * @param to the position after the last character to append
+	 */
+	public void append(CharSequence sequence, int from, int to) {
+		int length = to - from;
+		if (index + length > chars.length) {
+			ensureCapacity(length);
+		}
+		if (sequence instanceof String) {
+			((String) sequence).getChars(from, to, chars, index);
+		} else if (sequence instanceof FormattedValue) {
+			System.arraycopy(((FormattedValue) sequence).getChars(), from, chars, index, length);
+		} else {
+			for (int i = from, j = index; i < to; i++, j++) {
+				chars[j] = sequence.charAt(i);
+			}
+		}
+		index += length;
+	}
+
+	/**
+	 * Appends a range of characters from a given array in bulk. The characters are copied as they are: newlines are not converted and whitespaces are not tracked.
+	 *
+	 * @param array the array of characters
+	 * @param offset the position of the first character to append
+	 * @param length the number of characters to append
+	 */
+	public void append(char[] array, int offset, int length) {
+		if (index + length > chars.length) {
+			ensureCapacity(length);
+		}
+		System.arraycopy(array, offset, chars, index, length);
+		index += length;
+	}
+
 	/**
 	 * Writes the accumulated value to the {@link java.io.Writer}, discarding any trailing whitespace characters identified when using {@link WriterCharAppender#appendIgnoringWhitespace(char)}, {@link WriterCharAppender#appendIgnoringPadding(char)} or {@link WriterCharAppender#appendIgnoringWhitespaceAndPadding(char)}
 	 * <p> The internal accumulated value is discarded after invoking this method (as in {@link DefaultCharAppender#reset()})
@@ -175,9 +249,48 @@ public class WriterCharAppender extends DefaultCharAppender {
 	 * Appends the newline character sequence specified in {@link Format#getLineSeparator()}
 	 */
 	public void appendNewLine() {
+		if (index + 2 > chars.length) {
+			ensureCapacity(lineSeparatorLength());
+		}
 		super.append(lineSeparator1);
 		if (lineSeparator2 != '\0') {
 			super.append(lineSeparator2);
 		}
 	}
+
+	/**
+	 * Appends the contents of another DefaultCharAppender, discarding any of its trailing whitespace characters
+	 * @param appender The DefaultCharAppender instance got get contents from.
+	 */
+	@Override
+	public void append(DefaultCharAppender appender) {
+		int length = appender.index - appender.whitespaceCount;
+		if (index + length > chars.length) {
+			ensureCapacity(length);
+		}
+		super.append(appender);
+	}
+
+	private int lineSeparatorLength() {
+		return lineSeparator2 == '\0' ? 1 : 2;
+	}
+
+	/**
+	 * Grows the internal buffer so it can receive more characters, without exceeding the maximum limit of characters given in the constructor.
+	 * @param additional the number of characters about to be appended
+	 */
+	private void ensureCapacity(int additional) {
+		int required = index + additional;
+		if (required <= chars.length) {
+			return;
+		}
+		if (required > maxLength) {
+			throw new IllegalStateException("Cannot append more than " + maxLength + " characters. Use settings.setMaxCharsPerColumn(int) and settings.setMaxCharsPerRow(int) to define the maximum number of characters a value and a record can have");
+		}
+		int newLength = chars.length < maxLength / 2 ? chars.length * 2 : maxLength;
+		if (newLength < required) {
+			newLength = required;
+		}
+		chars = Arrays.copyOf(chars, newLength);
+	}
 }
@@ -0,0 +1,391 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common.output;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+
+import com.univocity.parsers.common.*;
+
+/**
+ * A {@link java.io.Writer} that encodes characters directly into a reusable buffer of bytes, which is written to an {@link OutputStream} or to a {@link WritableByteChannel} when full.
+ *
+ * <p> Unlike an {@link OutputStreamWriter} wrapped in a {@link BufferedWriter}, characters are not copied into an intermediate buffer before being encoded, and no locks are acquired.
+ *     Instances of this class are not thread-safe.
+ * <p> US-ASCII, ISO-8859-1 and UTF-8 are encoded without a {@link CharsetEncoder}. Other charsets use the encoder provided by {@link Charset#newEncoder()}.
+ *     In all cases, characters that can't be encoded are replaced in the same way {@link OutputStreamWriter} does.
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+public final class EncodingWriter extends Writer {
+
+	private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * The minimum size of a buffer given to {@link #EncodingWriter(OutputStream, Charset, byte[])}
+	 */
+	public static final int MIN_BUFFER_SIZE = 16;
+
+	private static final int ASCII = 0;
+	private static final int LATIN1 = 1;
+	private static final int UTF8 = 2;
+	private static final int OTHER = 3;
+
+	private final OutputStream outputStream;
+	private final WritableByteChannel channel;
+
+	private final int encoding;
+	private final char maxSingleByteChar;
+	private final CharsetEncoder encoder;
+	private final byte[] replacement;
+
+	private final byte[] bytes;
+	private final ByteBuffer byteBuffer;
+	private int position;
+	private long bytesWritten;
+
+	private final char[] singleChar = new char[1];
+	private char pendingSurrogate;
+	private char[] stringBuffer;
+	private boolean closed;
+
+	/**
+	 * Creates a writer that encodes characters into bytes written to an {@link OutputStream}
+	 * @param output the output stream that will receive the encoded bytes
+	 * @param charset the encoding to use
+	 */
+	public EncodingWriter(OutputStream output, Charset charset) {
+		this(output, null, charset, new byte[DEFAULT_BUFFER_SIZE]);
+	}
+
+	/**
+	 * Creates a writer that encodes characters into bytes written to a {@link WritableByteChannel}
+	 * @param output the channel that will receive the encoded bytes
+	 * @param charset the encoding to use
+	 */
+	public EncodingWriter(WritableByteChannel output, Charset charset) {
+		this(null, output, charset, new byte[DEFAULT_BUFFER_SIZE]);
+	}
+
+	/**
+	 * Creates a writer that encodes characters into bytes written to a file. If the file exists, it will be overwritten.
+	 * @param file the file that will receive the encoded bytes
+	 * @param charset the encoding to use
+	 */
+	public EncodingWriter(File file, Charset charset) {
+		this(openFile(file), null, charset, new byte[DEFAULT_BUFFER_SIZE]);
+	}
+
+	/**
+	 * Creates a writer that encodes characters into bytes written to an {@link OutputStream}, compressed as configured in {@link CommonWriterSettings#getOutputCompression()}
+	 * @param output the output stream that will receive the encoded (and possibly compressed) bytes
+	 * @param charset the encoding to use
+	 * @param settings the writer settings with the compression configuration
+	 */
+	public EncodingWriter(OutputStream output, Charset charset, CommonWriterSettings<?> settings) {
+		this(OutputCompression.compress(output, settings), null, charset, new byte[DEFAULT_BUFFER_SIZE]);
+	}
+
+	/**
+	 * Creates a writer that encodes characters into bytes written to a {@link WritableByteChannel}, compressed as configured in {@link CommonWriterSettings#getOutputCompression()}
+	 * @param output the channel that will receive the encoded (and possibly compressed) bytes
+	 * @param charset the encoding to use
+	 * @param settings the writer settings with the compression configuration
+	 */
+	public EncodingWriter(WritableByteChannel output, Charset charset, CommonWriterSettings<?> settings) {
+		this(compressedChannel(output, settings), isCompressed(settings) ? null : output, charset, new byte[DEFAULT_BUFFER_SIZE]);
+	}
+
+	/**
+	 * Creates a writer that encodes characters into bytes written to a file, compressed as configured in {@link CommonWriterSettings#getOutputCompression()}. If the file exists, it will be overwritten.
+	 * @param file the file that will receive the encoded (and possibly compressed) bytes
+	 * @param charset the encoding to use
+	 * @param settings the writer settings with the compression configuration
+	 */
+	public EncodingWriter(File file, Charset charset, CommonWriterSettings<?> settings) {
+		this(OutputCompression.compress(openFile(file), settings), null, charset, new byte[DEFAULT_BUFFER_SIZE]);
+	}
+
+	/**
+	 * Creates a writer that encodes characters into the given buffer of bytes, which is written to an {@link OutputStream} when full.
+	 * <p> The buffer is used exclusively by this writer until it is closed, and can be reused by another instance afterwards.
+	 * @param output the output stream that will receive the encoded bytes
+	 * @param charset the encoding to use
+	 * @param buffer the buffer that will hold encoded bytes before they are written to the output. Must have at least {@value #MIN_BUFFER_SIZE} bytes.
+	 */
+	public EncodingWriter(OutputStream output, Charset charset, byte[] buffer) {
+		this(output, null, charset, buffer);
+	}
+
+	private EncodingWriter(OutputStream outputStream, WritableByteChannel channel, Charset charset, byte[] buffer) {
+		if (outputStream == null && channel == null) {
+			throw new IllegalArgumentException("Output cannot be null");
+		}
+		if (charset == null) {
+			throw new IllegalArgumentException("Charset cannot be null");
+		}
+		if (buffer == null || buffer.length < MIN_BUFFER_SIZE) {
+			throw new IllegalArgumentException("Buffer must have at least " + MIN_BUFFER_SIZE + " bytes");
+		}
+		this.outputStream = outputStream;
+		this.channel = channel;
+		this.bytes = buffer;
+		this.byteBuffer = ByteBuffer.wrap(bytes);
+
+		String name = charset.name();
+		if ("UTF-8".equals(name)) {
+			encoding = UTF8;
+			maxSingleByteChar = 0x7F;
+		} else if ("ISO-8859-1".equals(name)) {
+			encoding = LATIN1;
+			maxSingleByteChar = 0xFF;
+		} else if ("US-ASCII".equals(name)) {
+			encoding = ASCII;
+			maxSingleByteChar = 0x7F;
+		} else {
+			encoding = OTHER;
+			maxSingleByteChar = 0;
+		}
+
+		this.encoder = charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+		this.replacement = encoder.replacement();
+	}
+
+	private static boolean isCompressed(CommonWriterSettings<?> settings) {
+		return settings.getOutputCompression() != OutputCompression.NONE;
+	}
+
+	private static OutputStream compressedChannel(WritableByteChannel channel, CommonWriterSettings<?> settings) {
+		if (!isCompressed(settings)) {
+			return null;
+		}
+		if (channel == null) {
+			throw new IllegalArgumentException("Output cannot be null");
+		}
+		return OutputCompression.compress(Channels.newOutputStream(channel), settings);
+	}
+
+	private static OutputStream openFile(File file) {
+		if (file == null) {
+			throw new IllegalArgumentException("File cannot be null");
+		}
+		try {
+			return new FileOutputStream(file);
+		} catch (FileNotFoundException e) {
+			throw new IllegalArgumentException("Unable to write to file " + file.getAbsolutePath(), e);
+		}
+	}
+
+	@Override
+	public void write(int c) throws IOException {
+		singleChar[0] = (char) c;
+		write(singleChar, 0, 1);
+	}
+
+	@Override
+	public void write(String str, int off, int len) throws IOException {
+		while (len > 0) {
+			if (stringBuffer == null) {
+				stringBuffer = new char[1024];
+			}
+			int count = len < stringBuffer.length ? len : stringBuffer.length;
+			str.getChars(off, off + count, stringBuffer, 0);
+			write(stringBuffer, 0, count);
+			off += count;
+			len -= count;
+		}
+	}
+
+	@Override
+	public void write(char[] cbuf, int off, int len) throws IOException {
+		if (closed) {
+			throw new IOException("Writer closed");
+		}
+		while (pendingSurrogate != 0 && len > 0) {
+			char[] pair = new char[] { pendingSurrogate, cbuf[off] };
+			pendingSurrogate = 0;
+			encode(pair, 0, 2);
+			off++;
+			len--;
+		}
+		if (len > 0) {
+			encode(cbuf, off, len);
+		}
+	}
+
+	private void encode(char[] chars, int off, int len) throws IOException {
+		if (encoding == OTHER) {
+			encodeWithEncoder(CharBuffer.wrap(chars, off, len), false);
+			return;
+		}
+
+		final int end = off + len;
+		final int limit = bytes.length - 4;
+		final byte[] bytes = this.bytes;
+		int position = this.position;
+
+		for (int i = off; i < end; i++) {
+			if (position > limit) {
+				this.position = position;
+				writeBytes();
+				position = 0;
+			}
+			char ch = chars[i];
+			if (ch <= maxSingleByteChar) {
+				bytes[position++] = (byte) ch;
+				continue;
+			}
+			if (Character.isHighSurrogate(ch)) {
+				if (i + 1 == end) {
+					pendingSurrogate = ch;
+					break;
+				}
+				if (Character.isLowSurrogate(chars[i + 1])) {
+					if (encoding == UTF8) {
+						int codePoint = Character.toCodePoint(ch, chars[++i]);
+						bytes[position++] = (byte) (0xF0 | (codePoint >> 18));
+						bytes[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+						bytes[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+						bytes[position++] = (byte) (0x80 | (codePoint & 0x3F));
+					} else {
+						i++;
+						position = appendReplacement(position);
+					}
+					continue;
+				}
+				position = appendReplacement(position);
+			} else if (encoding != UTF8 || Character.isLowSurrogate(ch)) {
+				position = appendReplacement(position);
+			} else if (ch < 0x800) {
+				bytes[position++] = (byte) (0xC0 | (ch >> 6));
+				bytes[position++] = (byte) (0x80 | (ch & 0x3F));
+			} else {
+				bytes[position++] = (byte) (0xE0 | (ch >> 12));
+				bytes[position++] = (byte) (0x80 | ((ch >> 6) & 0x3F));
+				bytes[position++] = (byte) (0x80 | (ch & 0x3F));
+			}
+		}
+		this.position = position;
+	}
+
+	private int appendReplacement(int position) {
+		for (int i = 0; i < replacement.length; i++) {
+			bytes[position++] = replacement[i];
+		}
+		return position;
+	}
+
+	private void encodeWithEncoder(CharBuffer in, boolean endOfInput) throws IOException {
+		byteBuffer.clear();
+		byteBuffer.position(position);
+		while (true) {
+			CoderResult result = encoder.encode(in, byteBuffer, endOfInput);
+			if (result.isOverflow()) {
+				position = byteBuffer.position();
+				writeBytes();
+				byteBuffer.clear();
+				continue;
+			}
+			break;
+		}
+		if (in.hasRemaining()) { //a high surrogate at the end of the input
+			pendingSurrogate = in.get();
+		}
+		position = byteBuffer.position();
+	}
+
+	private void writeBytes() throws IOException {
+		if (position == 0) {
+			return;
+		}
+		if (outputStream != null) {
+			outputStream.write(bytes, 0, position);
+		} else {
+			ByteBuffer out = ByteBuffer.wrap(bytes, 0, position);
+			while (out.hasRemaining()) {
+				channel.write(out);
+			}
+		}
+		bytesWritten += position;
+		position = 0;
+	}
+
+	/**
+	 * Returns the number of bytes produced by this writer so far, including the encoded bytes that were not written to the output yet.
+	 * @return the number of bytes encoded so far.
+	 */
+	public long getByteCount() {
+		return bytesWritten + position;
+	}
+
+	/**
+	 * Writes all bytes encoded so far to the output, and flushes it.
+	 * @throws IOException if an error occurs writing to the output.
+	 */
+	@Override
+	public void flush() throws IOException {
+		if (closed) {
+			return;
+		}
+		writeBytes();
+		if (outputStream != null) {
+			outputStream.flush();
+		}
+	}
+
+	/**
+	 * Writes all bytes encoded so far to the output, and closes it.
+	 * @throws IOException if an error occurs writing to or closing the output.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		try {
+			if (encoding == OTHER) {
+				CharBuffer remaining = pendingSurrogate != 0 ? CharBuffer.wrap(new char[] { pendingSurrogate }) : CharBuffer.allocate(0);
+				pendingSurrogate = 0;
+				encodeWithEncoder(remaining, true);
+				byteBuffer.clear();
+				byteBuffer.position(position);
+				while (encoder.flush(byteBuffer).isOverflow()) {
+					position = byteBuffer.position();
+					writeBytes();
+					byteBuffer.clear();
+				}
+				position = byteBuffer.position();
+			} else if (pendingSurrogate != 0) {
+				pendingSurrogate = 0;
+				if (position > bytes.length - 4) {
+					writeBytes();
+				}
+				position = appendReplacement(position);
+			}
+			flush();
+		} finally {
+			closed = true;
+			if (outputStream != null) {
+				outputStream.close();
+			} else {
+				channel.close();
+			}
+		}
+	}
+}
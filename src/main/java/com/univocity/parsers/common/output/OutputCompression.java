@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common.output;
+
+import java.io.*;
+import java.util.zip.*;
+
+import com.univocity.parsers.common.*;
+import com.univocity.parsers.common.output.concurrent.*;
+
+/**
+ * The compression algorithms that can be applied to the bytes produced by a writer, as given by {@link CommonWriterSettings#getOutputCompression()}
+ *
+ * <p>Compression is only applied when writers are created with an {@link OutputStream}, a {@link java.nio.channels.WritableByteChannel} or a {@link File} as their output.</p>
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+public enum OutputCompression {
+
+	/**
+	 * No compression
+	 */
+	NONE,
+
+	/**
+	 * GZIP compression, as produced by {@link GZIPOutputStream}
+	 */
+	GZIP,
+
+	/**
+	 * DEFLATE compression in the ZLIB format, as produced by {@link DeflaterOutputStream}
+	 */
+	DEFLATE;
+
+	private static final int BUFFER_SIZE = 256 * 1024;
+
+	/**
+	 * Wraps the given output stream with a stream that compresses its input in a separate thread, according to the compression configured in the given settings.
+	 *
+	 * <p>With more than one compression thread ({@link CommonWriterSettings#getCompressionThreads()}), GZIP compression is performed on blocks of bytes in parallel, and produces a multi-member GZIP output
+	 * (see {@link ParallelGzipOutputStream}). DEFLATE compression is always performed by a single thread.</p>
+	 *
+	 * @param output the output stream that will receive the compressed bytes.
+	 * @param settings the writer settings with the compression configuration.
+	 * @return a stream that compresses the bytes written to it into the given output, or the given output itself if no compression is configured.
+	 */
+	public static OutputStream compress(OutputStream output, CommonWriterSettings<?> settings) {
+		OutputCompression compression = settings.getOutputCompression();
+		if (compression == null || compression == NONE) {
+			return output;
+		}
+		try {
+			if (compression == GZIP && settings.getCompressionThreads() > 1) {
+				return new ParallelGzipOutputStream(output, BUFFER_SIZE, settings.getCompressionThreads());
+			}
+
+			OutputStream compressed = compression.wrap(output, BUFFER_SIZE);
+			return new ConcurrentOutputStream(compressed, BUFFER_SIZE, settings.getOutputBufferQuantity());
+		} catch (IOException e) {
+			throw new IllegalStateException("Unable to initialize " + compression + " compression of output", e);
+		}
+	}
+
+	/**
+	 * Wraps the given output stream with a stream that compresses its input on the thread that writes to it, without starting any additional threads.
+	 *
+	 * @param output the output stream that will receive the compressed bytes.
+	 * @param bufferSize the size of the buffer used by the compressing stream.
+	 * @return a stream that compresses the bytes written to it into the given output, or the given output itself if this is {@link #NONE}.
+	 * @throws IOException if the compression header can't be written to the given output
+	 */
+	public OutputStream wrap(OutputStream output, int bufferSize) throws IOException {
+		if (this == NONE) {
+			return output;
+		}
+		if (this == GZIP) {
+			return new GZIPOutputStream(output, bufferSize);
+		}
+		final Deflater deflater = new Deflater();
+		return new DeflaterOutputStream(output, deflater, bufferSize) {
+			@Override
+			public void close() throws IOException {
+				try {
+					super.close();
+				} finally {
+					deflater.end();
+				}
+			}
+		};
+	}
+}
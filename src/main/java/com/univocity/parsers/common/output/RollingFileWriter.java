@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common.output;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.util.*;
+
+import com.univocity.parsers.common.*;
+import com.univocity.parsers.common.output.concurrent.*;
+
+/**
+ * A {@link java.io.Writer} that distributes the output of an {@link AbstractWriter} among a sequence of files, starting a new file when the current one reaches the limits given by
+ * {@link CommonWriterSettings#getMaxRecordsPerOutput()} and {@link CommonWriterSettings#getMaxBytesPerOutput()}.
+ *
+ * <p> The name of each file is given by a path template, where every occurrence of {@value #INDEX_PLACEHOLDER} is replaced by the position of the file in the sequence, starting from 1.
+ *     Files that already exist are overwritten.
+ * <p> The {@link AbstractWriter} that receives an instance of this class only switches files before a record is written, so records are never split between files.
+ *     If header writing is enabled, the headers are written again at the beginning of each file.
+ * <p> Characters are encoded with an {@link EncodingWriter} on the caller thread. The same buffer of bytes is reused for every file. The bytes are compressed as configured in
+ *     {@link CommonWriterSettings#getOutputCompression()} and, if {@link CommonWriterSettings#getWriteOutputOnSeparateThread()} is enabled, written to the file on a separate thread.
+ *
+ * @see AbstractWriter
+ * @see CommonWriterSettings
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+public final class RollingFileWriter extends Writer {
+
+	/**
+	 * The placeholder to be replaced by the index of each file in the path template given to the constructor of this class.
+	 */
+	public static final String INDEX_PLACEHOLDER = "{index}";
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final String pathTemplate;
+	private final Charset encoding;
+	private final CommonWriterSettings<?> settings;
+	private final long maxRecords;
+	private final long maxBytes;
+	private final float maxBytesPerChar;
+
+	private final byte[] buffer = new byte[BUFFER_SIZE];
+	private final List<File> files = new ArrayList<File>();
+	private EncodingWriter output;
+	private long recordsInOutput;
+	private boolean closed;
+
+	/**
+	 * Creates a writer that produces a sequence of files named after the given path template, with the limits defined in the given settings.
+	 * The first file is created immediately.
+	 * @param pathTemplate the path of the output files, where every occurrence of {@value #INDEX_PLACEHOLDER} will be replaced by the index of each file.
+	 * @param encoding the encoding of the output files
+	 * @param settings the writer settings with the limits of each file and the compression configuration
+	 */
+	public RollingFileWriter(String pathTemplate, Charset encoding, CommonWriterSettings<?> settings) {
+		if (pathTemplate == null || !pathTemplate.contains(INDEX_PLACEHOLDER)) {
+			throw new IllegalArgumentException("Path template must contain the file index placeholder " + INDEX_PLACEHOLDER + ". Got " + pathTemplate);
+		}
+		if (encoding == null) {
+			throw new IllegalArgumentException("Encoding cannot be null");
+		}
+		if (settings == null) {
+			throw new IllegalArgumentException("Settings cannot be null");
+		}
+		this.pathTemplate = pathTemplate;
+		this.encoding = encoding;
+		this.settings = settings;
+		this.maxRecords = settings.getMaxRecordsPerOutput();
+		this.maxBytes = settings.getMaxBytesPerOutput();
+		this.maxBytesPerChar = encoding.canEncode() ? encoding.newEncoder().maxBytesPerChar() : 4;
+		try {
+			open();
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to write to file " + files.get(files.size() - 1).getAbsolutePath(), e);
+		}
+	}
+
+	private void open() throws IOException {
+		File file = new File(pathTemplate.replace(INDEX_PLACEHOLDER, String.valueOf(files.size() + 1)));
+		files.add(file);
+
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null && !parent.exists()) {
+			parent.mkdirs();
+		}
+		OutputStream out = new FileOutputStream(file);
+		if (settings.getWriteOutputOnSeparateThread() && settings.getOutputCompression() == OutputCompression.NONE) {
+			out = new ConcurrentOutputStream(out, settings.getOutputBufferSize(), settings.getOutputBufferQuantity());
+		}
+		output = new EncodingWriter(OutputCompression.compress(out, settings), encoding, buffer);
+		recordsInOutput = 0;
+	}
+
+	/**
+	 * Indicates whether the current file reached its limits, and the given record must be written to a new file.
+	 * The first record written to each file is never moved to another file, even if it exceeds the limits on its own.
+	 * @param recordLength the number of characters of the next record to be written.
+	 * @return {@code true} if {@link #roll()} must be invoked before writing the next record.
+	 */
+	public boolean isRollRequired(int recordLength) {
+		if (recordsInOutput == 0) {
+			return false;
+		}
+		if (maxRecords > 0 && recordsInOutput >= maxRecords) {
+			return true;
+		}
+		return maxBytes > 0 && output.getByteCount() + (long) (recordLength * maxBytesPerChar) > maxBytes;
+	}
+
+	/**
+	 * Notifies this writer that a record is about to be written to the current file.
+	 */
+	public void recordWritten() {
+		recordsInOutput++;
+	}
+
+	/**
+	 * Closes the current file and starts writing to the next one.
+	 * @throws IOException if an error occurs closing the current file or creating the next one.
+	 */
+	public void roll() throws IOException {
+		ensureOpen();
+		output.close();
+		open();
+	}
+
+	/**
+	 * Returns the files created by this writer so far, in the order they were written.
+	 * @return the files produced by this writer.
+	 */
+	public List<File> getFiles() {
+		return Collections.unmodifiableList(files);
+	}
+
+	@Override
+	public void write(int c) throws IOException {
+		ensureOpen();
+		output.write(c);
+	}
+
+	@Override
+	public void write(char[] cbuf, int off, int len) throws IOException {
+		ensureOpen();
+		output.write(cbuf, off, len);
+	}
+
+	@Override
+	public void write(String str, int off, int len) throws IOException {
+		ensureOpen();
+		output.write(str, off, len);
+	}
+
+	@Override
+	public void flush() throws IOException {
+		if (!closed) {
+			output.flush();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (!closed) {
+			closed = true;
+			output.close();
+		}
+	}
+
+	private void ensureOpen() throws IOException {
+		if (closed) {
+			throw new IOException("Writer closed");
+		}
+	}
+}
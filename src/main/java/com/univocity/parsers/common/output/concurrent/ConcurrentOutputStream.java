@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common.output.concurrent;
+
+import java.io.*;
+
+/**
+ * An {@link OutputStream} that accumulates bytes in buffers and writes them to another {@link OutputStream} in a separate thread.
+ *
+ * <p> This is useful when writing to the given output is expensive, e.g. when it compresses its input: bytes are produced on the caller thread while
+ *     the previous buffer is written (and compressed) in parallel.
+ * <p> The number of buffers is fixed. The caller will block when all buffers are waiting to be written.
+ * <p> Any error writing to the output is reported in the next call to a method of this class made by the caller thread.
+ *
+ * @see ConcurrentWriter
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+public class ConcurrentOutputStream extends OutputStream {
+
+	private final OutputHandOff<byte[]> handOff;
+
+	/**
+	 * Creates a ConcurrentOutputStream and starts the thread that writes to the given output.
+	 * @param output the output that will receive the bytes written to this class.
+	 * @param bufferSize the size of each individual buffer of bytes.
+	 * @param bufferQuantity the number of buffers to use. The caller will block when all buffers are waiting to be written.
+	 */
+	public ConcurrentOutputStream(final OutputStream output, int bufferSize, int bufferQuantity) {
+		if (output == null) {
+			throw new IllegalArgumentException("Output stream cannot be null");
+		}
+		this.handOff = new OutputHandOff<byte[]>("unVocity-parsers output stream writing thread", bufferSize, bufferQuantity) {
+			@Override
+			byte[] newArray(int size) {
+				return new byte[size];
+			}
+
+			@Override
+			void write(byte[] data, int length) throws IOException {
+				output.write(data, 0, length);
+			}
+
+			@Override
+			void flushOutput() throws IOException {
+				output.flush();
+			}
+
+			@Override
+			void closeOutput() throws IOException {
+				output.close();
+			}
+		};
+		handOff.start();
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		OutputHandOff.Buffer<byte[]> buffer = handOff.current();
+		if (buffer.length == buffer.capacity) {
+			buffer = handOff.submit();
+		}
+		buffer.data[buffer.length++] = (byte) b;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		OutputHandOff.Buffer<byte[]> buffer = handOff.current();
+		while (len > 0) {
+			int free = buffer.capacity - buffer.length;
+			if (free == 0) {
+				buffer = handOff.submit();
+				free = buffer.capacity;
+			}
+			int count = len < free ? len : free;
+			System.arraycopy(b, off, buffer.data, buffer.length, count);
+			buffer.length += count;
+			off += count;
+			len -= count;
+		}
+	}
+
+	/**
+	 * Writes all bytes accumulated so far to the output, and flushes it. Blocks until the writing thread completes.
+	 * @throws IOException if any error occurred while writing to the output.
+	 */
+	@Override
+	public void flush() throws IOException {
+		handOff.flush();
+	}
+
+	/**
+	 * Writes all bytes accumulated so far to the output, stops the writing thread and closes the output.
+	 * @throws IOException if any error occurred while writing to or closing the output, and it has not been reported before.
+	 */
+	@Override
+	public void close() throws IOException {
+		handOff.close();
+	}
+}
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common.output.concurrent;
+
+import java.io.*;
+
+/**
+ * A {@link java.io.Writer} that accumulates characters in large buffers and writes them to another {@link java.io.Writer} in a separate thread.
+ *
+ * <p> Characters are copied into the current buffer on the caller thread. Full buffers are handed over to the writing thread, which writes (and encodes, if the
+ *     given writer converts characters into bytes) their contents while the caller fills the next buffer.
+ * <p> The number of buffers is fixed. The caller will block when all buffers are waiting to be written.
+ * <p> Any error writing to the output is reported in the next call to a method of this class made by the caller thread.
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+public class ConcurrentWriter extends Writer {
+
+	private final OutputHandOff<char[]> handOff;
+
+	/**
+	 * Creates a ConcurrentWriter and starts the thread that writes to the given output.
+	 * @param output the output that will receive the characters written to this class.
+	 * @param bufferSize the size of each individual buffer of characters.
+	 * @param bufferQuantity the number of buffers to use. The caller will block when all buffers are waiting to be written.
+	 */
+	public ConcurrentWriter(final Writer output, int bufferSize, int bufferQuantity) {
+		if (output == null) {
+			throw new IllegalArgumentException("Output writer cannot be null");
+		}
+		this.handOff = new OutputHandOff<char[]>("unVocity-parsers output writing thread", bufferSize, bufferQuantity) {
+			@Override
+			char[] newArray(int size) {
+				return new char[size];
+			}
+
+			@Override
+			void write(char[] data, int length) throws IOException {
+				output.write(data, 0, length);
+			}
+
+			@Override
+			void flushOutput() throws IOException {
+				output.flush();
+			}
+
+			@Override
+			void closeOutput() throws IOException {
+				output.close();
+			}
+		};
+		handOff.start();
+	}
+
+	@Override
+	public void write(int c) throws IOException {
+		OutputHandOff.Buffer<char[]> buffer = handOff.current();
+		if (buffer.length == buffer.capacity) {
+			buffer = handOff.submit();
+		}
+		buffer.data[buffer.length++] = (char) c;
+	}
+
+	@Override
+	public void write(char[] cbuf, int off, int len) throws IOException {
+		OutputHandOff.Buffer<char[]> buffer = handOff.current();
+		while (len > 0) {
+			int free = buffer.capacity - buffer.length;
+			if (free == 0) {
+				buffer = handOff.submit();
+				free = buffer.capacity;
+			}
+			int count = len < free ? len : free;
+			System.arraycopy(cbuf, off, buffer.data, buffer.length, count);
+			buffer.length += count;
+			off += count;
+			len -= count;
+		}
+	}
+
+	@Override
+	public void write(String str, int off, int len) throws IOException {
+		OutputHandOff.Buffer<char[]> buffer = handOff.current();
+		while (len > 0) {
+			int free = buffer.capacity - buffer.length;
+			if (free == 0) {
+				buffer = handOff.submit();
+				free = buffer.capacity;
+			}
+			int count = len < free ? len : free;
+			str.getChars(off, off + count, buffer.data, buffer.length);
+			buffer.length += count;
+			off += count;
+			len -= count;
+		}
+	}
+
+	/**
+	 * Writes all characters accumulated so far to the output, and flushes it. Blocks until the writing thread completes.
+	 * @throws IOException if any error occurred while writing to the output.
+	 */
+	@Override
+	public void flush() throws IOException {
+		handOff.flush();
+	}
+
+	/**
+	 * Writes all characters accumulated so far to the output, stops the writing thread and closes the output.
+	 * @throws IOException if any error occurred while writing to or closing the output, and it has not been reported before.
+	 */
+	@Override
+	public void close() throws IOException {
+		handOff.close();
+	}
+}
@@ -0,0 +1,248 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common.output.concurrent;
+
+import java.io.*;
+import java.util.concurrent.*;
+
+/**
+ * Hands over buffers filled by a caller thread to a thread that writes their contents to an output. Used by {@link ConcurrentWriter} and {@link ConcurrentOutputStream},
+ * which fill the buffers returned by {@link #current()} and {@link #submit()} with characters or bytes.
+ *
+ * <p> The number of buffers is fixed. The caller will block when all buffers are waiting to be written.
+ * <p> Any error writing to the output is reported in the next call to a method of this class made by the caller thread.
+ *
+ * @param <T> the type of array stored in each buffer
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+abstract class OutputHandOff<T> implements Runnable {
+
+	private static final Object END = new Object();
+
+	private final ArrayBlockingQueue<Buffer<T>> available;
+	private final ArrayBlockingQueue<Object> pending;
+	private final Thread writingThread;
+
+	private Buffer<T> current;
+	private boolean closed;
+	private volatile Throwable error;
+	private boolean errorReported;
+
+	/**
+	 * Creates the buffers used to hand over data to the writing thread. The thread is only started by {@link #start()}.
+	 * @param threadName the name of the writing thread
+	 * @param bufferSize the size of each individual buffer.
+	 * @param bufferQuantity the number of buffers to use. The caller will block when all buffers are waiting to be written.
+	 */
+	OutputHandOff(String threadName, int bufferSize, int bufferQuantity) {
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("Buffer size must be positive. Got " + bufferSize);
+		}
+		if (bufferQuantity < 2) {
+			throw new IllegalArgumentException("At least two buffers are required. Got " + bufferQuantity);
+		}
+		this.available = new ArrayBlockingQueue<Buffer<T>>(bufferQuantity);
+		this.pending = new ArrayBlockingQueue<Object>(bufferQuantity + 1);
+		for (int i = 1; i < bufferQuantity; i++) {
+			available.add(new Buffer<T>(newArray(bufferSize), bufferSize));
+		}
+		this.current = new Buffer<T>(newArray(bufferSize), bufferSize);
+
+		writingThread = new Thread(this, threadName);
+		writingThread.setDaemon(true);
+	}
+
+	/**
+	 * Creates the array of a buffer
+	 * @param size the length of the array
+	 * @return a new array of the given length
+	 */
+	abstract T newArray(int size);
+
+	/**
+	 * Writes the contents of a buffer to the output. Invoked by the writing thread.
+	 * @param data the array of the buffer
+	 * @param length the number of elements of the array to write
+	 * @throws IOException if the output can't be written
+	 */
+	abstract void write(T data, int length) throws IOException;
+
+	/**
+	 * Flushes the output. Invoked by the writing thread.
+	 * @throws IOException if the output can't be flushed
+	 */
+	abstract void flushOutput() throws IOException;
+
+	/**
+	 * Closes the output. Invoked by the writing thread once it stops.
+	 * @throws IOException if the output can't be closed
+	 */
+	abstract void closeOutput() throws IOException;
+
+	/**
+	 * Starts the writing thread. Must be invoked once the output is ready to receive data.
+	 */
+	final void start() {
+		writingThread.start();
+	}
+
+	/**
+	 * The writing process that executes in parallel until {@link #close()} is called. Once closed, the output is closed as well.
+	 */
+	@Override
+	public final void run() {
+		try {
+			while (true) {
+				Object next = pending.take();
+				if (next == END) {
+					break;
+				}
+				if (next instanceof Buffer) {
+					@SuppressWarnings("unchecked")
+					Buffer<T> buffer = (Buffer<T>) next;
+					if (error == null) {
+						try {
+							write(buffer.data, buffer.length);
+						} catch (Throwable ex) {
+							error = ex;
+						}
+					}
+					buffer.length = 0;
+					available.put(buffer);
+				} else {
+					if (error == null) {
+						try {
+							flushOutput();
+						} catch (Throwable ex) {
+							error = ex;
+						}
+					}
+					((CountDownLatch) next).countDown();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			try {
+				closeOutput();
+			} catch (Throwable ex) {
+				if (error == null) {
+					error = ex;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the buffer being filled by the caller
+	 * @return the current buffer
+	 * @throws IOException if the output has been closed
+	 */
+	final Buffer<T> current() throws IOException {
+		if (closed) {
+			throw new IOException("Output closed");
+		}
+		return current;
+	}
+
+	/**
+	 * Hands over the current buffer to the writing thread, and returns an empty buffer to be filled next. Blocks until a buffer is available.
+	 * @return the new current buffer
+	 * @throws IOException if any error occurred while writing to the output.
+	 */
+	final Buffer<T> submit() throws IOException {
+		checkError();
+		try {
+			pending.put(current);
+			current = available.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Thread interrupted while writing output");
+		}
+		return current;
+	}
+
+	/**
+	 * Writes all data accumulated so far to the output, and flushes it. Blocks until the writing thread completes.
+	 * @throws IOException if any error occurred while writing to the output.
+	 */
+	final void flush() throws IOException {
+		if (current().length > 0) {
+			submit();
+		}
+		CountDownLatch flushed = new CountDownLatch(1);
+		try {
+			pending.put(flushed);
+			flushed.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Thread interrupted while flushing output");
+		}
+		checkError();
+	}
+
+	/**
+	 * Writes all data accumulated so far to the output, stops the writing thread and closes the output.
+	 * @throws IOException if any error occurred while writing to or closing the output, and it has not been reported before.
+	 */
+	final void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			if (current.length > 0 && error == null) {
+				pending.put(current);
+			}
+			pending.put(END);
+			writingThread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Thread interrupted while closing output");
+		}
+		if (!errorReported) {
+			checkError();
+		}
+	}
+
+	private void checkError() throws IOException {
+		Throwable error = this.error;
+		if (error != null) {
+			errorReported = true;
+			if (error instanceof IOException) {
+				throw new IOException("Error writing to the output", error);
+			}
+			throw new IllegalStateException("Error writing to the output", error);
+		}
+	}
+
+	/**
+	 * A buffer filled by the caller thread and written by the writing thread.
+	 * @param <T> the type of array stored in the buffer
+	 */
+	static final class Buffer<T> {
+		final T data;
+		final int capacity;
+		int length;
+
+		Buffer(T data, int capacity) {
+			this.data = data;
+			this.capacity = capacity;
+		}
+	}
+}
@@ -0,0 +1,197 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common.output.concurrent;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.*;
+
+/**
+ * An {@link OutputStream} that compresses blocks of bytes independently, in parallel, and writes them to another {@link OutputStream} as a multi-member GZIP stream.
+ *
+ * <p> Each block is compressed into a complete GZIP member. Members are written to the output in the order their blocks were produced, and their concatenation
+ *     is a valid GZIP stream that can be read with {@link GZIPInputStream}. The compression ratio is slightly worse than when compressing the whole output as a single member,
+ *     as each block is compressed without the history of the blocks before it.
+ * <p> The number of blocks being compressed at any given time is bounded. The caller will block and write the oldest compressed block to the output when the limit is reached.
+ *
+ * @see ConcurrentOutputStream
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+public class ParallelGzipOutputStream extends OutputStream {
+
+	private final OutputStream output;
+	private final ExecutorService executor;
+	private final LinkedList<Future<byte[]>> pending = new LinkedList<Future<byte[]>>();
+	private final ArrayBlockingQueue<byte[]> freeBlocks;
+	private final int maxPending;
+
+	private byte[] block;
+	private int length;
+	private boolean membersWritten;
+	private boolean closed;
+
+	/**
+	 * Creates a ParallelGzipOutputStream with a pool of threads to compress blocks of bytes.
+	 * @param output the output that will receive the compressed bytes.
+	 * @param blockSize the number of bytes of each block compressed independently.
+	 * @param threads the number of threads that will compress blocks in parallel.
+	 */
+	public ParallelGzipOutputStream(OutputStream output, int blockSize, int threads) {
+		if (output == null) {
+			throw new IllegalArgumentException("Output stream cannot be null");
+		}
+		if (blockSize <= 0) {
+			throw new IllegalArgumentException("Block size must be positive. Got " + blockSize);
+		}
+		if (threads < 1) {
+			throw new IllegalArgumentException("Number of threads must be positive. Got " + threads);
+		}
+		this.output = output;
+		this.maxPending = threads * 2;
+		this.freeBlocks = new ArrayBlockingQueue<byte[]>(maxPending + 1);
+		for (int i = 0; i <= maxPending; i++) {
+			freeBlocks.add(new byte[blockSize]);
+		}
+		this.block = freeBlocks.poll();
+
+		this.executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "unVocity-parsers output compression thread");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		ensureOpen();
+		if (length == block.length) {
+			submitBlock();
+		}
+		block[length++] = (byte) b;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		ensureOpen();
+		while (len > 0) {
+			int free = block.length - length;
+			if (free == 0) {
+				submitBlock();
+				free = block.length;
+			}
+			int count = len < free ? len : free;
+			System.arraycopy(b, off, block, length, count);
+			length += count;
+			off += count;
+			len -= count;
+		}
+	}
+
+	private void submitBlock() throws IOException {
+		final byte[] data = block;
+		final int dataLength = length;
+		pending.add(executor.submit(new Callable<byte[]>() {
+			@Override
+			public byte[] call() throws Exception {
+				try {
+					ByteArrayOutputStream member = new ByteArrayOutputStream(dataLength / 2 + 64);
+					GZIPOutputStream gzip = new GZIPOutputStream(member);
+					gzip.write(data, 0, dataLength);
+					gzip.close();
+					return member.toByteArray();
+				} finally {
+					freeBlocks.put(data);
+				}
+			}
+		}));
+		length = 0;
+		while (pending.size() >= maxPending) {
+			writeNextMember();
+		}
+		try {
+			block = freeBlocks.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Thread interrupted while compressing output");
+		}
+	}
+
+	private void writeNextMember() throws IOException {
+		byte[] member;
+		try {
+			member = pending.removeFirst().get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Thread interrupted while compressing output");
+		} catch (ExecutionException e) {
+			throw new IOException("Error compressing output", e.getCause());
+		}
+		output.write(member);
+		membersWritten = true;
+	}
+
+	/**
+	 * Compresses all bytes accumulated so far, writes them to the output and flushes it.
+	 * @throws IOException if any error occurred while compressing or writing to the output.
+	 */
+	@Override
+	public void flush() throws IOException {
+		ensureOpen();
+		if (length > 0) {
+			submitBlock();
+		}
+		while (!pending.isEmpty()) {
+			writeNextMember();
+		}
+		output.flush();
+	}
+
+	/**
+	 * Compresses all bytes accumulated so far, writes them to the output, stops the compression threads and closes the output.
+	 * @throws IOException if any error occurred while compressing, writing to or closing the output.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			if (length > 0 || !membersWritten && pending.isEmpty()) {
+				submitBlock();
+			}
+			while (!pending.isEmpty()) {
+				writeNextMember();
+			}
+			output.flush();
+		} finally {
+			executor.shutdownNow();
+			output.close();
+		}
+	}
+
+	private void ensureOpen() throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed");
+		}
+	}
+}
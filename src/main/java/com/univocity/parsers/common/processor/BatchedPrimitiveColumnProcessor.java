@@ -0,0 +1,417 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common.processor;
+
+import java.util.*;
+
+import com.univocity.parsers.common.*;
+import com.univocity.parsers.common.fields.*;
+import com.univocity.parsers.common.input.*;
+
+/**
+ *
+ * A {@link RowProcessor} implementation for storing batches of rows extracted from any implementation of {@link AbstractParser} into typed columns of primitives.
+ *
+ * <p>Unlike {@link BatchedObjectColumnProcessor}, which stores boxed objects in lists, this processor stores the values of each declared column in a reusable {@link ColumnVector}
+ * backed by an array of primitives (such as {@code int[]}, {@code long[]} and {@code double[]}) and a null mask. Columns must be declared with their {@link ColumnType} before parsing:</p>
+ *
+ * <hr><blockquote><pre>
+ *
+ * processor.declareFields(ColumnType.INT).add("id", "quantity");
+ * processor.declareFields(ColumnType.DOUBLE).add("price");
+ * processor.declareIndexes(ColumnType.STRING).add(3);
+ * </pre></blockquote><hr>
+ *
+ * <p>Columns that were not declared are discarded. When the input is processed with {@link AbstractParser#parse(java.io.Reader)}, values are parsed directly from the
+ * character buffer of the parser, without creating intermediate String objects (see {@link CharRangeRowProcessor}).</p>
+ *
+ * <p> During the execution of the process, the {@link #batchProcessed(int)} method will be invoked after a given number of rows has been processed.
+ * The vectors with the values of the batch can be obtained with {@link #getColumn(String)}, {@link #getIntColumn(String)}, {@link #getDoubleColumn(int)}, etc.
+ * After {@link #batchProcessed(int)} returns, the contents of all vectors are overwritten with the values of the next batch.</p>
+ *
+ * @see AbstractParser
+ * @see RowProcessor
+ * @see CharRangeRowProcessor
+ * @see ColumnVector
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+public abstract class BatchedPrimitiveColumnProcessor implements CharRangeRowProcessor {
+
+	private final int rowsPerBatch;
+	private final Map<FieldSelector, ColumnType> declarations = new LinkedHashMap<FieldSelector, ColumnType>();
+
+	private ColumnVector[] vectors;
+	private int[] rowPositions;
+	private String[] headers;
+	private Map<String, ColumnVector> vectorsByName;
+	private Map<Integer, ColumnVector> vectorsByIndex;
+
+	private int batchCount;
+	private int batchesProcessed;
+
+	/**
+	 * Constructs a batched primitive column processor configured to invoke the {@link #batchProcessed} method after a given number of rows has been processed.
+	 * @param rowsPerBatch the number of rows to process in each batch.
+	 */
+	public BatchedPrimitiveColumnProcessor(int rowsPerBatch) {
+		if (rowsPerBatch <= 0) {
+			throw new IllegalArgumentException("Number of rows per batch must be positive");
+		}
+		this.rowsPerBatch = rowsPerBatch;
+	}
+
+	/**
+	 * Declares the type of columns identified by name.
+	 *
+	 * @param type the type of the values of the columns
+	 * @return A {@link FieldSet} for field names.
+	 */
+	public final FieldSet<String> declareFields(ColumnType type) {
+		return declare(new FieldNameSelector(), type);
+	}
+
+	/**
+	 * Declares the type of columns identified by their position in the input.
+	 *
+	 * @param type the type of the values of the columns
+	 * @return A {@link FieldSet} for field indexes.
+	 */
+	public final FieldSet<Integer> declareIndexes(ColumnType type) {
+		return declare(new FieldIndexSelector(), type);
+	}
+
+	private <T extends FieldSelector> T declare(T selector, ColumnType type) {
+		if (type == null) {
+			throw new IllegalArgumentException("Column type cannot be null");
+		}
+		if (vectors != null) {
+			throw new IllegalStateException("Cannot declare columns after parsing has started");
+		}
+		declarations.put(selector, type);
+		return selector;
+	}
+
+	private void initialize(String[] row, ParsingContext context) {
+		String[] allHeaders = context.headers();
+		String[] fields = allHeaders != null ? allHeaders : row;
+
+		Map<Integer, ColumnType> types = new TreeMap<Integer, ColumnType>();
+		for (Map.Entry<FieldSelector, ColumnType> declaration : declarations.entrySet()) {
+			for (int index : declaration.getKey().getFieldIndexes(fields)) {
+				ColumnType previous = types.put(index, declaration.getValue());
+				if (previous != null) {
+					throw new IllegalArgumentException("Column at index " + index + " declared more than once: as " + previous + " and as " + declaration.getValue());
+				}
+			}
+		}
+
+		int[] selectedIndexes = context.extractedFieldIndexes();
+		boolean reordered = context.columnsReordered();
+
+		vectors = new ColumnVector[types.size()];
+		rowPositions = new int[types.size()];
+		vectorsByName = new HashMap<String, ColumnVector>();
+		vectorsByIndex = new HashMap<Integer, ColumnVector>();
+
+		int i = 0;
+		for (Map.Entry<Integer, ColumnType> e : types.entrySet()) {
+			int index = e.getKey();
+			String header = allHeaders != null && index < allHeaders.length ? allHeaders[index] : null;
+			ColumnVector vector = newVector(e.getValue(), header, index);
+
+			vectors[i] = vector;
+			rowPositions[i] = reordered ? positionOf(selectedIndexes, index) : index;
+			vectorsByIndex.put(index, vector);
+			if (header != null) {
+				vectorsByName.put(ArgumentUtils.normalize(header), vector);
+			}
+			i++;
+		}
+
+		headers = allHeaders;
+		moveTo(0);
+	}
+
+	private static int positionOf(int[] selectedIndexes, int index) {
+		for (int i = 0; i < selectedIndexes.length; i++) {
+			if (selectedIndexes[i] == index) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private ColumnVector newVector(ColumnType type, String header, int index) {
+		switch (type) {
+			case INT:
+				return new IntColumnVector(header, index, rowsPerBatch);
+			case LONG:
+				return new LongColumnVector(header, index, rowsPerBatch);
+			case DOUBLE:
+				return new DoubleColumnVector(header, index, rowsPerBatch);
+			case BOOLEAN:
+				return new BooleanColumnVector(header, index, rowsPerBatch);
+			case STRING:
+				return new DictionaryColumnVector(header, index, rowsPerBatch);
+			default:
+				throw new IllegalStateException("Unsupported column type: " + type);
+		}
+	}
+
+	private void moveTo(int row) {
+		for (int i = 0; i < vectors.length; i++) {
+			vectors[i].moveTo(row);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public final CharRangeHandler[] getCharRangeHandlers(String[] row, ParsingContext context) {
+		if (vectors == null) {
+			initialize(row, context);
+		}
+
+		int length = 0;
+		for (ColumnVector vector : vectors) {
+			if (vector.getIndex() >= length) {
+				length = vector.getIndex() + 1;
+			}
+		}
+
+		CharRangeHandler[] handlers = new CharRangeHandler[length];
+		for (ColumnVector vector : vectors) {
+			handlers[vector.getIndex()] = vector;
+		}
+		return handlers;
+	}
+
+	@Override
+	public void processStarted(ParsingContext context) {
+		vectors = null;
+		rowPositions = null;
+		headers = null;
+		vectorsByName = null;
+		vectorsByIndex = null;
+		batchCount = 0;
+		batchesProcessed = 0;
+	}
+
+	@Override
+	public final void rowProcessed(String[] row, ParsingContext context) {
+		if (vectors == null) {
+			initialize(row, context);
+		}
+
+		for (int i = 0; i < vectors.length; i++) {
+			ColumnVector vector = vectors[i];
+			if (!vector.filled) {
+				int position = rowPositions[i];
+				vector.set(position >= 0 && position < row.length ? row[position] : null);
+			}
+		}
+
+		batchCount++;
+		if (batchCount >= rowsPerBatch) {
+			batchProcessed(batchCount);
+			batchCount = 0;
+			batchesProcessed++;
+		}
+		moveTo(batchCount);
+	}
+
+	@Override
+	public void processEnded(ParsingContext context) {
+		if (batchCount > 0) {
+			batchProcessed(batchCount);
+			batchCount = 0;
+			batchesProcessed++;
+		}
+	}
+
+	/**
+	 * Returns the headers of the input, if available.
+	 * @return the headers of all records parsed.
+	 */
+	public final String[] getHeaders() {
+		return headers;
+	}
+
+	/**
+	 * Returns all column vectors, in the order of the column indexes of the input.
+	 * @return the vectors of all declared columns, or null if parsing has not started yet.
+	 */
+	public final ColumnVector[] getColumns() {
+		return vectors == null ? null : vectors.clone();
+	}
+
+	/**
+	 * Returns the vector with values of a given column
+	 * @param columnName the name of the column
+	 * @return the vector that stores the values of the given column
+	 */
+	public final ColumnVector getColumn(String columnName) {
+		ensureInitialized();
+		ColumnVector vector = vectorsByName.get(ArgumentUtils.normalize(columnName));
+		if (vector == null) {
+			throw new IllegalArgumentException("Column '" + columnName + "' has not been declared. Declared columns are: " + vectorsByName.keySet());
+		}
+		return vector;
+	}
+
+	/**
+	 * Returns the vector with values of a given column
+	 * @param columnIndex the index of the column in the input
+	 * @return the vector that stores the values of the given column
+	 */
+	public final ColumnVector getColumn(int columnIndex) {
+		ensureInitialized();
+		ColumnVector vector = vectorsByIndex.get(columnIndex);
+		if (vector == null) {
+			throw new IllegalArgumentException("Column at index " + columnIndex + " has not been declared. Declared column indexes are: " + vectorsByIndex.keySet());
+		}
+		return vector;
+	}
+
+	private void ensureInitialized() {
+		if (vectors == null) {
+			throw new IllegalStateException("Column vectors are only available after parsing has started");
+		}
+	}
+
+	private static <T extends ColumnVector> T cast(ColumnVector vector, Class<T> type) {
+		if (!type.isInstance(vector)) {
+			throw new IllegalArgumentException("Cannot obtain " + vector + " as " + type.getSimpleName());
+		}
+		return type.cast(vector);
+	}
+
+	/**
+	 * Returns the vector of a column declared as {@link ColumnType#INT}
+	 * @param columnName the name of the column
+	 * @return the vector that stores the values of the given column
+	 */
+	public final IntColumnVector getIntColumn(String columnName) {
+		return cast(getColumn(columnName), IntColumnVector.class);
+	}
+
+	/**
+	 * Returns the vector of a column declared as {@link ColumnType#INT}
+	 * @param columnIndex the index of the column in the input
+	 * @return the vector that stores the values of the given column
+	 */
+	public final IntColumnVector getIntColumn(int columnIndex) {
+		return cast(getColumn(columnIndex), IntColumnVector.class);
+	}
+
+	/**
+	 * Returns the vector of a column declared as {@link ColumnType#LONG}
+	 * @param columnName the name of the column
+	 * @return the vector that stores the values of the given column
+	 */
+	public final LongColumnVector getLongColumn(String columnName) {
+		return cast(getColumn(columnName), LongColumnVector.class);
+	}
+
+	/**
+	 * Returns the vector of a column declared as {@link ColumnType#LONG}
+	 * @param columnIndex the index of the column in the input
+	 * @return the vector that stores the values of the given column
+	 */
+	public final LongColumnVector getLongColumn(int columnIndex) {
+		return cast(getColumn(columnIndex), LongColumnVector.class);
+	}
+
+	/**
+	 * Returns the vector of a column declared as {@link ColumnType#DOUBLE}
+	 * @param columnName the name of the column
+	 * @return the vector that stores the values of the given column
+	 */
+	public final DoubleColumnVector getDoubleColumn(String columnName) {
+		return cast(getColumn(columnName), DoubleColumnVector.class);
+	}
+
+	/**
+	 * Returns the vector of a column declared as {@link ColumnType#DOUBLE}
+	 * @param columnIndex the index of the column in the input
+	 * @return the vector that stores the values of the given column
+	 */
+	public final DoubleColumnVector getDoubleColumn(int columnIndex) {
+		return cast(getColumn(columnIndex), DoubleColumnVector.class);
+	}
+
+	/**
+	 * Returns the vector of a column declared as {@link ColumnType#BOOLEAN}
+	 * @param columnName the name of the column
+	 * @return the vector that stores the values of the given column
+	 */
+	public final BooleanColumnVector getBooleanColumn(String columnName) {
+		return cast(getColumn(columnName), BooleanColumnVector.class);
+	}
+
+	/**
+	 * Returns the vector of a column declared as {@link ColumnType#BOOLEAN}
+	 * @param columnIndex the index of the column in the input
+	 * @return the vector that stores the values of the given column
+	 */
+	public final BooleanColumnVector getBooleanColumn(int columnIndex) {
+		return cast(getColumn(columnIndex), BooleanColumnVector.class);
+	}
+
+	/**
+	 * Returns the vector of a column declared as {@link ColumnType#STRING}
+	 * @param columnName the name of the column
+	 * @return the vector that stores the values of the given column
+	 */
+	public final DictionaryColumnVector getStringColumn(String columnName) {
+		return cast(getColumn(columnName), DictionaryColumnVector.class);
+	}
+
+	/**
+	 * Returns the vector of a column declared as {@link ColumnType#STRING}
+	 * @param columnIndex the index of the column in the input
+	 * @return the vector that stores the values of the given column
+	 */
+	public final DictionaryColumnVector getStringColumn(int columnIndex) {
+		return cast(getColumn(columnIndex), DictionaryColumnVector.class);
+	}
+
+	/**
+	 * Returns the number of rows processed in each batch
+	 * @return the number of rows per batch
+	 */
+	public final int getRowsPerBatch() {
+		return rowsPerBatch;
+	}
+
+	/**
+	 * Returns the number of batches already processed
+	 * @return the number of batches already processed
+	 */
+	public final int getBatchesProcessed() {
+		return batchesProcessed;
+	}
+
+	/**
+	 * Callback to the user, where the vectors with the values of each declared column can be manipulated.
+	 * <p>Only positions from 0 to {@code rowsInThisBatch - 1} of each vector contain values of the current batch.</p>
+	 * @param rowsInThisBatch the number of rows processed in the current batch
+	 */
+	public abstract void batchProcessed(int rowsInThisBatch);
+}
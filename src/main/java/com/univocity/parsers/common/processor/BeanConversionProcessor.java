@@ -15,14 +15,13 @@
  ******************************************************************************/
 package com.univocity.parsers.common.processor;
 
-import java.beans.*;
-import java.lang.annotation.*;
 import java.lang.reflect.*;
-import java.util.*;
+import java.math.*;
 
 import com.univocity.parsers.annotations.*;
 import com.univocity.parsers.annotations.helpers.*;
 import com.univocity.parsers.common.*;
+import com.univocity.parsers.common.input.*;
 import com.univocity.parsers.conversions.*;
 
 /**
@@ -39,11 +38,34 @@ import com.univocity.parsers.conversions.*;
  */
 abstract class BeanConversionProcessor<T> extends ConversionProcessor {
 
+    /**
+     * How the value of each position of a row is obtained in {@link #reverseConversionsToBuffer(Object, String[], int[])}
+     */
+    private static final int GENERIC = 0;
+    private static final int DIRECT = 1;
+    private static final int PRIMITIVE_LONG = 2;
+    private static final int PRIMITIVE_DOUBLE = 3;
+    private static final int PRIMITIVE_FLOAT = 4;
+    private static final int FORMATTED = 5;
+
     private final Class<T> beanClass;
-    private final Set<FieldMapping> parsedFields = new HashSet<FieldMapping>();
+    private BeanMetadata metadata;
     private int lastFieldIndexMapped = -1;
+    private String[] mappedHeaders;
+    private int[] mappedIndexes;
+    private boolean mappedColumnsReordered;
     private FieldMapping[] readOrder;
     private boolean initialized = false;
+    private Constructor<T> constructor;
+    private BeanMapper<T> beanMapper;
+
+    private Object[] formattedRow;
+    private FormattedValue[] formattedValues;
+    private FieldMapping[] formattingPlanOrder;
+    private int[] formattingPlan;
+    private int[] conversionCounts;
+    @SuppressWarnings("rawtypes")
+    private FormattedValueConversion[] formattingConversions;
 
     /**
      * Initializes the BeanConversionProcessor with the annotated bean class
@@ -54,140 +76,23 @@ abstract class BeanConversionProcessor<T> extends ConversionProcessor {
     }
 
     /**
-     * Identifies and extracts fields annotated with the {@link Parsed} annotation
+     * Identifies and extracts fields annotated with the {@link Parsed} annotation.
+     * <p>The annotation metadata of the bean class is resolved only once and shared by all processors created for the same class.
      */
+    @SuppressWarnings("unchecked")
     protected final void initialize() {
         if (!initialized) {
             initialized = true;
 
-            Map<String, PropertyDescriptor> properties = new HashMap<String, PropertyDescriptor>();
-
-            try {
-                BeanInfo beanInfo = Introspector.getBeanInfo(beanClass, Object.class);
-                for (PropertyDescriptor property : beanInfo.getPropertyDescriptors()) {
-                    String name = property.getName();
-                    properties.put(name, property);
-                }
-            } catch (IntrospectionException e) {
-                //ignore and proceed to get fields direcly
-            }
-
-            Set<String> used = new HashSet<String>();
-            Class<?> clazz = beanClass;
-            do {
-                Field[] declared = clazz.getDeclaredFields();
-                for (Field field : declared) {
-                    if (used.contains(field.getName())) {
-                        continue;
-                    }
-                    Parsed annotation = field.getAnnotation(Parsed.class);
-                    if (annotation != null) {
-                        FieldMapping mapping = new FieldMapping(beanClass, field, properties.get(field.getName()));
-                        parsedFields.add(mapping);
-                        setupConversions(field, mapping);
-                        used.add(field.getName());
-                    }
-                }
-                clazz = clazz.getSuperclass();
-            } while (clazz != null && clazz != Object.class);
+            metadata = BeanMetadata.forClass(beanClass);
+            beanMapper = (BeanMapper<T>) metadata.getBeanMapper();
+            metadata.setupConversions(this);
 
             readOrder = null;
             lastFieldIndexMapped = -1;
         }
     }
 
-    /**
-     * Goes through each field annotated with {@link Parsed} and extracts the sequence of {@link Conversion} elements associated with each one.
-     * @param field the field annotated with {@link Parsed} that must be associated with one or more {@link Conversion} objects
-     * @param mapping a helper class to store information how the field is mapped to a parsed record.
-     */
-    @SuppressWarnings("rawtypes")
-    private void setupConversions(Field field, FieldMapping mapping) {
-        Annotation[] annotations = field.getAnnotations();
-
-        Conversion lastConversion = null;
-        for (Annotation annotation : annotations) {
-            try {
-                Conversion conversion = AnnotationHelper.getConversion(field, annotation);
-                if (conversion != null) {
-                    addConversion(conversion, mapping);
-                    lastConversion = conversion;
-
-                }
-            } catch (Throwable ex) {
-                String path = annotation.annotationType().getSimpleName() + "' of field '" + field.getName() + "' in " + this.beanClass.getName();
-                throw new IllegalArgumentException("Error processing annotation '" + path + ". " + ex.getMessage(), ex);
-            }
-        }
-
-        if (field.getAnnotation(Parsed.class).applyDefaultConversion()) {
-            Conversion defaultConversion = AnnotationHelper.getDefaultConversion(field);
-            if (applyDefaultConversion(lastConversion, defaultConversion)) {
-                addConversion(defaultConversion, mapping);
-            }
-        }
-    }
-
-    @SuppressWarnings("rawtypes")
-    private boolean applyDefaultConversion(Conversion lastConversionApplied, Conversion defaultConversion) {
-        if (defaultConversion == null) {
-            return false;
-        }
-        if (lastConversionApplied == null) {
-            return true;
-        }
-
-        if (lastConversionApplied.getClass() == defaultConversion.getClass()) {
-            // no need to add the default conversion as it was manually specified by the user with his settings
-            return false;
-        }
-
-        Method execute = getConversionMethod(lastConversionApplied, "execute");
-        Method revert = getConversionMethod(lastConversionApplied, "revert");
-
-        Method defaultExecute = getConversionMethod(defaultConversion, "execute");
-        Method defaultRevert = getConversionMethod(defaultConversion, "revert");
-
-        return !(execute.getReturnType() == defaultExecute.getReturnType() && revert.getReturnType() == defaultRevert.getReturnType());
-
-    }
-
-    @SuppressWarnings("rawtypes")
-    private Method getConversionMethod(Conversion conversion, String methodName) {
-        Method targetMethod = null;
-        for (Method method : conversion.getClass().getMethods()) {
-            if (method.getName().equals(methodName) && !method.isSynthetic() && !method.isBridge() && ((method.getModifiers() & Modifier.PUBLIC) == 1) && method.getParameterTypes().length == 1 && method.getReturnType() != Void.class) {
-                if (targetMethod != null) {
-                    throw new IllegalArgumentException("Unable to convert values for class '" + beanClass + "'. Multiple '" + methodName + "' methods defined in conversion " + conversion.getClass() + ".");
-                }
-                targetMethod = method;
-            }
-        }
-        if (targetMethod != null) {
-            return targetMethod;
-        }
-        //should never happen
-        throw new IllegalArgumentException("Unable to convert values for class '" + beanClass + "'. Cannot find method '" + methodName + "' in conversion " + conversion.getClass() + ".");
-    }
-
-    /**
-     * Associates a conversion to a field of the java bean class.
-     * @param conversion The conversion object that must be executed against the given field
-     * @param mapping the helper object that contains informatin about how a field is mapped.
-     */
-    @SuppressWarnings("rawtypes")
-    private void addConversion(Conversion conversion, FieldMapping mapping) {
-        if (conversion == null) {
-            return;
-        }
-
-        if (mapping.isMappedToIndex()) {
-            this.convertIndexes(conversion).add(mapping.getIndex());
-        } else {
-            this.convertFields(conversion).add(mapping.getFieldName());
-        }
-    }
-
     /**
      * Goes through a list of objects and associates each value to a particular field of a java bean instance
      * @param instance the java bean instance that is going to have its properties set
@@ -195,10 +100,7 @@ abstract class BeanConversionProcessor<T> extends ConversionProcessor {
      * @param context information about the current parsing process.
      */
     private void mapValuesToFields(T instance, Object[] row, ParsingContext context) {
-        if (row.length > lastFieldIndexMapped) {
-            this.lastFieldIndexMapped = row.length;
-            mapFieldIndexes(context, row, context.headers(), context.extractedFieldIndexes(), context.columnsReordered());
-        }
+        mapFieldIndexes(row, context.headers(), context.extractedFieldIndexes(), context.columnsReordered());
 
         int last = row.length < readOrder.length ? row.length : readOrder.length;
         for (int i = 0; i < last; i++) {
@@ -211,78 +113,45 @@ abstract class BeanConversionProcessor<T> extends ConversionProcessor {
     }
 
     /**
-     * Identifies which fields are associated with which columns in a row.
+     * Identifies which fields are associated with which columns in a row. The mapping is only computed again if a longer row is given, or if the headers or indexes change.
      *
      * @param row A row with values for the given java bean.
      * @param headers The names of all fields of the record (including any header that is not mapped to the java bean). May be null if no headers have been defined in {@link CommonSettings#getHeaders()}
      * @param indexes The indexes of the headers or row that are actually being used. May be null if no fields have been selected using {@link CommonSettings#selectFields(String...)} or {@link CommonSettings#selectIndexes(Integer...)}
      * @param columnsReordered Indicates the indexes provided were reordered and do not match the original sequence of headers.
      */
-
-    private void mapFieldIndexes(ParsingContext context, Object[] row, String[] headers, int[] indexes, boolean columnsReordered) {
-        if (headers == null) {
-            headers = ArgumentUtils.EMPTY_STRING_ARRAY;
-        }
-        int biggestIndex = headers.length > row.length ? headers.length : row.length;
-        for (FieldMapping mapping : parsedFields) {
-            int index = mapping.getIndex();
-            if (biggestIndex < index) {
-                biggestIndex = index;
-            }
+    private void mapFieldIndexes(Object[] row, String[] headers, int[] indexes, boolean columnsReordered) {
+        if (row.length > lastFieldIndexMapped || headers != mappedHeaders || indexes != mappedIndexes || columnsReordered != mappedColumnsReordered) {
+            this.readOrder = metadata.getReadOrder(row.length, headers, indexes, columnsReordered);
+            this.lastFieldIndexMapped = row.length;
+            this.mappedHeaders = headers;
+            this.mappedIndexes = indexes;
+            this.mappedColumnsReordered = columnsReordered;
         }
+    }
 
-        FieldMapping[] fieldOrder = new FieldMapping[biggestIndex];
-
-        for (FieldMapping mapping : parsedFields) {
-            if (mapping.isMappedToField()) {
-                int index = ArgumentUtils.indexOf(headers, mapping.getFieldName());
-                if (index == -1) {
-                    if (headers.length == 0) {
-                        throw new IllegalArgumentException("Could not find field with name '" + mapping.getFieldName() + "' in input. Please enable header extraction in the parser settings in order to match field names.");
-                    }
-                    throw new IllegalArgumentException("Could not find field with name '" + mapping.getFieldName() + "' in input. Names found: " + Arrays.toString(headers));
-                }
-                fieldOrder[index] = mapping;
-            } else {
-                if (mapping.getIndex() < fieldOrder.length) {
-                    fieldOrder[mapping.getIndex()] = mapping;
-                }
+    /**
+     * Creates a new instance of the java bean, using the generated {@link BeanMapper} if available, or its constructor without arguments otherwise.
+     * @return a new java bean instance
+     * @throws Exception if the java bean cannot be instantiated
+     */
+    private T newInstance() throws Exception {
+        if (beanMapper != null) {
+            T instance = beanMapper.newInstance();
+            if (instance != null) {
+                return instance;
             }
         }
-
-        if (indexes != null) {
-            // sets fields not read from CSV to null.
-            for (int i = 0; i < fieldOrder.length; i++) {
-                boolean isIndexUsed = false;
-                for (int j = 0; j < indexes.length; j++) {
-                    if (indexes[j] == i) {
-                        isIndexUsed = true;
-                        break;
-                    }
-                }
-                if (!isIndexUsed) {
-                    fieldOrder[i] = null;
-                }
-            }
-
-            // reorders the fields so they are positioned in the same order as in the incoming row[]
-            if (columnsReordered) {
-                FieldMapping[] newFieldOrder = new FieldMapping[indexes.length];
-
-                for (int i = 0; i < indexes.length; i++) {
-                    for (int j = 0; j < fieldOrder.length; j++) {
-                        int index = indexes[i];
-                        FieldMapping field = fieldOrder[index];
-                        newFieldOrder[i] = field;
-                    }
-                }
-
-                fieldOrder = newFieldOrder;
+        if (constructor == null) {
+            Constructor<T> defaultConstructor = beanClass.getDeclaredConstructor();
+            try {
+                defaultConstructor.setAccessible(true);
+            } catch (SecurityException e) {
+                //ignore and instantiate with access checks.
             }
+            constructor = defaultConstructor;
         }
-
-        this.readOrder = fieldOrder;
-
+        return constructor.newInstance();
     }
 
     /**
@@ -296,7 +165,7 @@ abstract class BeanConversionProcessor<T> extends ConversionProcessor {
 
         T instance;
         try {
-            instance = beanClass.newInstance();
+            instance = newInstance();
         } catch (Throwable e) {
             throw new IllegalArgumentException("Unable to instantiate class '" + beanClass.getName() + "'", e);
         }
@@ -313,9 +182,7 @@ abstract class BeanConversionProcessor<T> extends ConversionProcessor {
      * @param columnsReordered Indicates the indexes provided were reordered and do not match the original sequence of headers.
      */
     private void mapFieldsToValues(T instance, Object[] row, String[] headers, int[] indexes, boolean columnsReordered) {
-        if (row.length > this.lastFieldIndexMapped) {
-            mapFieldIndexes(null, row, headers, indexes, columnsReordered);
-        }
+        mapFieldIndexes(row, headers, indexes, columnsReordered);
 
         int last = row.length < readOrder.length ? row.length : readOrder.length;
         for (int i = 0; i < last; i++) {
@@ -351,6 +218,161 @@ abstract class BeanConversionProcessor<T> extends ConversionProcessor {
         return row;
     }
 
+    /**
+     * Converts a java bean instance into a sequence of values for writing, reusing the same row and buffers for every bean.
+     *
+     * <p>Values of primitive fields, numbers and dates whose conversions implement {@link FormattedValueConversion} are formatted into
+     * reusable {@link FormattedValue} buffers, without boxing primitives or creating intermediate Strings. Any other value is produced exactly as in {@link #reverseConversions(Object, String[], int[])}.</p>
+     *
+     * @param bean an instance of the type defined in this class constructor.
+     * @param headers All field names used to produce records in a given destination. May be null if no headers have been defined in {@link CommonSettings#getHeaders()}
+     * @param indexesToWrite The indexes of the headers that are actually being written. May be null if no fields have been selected using {@link CommonSettings#selectFields(String...)} or {@link CommonSettings#selectIndexes(Integer...)}
+     * @return a row of objects containing the values extracted from the java bean. The row and its {@link FormattedValue} elements are only valid until the next invocation of this method.
+     */
+    @SuppressWarnings("unchecked")
+    final Object[] reverseConversionsToBuffer(T bean, String[] headers, int[] indexesToWrite) {
+        if (bean == null) {
+            return reverseConversions(bean, headers, indexesToWrite);
+        }
+
+        int length = indexesToWrite != null ? indexesToWrite.length : headers.length;
+        if (formattedRow == null || formattedRow.length != length) {
+            formattedRow = new Object[length];
+            formattedValues = new FormattedValue[length];
+            formattingPlanOrder = null;
+        }
+        Object[] row = formattedRow;
+
+        mapFieldIndexes(row, headers, indexesToWrite, false);
+        initializeReverseConversions(headers, indexesToWrite);
+        if (formattingPlanOrder != readOrder) {
+            planFormatting();
+        }
+
+        for (int i = 0; i < row.length; i++) {
+            FieldMapping field = i < readOrder.length ? readOrder[i] : null;
+            switch (formattingPlan[i]) {
+                case PRIMITIVE_LONG:
+                    row[i] = formattedValues[i].reset().append(field.readLong(bean));
+                    break;
+                case PRIMITIVE_DOUBLE:
+                    row[i] = formattedValues[i].reset().append(field.readDouble(bean));
+                    break;
+                case PRIMITIVE_FLOAT:
+                    row[i] = formattedValues[i].reset().append(field.readFloat(bean));
+                    break;
+                case DIRECT:
+                    row[i] = format(field.read(bean), formattedValues[i]);
+                    break;
+                case FORMATTED:
+                    Object value = field.read(bean);
+                    if (value == null) {
+                        row[i] = reverseConversion(i, null);
+                    } else {
+                        FormattedValue out = formattedValues[i].reset();
+                        formattingConversions[i].revert(value, out);
+                        row[i] = out;
+                    }
+                    break;
+                default:
+                    value = field == null ? null : field.read(bean);
+                    for (int c = 0; c < conversionCounts[i]; c++) {
+                        value = reverseConversion(i, value);
+                    }
+                    row[i] = value;
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Identifies how the value of each position of the row produced by {@link #reverseConversionsToBuffer(Object, String[], int[])} is obtained.
+     */
+    @SuppressWarnings("rawtypes")
+    private void planFormatting() {
+        int length = formattedRow.length;
+        formattingPlan = new int[length];
+        conversionCounts = new int[length];
+        formattingConversions = new FormattedValueConversion[length];
+
+        for (int i = 0; i < length; i++) {
+            FieldMapping field = i < readOrder.length ? readOrder[i] : null;
+            int count = getReverseConversionCount(i);
+            conversionCounts[i] = count;
+
+            int plan = GENERIC;
+            if (field != null) {
+                if (count == 0) {
+                    plan = getPrimitivePlan(field, null);
+                    if (plan == GENERIC) {
+                        plan = DIRECT;
+                    }
+                } else if (count == 1) {
+                    Conversion<?, ?>[] conversions = getConversions(i);
+                    plan = getPrimitivePlan(field, conversions.length == 1 ? conversions[0] : null);
+                    if (plan == GENERIC) {
+                        formattingConversions[i] = getFormattedValueConversion(i);
+                        if (formattingConversions[i] != null) {
+                            plan = FORMATTED;
+                        }
+                    }
+                }
+            }
+            formattingPlan[i] = plan;
+            if (plan != GENERIC && formattedValues[i] == null) {
+                formattedValues[i] = new FormattedValue();
+            }
+        }
+        formattingPlanOrder = readOrder;
+    }
+
+    /**
+     * Identifies whether a field of primitive type can be read and formatted without boxing.
+     * @param field the field to be read
+     * @param conversion the only conversion applied to the field, if any. It must be the default conversion of the field type, so its result is the same as {@link String#valueOf(Object)}.
+     * @return the plan to read the field without boxing, or {@link #GENERIC} if it must be read as an object.
+     */
+    private int getPrimitivePlan(FieldMapping field, Conversion<?, ?> conversion) {
+        if (!field.isPrimitiveReadable()) {
+            return GENERIC;
+        }
+        Class<?> type = field.getFieldType();
+        Class<?> conversionType = conversion == null ? null : conversion.getClass();
+        if (type == int.class) {
+            return conversion == null || conversionType == IntegerConversion.class ? PRIMITIVE_LONG : GENERIC;
+        } else if (type == long.class) {
+            return conversion == null || conversionType == LongConversion.class ? PRIMITIVE_LONG : GENERIC;
+        } else if (type == short.class) {
+            return conversion == null || conversionType == ShortConversion.class ? PRIMITIVE_LONG : GENERIC;
+        } else if (type == byte.class) {
+            return conversion == null || conversionType == ByteConversion.class ? PRIMITIVE_LONG : GENERIC;
+        } else if (type == double.class) {
+            return conversion == null || conversionType == DoubleConversion.class ? PRIMITIVE_DOUBLE : GENERIC;
+        } else if (type == float.class) {
+            return conversion == null || conversionType == FloatConversion.class ? PRIMITIVE_FLOAT : GENERIC;
+        }
+        return GENERIC;
+    }
+
+    /**
+     * Formats a value that has no conversions associated with it, if its String representation can be produced without creating a String.
+     * @param value the value to be formatted
+     * @param out the buffer that will receive the formatted value
+     * @return the buffer with the formatted value, or the value itself if it can't be formatted.
+     */
+    private Object format(Object value, FormattedValue out) {
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return out.reset().append(((Number) value).longValue());
+        } else if (value instanceof Double) {
+            return out.reset().append(((Double) value).doubleValue());
+        } else if (value instanceof Float) {
+            return out.reset().append(((Float) value).floatValue());
+        } else if (value instanceof BigDecimal) {
+            return out.reset().append((BigDecimal) value);
+        }
+        return value;
+    }
+
     /**
      * Returns the class of the annotated java bean instances that will be manipulated by this processor.
      * @return the class of the annotated java bean instances that will be manipulated by this processor.
@@ -0,0 +1,427 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common.processor;
+
+import java.beans.*;
+import java.lang.annotation.*;
+import java.lang.ref.*;
+import java.lang.reflect.*;
+import java.util.*;
+
+import com.univocity.parsers.annotations.*;
+import com.univocity.parsers.annotations.Format;
+import com.univocity.parsers.annotations.helpers.*;
+import com.univocity.parsers.common.*;
+import com.univocity.parsers.conversions.*;
+
+/**
+ * The annotation metadata of a java bean class, as required by {@link BeanConversionProcessor}: the {@link FieldMapping} of each field annotated with {@link Parsed},
+ * the sequence of {@link Conversion} objects associated with each one, and the order in which fields are read from or written to rows with a given sequence of headers.
+ *
+ * <p>Metadata is resolved only once per bean class and shared by all processors created for it. Classes are only weakly referenced and their metadata is
+ * softly referenced, so they can still be unloaded by their class loaders.</p>
+ *
+ * <p>Conversions that may hold state, i.e. custom conversions provided with {@link Convert}, and conversions backed by formatter objects (see {@link FormattedConversion}),
+ * such as the date and number conversions created for {@link Format}, are instantiated again for each processor. Only stateless conversions are shared.</p>
+ *
+ * @see BeanConversionProcessor
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+final class BeanMetadata {
+
+    private static final Map<Class<?>, SoftReference<BeanMetadata>> metadataCache = new WeakHashMap<Class<?>, SoftReference<BeanMetadata>>();
+
+    private static final int MAX_READ_ORDERS = 64;
+
+    private final Class<?> beanClass;
+    private final BeanMapper<?> beanMapper;
+    private final Set<FieldMapping> parsedFields = new HashSet<FieldMapping>();
+    private final List<FieldSetup> fieldSetups = new ArrayList<FieldSetup>();
+
+    private final Map<ReadOrderKey, FieldMapping[]> readOrders = new LinkedHashMap<ReadOrderKey, FieldMapping[]>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ReadOrderKey, FieldMapping[]> eldest) {
+            return size() > MAX_READ_ORDERS;
+        }
+    };
+
+    /**
+     * Returns the metadata of a given java bean class, resolving it if this is the first time the class is used.
+     * @param beanClass the class annotated with one or more of the annotations provided in {@link com.univocity.parsers.annotations}.
+     * @return the metadata of the given class.
+     */
+    static BeanMetadata forClass(Class<?> beanClass) {
+        BeanMetadata metadata = getCached(beanClass);
+        if (metadata != null) {
+            return metadata;
+        }
+
+        // resolved outside the lock. If two threads race, the first one to finish wins.
+        metadata = new BeanMetadata(beanClass);
+
+        synchronized (metadataCache) {
+            BeanMetadata existing = getCached(beanClass);
+            if (existing != null) {
+                return existing;
+            }
+            metadataCache.put(beanClass, new SoftReference<BeanMetadata>(metadata));
+        }
+        return metadata;
+    }
+
+    private static BeanMetadata getCached(Class<?> beanClass) {
+        synchronized (metadataCache) {
+            SoftReference<BeanMetadata> reference = metadataCache.get(beanClass);
+            return reference == null ? null : reference.get();
+        }
+    }
+
+    private BeanMetadata(Class<?> beanClass) {
+        this.beanClass = beanClass;
+
+        Map<String, PropertyDescriptor> properties = new HashMap<String, PropertyDescriptor>();
+
+        try {
+            BeanInfo beanInfo = Introspector.getBeanInfo(beanClass, Object.class);
+            for (PropertyDescriptor property : beanInfo.getPropertyDescriptors()) {
+                String name = property.getName();
+                properties.put(name, property);
+            }
+        } catch (IntrospectionException e) {
+            //ignore and proceed to get fields direcly
+        }
+
+        beanMapper = AnnotationHelper.getBeanMapper(beanClass);
+
+        Set<String> used = new HashSet<String>();
+        Class<?> clazz = beanClass;
+        do {
+            Field[] declared = clazz.getDeclaredFields();
+            for (Field field : declared) {
+                if (used.contains(field.getName())) {
+                    continue;
+                }
+                Parsed annotation = field.getAnnotation(Parsed.class);
+                if (annotation != null) {
+                    FieldMapping mapping = new FieldMapping(beanClass, field, properties.get(field.getName()), beanMapper);
+                    parsedFields.add(mapping);
+                    fieldSetups.add(new FieldSetup(field, mapping));
+                    used.add(field.getName());
+                }
+            }
+            clazz = clazz.getSuperclass();
+        } while (clazz != null && clazz != Object.class);
+    }
+
+    /**
+     * Returns the generated {@link BeanMapper} of the bean class, if available.
+     * @return the generated mapper of the bean class, or null if no mapper was generated for it.
+     */
+    BeanMapper<?> getBeanMapper() {
+        return beanMapper;
+    }
+
+    /**
+     * Returns the fields of the bean class annotated with {@link Parsed}. The returned set must not be modified.
+     * @return the mappings of all fields annotated with {@link Parsed}
+     */
+    Set<FieldMapping> getParsedFields() {
+        return parsedFields;
+    }
+
+    /**
+     * Associates the sequence of {@link Conversion} elements of each field annotated with {@link Parsed} to the given processor.
+     * @param processor the processor that will execute the conversions.
+     */
+    @SuppressWarnings("rawtypes")
+    void setupConversions(ConversionProcessor processor) {
+        for (FieldSetup setup : fieldSetups) {
+            FieldMapping mapping = setup.mapping;
+            for (int i = 0; i < setup.conversions.length; i++) {
+                Object conversion = setup.conversions[i];
+                if (conversion instanceof Annotation) {
+                    conversion = setup.newConversion((Annotation) conversion);
+                }
+                if (mapping.isMappedToIndex()) {
+                    processor.convertIndexes((Conversion) conversion).add(mapping.getIndex());
+                } else {
+                    processor.convertFields((Conversion) conversion).add(mapping.getFieldName());
+                }
+            }
+
+            if (setup.cacheSize > 0) {
+                if (mapping.isMappedToIndex()) {
+                    processor.cacheConvertedIndexes(setup.cacheSize).add(mapping.getIndex());
+                } else {
+                    processor.cacheConvertedFields(setup.cacheSize).add(mapping.getFieldName());
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the fields associated with each column of a row, computing them only once for each distinct combination of headers, selected indexes and row length.
+     *
+     * @param rowLength the length of a row with values for the given java bean.
+     * @param headers The names of all fields of the record (including any header that is not mapped to the java bean). May be null if no headers have been defined in {@link CommonSettings#getHeaders()}
+     * @param indexes The indexes of the headers or row that are actually being used. May be null if no fields have been selected using {@link CommonSettings#selectFields(String...)} or {@link CommonSettings#selectIndexes(Integer...)}
+     * @param columnsReordered Indicates the indexes provided were reordered and do not match the original sequence of headers.
+     * @return the field associated with each position of a row. Positions with no fields mapped to them are null. The returned array must not be modified.
+     */
+    FieldMapping[] getReadOrder(int rowLength, String[] headers, int[] indexes, boolean columnsReordered) {
+        if (headers == null) {
+            headers = ArgumentUtils.EMPTY_STRING_ARRAY;
+        }
+        ReadOrderKey key = new ReadOrderKey(rowLength, headers, indexes, columnsReordered);
+        synchronized (readOrders) {
+            FieldMapping[] readOrder = readOrders.get(key);
+            if (readOrder != null) {
+                return readOrder;
+            }
+        }
+
+        FieldMapping[] readOrder = mapFieldIndexes(rowLength, headers, indexes, columnsReordered);
+
+        synchronized (readOrders) {
+            readOrders.put(key.copy(), readOrder);
+        }
+        return readOrder;
+    }
+
+    /**
+     * Identifies which fields are associated with which columns in a row.
+     *
+     * @param rowLength the length of a row with values for the given java bean.
+     * @param headers The names of all fields of the record (including any header that is not mapped to the java bean).
+     * @param indexes The indexes of the headers or row that are actually being used. May be null if no fields have been selected using {@link CommonSettings#selectFields(String...)} or {@link CommonSettings#selectIndexes(Integer...)}
+     * @param columnsReordered Indicates the indexes provided were reordered and do not match the original sequence of headers.
+     * @return the field associated with each position of a row.
+     */
+    private FieldMapping[] mapFieldIndexes(int rowLength, String[] headers, int[] indexes, boolean columnsReordered) {
+        int biggestIndex = headers.length > rowLength ? headers.length : rowLength;
+        for (FieldMapping mapping : parsedFields) {
+            int index = mapping.getIndex();
+            if (biggestIndex < index) {
+                biggestIndex = index;
+            }
+        }
+
+        FieldMapping[] fieldOrder = new FieldMapping[biggestIndex];
+
+        for (FieldMapping mapping : parsedFields) {
+            if (mapping.isMappedToField()) {
+                int index = ArgumentUtils.indexOf(headers, mapping.getFieldName());
+                if (index == -1) {
+                    if (headers.length == 0) {
+                        throw new IllegalArgumentException("Could not find field with name '" + mapping.getFieldName() + "' in input. Please enable header extraction in the parser settings in order to match field names.");
+                    }
+                    throw new IllegalArgumentException("Could not find field with name '" + mapping.getFieldName() + "' in input. Names found: " + Arrays.toString(headers));
+                }
+                fieldOrder[index] = mapping;
+            } else {
+                if (mapping.getIndex() < fieldOrder.length) {
+                    fieldOrder[mapping.getIndex()] = mapping;
+                }
+            }
+        }
+
+        if (indexes != null) {
+            // sets fields not read from CSV to null.
+            for (int i = 0; i < fieldOrder.length; i++) {
+                boolean isIndexUsed = false;
+                for (int j = 0; j < indexes.length; j++) {
+                    if (indexes[j] == i) {
+                        isIndexUsed = true;
+                        break;
+                    }
+                }
+                if (!isIndexUsed) {
+                    fieldOrder[i] = null;
+                }
+            }
+
+            // reorders the fields so they are positioned in the same order as in the incoming row[]
+            if (columnsReordered) {
+                FieldMapping[] newFieldOrder = new FieldMapping[indexes.length];
+
+                for (int i = 0; i < indexes.length; i++) {
+                    newFieldOrder[i] = fieldOrder[indexes[i]];
+                }
+
+                fieldOrder = newFieldOrder;
+            }
+        }
+
+        return fieldOrder;
+    }
+
+    /**
+     * The conversions of a field annotated with {@link Parsed}, in the order they must be associated with a {@link ConversionProcessor}.
+     * Elements are either shared {@link Conversion} instances, or the {@link Annotation} that must be used to create a new {@link Conversion} for each processor.
+     */
+    private final class FieldSetup {
+        private final Field field;
+        private final FieldMapping mapping;
+        private final Object[] conversions;
+        private final int cacheSize;
+
+        @SuppressWarnings("rawtypes")
+        FieldSetup(Field field, FieldMapping mapping) {
+            this.field = field;
+            this.mapping = mapping;
+
+            List<Object> sequence = new ArrayList<Object>();
+            Parsed parsed = field.getAnnotation(Parsed.class);
+
+            Conversion lastConversion = null;
+            for (Annotation annotation : field.getAnnotations()) {
+                Conversion conversion = newConversion(annotation);
+                if (conversion != null) {
+                    sequence.add(isShareable(annotation, conversion) ? conversion : annotation);
+                    lastConversion = conversion;
+                }
+            }
+
+            if (parsed.applyDefaultConversion()) {
+                Conversion defaultConversion = AnnotationHelper.getDefaultConversion(field);
+                if (applyDefaultConversion(lastConversion, defaultConversion)) {
+                    sequence.add(defaultConversion);
+                }
+            }
+
+            int cacheSize = parsed.conversionCacheSize();
+            if (cacheSize < 0) {
+                throw new IllegalArgumentException("Invalid conversion cache size " + cacheSize + " of field '" + field.getName() + "' in " + beanClass.getName());
+            }
+            this.cacheSize = cacheSize;
+            this.conversions = sequence.toArray();
+        }
+
+        @SuppressWarnings("rawtypes")
+        Conversion newConversion(Annotation annotation) {
+            try {
+                return AnnotationHelper.getConversion(field, annotation);
+            } catch (Throwable ex) {
+                String path = annotation.annotationType().getSimpleName() + "' of field '" + field.getName() + "' in " + beanClass.getName();
+                throw new IllegalArgumentException("Error processing annotation '" + path + ". " + ex.getMessage(), ex);
+            }
+        }
+
+        @SuppressWarnings("rawtypes")
+        private boolean isShareable(Annotation annotation, Conversion conversion) {
+            if (annotation.annotationType() == Convert.class) {
+                return false;
+            }
+            // formatters such as SimpleDateFormat and DecimalFormat are not thread-safe, and are exposed by getFormatterObjects()
+            return !(conversion instanceof FormattedConversion);
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private boolean applyDefaultConversion(Conversion lastConversionApplied, Conversion defaultConversion) {
+        if (defaultConversion == null) {
+            return false;
+        }
+        if (lastConversionApplied == null) {
+            return true;
+        }
+
+        if (lastConversionApplied.getClass() == defaultConversion.getClass()) {
+            // no need to add the default conversion as it was manually specified by the user with his settings
+            return false;
+        }
+
+        Method execute = getConversionMethod(lastConversionApplied, "execute");
+        Method revert = getConversionMethod(lastConversionApplied, "revert");
+
+        Method defaultExecute = getConversionMethod(defaultConversion, "execute");
+        Method defaultRevert = getConversionMethod(defaultConversion, "revert");
+
+        return !(execute.getReturnType() == defaultExecute.getReturnType() && revert.getReturnType() == defaultRevert.getReturnType());
+
+    }
+
+    @SuppressWarnings("rawtypes")
+    private Method getConversionMethod(Conversion conversion, String methodName) {
+        Method targetMethod = null;
+        for (Method method : conversion.getClass().getMethods()) {
+            if (method.getName().equals(methodName) && !method.isSynthetic() && !method.isBridge() && ((method.getModifiers() & Modifier.PUBLIC) == 1) && method.getParameterTypes().length == 1 && method.getReturnType() != Void.class) {
+                if (targetMethod != null) {
+                    throw new IllegalArgumentException("Unable to convert values for class '" + beanClass + "'. Multiple '" + methodName + "' methods defined in conversion " + conversion.getClass() + ".");
+                }
+                targetMethod = method;
+            }
+        }
+        if (targetMethod != null) {
+            return targetMethod;
+        }
+        //should never happen
+        throw new IllegalArgumentException("Unable to convert values for class '" + beanClass + "'. Cannot find method '" + methodName + "' in conversion " + conversion.getClass() + ".");
+    }
+
+    /**
+     * Identifies a distinct combination of row length, headers and selected indexes given to {@link BeanMetadata#getReadOrder(int, String[], int[], boolean)}
+     */
+    private static final class ReadOrderKey {
+        private final int rowLength;
+        private final String[] headers;
+        private final int[] indexes;
+        private final boolean columnsReordered;
+        private final int hashCode;
+
+        ReadOrderKey(int rowLength, String[] headers, int[] indexes, boolean columnsReordered) {
+            this.rowLength = rowLength;
+            this.headers = headers;
+            this.indexes = indexes;
+            this.columnsReordered = columnsReordered;
+
+            int hash = rowLength;
+            hash = 31 * hash + Arrays.hashCode(headers);
+            hash = 31 * hash + Arrays.hashCode(indexes);
+            hash = 31 * hash + (columnsReordered ? 1 : 0);
+            this.hashCode = hash;
+        }
+
+        /**
+         * Copies the arrays of this key, so it is not affected by changes made to the arrays given in the constructor.
+         * @return a copy of this key
+         */
+        ReadOrderKey copy() {
+            return new ReadOrderKey(rowLength, headers.clone(), indexes == null ? null : indexes.clone(), columnsReordered);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ReadOrderKey)) {
+                return false;
+            }
+            ReadOrderKey other = (ReadOrderKey) obj;
+            return hashCode == other.hashCode && rowLength == other.rowLength && columnsReordered == other.columnsReordered && Arrays.equals(indexes, other.indexes) && Arrays.equals(headers, other.headers);
+        }
+    }
+}
@@ -16,6 +16,7 @@
 package com.univocity.parsers.common.processor;
 
 import com.univocity.parsers.common.*;
+import com.univocity.parsers.common.input.*;
 
 /**
  *
@@ -24,6 +25,7 @@ import com.univocity.parsers.common.*;
  *
  * <p> For each row processed, a java bean instance of a given class will be created with its fields populated.
  * <p> This instance will then be sent to the {@link BeanProcessor#beanProcessed(Object, ParsingContext)} method, where the user can access it.
+ * <p> Fields whose first conversion is a {@link com.univocity.parsers.conversions.CharRangeConversion} are converted directly from the characters collected by the parser (see {@link CharRangeRowProcessor}).
  *
  * @see AbstractParser
  * @see RowProcessor
@@ -33,7 +35,7 @@ import com.univocity.parsers.common.*;
  * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
  *
  */
-public abstract class BeanProcessor<T> extends BeanConversionProcessor<T> implements RowProcessor {
+public abstract class BeanProcessor<T> extends BeanConversionProcessor<T> implements CharRangeRowProcessor {
 
 	/**
 	 * Creates a processor for java beans of a given type.
@@ -52,6 +54,14 @@ public abstract class BeanProcessor<T> extends BeanConversionProcessor<T> implem
 		beanProcessed(instance, context);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public final CharRangeHandler[] getCharRangeHandlers(String[] row, ParsingContext context) {
+		return createCharRangeHandlers(row, context);
+	}
+
 	/**
 	 * Invoked by the processor after all values of a valid record have been processed and converted into a java object.
 	 *
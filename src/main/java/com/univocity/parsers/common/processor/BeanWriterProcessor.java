@@ -16,6 +16,7 @@
 package com.univocity.parsers.common.processor;
 
 import com.univocity.parsers.common.*;
+import com.univocity.parsers.common.input.*;
 
 /**
  *
@@ -57,4 +58,20 @@ public class BeanWriterProcessor<T> extends BeanConversionProcessor<T> implement
 		return reverseConversions(input, headers, indexesToWrite);
 	}
 
+	/**
+	 * Converts the java bean instance into a sequence of values for writing, reusing the same row array and value buffers in every invocation.
+	 * Numbers and dates are formatted into instances of {@link FormattedValue} without creating intermediate Strings, and primitive fields are read without boxing.
+	 *
+	 * <p>This is used by {@link AbstractWriter} when the processor does not override {@link #write(Object, String[], int[])}.
+	 * The returned row must be written before this method is invoked again.</p>
+	 *
+	 * @param input an instance of the type defined in this class constructor.
+	 * @param headers All field names used to produce records in a given destination. May be null if no headers have been defined in {@link CommonSettings#getHeaders()}
+	 * @param indexesToWrite The indexes of the headers that are actually being written. May be null if no fields have been selected using {@link CommonSettings#selectFields(String...)} or {@link CommonSettings#selectIndexes(Integer...)}
+	 * @return a row of objects containing the values extracted from the java bean, valid only until the next invocation of this method.
+	 */
+	public final Object[] writeFormatted(T input, String[] headers, int[] indexesToWrite) {
+		super.initialize();
+		return reverseConversionsToBuffer(input, headers, indexesToWrite);
+	}
 }
@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common.processor;
+
+/**
+ * A {@link ColumnVector} that stores the values of a column as {@code boolean} primitives.
+ * <p>Values must be either "true" or "false" (case insensitive).</p>
+ *
+ * @see BatchedPrimitiveColumnProcessor
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+public final class BooleanColumnVector extends ColumnVector {
+
+	private static final char[] TRUE = "true".toCharArray();
+	private static final char[] FALSE = "false".toCharArray();
+
+	private final boolean[] values;
+
+	BooleanColumnVector(String header, int index, int capacity) {
+		super(header, index, ColumnType.BOOLEAN, capacity);
+		this.values = new boolean[capacity];
+	}
+
+	/**
+	 * Returns the values of the column. Positions marked in {@link #getNulls()} hold {@code false}.
+	 * <p>The returned array is reused in every batch.</p>
+	 * @return the values parsed for the column in the current batch
+	 */
+	public boolean[] getValues() {
+		return values;
+	}
+
+	/**
+	 * Returns the value of the column in a given row of the current batch
+	 * @param row the position of the row in the current batch
+	 * @return the value parsed for the column, or {@code false} if it is null (see {@link #isNull(int)})
+	 */
+	public boolean get(int row) {
+		return values[row];
+	}
+
+	@Override
+	void store(int row, char[] chars, int offset, int length) {
+		if (matches(TRUE, chars, offset, length)) {
+			values[row] = true;
+		} else if (matches(FALSE, chars, offset, length)) {
+			values[row] = false;
+		} else {
+			throw conversionError(chars, offset, length, null);
+		}
+	}
+
+	private static boolean matches(char[] expected, char[] chars, int offset, int length) {
+		if (expected.length != length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (Character.toLowerCase(chars[offset + i]) != expected[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	void storeNull(int row) {
+		values[row] = false;
+	}
+}
@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common.processor;
+
+import com.univocity.parsers.common.*;
+import com.univocity.parsers.common.input.*;
+
+/**
+ * A {@link RowProcessor} that is able to consume the values of some of its columns directly from the parser's character buffer, without
+ * the intermediate String objects created for each parsed value.
+ *
+ * <p>When the input is processed with {@link AbstractParser#parse(java.io.Reader)} and the processor given in {@link CommonParserSettings#getRowProcessor()} implements this interface,
+ * the parser will invoke {@link #getCharRangeHandlers(String[], ParsingContext)} right after identifying the headers of the input. From then on, every non-empty value parsed
+ * for a column that received a {@link CharRangeHandler} is delivered to that handler, and its position in the row given to {@link RowProcessor#rowProcessed(String[], ParsingContext)} will be null.
+ *
+ * <p>Empty values, and any row parsed before the handlers are obtained, are still delivered as Strings. Implementations must be able to handle both.</p>
+ *
+ * <p>The handlers are never used when rows are returned to the user, i.e. when using {@link AbstractParser#parseNext()}, {@link AbstractParser#parseAll(java.io.Reader)} or {@link AbstractParser#parseLine(String)}.
+ *
+ * @see CharRangeHandler
+ * @see BatchedPrimitiveColumnProcessor
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+public interface CharRangeRowProcessor extends RowProcessor {
+
+	/**
+	 * Returns the handlers that should receive the characters of values parsed from each column of the input.
+	 *
+	 * @param row the first record of the input. These are either the headers of the input, or the first row of values parsed from it.
+	 * @param context the current state of the parsing process.
+	 * @return an array of handlers, where each position corresponds to the index of a column in the input (irrespective of any field selection or column reordering).
+	 * 	Null elements (or a null array) indicate the corresponding values must be delivered as Strings.
+	 */
+	public CharRangeHandler[] getCharRangeHandlers(String[] row, ParsingContext context);
+}
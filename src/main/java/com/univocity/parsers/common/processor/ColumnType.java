@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common.processor;
+
+/**
+ * The types of columns supported by a {@link BatchedPrimitiveColumnProcessor}. Each type determines the {@link ColumnVector} implementation
+ * used to store the values parsed for a column.
+ *
+ * @see BatchedPrimitiveColumnProcessor
+ * @see ColumnVector
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+public enum ColumnType {
+	/**
+	 * Values are parsed into an {@code int[]}, see {@link IntColumnVector}
+	 */
+	INT,
+	/**
+	 * Values are parsed into a {@code long[]}, see {@link LongColumnVector}
+	 */
+	LONG,
+	/**
+	 * Values are parsed into a {@code double[]}, see {@link DoubleColumnVector}
+	 */
+	DOUBLE,
+	/**
+	 * Values ("true" or "false", case insensitive) are parsed into a {@code boolean[]}, see {@link BooleanColumnVector}
+	 */
+	BOOLEAN,
+	/**
+	 * Values are dictionary-encoded into an {@code int[]} of codes, where each distinct String is stored only once, see {@link DictionaryColumnVector}
+	 */
+	STRING
+}
@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common.processor;
+
+import com.univocity.parsers.common.input.*;
+
+/**
+ * The base class for the reusable, typed column storage used by {@link BatchedPrimitiveColumnProcessor}.
+ *
+ * <p>Each vector holds the values of a single column for the rows of the current batch, along with a mask that identifies null values
+ * (i.e. the column was empty or not present in a given row). Vectors are allocated once, with the capacity of a batch, and their contents
+ * are overwritten in each batch. Positions greater than or equal to the number of rows of the current batch contain leftover data.</p>
+ *
+ * <p>Values are parsed directly from the character buffer of the parser (see {@link CharRangeHandler}) whenever possible.</p>
+ *
+ * @see BatchedPrimitiveColumnProcessor
+ * @see ColumnType
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+public abstract class ColumnVector implements CharRangeHandler {
+
+	private final String header;
+	private final int index;
+	private final ColumnType type;
+
+	final boolean[] nulls;
+
+	/**
+	 * The position in the batch that will receive the next value handled by this vector.
+	 */
+	int row;
+
+	/**
+	 * Flags whether a value has been handled for the current row
+	 */
+	boolean filled;
+
+	private char[] buffer = new char[32];
+
+	ColumnVector(String header, int index, ColumnType type, int capacity) {
+		this.header = header;
+		this.index = index;
+		this.type = type;
+		this.nulls = new boolean[capacity];
+	}
+
+	/**
+	 * Returns the name of the column stored in this vector.
+	 * @return the header of the column, or null if the input has no headers.
+	 */
+	public final String getHeader() {
+		return header;
+	}
+
+	/**
+	 * Returns the index of the column stored in this vector, as found in the input.
+	 * @return the original column index.
+	 */
+	public final int getIndex() {
+		return index;
+	}
+
+	/**
+	 * Returns the type of values stored in this vector.
+	 * @return the column type.
+	 */
+	public final ColumnType getType() {
+		return type;
+	}
+
+	/**
+	 * Returns the null mask of this vector, where {@code true} identifies rows that have no value for the column.
+	 * <p>The returned array is reused in every batch.</p>
+	 * @return the null mask
+	 */
+	public final boolean[] getNulls() {
+		return nulls;
+	}
+
+	/**
+	 * Tests whether a given row of the current batch has no value for the column.
+	 * @param row the position of the row in the current batch
+	 * @return {@code true} if the value of the column is null in the given row
+	 */
+	public final boolean isNull(int row) {
+		return nulls[row];
+	}
+
+	/**
+	 * Parses the characters of a value and stores the result in the current row.
+	 */
+	@Override
+	public final void handle(char[] chars, int offset, int length) {
+		store(row, chars, offset, length);
+		nulls[row] = false;
+		filled = true;
+	}
+
+	/**
+	 * Stores a value given as a String in the current row, when it could not be handled directly from the parser buffer.
+	 * @param value the value to store. Null or empty values are stored as nulls.
+	 */
+	final void set(String value) {
+		if (value == null || value.isEmpty()) {
+			storeNull(row);
+			nulls[row] = true;
+		} else {
+			int length = value.length();
+			if (buffer.length < length) {
+				buffer = new char[length];
+			}
+			value.getChars(0, length, buffer, 0);
+			store(row, buffer, 0, length);
+			nulls[row] = false;
+		}
+	}
+
+	/**
+	 * Prepares the vector to receive the value of a given row.
+	 * @param row the position of the next row in the batch.
+	 */
+	final void moveTo(int row) {
+		this.row = row;
+		this.filled = false;
+	}
+
+	/**
+	 * Parses and stores a value in the given row.
+	 * @param row the position of the row in the batch
+	 * @param chars the buffer with the characters of the value
+	 * @param offset the position of the first character of the value
+	 * @param length the number of characters of the value
+	 */
+	abstract void store(int row, char[] chars, int offset, int length);
+
+	/**
+	 * Clears the value stored in the given row.
+	 * @param row the position of the row in the batch
+	 */
+	abstract void storeNull(int row);
+
+	IllegalArgumentException conversionError(char[] chars, int offset, int length, Throwable cause) {
+		IllegalArgumentException ex = new IllegalArgumentException("Cannot convert '" + new String(chars, offset, length) + "' of column " + describe() + " to " + type.name().toLowerCase());
+		if (cause != null) {
+			ex.initCause(cause);
+		}
+		return ex;
+	}
+
+	private String describe() {
+		if (header == null) {
+			return "at index " + index;
+		}
+		return "'" + header + "' (index " + index + ")";
+	}
+
+	@Override
+	public String toString() {
+		return type + " column " + describe();
+	}
+}
@@ -15,8 +15,11 @@
  ******************************************************************************/
 package com.univocity.parsers.common.processor;
 
+import java.util.*;
+
 import com.univocity.parsers.common.*;
 import com.univocity.parsers.common.fields.*;
+import com.univocity.parsers.common.input.*;
 import com.univocity.parsers.conversions.*;
 
 /**
@@ -33,6 +36,25 @@ abstract class ConversionProcessor {
 	private int[] fieldIndexes;
 	private boolean fieldsReordered;
 
+	/**
+	 * The context used to compute the positions of the values to convert in each row. The conversion plan is recomputed when a new parsing process starts.
+	 */
+	private ParsingContext initializedContext;
+
+	/**
+	 * The positions in each parsed row that hold values to be converted, and the original column index of each of these values.
+	 * Columns without conversions are not included here and are simply copied over.
+	 */
+	private int[] positionsToConvert;
+	private int[] indexesToConvert;
+
+	/**
+	 * The original column index of the value at each position of a row, or -1 for positions without conversions. Used by {@link LazyObjectRow}.
+	 */
+	private int[] indexesByPosition;
+
+	private ConvertedValueHandler[] charRangeHandlers;
+
 	/**
 	 * Applies a set of {@link Conversion} objects over indexes of a record.
 	 *
@@ -79,6 +101,68 @@ abstract class ConversionProcessor {
 		return getConversions().applyConversionsOnFieldNames(conversions);
 	}
 
+	/**
+	 * Enables caching the results of the conversions applied to fields of a record, selected by name. The conversions of each distinct value
+	 * will be executed only once while it remains in the cache, which is useful for fields with few distinct values, such as dates or enumerations.
+	 *
+	 * <p>The idiom to define which fields should have their conversion results cached is as follows:
+	 * <hr><blockquote><pre>
+	 *
+	 * processor.cacheConvertedFields(1000).add("date", "status"); // caches up to 1000 converted values of each of the fields "date" and "status"
+	 * </pre></blockquote><hr>
+	 *
+	 * <p>When a cache is full, its least recently used value is evicted. Only fields that have conversions defined are cached.
+	 * Use this only with conversions that always produce the same result for a given input.
+	 *
+	 * @param maxSize the maximum number of converted values to keep in the cache of each selected field
+	 * @return A {@link FieldSet} for field names.
+	 *
+	 * @see ConversionCache
+	 */
+	public final FieldSet<String> cacheConvertedFields(int maxSize) {
+		return getConversions().cacheConversionsOnFieldNames(maxSize);
+	}
+
+	/**
+	 * Enables caching the results of the conversions applied to fields of a record, selected by index. The conversions of each distinct value
+	 * will be executed only once while it remains in the cache, which is useful for fields with few distinct values, such as dates or enumerations.
+	 *
+	 * <p>The idiom to define which indexes should have their conversion results cached is as follows:
+	 * <hr><blockquote><pre>
+	 *
+	 * processor.cacheConvertedIndexes(1000).add(2, 5); // caches up to 1000 converted values of each of the fields in indexes 2 and 5
+	 * </pre></blockquote><hr>
+	 *
+	 * <p>When a cache is full, its least recently used value is evicted. Only fields that have conversions defined are cached.
+	 * Use this only with conversions that always produce the same result for a given input.
+	 *
+	 * @param maxSize the maximum number of converted values to keep in the cache of each selected field
+	 * @return A {@link FieldSet} for indexes.
+	 *
+	 * @see ConversionCache
+	 */
+	public final FieldSet<Integer> cacheConvertedIndexes(int maxSize) {
+		return getConversions().cacheConversionsOnFieldIndexes(maxSize);
+	}
+
+	/**
+	 * Returns the cache of conversion results of a given field, with its hit rate and other statistics. Only available after the first record is processed.
+	 * @param fieldName the name of the field
+	 * @return the cache of the given field, or null if the results of its conversions are not cached.
+	 */
+	public final ConversionCache getConversionCache(String fieldName) {
+		return conversions == null ? null : conversions.getConversionCache(fieldName);
+	}
+
+	/**
+	 * Returns the cache of conversion results of a given field, with its hit rate and other statistics. Only available after the first record is processed.
+	 * @param index the original index of the field in the input
+	 * @return the cache of the given field, or null if the results of its conversions are not cached.
+	 */
+	public final ConversionCache getConversionCache(int index) {
+		return conversions == null ? null : conversions.getConversionCache(index);
+	}
+
 	private FieldConversionMapping getConversions() {
 		if (conversions == null) {
 			conversions = new FieldConversionMapping();
@@ -87,12 +171,6 @@ abstract class ConversionProcessor {
 	}
 
 	private void initializeConversions(String[] row, ParsingContext context) {
-		conversionsInitialized = true;
-
-		this.fieldIndexes = null;
-		this.fieldsReordered = false;
-		this.conversionsInitialized = false;
-
 		if (context.headers() != null) {
 			conversions.prepareExecution(context.headers());
 		} else {
@@ -101,6 +179,71 @@ abstract class ConversionProcessor {
 
 		this.fieldIndexes = context.extractedFieldIndexes();
 		this.fieldsReordered = context.columnsReordered();
+
+		int[] positions;
+		int[] indexes;
+		if (fieldIndexes == null) {
+			indexes = conversions.getConvertedIndexes();
+			positions = indexes;
+		} else {
+			int count = 0;
+			for (int i = 0; i < fieldIndexes.length; i++) {
+				if (conversions.hasConversions(fieldIndexes[i])) {
+					count++;
+				}
+			}
+			positions = new int[count];
+			indexes = new int[count];
+			count = 0;
+			for (int i = 0; i < fieldIndexes.length; i++) {
+				int index = fieldIndexes[i];
+				if (conversions.hasConversions(index)) {
+					positions[count] = fieldsReordered ? i : index;
+					indexes[count++] = index;
+				}
+			}
+		}
+		this.positionsToConvert = positions;
+		this.indexesToConvert = indexes;
+		this.initializedContext = context;
+
+		int length = 0;
+		for (int i = 0; i < positions.length; i++) {
+			if (positions[i] >= length) {
+				length = positions[i] + 1;
+			}
+		}
+		indexesByPosition = new int[length];
+		Arrays.fill(indexesByPosition, -1);
+		for (int i = 0; i < positions.length; i++) {
+			indexesByPosition[positions[i]] = indexes[i];
+		}
+	}
+
+	/**
+	 * Returns the original column index of the value at each position of the rows produced in the current parsing process, for positions that have conversions defined.
+	 * @param row the parsed record with its individual records as extracted from the original input.
+	 * @param context the current state of the parsing process.
+	 * @return the original column index of each position of a row, where -1 indicates the position has no conversions. Null if no conversions were defined at all.
+	 */
+	final int[] getIndexesByPosition(String[] row, ParsingContext context) {
+		if (conversions == null) {
+			return null;
+		}
+		if (context != initializedContext) {
+			initializeConversions(row, context);
+		}
+		return indexesByPosition;
+	}
+
+	/**
+	 * Executes the sequence of conversions defined for a single column.
+	 * @param index the original index of the column in the input
+	 * @param value the String parsed for the column
+	 * @return the result of the conversions of the given column
+	 */
+	final Object convertValue(int index, String value) {
+		return conversions.applyConversions(index, value);
 	}
 
 	/**
@@ -119,30 +262,73 @@ abstract class ConversionProcessor {
 		System.arraycopy(row, 0, objectRow, 0, row.length);
 
 		if (conversions != null) {
-			if (!conversionsInitialized) {
+			if (context != initializedContext) {
 				initializeConversions(row, context);
 			}
 
-			if (!fieldsReordered) {
-				if (fieldIndexes == null) {
-					for (int i = 0; i < objectRow.length; i++) {
-						objectRow[i] = conversions.applyConversions(i, row[i]);
-					}
-				} else {
-					for (int i = 0; i < fieldIndexes.length; i++) {
-						int index = fieldIndexes[i];
-						objectRow[index] = conversions.applyConversions(index, row[index]);
-					}
-				}
-			} else {
-				for (int i = 0; i < fieldIndexes.length; i++) {
-					objectRow[i] = conversions.applyConversions(fieldIndexes[i], row[i]);
+			for (int i = 0; i < positionsToConvert.length; i++) {
+				int position = positionsToConvert[i];
+				if (position < row.length) {
+					objectRow[position] = applyConversions(indexesToConvert[i], row[position]);
 				}
 			}
 		}
 		return objectRow;
 	}
 
+	/**
+	 * Executes the conversions of a given column, unless its value was already converted by a {@link CharRangeHandler}
+	 * created in {@link #createCharRangeHandlers(String[], ParsingContext)}
+	 * @param index the original index of the column in the input
+	 * @param value the String parsed for the column
+	 * @return the result of the conversions of the given column
+	 */
+	private Object applyConversions(int index, String value) {
+		if (charRangeHandlers != null && index < charRangeHandlers.length) {
+			ConvertedValueHandler handler = charRangeHandlers[index];
+			if (handler != null && handler.filled) {
+				handler.filled = false;
+				Object out = handler.value;
+				handler.value = null;
+				return out;
+			}
+		}
+		return conversions.applyConversions(index, value);
+	}
+
+	/**
+	 * Creates a {@link CharRangeHandler} for each column whose first conversion is a {@link CharRangeConversion}, so values of these columns
+	 * are converted straight from the parser buffer. Used by implementations of {@link CharRangeRowProcessor}.
+	 *
+	 * @param row the first record of the input. These are either the headers of the input, or the first row of values parsed from it.
+	 * @param context the current state of the parsing process.
+	 * @return the handlers of each column (by their original index), or null if no column can be converted from a range of characters.
+	 */
+	final CharRangeHandler[] createCharRangeHandlers(String[] row, ParsingContext context) {
+		charRangeHandlers = null;
+		if (conversions == null) {
+			return null;
+		}
+
+		initializeConversions(row, context);
+
+		String[] fields = context.headers() != null ? context.headers() : row;
+		ConvertedValueHandler[] handlers = new ConvertedValueHandler[fields.length];
+		boolean enabled = false;
+		for (int i = 0; i < handlers.length; i++) {
+			if (conversions.isCharRangeConversionSupported(i)) {
+				handlers[i] = new ConvertedValueHandler(conversions, i);
+				enabled = true;
+			}
+		}
+
+		if (enabled) {
+			charRangeHandlers = handlers;
+			return handlers;
+		}
+		return null;
+	}
+
 	/**
 	 *
 	 * Executes the sequences of reverse conversions defined using {@link ConversionProcessor#convertFields(Conversion...)}, {@link ConversionProcessor#convertIndexes(Conversion...)} and {@link ConversionProcessor#convertAll(Conversion...)}, for every field in the given row.
@@ -157,22 +343,108 @@ abstract class ConversionProcessor {
 	 */
 	public final void reverseConversions(boolean executeInReverseOrder, Object[] row, String[] headers, int[] indexesToWrite) {
 		if (conversions != null) {
-			if (!conversionsInitialized) {
-				conversionsInitialized = true;
-				conversions.prepareExecution(headers);
-				this.fieldIndexes = indexesToWrite;
-			}
+			initializeReverseConversions(headers, indexesToWrite);
 
 			if (fieldIndexes == null) {
 				for (int i = 0; i < row.length; i++) {
-					row[i] = conversions.reverseConversions(executeInReverseOrder, i, row[i]);
+					if (conversions.hasConversions(i)) {
+						row[i] = conversions.reverseConversions(executeInReverseOrder, i, row[i]);
+					}
 				}
 			} else {
 				for (int i = 0; i < fieldIndexes.length; i++) {
 					int index = fieldIndexes[i];
-					row[index] = conversions.reverseConversions(executeInReverseOrder, index, row[index]);
+					if (conversions.hasConversions(index)) {
+						row[index] = conversions.reverseConversions(executeInReverseOrder, index, row[index]);
+					}
 				}
 			}
 		}
 	}
+
+	/**
+	 * Prepares the execution of reverse conversions, in the first time they are executed.
+	 * @param headers All field names used to produce records in a given destination. May be null if no headers have been defined in {@link CommonSettings#getHeaders()}
+	 * @param indexesToWrite The indexes of the headers that are actually being written. May be null if no fields have been selected using {@link CommonSettings#selectFields(String...)} or {@link CommonSettings#selectIndexes(Integer...)}
+	 */
+	final void initializeReverseConversions(String[] headers, int[] indexesToWrite) {
+		if (conversions != null && !conversionsInitialized) {
+			conversionsInitialized = true;
+			conversions.prepareExecution(headers);
+			this.fieldIndexes = indexesToWrite;
+		}
+	}
+
+	/**
+	 * Returns the number of times the reverse conversions of a given index are executed by {@link #reverseConversions(boolean, Object[], String[], int[])}.
+	 * Only meaningful after {@link #initializeReverseConversions(String[], int[])} is invoked.
+	 * @param index the position of the value in the row
+	 * @return how many times the reverse conversions of the given index are executed for each row.
+	 */
+	final int getReverseConversionCount(int index) {
+		if (conversions == null || !conversions.hasConversions(index)) {
+			return 0;
+		}
+		if (fieldIndexes == null) {
+			return 1;
+		}
+		int count = 0;
+		for (int i = 0; i < fieldIndexes.length; i++) {
+			if (fieldIndexes[i] == index) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the conversions of a given index, in the order they were declared. Only meaningful after {@link #initializeReverseConversions(String[], int[])} is invoked.
+	 * @param index the position of the value in the row
+	 * @return the conversions of the given index, or an empty array if there are none.
+	 */
+	final Conversion<?, ?>[] getConversions(int index) {
+		return conversions == null ? new Conversion<?, ?>[0] : conversions.getConversions(index);
+	}
+
+	/**
+	 * Returns the conversion of a given index if it is the only one associated with the index and is able to format values into a {@link FormattedValue}.
+	 * Only meaningful after {@link #initializeReverseConversions(String[], int[])} is invoked.
+	 * @param index the position of the value in the row
+	 * @return the conversion that formats the values of the given index, or null if not applicable.
+	 */
+	final FormattedValueConversion<?> getFormattedValueConversion(int index) {
+		return conversions == null ? null : conversions.getFormattedValueConversion(index);
+	}
+
+	/**
+	 * Executes the reverse conversions of a single value, in the reverse order of their declaration.
+	 * @param index the position of the value in the row
+	 * @param value the value to convert
+	 * @return the result of the reverse conversions
+	 */
+	final Object reverseConversion(int index, Object value) {
+		return conversions.reverseConversions(true, index, value);
+	}
+
+	/**
+	 * Converts the characters of values parsed for a column and holds the result until it is collected by {@link ConversionProcessor#applyConversions(String[], ParsingContext)}
+	 */
+	private static final class ConvertedValueHandler implements CharRangeHandler {
+
+		private final FieldConversionMapping conversions;
+		private final int index;
+		private Object value;
+		private boolean filled;
+
+		ConvertedValueHandler(FieldConversionMapping conversions, int index) {
+			this.conversions = conversions;
+			this.index = index;
+		}
+
+		@Override
+		public void handle(char[] chars, int offset, int length) {
+			value = conversions.applyConversions(index, chars, offset, length);
+			filled = true;
+		}
+	}
 }
@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common.processor;
+
+import java.util.*;
+
+/**
+ * A {@link ColumnVector} that stores the values of a column as dictionary codes.
+ *
+ * <p>Each distinct String found in the column is created only once and stored in a dictionary, and each row of the batch holds the {@code int} code of
+ * its value in this dictionary. Values are looked up directly from the parser buffer, so repeated values do not produce any new String.
+ * The dictionary is retained across batches, so a code always represents the same value during a parsing process.</p>
+ *
+ * <p>Null values are represented by the code {@code -1}.</p>
+ *
+ * @see BatchedPrimitiveColumnProcessor
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+public final class DictionaryColumnVector extends ColumnVector {
+
+	private final int[] codes;
+
+	private String[] dictionary = new String[16];
+	private int dictionarySize;
+
+	/**
+	 * Open addressing hash table that holds (code + 1) of each dictionary entry. Zero identifies empty slots.
+	 */
+	private int[] table = new int[32];
+	private int[] hashes = new int[16];
+
+	DictionaryColumnVector(String header, int index, int capacity) {
+		super(header, index, ColumnType.STRING, capacity);
+		this.codes = new int[capacity];
+	}
+
+	/**
+	 * Returns the dictionary codes of the values in the column. Positions marked in {@link #getNulls()} hold {@code -1}.
+	 * <p>The returned array is reused in every batch.</p>
+	 * @return the codes of the values parsed for the column in the current batch
+	 */
+	public int[] getCodes() {
+		return codes;
+	}
+
+	/**
+	 * Returns the dictionary code of the value in a given row of the current batch
+	 * @param row the position of the row in the current batch
+	 * @return the code of the value parsed for the column, or {@code -1} if it is null (see {@link #isNull(int)})
+	 */
+	public int getCode(int row) {
+		return codes[row];
+	}
+
+	/**
+	 * Returns the value of the column in a given row of the current batch
+	 * @param row the position of the row in the current batch
+	 * @return the value parsed for the column, or {@code null}
+	 */
+	public String get(int row) {
+		int code = codes[row];
+		return code < 0 ? null : dictionary[code];
+	}
+
+	/**
+	 * Returns the String associated with a dictionary code
+	 * @param code the code of a value
+	 * @return the value associated with the given code, or null if the code is negative.
+	 */
+	public String getDictionaryValue(int code) {
+		if (code < 0) {
+			return null;
+		}
+		if (code >= dictionarySize) {
+			throw new IndexOutOfBoundsException("Unknown dictionary code " + code + ". Dictionary size: " + dictionarySize);
+		}
+		return dictionary[code];
+	}
+
+	/**
+	 * Returns the number of distinct values found in the column so far.
+	 * @return the size of the dictionary
+	 */
+	public int getDictionarySize() {
+		return dictionarySize;
+	}
+
+	/**
+	 * Returns a copy of the dictionary, where each position corresponds to a value code.
+	 * @return the distinct values found in the column so far.
+	 */
+	public String[] getDictionary() {
+		return Arrays.copyOf(dictionary, dictionarySize);
+	}
+
+	@Override
+	void store(int row, char[] chars, int offset, int length) {
+		int hash = 0;
+		for (int i = offset, end = offset + length; i < end; i++) {
+			hash = 31 * hash + chars[i];
+		}
+
+		int mask = table.length - 1;
+		int slot = spread(hash) & mask;
+		int entry;
+		while ((entry = table[slot]) != 0) {
+			int code = entry - 1;
+			if (hashes[code] == hash && matches(dictionary[code], chars, offset, length)) {
+				codes[row] = code;
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		int code = dictionarySize++;
+		if (code == dictionary.length) {
+			dictionary = Arrays.copyOf(dictionary, code * 2);
+			hashes = Arrays.copyOf(hashes, code * 2);
+		}
+		dictionary[code] = new String(chars, offset, length);
+		hashes[code] = hash;
+		table[slot] = code + 1;
+		codes[row] = code;
+
+		if (dictionarySize * 2 > table.length) {
+			rehash();
+		}
+	}
+
+	private void rehash() {
+		table = new int[table.length * 2];
+		int mask = table.length - 1;
+		for (int code = 0; code < dictionarySize; code++) {
+			int slot = spread(hashes[code]) & mask;
+			while (table[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			table[slot] = code + 1;
+		}
+	}
+
+	private static int spread(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+
+	private static boolean matches(String value, char[] chars, int offset, int length) {
+		if (value.length() != length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (value.charAt(i) != chars[offset + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	void storeNull(int row) {
+		codes[row] = -1;
+	}
+}
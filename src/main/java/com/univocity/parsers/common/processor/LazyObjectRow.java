@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common.processor;
+
+import java.util.*;
+
+import com.univocity.parsers.conversions.*;
+
+/**
+ * A view over a row of values parsed from the input, whose {@link Conversion} sequences are only executed when each value is accessed for the first time.
+ * The result of the conversions of each value is kept until the next row is parsed, so they are never executed twice for the same value.
+ *
+ * <p>Rows that are inspected partially, or discarded after inspecting some of their values, don't pay for the conversions of the values that were not accessed.</p>
+ *
+ * <p><b>Important:</b> instances of this class are reused by the {@link LazyObjectRowProcessor} for every row parsed, and are only valid during the invocation of
+ * {@link LazyObjectRowProcessor#rowProcessed(LazyObjectRow, com.univocity.parsers.common.ParsingContext)}. Use {@link #toArray()} to keep the values of a row.</p>
+ *
+ * @see LazyObjectRowProcessor
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+public final class LazyObjectRow {
+
+	private final ConversionProcessor processor;
+
+	private String[] values;
+	private int[] indexes;
+
+	private Object[] converted = new Object[0];
+	private int[] rowOfConvertedValue = new int[0];
+	private int row;
+
+	LazyObjectRow(ConversionProcessor processor) {
+		this.processor = processor;
+	}
+
+	/**
+	 * Prepares this view to provide the values of a new row.
+	 * @param values the values parsed for the row
+	 * @param indexes the original column index of the value at each position of the row, where -1 indicates the position has no conversions. Null if there are no conversions.
+	 */
+	void reset(String[] values, int[] indexes) {
+		this.values = values;
+		this.indexes = indexes;
+
+		if (indexes != null && converted.length < indexes.length) {
+			converted = new Object[indexes.length];
+			rowOfConvertedValue = new int[indexes.length];
+			row = 0;
+		}
+
+		if (row == Integer.MAX_VALUE) {
+			Arrays.fill(rowOfConvertedValue, 0);
+			row = 0;
+		}
+		row++;
+	}
+
+	/**
+	 * Returns the number of values in this row
+	 * @return the number of values in this row
+	 */
+	public int length() {
+		return values.length;
+	}
+
+	/**
+	 * Returns the value parsed at a given position of this row, before any conversion is applied to it.
+	 * @param position the position of the value in this row
+	 * @return the String parsed from the input at the given position.
+	 */
+	public String getString(int position) {
+		return values[position];
+	}
+
+	/**
+	 * Returns the value at a given position of this row, after executing the conversions defined for it.
+	 * The conversions are only executed in the first invocation of this method for each position of the row.
+	 *
+	 * @param position the position of the value in this row
+	 * @return the result of the conversions of the value at the given position, or the original String if no conversions were defined for it.
+	 */
+	public Object get(int position) {
+		String value = values[position];
+		if (indexes == null || position >= indexes.length || indexes[position] == -1) {
+			return value;
+		}
+		if (rowOfConvertedValue[position] == row) {
+			return converted[position];
+		}
+		Object out = processor.convertValue(indexes[position], value);
+		converted[position] = out;
+		rowOfConvertedValue[position] = row;
+		return out;
+	}
+
+	/**
+	 * Executes the conversions of all values that were not accessed yet, and returns the values of this row.
+	 * @return a new array with the converted values of this row, equivalent to the row given by {@link ObjectRowProcessor#rowProcessed(Object[], com.univocity.parsers.common.ParsingContext)}
+	 */
+	public Object[] toArray() {
+		Object[] out = new Object[values.length];
+		for (int i = 0; i < out.length; i++) {
+			out[i] = get(i);
+		}
+		return out;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(values);
+	}
+}
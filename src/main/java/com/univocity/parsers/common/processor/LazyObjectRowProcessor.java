@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common.processor;
+
+import com.univocity.parsers.common.*;
+import com.univocity.parsers.conversions.*;
+
+/**
+ *
+ * A {@link RowProcessor} implementation for converting rows extracted from any implementation of {@link AbstractParser} into objects, on demand.
+ * <p>This uses the value conversions provided by {@link Conversion} instances, just like {@link ObjectRowProcessor}.
+ *
+ * <p> Instead of executing the conversions of every value before the row is made available, each row is sent to the {@link LazyObjectRowProcessor#rowProcessed(LazyObjectRow, ParsingContext)} method
+ * as a {@link LazyObjectRow}, which executes the conversions of a value the first time it is accessed. This is useful when only some of the values of each row are used,
+ * or when rows are filtered using a few of their values: the conversions of values that are never accessed are never executed.
+ *
+ * @see AbstractParser
+ * @see RowProcessor
+ * @see ObjectRowProcessor
+ * @see LazyObjectRow
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+public abstract class LazyObjectRowProcessor extends ConversionProcessor implements RowProcessor {
+
+	private final LazyObjectRow lazyRow = new LazyObjectRow(this);
+
+	/**
+	 * Prepares a {@link LazyObjectRow} that executes the sequences of conversions defined using {@link ConversionProcessor#convertFields(Conversion...)}, {@link ConversionProcessor#convertIndexes(Conversion...)}
+	 * and {@link ConversionProcessor#convertAll(Conversion...)} on demand, and sends it to {@link LazyObjectRowProcessor#rowProcessed(LazyObjectRow, ParsingContext)}
+	 *
+	 * @param row the parsed record with its individual records as extracted from the original input.
+	 * @param context the current state of the parsing process.
+	 */
+	@Override
+	public void rowProcessed(String[] row, ParsingContext context) {
+		lazyRow.reset(row, getIndexesByPosition(row, context));
+		rowProcessed(lazyRow, context);
+	}
+
+	/**
+	 * Invoked by the processor after all values of a valid record have been processed.
+	 *
+	 * @param row a view over the record parsed from the input, which converts its values when they are accessed. It is only valid during the invocation of this method.
+	 * @param context A contextual object with information and controls over the current state of the parsing process
+	 */
+	public abstract void rowProcessed(LazyObjectRow row, ParsingContext context);
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void processStarted(ParsingContext context) {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void processEnded(ParsingContext context) {
+	}
+}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common.processor;
+
+import com.univocity.parsers.common.*;
+
+/**
+ * A {@link ColumnVector} that stores the values of a column as {@code long} primitives.
+ *
+ * @see BatchedPrimitiveColumnProcessor
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+public final class LongColumnVector extends ColumnVector {
+
+	private final long[] values;
+
+	LongColumnVector(String header, int index, int capacity) {
+		super(header, index, ColumnType.LONG, capacity);
+		this.values = new long[capacity];
+	}
+
+	/**
+	 * Returns the values of the column. Positions marked in {@link #getNulls()} hold {@code 0}.
+	 * <p>The returned array is reused in every batch.</p>
+	 * @return the values parsed for the column in the current batch
+	 */
+	public long[] getValues() {
+		return values;
+	}
+
+	/**
+	 * Returns the value of the column in a given row of the current batch
+	 * @param row the position of the row in the current batch
+	 * @return the value parsed for the column, or {@code 0} if it is null (see {@link #isNull(int)})
+	 */
+	public long get(int row) {
+		return values[row];
+	}
+
+	@Override
+	void store(int row, char[] chars, int offset, int length) {
+		try {
+			values[row] = NumberParsingUtils.parseLong(chars, offset, length);
+		} catch (NumberFormatException ex) {
+			throw conversionError(chars, offset, length, ex);
+		}
+	}
+
+	@Override
+	void storeNull(int row) {
+		values[row] = 0;
+	}
+}
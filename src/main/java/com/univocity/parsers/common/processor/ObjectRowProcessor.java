@@ -16,6 +16,7 @@
 package com.univocity.parsers.common.processor;
 
 import com.univocity.parsers.common.*;
+import com.univocity.parsers.common.input.*;
 import com.univocity.parsers.conversions.*;
 
 /**
@@ -25,14 +26,19 @@ import com.univocity.parsers.conversions.*;
  *
  * <p> For each row processed, a sequence of conversions will be executed and stored in an object array, at its original position.
  * <p> The row with the result of these conversions will then be sent to the {@link ObjectRowProcessor#rowProcessed(Object[], ParsingContext)} method, where the user can access it.
+ * <p> Columns whose first conversion is a {@link CharRangeConversion} (such as {@link IntegerConversion} or {@link DoubleConversion}) are converted directly from the characters
+ * collected by the parser, without creating an intermediate String (see {@link CharRangeRowProcessor}). This is disabled if a subclass overrides {@link #rowProcessed(String[], ParsingContext)},
+ * as the original String values of these columns would not be available to it.
+ * <p> If only some of the values of each row are used, consider using a {@link LazyObjectRowProcessor} instead, which only converts the values that are accessed.
  *
  * @see AbstractParser
  * @see RowProcessor
+ * @see LazyObjectRowProcessor
  *
  * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
  *
  */
-public abstract class ObjectRowProcessor extends ConversionProcessor implements RowProcessor {
+public abstract class ObjectRowProcessor extends ConversionProcessor implements CharRangeRowProcessor {
 
 	/**
 	 * Executes the sequences of conversions defined using {@link ConversionProcessor#convertFields(Conversion...)}, {@link ConversionProcessor#convertIndexes(Conversion...)} and {@link ConversionProcessor#convertAll(Conversion...)}, for every field in the given row.
@@ -50,6 +56,22 @@ public abstract class ObjectRowProcessor extends ConversionProcessor implements
 		rowProcessed(objectRow, context);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CharRangeHandler[] getCharRangeHandlers(String[] row, ParsingContext context) {
+		try {
+			if (getClass().getMethod("rowProcessed", String[].class, ParsingContext.class).getDeclaringClass() != ObjectRowProcessor.class) {
+				//subclass inspects the String values of each row.
+				return null;
+			}
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+		return createCharRangeHandlers(row, context);
+	}
+
 	/**
 	 * Invoked by the processor after all values of a valid record have been processed and converted into an Object array.
 	 *
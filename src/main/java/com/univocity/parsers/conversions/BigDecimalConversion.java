@@ -17,12 +17,17 @@ package com.univocity.parsers.conversions;
 
 import java.math.*;
 
+import com.univocity.parsers.common.*;
+import com.univocity.parsers.common.input.*;
+
 /**
  * Converts Strings to BigDecimals and vice versa
  * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
  *
  */
-public class BigDecimalConversion extends ObjectConversion<BigDecimal> {
+public class BigDecimalConversion extends ObjectConversion<BigDecimal> implements CharRangeConversion<BigDecimal>, FormattedValueConversion<BigDecimal> {
+
+	private final boolean fromStringOverridden = isFromStringOverridden(BigDecimalConversion.class);
 
 	/**
 	 * Creates a Conversion from String to BigDecimal with default values to return when the input is null.
@@ -49,4 +54,23 @@ public class BigDecimalConversion extends ObjectConversion<BigDecimal> {
 		return new BigDecimal(input);
 	}
 
+	/**
+	 * Converts a sequence of characters to BigDecimal, without creating an intermediate String.
+	 * If a subclass overrides {@link #fromString(String)}, a String is created and converted with it.
+	 */
+	@Override
+	public BigDecimal convert(char[] chars, int offset, int length) {
+		if (fromStringOverridden) {
+			return fromString(new String(chars, offset, length));
+		}
+		return NumberParsingUtils.parseBigDecimal(chars, offset, length);
+	}
+
+	/**
+	 * Writes the String representation of a BigDecimal into the given buffer, without creating a String.
+	 */
+	@Override
+	public void revert(BigDecimal input, FormattedValue output) {
+		output.append(input);
+	}
 }
@@ -31,7 +31,9 @@ import com.univocity.parsers.common.*;
  * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
  *
  */
-public class BooleanConversion extends ObjectConversion<Boolean> {
+public class BooleanConversion extends ObjectConversion<Boolean> implements CharRangeConversion<Boolean> {
+
+	private final boolean fromStringOverridden = isFromStringOverridden(BooleanConversion.class);
 
 	private String defaultForTrue;
 	private String defaultForFalse;
@@ -39,6 +41,11 @@ public class BooleanConversion extends ObjectConversion<Boolean> {
 	private Set<String> falseValues = new HashSet<String>();
 	private Set<String> trueValues = new HashSet<String>();
 
+	/**
+	 * The normalized Strings that identify true and false values.
+	 */
+	private final CharLookup<Boolean> lookup;
+
 	/**
 	 * Creates conversions from String to Boolean.
 	 * This default constructor assumes the output of a conversion should be null when input is null
@@ -75,6 +82,15 @@ public class BooleanConversion extends ObjectConversion<Boolean> {
 			}
 		}
 
+		Map<String, Boolean> values = new HashMap<String, Boolean>();
+		for (String falseValue : falseValues) {
+			values.put(falseValue, Boolean.FALSE);
+		}
+		for (String trueValue : trueValues) {
+			values.put(trueValue, Boolean.TRUE);
+		}
+		lookup = new CharLookup<Boolean>(values);
+
 		defaultForTrue = valuesForTrue[0];
 		defaultForFalse = valuesForFalse[0];
 	}
@@ -106,16 +122,32 @@ public class BooleanConversion extends ObjectConversion<Boolean> {
 	@Override
 	protected Boolean fromString(String input) {
 		if (input != null) {
-			String normalized = ArgumentUtils.normalize(input);
-			if (falseValues.contains(normalized)) {
-				return Boolean.FALSE;
-			}
-			if (trueValues.contains(normalized)) {
-				return Boolean.TRUE;
+			Boolean value = lookup.getNormalized(input);
+			if (value != null) {
+				return value;
 			}
 			throw new IllegalArgumentException("Unable to convert '" + input + "' to Boolean. Allowed Strings are: " + trueValues + " for true; and " + falseValues + " for false.");
 		}
 		return super.getValueIfStringIsNull();
 	}
 
+	/**
+	 * Converts a sequence of characters to a Boolean, ignoring surrounding white spaces and the case of the characters.
+	 * @param chars the buffer that contains the characters to convert
+	 * @param offset the position of the first character to convert
+	 * @param length the number of characters to convert
+	 * @return true if the characters match one of the {@link BooleanConversion#trueValues}, false if they match one of the {@link BooleanConversion#falseValues}
+	 */
+	@Override
+	public Boolean convert(char[] chars, int offset, int length) {
+		if (fromStringOverridden) {
+			return fromString(new String(chars, offset, length));
+		}
+		Boolean value = lookup.getNormalized(chars, offset, length);
+		if (value != null) {
+			return value;
+		}
+		throw new IllegalArgumentException("Unable to convert '" + new String(chars, offset, length) + "' to Boolean. Allowed Strings are: " + trueValues + " for true; and " + falseValues + " for false.");
+	}
+
 }
@@ -15,12 +15,14 @@
  ******************************************************************************/
 package com.univocity.parsers.conversions;
 
+import com.univocity.parsers.common.input.*;
+
 /**
  * Converts Strings to Bytes and vice versa
  * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
  *
  */
-public class ByteConversion extends ObjectConversion<Byte> {
+public class ByteConversion extends ObjectConversion<Byte> implements FormattedValueConversion<Byte> {
 
 	/**
 	 * Creates a Conversion from String to Byte with default values to return when the input is null.
@@ -47,4 +49,11 @@ public class ByteConversion extends ObjectConversion<Byte> {
 		return Byte.valueOf(input);
 	}
 
+	/**
+	 * Writes the String representation of a Byte into the given buffer, without creating a String.
+	 */
+	@Override
+	public void revert(Byte input, FormattedValue output) {
+		output.append(input.byteValue());
+	}
 }
@@ -19,6 +19,7 @@ import java.text.*;
 import java.util.*;
 
 import com.univocity.parsers.common.*;
+import com.univocity.parsers.common.input.*;
 
 /**
  * Converts Strings to instances of {@link java.util.Calendar} and vice versa.
@@ -26,14 +27,17 @@ import com.univocity.parsers.common.*;
  * <p> This class supports multiple date formats. For example, you can define conversions from dates represented by different Strings such as "2001/05/02 and Dec/2013".
  *
  * <p> The reverse conversion from a Calendar to String (in {@link CalendarConversion#revert(Calendar)} will return a formatted String using the date pattern provided in this class constructor
- * <p> The date patterns must follows the pattern rules of {@link java.text.SimpleDateFormat}
+ * <p> The date patterns must follows the pattern rules of {@link java.text.SimpleDateFormat}. Dates are parsed using a {@link DateConversion}, which compiles
+ * common numeric patterns and can be shared among multiple threads.
  *
  * @see java.text.SimpleDateFormat
  *
  * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
  *
  */
-public class CalendarConversion extends ObjectConversion<Calendar> implements FormattedConversion<SimpleDateFormat> {
+public class CalendarConversion extends ObjectConversion<Calendar> implements FormattedConversion<SimpleDateFormat>, CharRangeConversion<Calendar>, FormattedValueConversion<Calendar> {
+
+	private final boolean fromStringOverridden = isFromStringOverridden(CalendarConversion.class);
 
 	private final DateConversion dateConversion;
 
@@ -73,6 +77,15 @@ public class CalendarConversion extends ObjectConversion<Calendar> implements Fo
 		return dateConversion.revert(input.getTime());
 	}
 
+	/**
+	 * Writes a Calendar into the given buffer using the first date pattern provided in this class constructor.
+	 * Common numeric patterns, such as {@code yyyy-MM-dd HH:mm:ss}, are formatted without creating a String.
+	 */
+	@Override
+	public void revert(Calendar input, FormattedValue output) {
+		dateConversion.revert(input.getTimeInMillis(), null, output);
+	}
+
 	/**
 	 * Converts a formatted date String to an instance of Calendar.
 	 * <p>The pattern in the formatted date must match one of the date patterns provided in the constructor of this class.
@@ -87,6 +100,20 @@ public class CalendarConversion extends ObjectConversion<Calendar> implements Fo
 		return out;
 	}
 
+	/**
+	 * Converts a sequence of characters with a formatted date to an instance of Calendar, without creating an intermediate String if the characters follow one of the compiled date patterns.
+	 */
+	@Override
+	public Calendar convert(char[] chars, int offset, int length) {
+		if (fromStringOverridden) {
+			return fromString(new String(chars, offset, length));
+		}
+		Date date = dateConversion.convert(chars, offset, length);
+		Calendar out = Calendar.getInstance();
+		out.setTime(date);
+		return out;
+	}
+
 	@Override
 	public SimpleDateFormat[] getFormatterObjects() {
 		return dateConversion.getFormatterObjects();
@@ -0,0 +1,255 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.conversions;
+
+import java.util.*;
+
+import com.univocity.parsers.common.*;
+
+/**
+ * An immutable table of values identified by String keys, which can be queried directly with a sequence of characters or a String without creating new objects.
+ *
+ * <p>The keys are kept in an open addressing hash table, with twice as many slots as keys. Lookups can match keys exactly, or ignoring surrounding white spaces
+ * and the case of the characters (i.e. matching keys that were normalized with {@link ArgumentUtils#normalize(String)}).
+ * Inputs of case insensitive lookups that contain non-ASCII characters are normalized into a String before being matched.
+ *
+ * @param <V> the type of values in the table
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+final class CharLookup<V> {
+
+	private final char[][] keys;
+	private final int[] hashes;
+	private final Object[] values;
+	private final int mask;
+
+	/**
+	 * Creates a lookup table with the given entries. Null keys are ignored.
+	 * @param entries the keys and values to store in the table.
+	 */
+	CharLookup(Map<String, V> entries) {
+		int capacity = 4;
+		while (capacity < entries.size() * 2) {
+			capacity <<= 1;
+		}
+		this.keys = new char[capacity][];
+		this.hashes = new int[capacity];
+		this.values = new Object[capacity];
+		this.mask = capacity - 1;
+
+		for (Map.Entry<String, V> e : entries.entrySet()) {
+			String key = e.getKey();
+			if (key == null) {
+				continue;
+			}
+			int hash = hash(key.hashCode());
+			int slot = hash & mask;
+			while (keys[slot] != null) {
+				slot = (slot + 1) & mask;
+			}
+			keys[slot] = key.toCharArray();
+			hashes[slot] = hash;
+			values[slot] = e.getValue();
+		}
+	}
+
+	private static int hash(int h) {
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Returns the value associated with the key that is equal to the given characters.
+	 * @param chars the buffer that contains the key
+	 * @param offset the position of the first character of the key
+	 * @param length the number of characters of the key
+	 * @return the value of the matching key, or null if no key matches the given characters.
+	 */
+	@SuppressWarnings("unchecked")
+	V get(char[] chars, int offset, int length) {
+		int h = 0;
+		int end = offset + length;
+		for (int i = offset; i < end; i++) {
+			h = 31 * h + chars[i];
+		}
+		int hash = hash(h);
+		for (int slot = hash & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+			if (hashes[slot] == hash && matches(keys[slot], chars, offset, length)) {
+				return (V) values[slot];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the value associated with the key that is equal to the given String.
+	 * @param input the key
+	 * @return the value of the matching key, or null if no key matches the given String.
+	 */
+	@SuppressWarnings("unchecked")
+	V get(String input) {
+		int hash = hash(input.hashCode());
+		for (int slot = hash & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+			if (hashes[slot] == hash && matches(keys[slot], input)) {
+				return (V) values[slot];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the value associated with the key that is equal to the given characters, ignoring leading and trailing white spaces and the case of the characters.
+	 * The keys of this table must have been normalized with {@link ArgumentUtils#normalize(String)}.
+	 * @param chars the buffer that contains the key
+	 * @param offset the position of the first character of the key
+	 * @param length the number of characters of the key
+	 * @return the value of the matching key, or null if no key matches the given characters.
+	 */
+	V getNormalized(char[] chars, int offset, int length) {
+		int start = offset;
+		int end = offset + length;
+		while (start < end && chars[start] <= ' ') {
+			start++;
+		}
+		while (end > start && chars[end - 1] <= ' ') {
+			end--;
+		}
+
+		int h = 0;
+		for (int i = start; i < end; i++) {
+			char ch = chars[i];
+			if (ch >= 128) {
+				return get(ArgumentUtils.normalize(new String(chars, offset, length)));
+			}
+			h = 31 * h + toLowerCase(ch);
+		}
+		if (isLocaleSensitive()) {
+			return get(ArgumentUtils.normalize(new String(chars, offset, length)));
+		}
+		return getLowerCase(hash(h), chars, start, end - start);
+	}
+
+	/**
+	 * Returns the value associated with the key that is equal to the given String, ignoring leading and trailing white spaces and the case of the characters.
+	 * The keys of this table must have been normalized with {@link ArgumentUtils#normalize(String)}.
+	 * @param input the key
+	 * @return the value of the matching key, or null if no key matches the given String.
+	 */
+	V getNormalized(String input) {
+		int start = 0;
+		int end = input.length();
+		while (start < end && input.charAt(start) <= ' ') {
+			start++;
+		}
+		while (end > start && input.charAt(end - 1) <= ' ') {
+			end--;
+		}
+
+		int h = 0;
+		for (int i = start; i < end; i++) {
+			char ch = input.charAt(i);
+			if (ch >= 128) {
+				return get(ArgumentUtils.normalize(input));
+			}
+			h = 31 * h + toLowerCase(ch);
+		}
+		if (isLocaleSensitive()) {
+			return get(ArgumentUtils.normalize(input));
+		}
+		int hash = hash(h);
+		for (int slot = hash & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+			if (hashes[slot] == hash && matchesLowerCase(keys[slot], input, start, end - start)) {
+				return value(slot);
+			}
+		}
+		return null;
+	}
+
+	private V getLowerCase(int hash, char[] chars, int offset, int length) {
+		for (int slot = hash & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+			if (hashes[slot] == hash && matchesLowerCase(keys[slot], chars, offset, length)) {
+				return value(slot);
+			}
+		}
+		return null;
+	}
+
+	@SuppressWarnings("unchecked")
+	private V value(int slot) {
+		return (V) values[slot];
+	}
+
+	private static boolean isLocaleSensitive() {
+		String language = Locale.getDefault().getLanguage();
+		return "tr".equals(language) || "az".equals(language) || "lt".equals(language);
+	}
+
+	private static char toLowerCase(char ch) {
+		if (ch >= 'A' && ch <= 'Z') {
+			return (char) (ch + ('a' - 'A'));
+		}
+		return ch;
+	}
+
+	private static boolean matches(char[] key, char[] chars, int offset, int length) {
+		if (key.length != length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (key[i] != chars[offset + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean matches(char[] key, String input) {
+		if (key.length != input.length()) {
+			return false;
+		}
+		for (int i = 0; i < key.length; i++) {
+			if (key[i] != input.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean matchesLowerCase(char[] key, char[] chars, int offset, int length) {
+		if (key.length != length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (key[i] != toLowerCase(chars[offset + i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean matchesLowerCase(char[] key, String input, int offset, int length) {
+		if (key.length != length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (key[i] != toLowerCase(input.charAt(offset + i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
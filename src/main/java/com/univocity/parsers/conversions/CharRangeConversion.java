@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.conversions;
+
+import com.univocity.parsers.common.input.*;
+
+/**
+ * A conversion that is able to produce its result directly from a range of characters, without requiring a String as input.
+ *
+ * <p>When the first conversion applied to a column implements this interface, the {@link com.univocity.parsers.common.processor.ObjectRowProcessor} will
+ * receive the characters of the values parsed for the column directly from the parser buffer (see {@link CharRangeHandler}), and no String will be created
+ * for them. The result of {@link #convert(char[], int, int)} must be the same as the result of {@link Conversion#execute(Object)} with a String of the given characters.</p>
+ *
+ * <p><b>Important:</b> subclasses of conversions that implement this interface must override {@link #convert(char[], int, int)} if they change the way Strings are converted.</p>
+ *
+ * @param <T> The type of values produced by this conversion
+ *
+ * @see CharRangeHandler
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+public interface CharRangeConversion<T> {
+
+	/**
+	 * Converts a sequence of characters to an instance of <b>T</b>
+	 * <p>The given character array may be the internal buffer of the parser. Its contents must not be modified or retained after this method returns.</p>
+	 *
+	 * @param chars the buffer that contains the characters to convert
+	 * @param offset the position of the first character to convert
+	 * @param length the number of characters to convert. Always greater than zero.
+	 * @return the conversion result
+	 */
+	public T convert(char[] chars, int offset, int length);
+}
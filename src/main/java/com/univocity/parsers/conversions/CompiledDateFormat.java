@@ -0,0 +1,443 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.conversions;
+
+import java.text.*;
+import java.util.*;
+
+import com.univocity.parsers.common.input.*;
+
+/**
+ * A thread-safe parser and formatter for dates in fixed-width, numeric patterns commonly found in text files, such as {@code yyyy-MM-dd}, {@code yyyy-MM-dd'T'HH:mm:ss.SSSZ} or {@code dd/MM/yyyy HH:mm:ss}.
+ *
+ * <p>Patterns are compiled from a {@link SimpleDateFormat}, which remains the reference for the expected results. Only patterns composed exclusively of
+ * the letters {@code yyyy}, {@code MM}, {@code dd}, {@code HH}, {@code mm}, {@code ss}, {@code SSS}, {@code Z} and literals are supported (see {@link #compile(SimpleDateFormat)}).</p>
+ *
+ * <p>Values are parsed without any allocation or synchronization when they contain exactly the digits and literals of the pattern, and represent a valid date/time that is
+ * not close to a daylight saving time transition. In any other case, {@link #parse(String, char[], int, int)} returns {@link #NOT_PARSED} and the value must be parsed by the {@link SimpleDateFormat},
+ * which will apply its own rules (such as leniency) to produce a result or an error.</p>
+ *
+ * <p>Dates between the years 1583 and 9999 are formatted without any allocation or synchronization (see {@link #format(long, FormattedValue)}).</p>
+ *
+ * <p>The time zone of the {@link SimpleDateFormat} is captured when the first value is parsed or formatted. Any changes made to the formatter after that are not reflected by this class.</p>
+ *
+ * @see DateConversion
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+final class CompiledDateFormat {
+
+	/**
+	 * Result of {@link #parse(String, char[], int, int)} when a value cannot be parsed without the {@link SimpleDateFormat}
+	 */
+	static final long NOT_PARSED = Long.MIN_VALUE;
+
+	private static final long MILLIS_PER_DAY = 24L * 60L * 60L * 1000L;
+	private static final long DEFAULT_GREGORIAN_CUTOVER = new GregorianCalendar().getGregorianChange().getTime();
+
+	private static final int YEAR = 0;
+	private static final int MONTH = 1;
+	private static final int DAY = 2;
+	private static final int HOUR = 3;
+	private static final int MINUTE = 4;
+	private static final int SECOND = 5;
+	private static final int MILLISECOND = 6;
+	private static final int ZONE = 7;
+	private static final int LITERAL = 8;
+
+	private final SimpleDateFormat formatter;
+	private final String pattern;
+
+	private final int[] tokenTypes;
+	private final int[] tokenWidths;
+	private final char[] literals;
+	private final int length;
+
+	private volatile boolean initialized;
+	private TimeZone timeZone;
+	private boolean supported;
+
+	private CompiledDateFormat(SimpleDateFormat formatter, String pattern, int[] tokenTypes, int[] tokenWidths, char[] literals) {
+		this.formatter = formatter;
+		this.pattern = pattern;
+		this.tokenTypes = tokenTypes;
+		this.tokenWidths = tokenWidths;
+		this.literals = literals;
+
+		int length = 0;
+		for (int width : tokenWidths) {
+			length += width;
+		}
+		this.length = length;
+	}
+
+	/**
+	 * Compiles the pattern of a {@link SimpleDateFormat}.
+	 * @param formatter the formatter whose pattern will be compiled
+	 * @return the compiled format, or null if the pattern of the formatter is not supported.
+	 */
+	static CompiledDateFormat compile(SimpleDateFormat formatter) {
+		String pattern = formatter.toPattern();
+
+		List<int[]> tokens = new ArrayList<int[]>();
+		StringBuilder literals = new StringBuilder();
+
+		int i = 0;
+		while (i < pattern.length()) {
+			char ch = pattern.charAt(i);
+			if (ch == '\'') {
+				int end = pattern.indexOf('\'', i + 1);
+				if (end <= i + 1) {
+					//quote escape ('') or unterminated quote
+					return null;
+				}
+				for (int j = i + 1; j < end; j++) {
+					tokens.add(new int[] { LITERAL, 1 });
+					literals.append(pattern.charAt(j));
+				}
+				i = end + 1;
+			} else if ((ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z')) {
+				int start = i;
+				while (i < pattern.length() && pattern.charAt(i) == ch) {
+					i++;
+				}
+				int count = i - start;
+				int type = fieldType(ch, count);
+				if (type < 0) {
+					return null;
+				}
+				tokens.add(new int[] { type, type == ZONE ? 5 : count });
+				literals.append('\0');
+			} else {
+				tokens.add(new int[] { LITERAL, 1 });
+				literals.append(ch);
+				i++;
+			}
+		}
+
+		if (tokens.isEmpty()) {
+			return null;
+		}
+
+		int[] types = new int[tokens.size()];
+		int[] widths = new int[tokens.size()];
+		for (int t = 0; t < types.length; t++) {
+			types[t] = tokens.get(t)[0];
+			widths[t] = tokens.get(t)[1];
+		}
+		return new CompiledDateFormat(formatter, pattern, types, widths, literals.toString().toCharArray());
+	}
+
+	private static int fieldType(char letter, int count) {
+		switch (letter) {
+			case 'y':
+				return count == 4 ? YEAR : -1;
+			case 'M':
+				return count == 2 ? MONTH : -1;
+			case 'd':
+				return count == 2 ? DAY : -1;
+			case 'H':
+				return count == 2 ? HOUR : -1;
+			case 'm':
+				return count == 2 ? MINUTE : -1;
+			case 's':
+				return count == 2 ? SECOND : -1;
+			case 'S':
+				return count == 3 ? MILLISECOND : -1;
+			case 'Z':
+				return count == 1 ? ZONE : -1;
+			default:
+				return -1;
+		}
+	}
+
+	/**
+	 * Captures the state of the formatter that affects the results of parsing
+	 */
+	private void initialize() {
+		synchronized (formatter) {
+			if (!initialized) {
+				Calendar calendar = formatter.getCalendar();
+				NumberFormat numberFormat = formatter.getNumberFormat();
+
+				supported = pattern.equals(formatter.toPattern())
+						&& calendar instanceof GregorianCalendar
+						&& ((GregorianCalendar) calendar).getGregorianChange().getTime() == DEFAULT_GREGORIAN_CUTOVER
+						&& numberFormat instanceof DecimalFormat
+						&& ((DecimalFormat) numberFormat).getDecimalFormatSymbols().getZeroDigit() == '0';
+
+				timeZone = (TimeZone) formatter.getTimeZone().clone();
+				initialized = true;
+			}
+		}
+	}
+
+	/**
+	 * Parses a date either from a String or from a range of characters.
+	 *
+	 * @param input the String to parse. If null, the characters in the given range will be parsed instead.
+	 * @param chars the buffer with characters to parse, used when the input String is null
+	 * @param offset the position of the first character to parse in the buffer
+	 * @param length the number of characters to parse
+	 * @return the number of milliseconds since January 1, 1970, 00:00:00 GMT represented by the input, or {@link #NOT_PARSED} if the value must be parsed by the {@link SimpleDateFormat}
+	 */
+	long parse(String input, char[] chars, int offset, int length) {
+		if (length != this.length) {
+			return NOT_PARSED;
+		}
+		if (!initialized) {
+			initialize();
+		}
+		if (!supported) {
+			return NOT_PARSED;
+		}
+
+		int year = 1970;
+		int month = 1;
+		int day = 1;
+		int hour = 0;
+		int minute = 0;
+		int second = 0;
+		int millis = 0;
+		int zoneOffset = 0;
+		boolean hasZone = false;
+
+		int position = 0;
+		for (int t = 0; t < tokenTypes.length; t++) {
+			int type = tokenTypes[t];
+			int width = tokenWidths[t];
+
+			if (type == LITERAL) {
+				char ch = input == null ? chars[offset + position] : input.charAt(position);
+				if (ch != literals[t]) {
+					return NOT_PARSED;
+				}
+				position++;
+				continue;
+			}
+
+			if (type == ZONE) {
+				char sign = input == null ? chars[offset + position] : input.charAt(position);
+				if (sign != '+' && sign != '-') {
+					return NOT_PARSED;
+				}
+				int hours = readDigits(input, chars, offset + position + 1, position + 1, 2);
+				int minutes = readDigits(input, chars, offset + position + 3, position + 3, 2);
+				if (hours < 0 || hours > 23 || minutes < 0 || minutes > 59) {
+					return NOT_PARSED;
+				}
+				zoneOffset = (hours * 60 + minutes) * 60000;
+				if (sign == '-') {
+					zoneOffset = -zoneOffset;
+				}
+				hasZone = true;
+				position += width;
+			} else {
+				int value = readDigits(input, chars, offset + position, position, width);
+				if (value < 0) {
+					return NOT_PARSED;
+				}
+				position += width;
+
+				//a numeric field followed by a digit would be parsed differently by SimpleDateFormat, unless the next field is also numeric
+				if (t + 1 < tokenTypes.length && (tokenTypes[t + 1] == LITERAL || tokenTypes[t + 1] == ZONE)) {
+					char next = input == null ? chars[offset + position] : input.charAt(position);
+					if (next >= '0' && next <= '9') {
+						return NOT_PARSED;
+					}
+				}
+
+				switch (type) {
+					case YEAR:
+						year = value;
+						break;
+					case MONTH:
+						month = value;
+						break;
+					case DAY:
+						day = value;
+						break;
+					case HOUR:
+						hour = value;
+						break;
+					case MINUTE:
+						minute = value;
+						break;
+					case SECOND:
+						second = value;
+						break;
+					case MILLISECOND:
+						millis = value;
+						break;
+				}
+			}
+		}
+
+		//invalid or historical dates are handled by SimpleDateFormat according to its leniency and calendar rules
+		if (year < 1583 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month) || hour > 23 || minute > 59 || second > 59) {
+			return NOT_PARSED;
+		}
+
+		long local = daysSinceEpoch(year, month, day) * MILLIS_PER_DAY + hour * 3600000L + minute * 60000L + second * 1000L + millis;
+		if (hasZone) {
+			return local - zoneOffset;
+		}
+
+		int offsetFromUtc = timeZone.getOffset(local - timeZone.getRawOffset());
+		long time = local - offsetFromUtc;
+		if (timeZone.getOffset(time) != offsetFromUtc || timeZone.getOffset(time - MILLIS_PER_DAY) != offsetFromUtc || timeZone.getOffset(time + MILLIS_PER_DAY) != offsetFromUtc) {
+			//close to a daylight saving transition: local time may be ambiguous or skipped.
+			return NOT_PARSED;
+		}
+		return time;
+	}
+
+	/**
+	 * Formats a date into a buffer of characters, producing the same result as the {@link SimpleDateFormat}.
+	 *
+	 * @param time the number of milliseconds since January 1, 1970, 00:00:00 GMT of the date to format
+	 * @param output the buffer that will receive the formatted date
+	 * @return true if the date was formatted, or false if it must be formatted by the {@link SimpleDateFormat}, in which case nothing is written to the output.
+	 */
+	boolean format(long time, FormattedValue output) {
+		if (!initialized) {
+			initialize();
+		}
+		if (!supported) {
+			return false;
+		}
+
+		int zoneOffset = timeZone.getOffset(time);
+		long local = time + zoneOffset;
+		long days = local >= 0 ? local / MILLIS_PER_DAY : (local - MILLIS_PER_DAY + 1) / MILLIS_PER_DAY;
+		int millisOfDay = (int) (local - days * MILLIS_PER_DAY);
+
+		//converts the days since epoch to a date of the proleptic Gregorian calendar
+		long shifted = days + 719468;
+		long era = (shifted >= 0 ? shifted : shifted - 146096) / 146097;
+		long dayOfEra = shifted - era * 146097;
+		long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+		long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+		long monthIndex = (5 * dayOfYear + 2) / 153;
+		int day = (int) (dayOfYear - (153 * monthIndex + 2) / 5 + 1);
+		int month = (int) (monthIndex < 10 ? monthIndex + 3 : monthIndex - 9);
+		long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+		//historical dates and years with more than 4 digits are handled by SimpleDateFormat
+		if (year < 1583 || year > 9999) {
+			return false;
+		}
+
+		for (int t = 0; t < tokenTypes.length; t++) {
+			switch (tokenTypes[t]) {
+				case LITERAL:
+					output.append(literals[t]);
+					break;
+				case YEAR:
+					appendDigits(output, (int) year, 4);
+					break;
+				case MONTH:
+					appendDigits(output, month, 2);
+					break;
+				case DAY:
+					appendDigits(output, day, 2);
+					break;
+				case HOUR:
+					appendDigits(output, millisOfDay / 3600000, 2);
+					break;
+				case MINUTE:
+					appendDigits(output, (millisOfDay / 60000) % 60, 2);
+					break;
+				case SECOND:
+					appendDigits(output, (millisOfDay / 1000) % 60, 2);
+					break;
+				case MILLISECOND:
+					appendDigits(output, millisOfDay % 1000, 3);
+					break;
+				case ZONE:
+					int minutes = zoneOffset / 60000;
+					if (minutes < 0) {
+						output.append('-');
+						minutes = -minutes;
+					} else {
+						output.append('+');
+					}
+					appendDigits(output, minutes / 60, 2);
+					appendDigits(output, minutes % 60, 2);
+					break;
+			}
+		}
+		return true;
+	}
+
+	private static void appendDigits(FormattedValue output, int value, int width) {
+		int divisor = 1;
+		for (int i = 1; i < width; i++) {
+			divisor *= 10;
+		}
+		for (; divisor > 0; divisor /= 10) {
+			output.append((char) ('0' + (value / divisor) % 10));
+		}
+	}
+
+	private static int readDigits(String input, char[] chars, int bufferPosition, int stringPosition, int width) {
+		int value = 0;
+		for (int i = 0; i < width; i++) {
+			int digit = (input == null ? chars[bufferPosition + i] : input.charAt(stringPosition + i)) - '0';
+			if (digit < 0 || digit > 9) {
+				return -1;
+			}
+			value = value * 10 + digit;
+		}
+		return value;
+	}
+
+	private static boolean isLeapYear(int year) {
+		return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+	}
+
+	private static int daysInMonth(int year, int month) {
+		switch (month) {
+			case 2:
+				return isLeapYear(year) ? 29 : 28;
+			case 4:
+			case 6:
+			case 9:
+			case 11:
+				return 30;
+			default:
+				return 31;
+		}
+	}
+
+	/**
+	 * Computes the number of days between 1970-01-01 and a date of the proleptic Gregorian calendar.
+	 */
+	private static long daysSinceEpoch(int year, int month, int day) {
+		long y = month <= 2 ? year - 1 : year;
+		long era = (y >= 0 ? y : y - 399) / 400;
+		long yearOfEra = y - era * 400;
+		long dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+		long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+		return era * 146097 + dayOfEra - 719468;
+	}
+
+	@Override
+	public String toString() {
+		return pattern;
+	}
+}
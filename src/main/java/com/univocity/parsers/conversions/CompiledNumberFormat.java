@@ -0,0 +1,262 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.conversions;
+
+import java.math.*;
+import java.text.*;
+
+/**
+ * A thread-safe scanner for numbers formatted with simple {@link DecimalFormat} patterns, such as "#,##0.00", "$#,##0.00" or "0.00%".
+ *
+ * <p>The configuration of the {@link DecimalFormat} (prefixes, suffixes, grouping and decimal separators, multiplier and whether it parses BigDecimals) is
+ * captured when the first value is parsed. Any changes made to the formatter after that are not reflected by this class.</p>
+ *
+ * <p>Values are scanned without synchronization when they consist exactly of a prefix, digits with optional grouping separators (between digits) and a single decimal separator,
+ * followed by a suffix. In any other case (e.g. exponents, infinity, non-ASCII digits or trailing characters), {@link #parse(String, char[], int, int)} returns null
+ * and the value must be parsed by the {@link DecimalFormat}. The results are the same as those produced by {@link DecimalFormat#parse(String)}.</p>
+ *
+ * @see NumericConversion
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+final class CompiledNumberFormat {
+
+	private static final int MAX_EXACT_DOUBLE_DIGITS = 15;
+	private static final int MAX_LONG_DIGITS = 18;
+
+	private static final double[] POWERS_OF_TEN = {
+			1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+			1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	private final DecimalFormat formatter;
+
+	private volatile boolean initialized;
+	private boolean supported;
+	private String positivePrefix;
+	private String positiveSuffix;
+	private String negativePrefix;
+	private char decimalSeparator;
+	private char groupingSeparator;
+	private boolean groupingUsed;
+	private boolean parseBigDecimal;
+	private int multiplier;
+	private BigDecimal bigDecimalMultiplier;
+
+	/**
+	 * Creates a scanner for the numbers formatted with the given DecimalFormat.
+	 * @param formatter the DecimalFormat that determines how numbers are represented.
+	 */
+	CompiledNumberFormat(DecimalFormat formatter) {
+		this.formatter = formatter;
+	}
+
+	/**
+	 * Captures the configuration of the formatter and decides whether its numbers can be scanned by this class
+	 */
+	private void initialize() {
+		synchronized (formatter) {
+			if (initialized) {
+				return;
+			}
+			DecimalFormatSymbols symbols = formatter.getDecimalFormatSymbols();
+
+			positivePrefix = formatter.getPositivePrefix();
+			positiveSuffix = formatter.getPositiveSuffix();
+			negativePrefix = formatter.getNegativePrefix();
+			String negativeSuffix = formatter.getNegativeSuffix();
+
+			boolean currency = formatter.toPattern().indexOf('\u00A4') >= 0;
+			decimalSeparator = currency ? symbols.getMonetaryDecimalSeparator() : symbols.getDecimalSeparator();
+			groupingSeparator = symbols.getGroupingSeparator();
+			groupingUsed = formatter.isGroupingUsed();
+			parseBigDecimal = formatter.isParseBigDecimal();
+			multiplier = formatter.getMultiplier();
+			bigDecimalMultiplier = BigDecimal.valueOf(multiplier);
+
+			supported = symbols.getZeroDigit() == '0'
+					&& !formatter.isParseIntegerOnly()
+					&& (multiplier == 1 || multiplier == 100 || multiplier == 1000)
+					&& negativePrefix.equals(symbols.getMinusSign() + positivePrefix)
+					&& negativeSuffix.equals(positiveSuffix)
+					&& !isDigitOrSeparator(positivePrefix)
+					&& !isDigitOrSeparator(positiveSuffix)
+					&& !(decimalSeparator >= '0' && decimalSeparator <= '9')
+					&& !(groupingSeparator >= '0' && groupingSeparator <= '9')
+					&& (decimalSeparator != groupingSeparator || !groupingUsed);
+
+			initialized = true;
+		}
+	}
+
+	private boolean isDigitOrSeparator(String affix) {
+		for (int i = 0; i < affix.length(); i++) {
+			char ch = affix.charAt(i);
+			if ((ch >= '0' && ch <= '9') || ch == decimalSeparator || ch == groupingSeparator) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Parses a formatted number either from a String or from a range of characters.
+	 *
+	 * @param input the String to parse. If null, the characters in the given range will be parsed instead.
+	 * @param chars the buffer with characters to parse, used when the input String is null
+	 * @param offset the position of the first character to parse in the buffer
+	 * @param length the number of characters to parse
+	 * @return the number represented by the input, or null if the value must be parsed by the {@link DecimalFormat}
+	 */
+	Number parse(String input, char[] chars, int offset, int length) {
+		if (!initialized) {
+			initialize();
+		}
+		if (!supported) {
+			return null;
+		}
+
+		int start = 0;
+		int end = length;
+		boolean negative = false;
+
+		if (matches(negativePrefix, input, chars, offset, length, 0)) {
+			negative = true;
+			start = negativePrefix.length();
+		} else if (matches(positivePrefix, input, chars, offset, length, 0)) {
+			start = positivePrefix.length();
+		} else {
+			return null;
+		}
+
+		if (positiveSuffix.length() > 0) {
+			end -= positiveSuffix.length();
+			if (end < start || !matches(positiveSuffix, input, chars, offset, length, end)) {
+				return null;
+			}
+		}
+
+		long mantissa = 0; // significant digits, without leading zeros
+		int significantDigits = 0;
+		int fractionDigits = 0;
+		int trailingFractionZeros = 0;
+		boolean sawDigit = false;
+		boolean sawDecimal = false;
+		boolean previousIsDigit = false;
+
+		for (int i = start; i < end; i++) {
+			char ch = input == null ? chars[offset + i] : input.charAt(i);
+			if (ch >= '0' && ch <= '9') {
+				sawDigit = true;
+				previousIsDigit = true;
+				if (sawDecimal) {
+					fractionDigits++;
+					trailingFractionZeros = ch == '0' ? trailingFractionZeros + 1 : 0;
+				}
+				if (mantissa == 0 && ch == '0') {
+					continue;
+				}
+				if (++significantDigits > MAX_LONG_DIGITS) {
+					return null;
+				}
+				mantissa = mantissa * 10 + (ch - '0');
+			} else if (ch == decimalSeparator && !sawDecimal) {
+				sawDecimal = true;
+				previousIsDigit = false;
+			} else if (ch == groupingSeparator && groupingUsed && !sawDecimal && previousIsDigit && i + 1 < end) {
+				char next = input == null ? chars[offset + i + 1] : input.charAt(i + 1);
+				if (next < '0' || next > '9') {
+					return null;
+				}
+				previousIsDigit = false;
+			} else {
+				return null;
+			}
+		}
+
+		if (!sawDigit) {
+			return null;
+		}
+
+		if (parseBigDecimal) {
+			BigDecimal result = BigDecimal.valueOf(mantissa, fractionDigits);
+			if (multiplier != 1) {
+				result = result.divide(bigDecimalMultiplier);
+			}
+			return negative ? result.negate() : result;
+		}
+
+		if (fractionDigits == trailingFractionZeros && (mantissa != 0 || !negative)) {
+			// integral value that fits into a long
+			long longResult = mantissa;
+			for (int i = 0; i < fractionDigits; i++) {
+				longResult /= 10;
+			}
+			if (multiplier == 1 || longResult % multiplier == 0) {
+				longResult /= multiplier;
+				return negative ? -longResult : longResult;
+			}
+			double doubleResult = ((double) longResult) / multiplier;
+			return toNumber(negative ? -doubleResult : doubleResult);
+		}
+
+		// strips trailing zeros of the fraction, as they are not significant
+		long value = mantissa;
+		int digits = significantDigits;
+		int exponent = -fractionDigits;
+		while (value != 0 && value % 10 == 0) {
+			value /= 10;
+			digits--;
+			exponent++;
+		}
+		if (digits > MAX_EXACT_DOUBLE_DIGITS || exponent < -(POWERS_OF_TEN.length - 1) || exponent > POWERS_OF_TEN.length - 1) {
+			return null;
+		}
+
+		double doubleResult = exponent < 0 ? value / POWERS_OF_TEN[-exponent] : value * POWERS_OF_TEN[exponent];
+		if (multiplier != 1) {
+			doubleResult /= multiplier;
+			return toNumber(negative ? -doubleResult : doubleResult);
+		}
+		return negative ? -doubleResult : doubleResult;
+	}
+
+	/**
+	 * Mirrors the behavior of {@link DecimalFormat} when a multiplier is applied: integral results are returned as Long.
+	 */
+	private static Number toNumber(double doubleResult) {
+		long longResult = (long) doubleResult;
+		if (doubleResult != (double) longResult || (doubleResult == 0.0 && 1 / doubleResult < 0.0)) {
+			return doubleResult;
+		}
+		return longResult;
+	}
+
+	private static boolean matches(String affix, String input, char[] chars, int offset, int length, int position) {
+		int affixLength = affix.length();
+		if (position + affixLength > length) {
+			return false;
+		}
+		for (int i = 0; i < affixLength; i++) {
+			char ch = input == null ? chars[offset + position + i] : input.charAt(position + i);
+			if (ch != affix.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -19,6 +19,7 @@ import java.text.*;
 import java.util.*;
 
 import com.univocity.parsers.common.*;
+import com.univocity.parsers.common.input.*;
 
 /**
  * Converts Strings to instances of {@link java.util.Date} and vice versa.
@@ -27,15 +28,21 @@ import com.univocity.parsers.common.*;
  *
  * <p> The reverse conversion from a Date to String (in {@link DateConversion#revert(Date)} will return a formatted String using the date pattern provided in this class constructor
  * <p> The date patterns must follows the pattern rules of {@link java.text.SimpleDateFormat}
+ * <p> Numeric, fixed-width patterns such as "yyyy-MM-dd", "yyyy-MM-dd'T'HH:mm:ss.SSSZ" or "dd/MM/yyyy HH:mm:ss" are compiled into a parser that does not use the {@link java.text.SimpleDateFormat}
+ * for well-formed input. Other patterns, and values that do not follow the exact layout of the pattern, are parsed by the {@link java.text.SimpleDateFormat}.
+ * <p> Instances of this class can be shared among multiple threads. Any changes to the formatters returned by {@link #getFormatterObjects()} must be made before the conversion is used.
  *
  * @see java.text.SimpleDateFormat
  *
  * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
  *
  */
-public class DateConversion extends ObjectConversion<Date> implements FormattedConversion<SimpleDateFormat> {
+public class DateConversion extends ObjectConversion<Date> implements FormattedConversion<SimpleDateFormat>, CharRangeConversion<Date>, FormattedValueConversion<Date> {
+
+	private final boolean fromStringOverridden = isFromStringOverridden(DateConversion.class);
 
 	private final SimpleDateFormat[] parsers;
+	private final CompiledDateFormat[] compiledParsers;
 	private final String[] formats;
 
 	/**
@@ -50,9 +57,11 @@ public class DateConversion extends ObjectConversion<Date> implements FormattedC
 		ArgumentUtils.noNulls("Date formats", dateFormats);
 		this.formats = dateFormats.clone();
 		this.parsers = new SimpleDateFormat[dateFormats.length];
+		this.compiledParsers = new CompiledDateFormat[dateFormats.length];
 		for (int i = 0; i < dateFormats.length; i++) {
 			String dateFormat = dateFormats[i];
 			parsers[i] = new SimpleDateFormat(dateFormat);
+			compiledParsers[i] = CompiledDateFormat.compile(parsers[i]);
 		}
 	}
 
@@ -76,7 +85,31 @@ public class DateConversion extends ObjectConversion<Date> implements FormattedC
 		if (input == null) {
 			return super.revert(null);
 		}
-		return parsers[0].format(input);
+		synchronized (parsers[0]) {
+			return parsers[0].format(input);
+		}
+	}
+
+	/**
+	 * Writes a Date into the given buffer using the first date pattern provided in this class constructor.
+	 * Common numeric patterns, such as {@code yyyy-MM-dd HH:mm:ss}, are formatted without creating a String.
+	 */
+	@Override
+	public void revert(Date input, FormattedValue output) {
+		revert(input.getTime(), input, output);
+	}
+
+	/**
+	 * Writes a date into the given buffer using the first date pattern provided in this class constructor.
+	 * @param time the number of milliseconds since January 1, 1970, 00:00:00 GMT of the date to format
+	 * @param input the date to format, if available. If null, a Date is only created if the date cannot be formatted without the {@link SimpleDateFormat}.
+	 * @param output the buffer that will receive the formatted date
+	 */
+	void revert(long time, Date input, FormattedValue output) {
+		CompiledDateFormat compiled = compiledParsers[0];
+		if (compiled == null || !compiled.format(time, output)) {
+			output.append(revert(input == null ? new Date(time) : input));
+		}
 	}
 
 	/**
@@ -87,12 +120,45 @@ public class DateConversion extends ObjectConversion<Date> implements FormattedC
 	 */
 	@Override
 	protected Date fromString(String input) {
-		for (SimpleDateFormat formatter : parsers) {
-			try {
-				return formatter.parse(input);
-			} catch (ParseException ex) {
-				//ignore and continue
+		return parse(input, null, 0, input.length());
+	}
+
+	/**
+	 * Converts a sequence of characters with a formatted date to an instance of Date, without creating an intermediate String if the characters follow one of the compiled date patterns.
+	 */
+	@Override
+	public Date convert(char[] chars, int offset, int length) {
+		if (fromStringOverridden) {
+			return fromString(new String(chars, offset, length));
+		}
+		return parse(null, chars, offset, length);
+	}
+
+	private Date parse(String input, char[] chars, int offset, int length) {
+		for (int i = 0; i < parsers.length; i++) {
+			CompiledDateFormat compiled = compiledParsers[i];
+			if (compiled != null) {
+				long time = compiled.parse(input, chars, offset, length);
+				if (time != CompiledDateFormat.NOT_PARSED) {
+					return new Date(time);
+				}
 			}
+
+			if (input == null) {
+				input = new String(chars, offset, length);
+			}
+
+			SimpleDateFormat formatter = parsers[i];
+			synchronized (formatter) {
+				try {
+					return formatter.parse(input);
+				} catch (ParseException ex) {
+					//ignore and continue
+				}
+			}
+		}
+		if (input == null) {
+			input = new String(chars, offset, length);
 		}
 		throw new IllegalArgumentException("Cannot parse '" + input + "' as a valid date. Supported formats are: " + Arrays.toString(formats));
 	}
@@ -15,12 +15,17 @@
  ******************************************************************************/
 package com.univocity.parsers.conversions;
 
+import com.univocity.parsers.common.*;
+import com.univocity.parsers.common.input.*;
+
 /**
  * Converts Strings to Doubles and vice versa
  * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
  *
  */
-public class DoubleConversion extends ObjectConversion<Double> {
+public class DoubleConversion extends ObjectConversion<Double> implements CharRangeConversion<Double>, FormattedValueConversion<Double> {
+
+	private final boolean fromStringOverridden = isFromStringOverridden(DoubleConversion.class);
 
 	/**
 	 * Creates a Conversion from String to Double with default values to return when the input is null.
@@ -47,4 +52,23 @@ public class DoubleConversion extends ObjectConversion<Double> {
 		return Double.valueOf(input);
 	}
 
+	/**
+	 * Converts a sequence of characters to Double, without creating an intermediate String.
+	 * If a subclass overrides {@link #fromString(String)}, a String is created and converted with it.
+	 */
+	@Override
+	public Double convert(char[] chars, int offset, int length) {
+		if (fromStringOverridden) {
+			return fromString(new String(chars, offset, length));
+		}
+		return NumberParsingUtils.parseDouble(chars, offset, length);
+	}
+
+	/**
+	 * Writes the String representation of a Double into the given buffer, without creating a String.
+	 */
+	@Override
+	public void revert(Double input, FormattedValue output) {
+		output.append(input.doubleValue());
+	}
 }
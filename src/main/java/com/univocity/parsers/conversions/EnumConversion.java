@@ -34,7 +34,9 @@ import java.util.*;
  * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
  *
  */
-public class EnumConversion<T extends Enum<T>> extends ObjectConversion<T> {
+public class EnumConversion<T extends Enum<T>> extends ObjectConversion<T> implements CharRangeConversion<T> {
+
+	private final boolean fromStringOverridden = isFromStringOverridden(EnumConversion.class);
 
 	private final Class<T> enumType;
 	private final Field customEnumField;
@@ -43,6 +45,11 @@ public class EnumConversion<T extends Enum<T>> extends ObjectConversion<T> {
 	private final EnumSelector[] selectors;
 	private final Map<String, T>[] conversions;
 
+	/**
+	 * All Strings that identify constants of the enumeration. Keys matched by more than one {@link EnumSelector} map to the constant matched by the first selector.
+	 */
+	private CharLookup<T> lookup;
+
 	/**
 	 * Defines a conversion for an enumeration type that will attempt to match Strings against
 	 * the results of the output produced by ({@link Enum#name()}, ({@link Enum#ordinal()} and ({@link Enum#toString()}
@@ -186,6 +193,16 @@ public class EnumConversion<T extends Enum<T>> extends ObjectConversion<T> {
 				map.put(key, constant);
 			}
 		}
+
+		Map<String, T> keys = new HashMap<String, T>();
+		for (Map<String, T> conversion : conversions) {
+			for (Map.Entry<String, T> e : conversion.entrySet()) {
+				if (!keys.containsKey(e.getKey())) {
+					keys.put(e.getKey(), e.getValue());
+				}
+			}
+		}
+		lookup = new CharLookup<T>(keys);
 	}
 
 	private String getKey(T constant, EnumSelector conversionType) {
@@ -224,13 +241,23 @@ public class EnumConversion<T extends Enum<T>> extends ObjectConversion<T> {
 
 	@Override
 	protected T fromString(String input) {
-		for (Map<String, T> conversion : conversions) {
-			T value = conversion.get(input);
-			if (value != null) {
-				return value;
-			}
+		T value = lookup.get(input);
+		if (value != null) {
+			return value;
 		}
 		throw new IllegalArgumentException("Cannot convert '" + input + "' to enumeration of type " + enumType.getName());
 	}
 
+	@Override
+	public T convert(char[] chars, int offset, int length) {
+		if (fromStringOverridden) {
+			return fromString(new String(chars, offset, length));
+		}
+		T value = lookup.get(chars, offset, length);
+		if (value != null) {
+			return value;
+		}
+		throw new IllegalArgumentException("Cannot convert '" + new String(chars, offset, length) + "' to enumeration of type " + enumType.getName());
+	}
+
 }
@@ -15,12 +15,14 @@
  ******************************************************************************/
 package com.univocity.parsers.conversions;
 
+import com.univocity.parsers.common.input.*;
+
 /**
  * Converts Strings to Floats and vice versa
  * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
  *
  */
-public class FloatConversion extends ObjectConversion<Float> {
+public class FloatConversion extends ObjectConversion<Float> implements FormattedValueConversion<Float> {
 	/**
 	 * Creates a Conversion from String to Float with default values to return when the input is null.
 	 * This default constructor assumes the output of a conversion should be null when input is null
@@ -46,4 +48,11 @@ public class FloatConversion extends ObjectConversion<Float> {
 		return Float.valueOf(input);
 	}
 
+	/**
+	 * Writes the String representation of a Float into the given buffer, without creating a String.
+	 */
+	@Override
+	public void revert(Float input, FormattedValue output) {
+		output.append(input.floatValue());
+	}
 }
@@ -0,0 +1,45 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.conversions;
+
+import com.univocity.parsers.common.input.*;
+
+/**
+ * A conversion that is able to write the String representation of a value directly into a {@link FormattedValue}, without creating a String.
+ *
+ * <p>When the only conversion applied to a field of a java bean implements this interface, the {@link com.univocity.parsers.common.processor.BeanWriterProcessor} will
+ * use it to format non-null values of the field for writing. The characters written to the {@link FormattedValue} must be the same as the result of
+ * {@link Conversion#revert(Object)} for the given value.</p>
+ *
+ * <p><b>Important:</b> subclasses of conversions that implement this interface must override {@link #revert(Object, FormattedValue)} if they change the way values are reverted to Strings.</p>
+ *
+ * @param <T> The type of values formatted by this conversion
+ *
+ * @see FormattedValue
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+public interface FormattedValueConversion<T> {
+
+	/**
+	 * Writes the String representation of a value into the given buffer.
+	 *
+	 * @param input the value to be formatted. Never null.
+	 * @param output the buffer that will receive the characters of the formatted value. It is empty when this method is invoked.
+	 */
+	public void revert(T input, FormattedValue output);
+}
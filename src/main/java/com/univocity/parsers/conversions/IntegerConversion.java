@@ -15,12 +15,18 @@
  ******************************************************************************/
 package com.univocity.parsers.conversions;
 
+import com.univocity.parsers.common.*;
+import com.univocity.parsers.common.input.*;
+
 /**
  * Converts Strings to Integers and vice versa
  * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
  *
  */
-public class IntegerConversion extends ObjectConversion<Integer> {
+public class IntegerConversion extends ObjectConversion<Integer> implements CharRangeConversion<Integer>, FormattedValueConversion<Integer> {
+
+	private final boolean fromStringOverridden = isFromStringOverridden(IntegerConversion.class);
+
 	/**
 	 * Creates a Conversion from String to Integer with default values to return when the input is null.
 	 * This default constructor assumes the output of a conversion should be null when input is null
@@ -46,4 +52,23 @@ public class IntegerConversion extends ObjectConversion<Integer> {
 		return Integer.valueOf(input);
 	}
 
+	/**
+	 * Converts a sequence of characters to Integer, without creating an intermediate String.
+	 * If a subclass overrides {@link #fromString(String)}, a String is created and converted with it.
+	 */
+	@Override
+	public Integer convert(char[] chars, int offset, int length) {
+		if (fromStringOverridden) {
+			return fromString(new String(chars, offset, length));
+		}
+		return NumberParsingUtils.parseInt(chars, offset, length);
+	}
+
+	/**
+	 * Writes the String representation of an Integer into the given buffer, without creating a String.
+	 */
+	@Override
+	public void revert(Integer input, FormattedValue output) {
+		output.append(input.intValue());
+	}
 }
@@ -15,12 +15,18 @@
  ******************************************************************************/
 package com.univocity.parsers.conversions;
 
+import com.univocity.parsers.common.*;
+import com.univocity.parsers.common.input.*;
+
 /**
  * Converts Strings to Longs and vice versa
  * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
  *
  */
-public class LongConversion extends ObjectConversion<Long> {
+public class LongConversion extends ObjectConversion<Long> implements CharRangeConversion<Long>, FormattedValueConversion<Long> {
+
+	private final boolean fromStringOverridden = isFromStringOverridden(LongConversion.class);
+
 	/**
 	 * Creates a Conversion from String to Long with default values to return when the input is null.
 	 * This default constructor assumes the output of a conversion should be null when input is null
@@ -46,4 +52,23 @@ public class LongConversion extends ObjectConversion<Long> {
 		return Long.valueOf(input);
 	}
 
+	/**
+	 * Converts a sequence of characters to Long, without creating an intermediate String.
+	 * If a subclass overrides {@link #fromString(String)}, a String is created and converted with it.
+	 */
+	@Override
+	public Long convert(char[] chars, int offset, int length) {
+		if (fromStringOverridden) {
+			return fromString(new String(chars, offset, length));
+		}
+		return NumberParsingUtils.parseLong(chars, offset, length);
+	}
+
+	/**
+	 * Writes the String representation of a Long into the given buffer, without creating a String.
+	 */
+	@Override
+	public void revert(Long input, FormattedValue output) {
+		output.append(input.longValue());
+	}
 }
@@ -48,6 +48,14 @@ public class NullStringConversion implements Conversion<Object, Object> {
 		this.defaultNullString = nullRepresentations[0];
 	}
 
+	/**
+	 * Returns the String representations of null handled by this conversion
+	 * @return the Strings that are converted to null
+	 */
+	String[] getNullStrings() {
+		return nullStrings.toArray(new String[nullStrings.size()]);
+	}
+
 	/**
 	 * Converts an Object to null. The string representation of the object will be used to match the string elements provided in the constructor.
 	 * @param input an Object to be converted to null.
@@ -27,6 +27,9 @@ import com.univocity.parsers.common.*;
  * <p> Extending classes must implement the {@link NumericConversion#configureFormatter(DecimalFormat)} method to provide specific configuration to the DecimalFormat instance.
  * <p> The reverse conversion from a Number to String (in {@link NumericConversion#revert(Number)} will return a formatted String using the pattern provided in this class constructor
  * <p> The numeric patterns must follows the pattern rules of {@link java.text.DecimalFormat}
+ * <p> Well-formed values of simple patterns (with optional prefixes, suffixes, grouping and decimal separators, such as "$#,##0.00" or "0.00%") are scanned directly, without
+ * the {@link java.text.DecimalFormat}. Any other values are parsed by the {@link java.text.DecimalFormat} instances, without relying on exceptions to try the next format.
+ * <p> Instances of this class can be shared among multiple threads. Any changes to the formatters returned by {@link #getFormatterObjects()} must be made before the conversion is used.
  *
  * @param <T> The type of numbers supported by this conversion class.
  *
@@ -35,9 +38,12 @@ import com.univocity.parsers.common.*;
  * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
  *
  */
-public abstract class NumericConversion<T extends Number> extends ObjectConversion<T> implements FormattedConversion<DecimalFormat> {
+public abstract class NumericConversion<T extends Number> extends ObjectConversion<T> implements FormattedConversion<DecimalFormat>, CharRangeConversion<T> {
+
+	private final boolean fromStringOverridden = isFromStringOverridden(NumericConversion.class);
 
 	private final DecimalFormat[] formatters;
+	private final CompiledNumberFormat[] compiledFormatters;
 	private final String[] formats;
 
 	/**
@@ -52,10 +58,12 @@ public abstract class NumericConversion<T extends Number> extends ObjectConversi
 		ArgumentUtils.noNulls("Numeric formats", numericFormats);
 		this.formats = numericFormats.clone();
 		this.formatters = new DecimalFormat[numericFormats.length];
+		this.compiledFormatters = new CompiledNumberFormat[numericFormats.length];
 		for (int i = 0; i < numericFormats.length; i++) {
 			String numericFormat = numericFormats[i];
 			formatters[i] = new DecimalFormat(numericFormat);
 			configureFormatter(formatters[i]);
+			compiledFormatters[i] = new CompiledNumberFormat(formatters[i]);
 		}
 	}
 
@@ -85,15 +93,50 @@ public abstract class NumericConversion<T extends Number> extends ObjectConversi
 	 * @param input the String containing a formatted number which must be converted to a number
 	 * @return the Number instance containing the value represented by the given String, or the value of {@link ObjectConversion#getValueIfStringIsNull()} if the String input is null.
 	 */
-	@SuppressWarnings("unchecked")
 	@Override
 	protected T fromString(String input) {
-		for (DecimalFormat formatter : formatters) {
-			try {
-				return (T) formatter.parse(input);
-			} catch (ParseException ex) {
-				//ignore and continue
+		return parse(input, null, 0, input.length());
+	}
+
+	/**
+	 * Converts a sequence of characters with a formatted number to an instance of Number, without creating an intermediate String if the characters can be scanned directly.
+	 */
+	@Override
+	public T convert(char[] chars, int offset, int length) {
+		if (fromStringOverridden) {
+			return fromString(new String(chars, offset, length));
+		}
+		return parse(null, chars, offset, length);
+	}
+
+	@SuppressWarnings("unchecked")
+	private T parse(String input, char[] chars, int offset, int length) {
+		ParsePosition position = null;
+		for (int i = 0; i < formatters.length; i++) {
+			Number result = compiledFormatters[i].parse(input, chars, offset, length);
+			if (result != null) {
+				return (T) result;
+			}
+
+			if (input == null) {
+				input = new String(chars, offset, length);
+			}
+			if (position == null) {
+				position = new ParsePosition(0);
+			} else {
+				position.setIndex(0);
 			}
+
+			DecimalFormat formatter = formatters[i];
+			synchronized (formatter) {
+				result = formatter.parse(input, position);
+			}
+			if (position.getIndex() != 0) {
+				return (T) result;
+			}
+		}
+		if (input == null) {
+			input = new String(chars, offset, length);
 		}
 		throw new IllegalArgumentException("Cannot parse '" + input + "' as a valid number. Supported formats are: " + Arrays.toString(formats));
 	}
@@ -111,7 +154,9 @@ public abstract class NumericConversion<T extends Number> extends ObjectConversi
 		}
 		for (DecimalFormat formatter : formatters) {
 			try {
-				return formatter.format(input);
+				synchronized (formatter) {
+					return formatter.format(input);
+				}
 			} catch (Throwable ex) {
 				//ignore and continue
 			}
@@ -69,6 +69,24 @@ public abstract class ObjectConversion<T> implements Conversion<String, T> {
 	 */
 	protected abstract T fromString(String input);
 
+	/**
+	 * Identifies whether {@link #fromString(String)} is overridden by a subclass of the given class. Used by conversions that implement {@link CharRangeConversion}
+	 * to determine whether they can convert characters without creating a String, as their character-based conversion would not apply the overridden method.
+	 * @param conversionClass the class that provides the character-based conversion
+	 * @return true if {@link #fromString(String)} is overridden in a subclass of the given class.
+	 */
+	final boolean isFromStringOverridden(Class<?> conversionClass) {
+		for (Class<?> c = getClass(); c != conversionClass && c != null; c = c.getSuperclass()) {
+			try {
+				c.getDeclaredMethod("fromString", String.class);
+				return true;
+			} catch (NoSuchMethodException e) {
+				//not declared in this class
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Converts a value of type <b>T</b> back to a String
 	 * <p> This is a general implementation that simply returns the result of <i>input.toString()</i>
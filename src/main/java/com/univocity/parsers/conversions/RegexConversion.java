@@ -15,11 +15,16 @@
  ******************************************************************************/
 package com.univocity.parsers.conversions;
 
+import java.util.regex.*;
+
 /**
  * Replaces contents of a given input String, identified by a regular expression, with a replacement String.
  *
  * The {@link RegexConversion#revert(String)} implements the same behavior of {@link RegexConversion#execute(String)}. Null inputs produce null outputs.
  *
+ * <p>The regular expression is compiled once, and each thread reuses its own {@link Matcher}. Expressions without any special regex characters, whose replacement
+ * does not refer to any group, are replaced with a plain search of the literal text, without using the regex engine.
+ *
  * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
  *
  */
@@ -28,6 +33,10 @@ public class RegexConversion implements Conversion<String, String> {
 	private final String replaceRegex;
 	private final String replacement;
 
+	private final Pattern pattern;
+	private final String literal;
+	private final ThreadLocal<Matcher> matchers;
+
 	/**
 	 * Creates a conversion that matches contents identified by the given regular expression and replaces them by the given replacement String.
 	 * @param replaceRegex the regular expression used to match contents of a given input String
@@ -36,6 +45,71 @@ public class RegexConversion implements Conversion<String, String> {
 	public RegexConversion(String replaceRegex, String replacement) {
 		this.replaceRegex = replaceRegex;
 		this.replacement = replacement;
+
+		if (isLiteral(replaceRegex) && isLiteralReplacement(replacement)) {
+			this.literal = replaceRegex;
+			this.pattern = null;
+			this.matchers = null;
+		} else {
+			this.literal = null;
+			this.pattern = Pattern.compile(replaceRegex);
+			this.matchers = new ThreadLocal<Matcher>() {
+				@Override
+				protected Matcher initialValue() {
+					return pattern.matcher("");
+				}
+			};
+		}
+	}
+
+	private static boolean isLiteral(String regex) {
+		if (regex == null || regex.isEmpty()) {
+			return false;
+		}
+		for (int i = 0; i < regex.length(); i++) {
+			if ("\\^$.|?*+()[]{}".indexOf(regex.charAt(i)) >= 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isLiteralReplacement(String replacement) {
+		return replacement != null && replacement.indexOf('\\') < 0 && replacement.indexOf('$') < 0;
+	}
+
+	private String replaceLiteral(String input) {
+		int index = input.indexOf(literal);
+		if (index < 0) {
+			return input;
+		}
+
+		StringBuilder out = new StringBuilder(input.length() + replacement.length());
+		int start = 0;
+		do {
+			out.append(input, start, index);
+			out.append(replacement);
+			start = index + literal.length();
+			index = input.indexOf(literal, start);
+		} while (index >= 0);
+		out.append(input, start, input.length());
+		return out.toString();
+	}
+
+	/**
+	 * Returns the literal text replaced by this conversion, if its expression does not use any special regex character.
+	 * @return the literal text to replace, or null if the regex engine is used to identify the contents to replace.
+	 */
+	String getLiteral() {
+		return literal;
+	}
+
+	/**
+	 * Returns the replacement content of this conversion
+	 * @return the replacement content
+	 */
+	String getReplacement() {
+		return replacement;
 	}
 
 	/**
@@ -49,7 +123,14 @@ public class RegexConversion implements Conversion<String, String> {
 		if (input == null) {
 			return null;
 		}
-		return input.replaceAll(replaceRegex, replacement);
+		if (literal != null) {
+			return replaceLiteral(input);
+		}
+		Matcher matcher = matchers.get();
+		matcher.reset(input);
+		String out = matcher.replaceAll(replacement);
+		matcher.reset("");
+		return out;
 
 	}
 
@@ -15,12 +15,14 @@
  ******************************************************************************/
 package com.univocity.parsers.conversions;
 
+import com.univocity.parsers.common.input.*;
+
 /**
  * Converts Strings to Shorts and vice versa
  * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
  *
  */
-public class ShortConversion extends ObjectConversion<Short> {
+public class ShortConversion extends ObjectConversion<Short> implements FormattedValueConversion<Short> {
 	/**
 	 * Creates a Conversion from String to Short with default values to return when the input is null.
 	 * This default constructor assumes the output of a conversion should be null when input is null
@@ -46,4 +48,11 @@ public class ShortConversion extends ObjectConversion<Short> {
 		return Short.valueOf(input);
 	}
 
+	/**
+	 * Writes the String representation of a Short into the given buffer, without creating a String.
+	 */
+	@Override
+	public void revert(Short input, FormattedValue output) {
+		output.append(input.shortValue());
+	}
 }
@@ -0,0 +1,364 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.conversions;
+
+import java.util.*;
+
+import com.univocity.parsers.common.*;
+
+/**
+ * Combines a sequence of {@link TrimConversion}, {@link LowerCaseConversion}, {@link UpperCaseConversion}, {@link NullStringConversion} and literal {@link RegexConversion} instances
+ * into a single conversion that processes the characters of its input in one pass and creates at most one String.
+ *
+ * <p>The result of {@link #execute(String)} is the same as executing each of the given conversions in sequence. As this class also implements {@link CharRangeConversion},
+ * values parsed for a column whose conversions start with this transformation are transformed directly from the parser buffer.
+ *
+ * <p>Case conversions are performed on ASCII characters only. Inputs with other characters, or a default locale with special casing rules (Turkish, Azerbaijani and Lithuanian),
+ * are processed by the original conversions.
+ *
+ * <p>The {@link StringTransformConversion#revert(String)} executes {@link Conversion#revert(Object)} of each of the given conversions, in reverse order.
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+public class StringTransformConversion implements Conversion<String, String>, CharRangeConversion<String> {
+
+	private static final int NONE = 0;
+	private static final int TRIM = 1;
+	private static final int LOWER_CASE = 2;
+	private static final int UPPER_CASE = 3;
+	private static final int NULL_STRING = 4;
+	private static final int REPLACE = 5;
+
+	private static final ThreadLocal<Buffers> buffers = new ThreadLocal<Buffers>() {
+		@Override
+		protected Buffers initialValue() {
+			return new Buffers();
+		}
+	};
+
+	@SuppressWarnings("rawtypes")
+	private final Conversion[] conversions;
+	private final int[] steps;
+	private final String[][] nullStrings;
+	private final String[] literals;
+	private final String[] replacements;
+
+	/**
+	 * Creates a single transformation that produces the same results of the given conversions, executed in sequence.
+	 * @param conversions the sequence of conversions to combine. Each one must be accepted by {@link #isSupported(Conversion)}
+	 */
+	public StringTransformConversion(Conversion<?, ?>... conversions) {
+		ArgumentUtils.noNulls("Conversions", conversions);
+		if (conversions.length == 0) {
+			throw new IllegalArgumentException("No conversions to combine");
+		}
+
+		this.conversions = conversions.clone();
+		this.steps = new int[conversions.length];
+		this.nullStrings = new String[conversions.length][];
+		this.literals = new String[conversions.length];
+		this.replacements = new String[conversions.length];
+
+		for (int i = 0; i < conversions.length; i++) {
+			Conversion<?, ?> conversion = conversions[i];
+			if (!isSupported(conversion)) {
+				throw new IllegalArgumentException("Conversion " + conversion.getClass().getName() + " cannot be combined into a single string transformation");
+			}
+			Class<?> type = conversion.getClass();
+			if (type == TrimConversion.class) {
+				steps[i] = TRIM;
+			} else if (type == LowerCaseConversion.class) {
+				steps[i] = LOWER_CASE;
+			} else if (type == UpperCaseConversion.class) {
+				steps[i] = UPPER_CASE;
+			} else if (type == NullStringConversion.class) {
+				steps[i] = NULL_STRING;
+				nullStrings[i] = ((NullStringConversion) conversion).getNullStrings();
+			} else {
+				steps[i] = REPLACE;
+				literals[i] = ((RegexConversion) conversion).getLiteral();
+				replacements[i] = ((RegexConversion) conversion).getReplacement();
+			}
+		}
+	}
+
+	/**
+	 * Queries whether a conversion can be combined into a {@link StringTransformConversion}. Subclasses of the supported conversions are not accepted,
+	 * and instances of {@link RegexConversion} are only accepted if their expression is a literal text.
+	 * @param conversion the conversion to verify
+	 * @return true if the given conversion can be combined with others into a single transformation.
+	 */
+	public static boolean isSupported(Conversion<?, ?> conversion) {
+		if (conversion == null) {
+			return false;
+		}
+		Class<?> type = conversion.getClass();
+		if (type == RegexConversion.class) {
+			return ((RegexConversion) conversion).getLiteral() != null;
+		}
+		return type == TrimConversion.class || type == LowerCaseConversion.class || type == UpperCaseConversion.class || type == NullStringConversion.class;
+	}
+
+	/**
+	 * Applies all transformations over the input String
+	 * @param input the String to be transformed
+	 * @return the transformed String, or null if the input is null or was converted to null
+	 */
+	@Override
+	public String execute(String input) {
+		if (input == null) {
+			return null;
+		}
+		int length = input.length();
+		char[] chars = buffers.get().input(length);
+		input.getChars(0, length, chars, 0);
+		return transform(input, chars, 0, length);
+	}
+
+	/**
+	 * Applies all transformations over a sequence of characters
+	 * @param chars the buffer that contains the characters to transform
+	 * @param offset the position of the first character to transform
+	 * @param length the number of characters to transform
+	 * @return the transformed String, or null if the characters were converted to null
+	 */
+	@Override
+	public String convert(char[] chars, int offset, int length) {
+		return transform(null, chars, offset, length);
+	}
+
+	/**
+	 * Reverts the transformations, by executing {@link Conversion#revert(Object)} of each of the combined conversions in reverse order.
+	 * @param input the String to be reverted
+	 * @return the result of the reverse conversions
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public String revert(String input) {
+		Object out = input;
+		for (int i = conversions.length - 1; i >= 0; i--) {
+			out = conversions[i].revert(out);
+		}
+		return (String) out;
+	}
+
+	@SuppressWarnings("unchecked")
+	private String executeInSequence(String input, char[] chars, int offset, int length) {
+		Object out = input != null ? input : new String(chars, offset, length);
+		for (int i = 0; i < conversions.length; i++) {
+			out = conversions[i].execute(out);
+		}
+		return (String) out;
+	}
+
+	private String transform(String input, char[] chars, int offset, int length) {
+		Buffers buffers = StringTransformConversion.buffers.get();
+
+		char[] src = chars;
+		int start = offset;
+		int end = offset + length;
+		int caseMode = NONE;
+		boolean replaced = false;
+
+		for (int i = 0; i < steps.length; i++) {
+			switch (steps[i]) {
+				case TRIM:
+					while (start < end && src[start] <= ' ') {
+						start++;
+					}
+					while (end > start && src[end - 1] <= ' ') {
+						end--;
+					}
+					break;
+				case LOWER_CASE:
+				case UPPER_CASE:
+					if (isLocaleSensitive() || !isAscii(src, start, end)) {
+						return executeInSequence(input, chars, offset, length);
+					}
+					caseMode = steps[i];
+					break;
+				case NULL_STRING:
+					if (matchesAny(nullStrings[i], src, start, end, caseMode)) {
+						return null;
+					}
+					break;
+				case REPLACE:
+					String literal = literals[i];
+					int match = indexOf(literal, src, start, end, caseMode);
+					if (match >= 0) {
+						String replacement = replacements[i];
+						char[] target = buffers.other(src, (end - start) + replacement.length());
+						int size = 0;
+						int from = start;
+						do {
+							target = buffers.ensureCapacity(target, size + (match - from) + replacement.length() + (end - match));
+							size = copy(src, from, match, target, size, caseMode);
+							replacement.getChars(0, replacement.length(), target, size);
+							size += replacement.length();
+							from = match + literal.length();
+							match = indexOf(literal, src, from, end, caseMode);
+						} while (match >= 0);
+						target = buffers.ensureCapacity(target, size + (end - from));
+						size = copy(src, from, end, target, size, caseMode);
+
+						src = target;
+						start = 0;
+						end = size;
+						caseMode = NONE;
+						replaced = true;
+					}
+					break;
+			}
+		}
+
+		if (caseMode == NONE) {
+			if (input != null && !replaced && start == offset && end == offset + length) {
+				return input;
+			}
+			return new String(src, start, end - start);
+		}
+
+		char[] out = buffers.output(end - start);
+		boolean changed = false;
+		for (int i = start; i < end; i++) {
+			char ch = applyCase(src[i], caseMode);
+			changed |= ch != src[i];
+			out[i - start] = ch;
+		}
+		if (input != null && !changed && !replaced && start == offset && end == offset + length) {
+			return input;
+		}
+		return new String(out, 0, end - start);
+	}
+
+	private static boolean isLocaleSensitive() {
+		String language = Locale.getDefault().getLanguage();
+		return "tr".equals(language) || "az".equals(language) || "lt".equals(language);
+	}
+
+	private static boolean isAscii(char[] chars, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (chars[i] >= 128) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static char applyCase(char ch, int caseMode) {
+		if (caseMode == LOWER_CASE) {
+			if (ch >= 'A' && ch <= 'Z') {
+				return (char) (ch + ('a' - 'A'));
+			}
+		} else if (caseMode == UPPER_CASE) {
+			if (ch >= 'a' && ch <= 'z') {
+				return (char) (ch - ('a' - 'A'));
+			}
+		}
+		return ch;
+	}
+
+	private static boolean matchesAny(String[] values, char[] chars, int start, int end, int caseMode) {
+		int length = end - start;
+		for (String value : values) {
+			if (value.length() == length && regionMatches(value, chars, start, caseMode)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean regionMatches(String value, char[] chars, int start, int caseMode) {
+		for (int i = 0; i < value.length(); i++) {
+			if (applyCase(chars[start + i], caseMode) != value.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int indexOf(String literal, char[] chars, int from, int end, int caseMode) {
+		int last = end - literal.length();
+		for (int i = from; i <= last; i++) {
+			if (regionMatches(literal, chars, i, caseMode)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static int copy(char[] src, int from, int to, char[] target, int position, int caseMode) {
+		if (caseMode == NONE) {
+			System.arraycopy(src, from, target, position, to - from);
+			return position + (to - from);
+		}
+		for (int i = from; i < to; i++) {
+			target[position++] = applyCase(src[i], caseMode);
+		}
+		return position;
+	}
+
+	/**
+	 * Scratch buffers used by each thread to transform values without intermediate Strings.
+	 */
+	private static final class Buffers {
+		private char[] input = new char[64];
+		private char[] first = new char[64];
+		private char[] second = new char[64];
+		private char[] output = new char[64];
+
+		char[] input(int length) {
+			if (input.length < length) {
+				input = new char[length];
+			}
+			return input;
+		}
+
+		char[] output(int length) {
+			if (output.length < length) {
+				output = new char[length];
+			}
+			return output;
+		}
+
+		char[] other(char[] current, int length) {
+			if (current == first) {
+				if (second.length < length) {
+					second = new char[length];
+				}
+				return second;
+			}
+			if (first.length < length) {
+				first = new char[length];
+			}
+			return first;
+		}
+
+		char[] ensureCapacity(char[] buffer, int length) {
+			if (buffer.length >= length) {
+				return buffer;
+			}
+			char[] out = Arrays.copyOf(buffer, Math.max(length, buffer.length * 2));
+			if (buffer == first) {
+				first = out;
+			} else {
+				second = out;
+			}
+			return out;
+		}
+	}
+}
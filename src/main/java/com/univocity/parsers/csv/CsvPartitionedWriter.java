@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.csv;
+
+import java.io.*;
+import java.nio.charset.*;
+
+import com.univocity.parsers.common.*;
+
+/**
+ * A {@link PartitionedWriter} that writes CSV records to multiple files, with a {@link CsvWriter} for each partition.
+ *
+ * @see CsvWriter
+ * @see CsvWriterSettings
+ * @see PartitionedWriter
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+public class CsvPartitionedWriter extends PartitionedWriter<CsvWriterSettings> {
+
+	/**
+	 * Creates a partitioned writer that uses the given {@link PartitionKeyExtractor} to identify the partition of each row.
+	 * @param pathTemplate the path of the output files, where every occurrence of {@value PartitionedWriter#KEY_PLACEHOLDER} will be replaced by the partition key of the rows written to them.
+	 * @param encoding the encoding of the output files
+	 * @param keyExtractor the component that identifies the partition key of each row.
+	 * @param maxOpenPartitions the maximum number of files kept open at the same time.
+	 * @param settings the CSV writer configuration
+	 */
+	public CsvPartitionedWriter(String pathTemplate, Charset encoding, PartitionKeyExtractor keyExtractor, int maxOpenPartitions, CsvWriterSettings settings) {
+		super(pathTemplate, encoding, keyExtractor, maxOpenPartitions, settings);
+	}
+
+	/**
+	 * Creates a partitioned writer that uses the value of the given column of each row as its partition key.
+	 * @param pathTemplate the path of the output files, where every occurrence of {@value PartitionedWriter#KEY_PLACEHOLDER} will be replaced by the partition key of the rows written to them.
+	 * @param encoding the encoding of the output files
+	 * @param keyColumn the index of the column whose values are the partition keys.
+	 * @param maxOpenPartitions the maximum number of files kept open at the same time.
+	 * @param settings the CSV writer configuration
+	 */
+	public CsvPartitionedWriter(String pathTemplate, Charset encoding, int keyColumn, int maxOpenPartitions, CsvWriterSettings settings) {
+		super(pathTemplate, encoding, keyColumn, maxOpenPartitions, settings);
+	}
+
+	/**
+	 * Creates a partitioned writer that uses the value of the given column of each row as its partition key.
+	 * @param pathTemplate the path of the output files, where every occurrence of {@value PartitionedWriter#KEY_PLACEHOLDER} will be replaced by the partition key of the rows written to them.
+	 * @param encoding the encoding of the output files
+	 * @param keyColumn the name of the column whose values are the partition keys, as given by {@link CommonSettings#getHeaders()}.
+	 * @param maxOpenPartitions the maximum number of files kept open at the same time.
+	 * @param settings the CSV writer configuration
+	 */
+	public CsvPartitionedWriter(String pathTemplate, Charset encoding, String keyColumn, int maxOpenPartitions, CsvWriterSettings settings) {
+		super(pathTemplate, encoding, keyColumn, maxOpenPartitions, settings);
+	}
+
+	@Override
+	protected AbstractWriter<CsvWriterSettings> newWriter(Writer output, CsvWriterSettings settings) {
+		return new CsvWriter(output, settings);
+	}
+}
@@ -16,8 +16,12 @@
 package com.univocity.parsers.csv;
 
 import java.io.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
 
 import com.univocity.parsers.common.*;
+import com.univocity.parsers.common.output.*;
+import com.univocity.parsers.common.input.*;
 
 /**
  * A powerful and flexible CSV writer implementation.
@@ -40,13 +44,30 @@ public class CsvWriter extends AbstractWriter<CsvWriterSettings> {
 	private final boolean quoteAllFields;
 	private final char newLine;
 
+	private static final int REQUIRES_QUOTES = 1;
+	private static final int QUOTE = 2;
+	private static final int NEWLINE = 4;
+	private static final int WHITESPACE = 8;
+	private static final int SPECIAL = REQUIRES_QUOTES | QUOTE | NEWLINE;
+
+	/**
+	 * Classifies the characters that need special handling when written: separators and newlines (which require quotes), quotes (which might need escaping)
+	 * and whitespaces (which might be skipped). Characters beyond the length of this table need no special handling.
+	 */
+	private final byte[] charTypes;
+	private final WriterCharAppender valueAppender;
+
 	/**
 	 * The CsvWriter supports all settings provided by {@link CsvWriterSettings}, and requires this configuration to be properly initialized.
 	 * @param writer the output resource that will receive CSV records produced by this class.
 	 * @param settings the CSV writer configuration
 	 */
 	public CsvWriter(Writer writer, CsvWriterSettings settings) {
-		super(writer, settings);
+		this(writer, settings, false);
+	}
+
+	private CsvWriter(Writer writer, CsvWriterSettings settings, boolean formattingOnly) {
+		super(writer, settings, formattingOnly);
 
 		CsvFormat format = settings.getFormat();
 		this.separator = format.getDelimiter();
@@ -57,6 +78,55 @@ public class CsvWriter extends AbstractWriter<CsvWriterSettings> {
 		this.quoteAllFields = settings.getQuoteAllFields();
 		this.ignoreLeading = settings.getIgnoreLeadingWhitespaces();
 		this.ignoreTrailing = settings.getIgnoreTrailingWhitespaces();
+
+		this.valueAppender = (WriterCharAppender) appender;
+
+		int max = Math.max(' ', Math.max(separator, Math.max(quotechar, newLine)));
+		this.charTypes = new byte[max + 1];
+		for (int ch = 0; ch <= ' '; ch++) {
+			charTypes[ch] = WHITESPACE;
+		}
+		charTypes[separator] |= REQUIRES_QUOTES;
+		charTypes[newLine] |= REQUIRES_QUOTES | NEWLINE;
+		charTypes[quotechar] |= QUOTE;
+	}
+
+	/**
+	 * Creates a CsvWriter that encodes its output directly into bytes written to an {@link OutputStream}. The output is compressed according to {@link CommonWriterSettings#getOutputCompression()}. See {@link EncodingWriter} for details.
+	 * @param output the output stream that will receive the CSV records produced by this class, encoded with the given charset.
+	 * @param encoding the encoding of the output.
+	 * @param settings the CSV writer configuration
+	 */
+	public CsvWriter(OutputStream output, Charset encoding, CsvWriterSettings settings) {
+		this(new EncodingWriter(output, encoding, settings), settings);
+	}
+
+	/**
+	 * Creates a CsvWriter that encodes its output directly into bytes written to a {@link WritableByteChannel}. The output is compressed according to {@link CommonWriterSettings#getOutputCompression()}. See {@link EncodingWriter} for details.
+	 * @param output the channel that will receive the CSV records produced by this class, encoded with the given charset.
+	 * @param encoding the encoding of the output.
+	 * @param settings the CSV writer configuration
+	 */
+	public CsvWriter(WritableByteChannel output, Charset encoding, CsvWriterSettings settings) {
+		this(new EncodingWriter(output, encoding, settings), settings);
+	}
+
+	/**
+	 * Creates a CsvWriter that encodes its output directly into bytes written to a file. If the file exists, it will be overwritten. The output is compressed according to {@link CommonWriterSettings#getOutputCompression()}. See {@link EncodingWriter} for details.
+	 * @param file the file that will receive the CSV records produced by this class, encoded with the given charset.
+	 * @param encoding the encoding of the output.
+	 * @param settings the CSV writer configuration
+	 */
+	public CsvWriter(File file, Charset encoding, CsvWriterSettings settings) {
+		this(new EncodingWriter(file, encoding, settings), settings);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected CsvWriter newFormatter(Writer output, CsvWriterSettings settings) {
+		return new CsvWriter(output, settings, true);
 	}
 
 	/**
@@ -69,26 +139,27 @@ public class CsvWriter extends AbstractWriter<CsvWriterSettings> {
 				appendToRow(separator);
 			}
 
-			String nextElement = getStringValue(row[i]);
-			boolean isElementQuoted = quoteElement(nextElement);
+			CharSequence nextElement = getCharSequenceValue(row[i]);
 
-			if (isElementQuoted) {
-				appender.append(quotechar);
+			boolean isElementQuoted;
+			if (nextElement == null) {
+				isElementQuoted = quoteAllFields;
+				append(nullValue, isElementQuoted, false);
+			} else {
+				isElementQuoted = append(nextElement, quoteAllFields, !quoteAllFields);
 			}
 
-			int originalLength = appender.length();
-			append(isElementQuoted, nextElement);
-
 			//skipped all whitespaces and wrote nothing
-			if (appender.length() == originalLength && nullValue != null && !nullValue.isEmpty()) {
+			if (appender.length() == 0 && nullValue != null && !nullValue.isEmpty()) {
 				if (isElementQuoted) {
-					append(true, emptyValue);
+					append(emptyValue, true, false);
 				} else {
-					append(false, nullValue);
+					append(nullValue, false, false);
 				}
 			}
 
 			if (isElementQuoted) {
+				appendToRow(quotechar);
 				appendValueToRow();
 				appendToRow(quotechar);
 			} else {
@@ -97,52 +168,100 @@ public class CsvWriter extends AbstractWriter<CsvWriterSettings> {
 		}
 	}
 
-	private boolean quoteElement(String nextElement) {
-		if (quoteAllFields) {
-			return true;
-		}
-		if (nextElement == null) {
-			return false;
-		}
-
-		for (int j = 0; j < nextElement.length(); j++) {
-			char nextChar = nextElement.charAt(j);
-			if (nextChar == separator || nextChar == newLine) {
-				return true;
-			}
-		}
-		return false;
-	}
-
-	private void append(boolean isElementQuoted, String element) {
-		if (element == null) {
-			element = nullValue;
-		}
+	/**
+	 * Appends an element to the value being written in a single pass. Runs of characters that require no special handling are copied in bulk,
+	 * and the need for quotes is determined along the way. If the element must be quoted after quote characters were already copied without escaping,
+	 * its contents are discarded and written again.
+	 *
+	 * @param element the element to append
+	 * @param isElementQuoted flag indicating whether the element is known to be enclosed within quotes
+	 * @param detectQuoting flag indicating whether characters of the element can make it enclosed within quotes
+	 * @return {@code true} if the element must be enclosed within quotes, otherwise {@code false}
+	 */
+	private boolean append(CharSequence element, boolean isElementQuoted, boolean detectQuoting) {
 		if (element == null) {
-			return;
+			return isElementQuoted;
 		}
 
 		int start = 0;
-		if (this.ignoreLeading) {
-			start = skipLeadingWhitespace(element);
+		int end = element.length();
+
+		if (ignoreLeading) {
+			while (start < end) {
+				int type = charType(element.charAt(start));
+				if ((type & WHITESPACE) == 0) {
+					break;
+				}
+				if (detectQuoting && (type & REQUIRES_QUOTES) != 0) {
+					isElementQuoted = true;
+				}
+				start++;
+			}
+			if (start == end) { //elements with whitespaces only are written as they are
+				start = 0;
+			}
+		}
+		if (ignoreTrailing) {
+			while (end > start) {
+				int type = charType(element.charAt(end - 1));
+				if ((type & WHITESPACE) == 0) {
+					break;
+				}
+				if (detectQuoting && (type & REQUIRES_QUOTES) != 0) {
+					isElementQuoted = true;
+				}
+				end--;
+			}
 		}
 
-		if (this.ignoreTrailing) {
-			for (int i = start; i < element.length(); i++) {
-				char nextChar = element.charAt(i);
-				if (isElementQuoted && nextChar == quotechar) {
-					appender.appendIgnoringWhitespace(escapechar);
+		boolean unescapedQuotes = false;
+		int runStart = start;
+		for (int i = start; i < end; i++) {
+			char ch = element.charAt(i);
+			if (ch >= charTypes.length) {
+				continue;
+			}
+			int type = charTypes[ch];
+			if ((type & SPECIAL) == 0) {
+				continue;
+			}
+			if ((type & REQUIRES_QUOTES) != 0 && !isElementQuoted && detectQuoting) {
+				isElementQuoted = true;
+				if (unescapedQuotes) {
+					valueAppender.reset();
+					return append(element, true, false);
 				}
-				appender.appendIgnoringWhitespace(nextChar);
 			}
-		} else {
-			for (int i = start; i < element.length(); i++) {
-				char nextChar = element.charAt(i);
-				if (isElementQuoted && nextChar == quotechar) {
-					appender.append(escapechar);
+			if ((type & (QUOTE | NEWLINE)) != 0) {
+				valueAppender.append(element, runStart, i);
+				runStart = i + 1;
+				if ((type & NEWLINE) != 0) {
+					valueAppender.appendNewLine();
+				} else if (isElementQuoted) {
+					valueAppender.append(escapechar);
+					valueAppender.append(quotechar);
+				} else {
+					unescapedQuotes = true;
+					valueAppender.append(quotechar);
 				}
-				appender.append(nextChar);
 			}
 		}
+		valueAppender.append(element, runStart, end);
+		if (ignoreTrailing && end > start) { //the last character appended is not a whitespace
+			valueAppender.resetWhitespaceCount();
+		}
+
+		//trailing whitespaces are appended but ignored, unless anything else is appended after them.
+		for (int i = end; i < element.length(); i++) {
+			valueAppender.appendIgnoringWhitespace(element.charAt(i));
+		}
+		return isElementQuoted;
+	}
+
+	private int charType(char ch) {
+		if (ch < charTypes.length) {
+			return charTypes[ch];
+		}
+		return 0;
 	}
 }
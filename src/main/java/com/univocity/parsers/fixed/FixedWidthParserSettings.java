@@ -18,6 +18,7 @@ package com.univocity.parsers.fixed;
 import java.util.*;
 
 import com.univocity.parsers.common.*;
+import com.univocity.parsers.common.fields.*;
 import com.univocity.parsers.common.input.*;
 
 /**
@@ -75,6 +76,23 @@ public class FixedWidthParserSettings extends CommonParserSettings<FixedWidthFor
 		return fieldLengths.getFieldLengths();
 	}
 
+	/**
+	 * Derives the configuration options that can be determined automatically (e.g. the headers of a bean processor), for parsers that don't extend {@link AbstractParser}.
+	 */
+	void configure() {
+		autoConfigure();
+	}
+
+	/**
+	 * Returns the indexes of the fields selected for parsing, as given by the field selection methods in {@link CommonSettings}.
+	 * @param headers the headers of the input, used to identify fields selected by name.
+	 * @return the indexes of the selected fields, or null if no fields were selected.
+	 */
+	int[] getSelectedFieldIndexes(String[] headers) {
+		FieldSelector selector = getFieldSelector();
+		return selector == null ? null : selector.getFieldIndexes(headers);
+	}
+
 	/**
 	 * Indicates whether or not any trailing characters beyond the record's length should be skipped until the newline is reached (defaults to false)
 	 * <p>For example, if the record length is 5, but the row contains "12345678\n", then the portion containing "678\n" will be discarded and not considered part of the next record
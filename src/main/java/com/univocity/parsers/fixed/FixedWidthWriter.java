@@ -16,8 +16,13 @@
 package com.univocity.parsers.fixed;
 
 import java.io.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.util.*;
 
 import com.univocity.parsers.common.*;
+import com.univocity.parsers.common.input.*;
+import com.univocity.parsers.common.output.*;
 
 /**
  * A fast and flexible fixed-with writer implementation.
@@ -37,15 +42,24 @@ public class FixedWidthWriter extends AbstractWriter<FixedWidthWriterSettings> {
 	private final boolean ignoreTrailing;
 	private final int[] fieldLengths;
 	private final char padding;
+	private final char newLine;
 	private int length;
 
+	private final int[] fieldOffsets;
+	private final char[] paddingRecord;
+	private final char[] record;
+
 	/**
 	 * The FixedWidthWriter supports all settings provided by {@link FixedWidthWriterSettings}, and requires this configuration to be properly initialized.
 	 * @param writer the output resource that will receive fixed-width records produced by this class.
 	 * @param settings the fixed-width writer configuration
 	 */
 	public FixedWidthWriter(Writer writer, FixedWidthWriterSettings settings) {
-		super(writer, settings);
+		this(writer, settings, false);
+	}
+
+	private FixedWidthWriter(Writer writer, FixedWidthWriterSettings settings, boolean formattingOnly) {
+		super(writer, settings, formattingOnly);
 
 		FixedWidthFormat format = settings.getFormat();
 		this.padding = format.getPadding();
@@ -54,24 +68,122 @@ public class FixedWidthWriter extends AbstractWriter<FixedWidthWriterSettings> {
 		this.ignoreTrailing = settings.getIgnoreTrailingWhitespaces();
 
 		this.fieldLengths = settings.getFieldLengths();
+		this.newLine = format.getNormalizedNewline();
+
+		this.fieldOffsets = new int[fieldLengths.length + 1];
+		for (int i = 0; i < fieldLengths.length; i++) {
+			fieldOffsets[i + 1] = fieldOffsets[i] + fieldLengths[i];
+		}
+		this.paddingRecord = new char[fieldOffsets[fieldLengths.length]];
+		Arrays.fill(paddingRecord, padding);
+		this.record = new char[paddingRecord.length];
+	}
+
+	/**
+	 * Creates a FixedWidthWriter that encodes its output directly into bytes written to an {@link OutputStream}. The output is compressed according to {@link CommonWriterSettings#getOutputCompression()}. See {@link EncodingWriter} for details.
+	 * @param output the output stream that will receive the fixed-width records produced by this class, encoded with the given charset.
+	 * @param encoding the encoding of the output.
+	 * @param settings the fixed-width writer configuration
+	 */
+	public FixedWidthWriter(OutputStream output, Charset encoding, FixedWidthWriterSettings settings) {
+		this(new EncodingWriter(output, encoding, settings), settings);
+	}
+
+	/**
+	 * Creates a FixedWidthWriter that encodes its output directly into bytes written to a {@link WritableByteChannel}. The output is compressed according to {@link CommonWriterSettings#getOutputCompression()}. See {@link EncodingWriter} for details.
+	 * @param output the channel that will receive the fixed-width records produced by this class, encoded with the given charset.
+	 * @param encoding the encoding of the output.
+	 * @param settings the fixed-width writer configuration
+	 */
+	public FixedWidthWriter(WritableByteChannel output, Charset encoding, FixedWidthWriterSettings settings) {
+		this(new EncodingWriter(output, encoding, settings), settings);
+	}
+
+	/**
+	 * Creates a FixedWidthWriter that encodes its output directly into bytes written to a file. If the file exists, it will be overwritten. The output is compressed according to {@link CommonWriterSettings#getOutputCompression()}. See {@link EncodingWriter} for details.
+	 * @param file the file that will receive the fixed-width records produced by this class, encoded with the given charset.
+	 * @param encoding the encoding of the output.
+	 * @param settings the fixed-width writer configuration
+	 */
+	public FixedWidthWriter(File file, Charset encoding, FixedWidthWriterSettings settings) {
+		this(new EncodingWriter(file, encoding, settings), settings);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected FixedWidthWriter newFormatter(Writer output, FixedWidthWriterSettings settings) {
+		return new FixedWidthWriter(output, settings, true);
 	}
 
 	/**
 	 * {@inheritDoc}
+	 *
+	 * <p> Records are built on a copy of a record filled with padding characters. The characters of each value are copied over the padding in bulk, at the position of its field,
+	 *     and the whole record is then appended to the output row at once.
 	 */
 	@Override
 	protected void processRow(Object[] row) {
 		int lastIndex = fieldLengths.length < row.length ? fieldLengths.length : row.length;
 
+		System.arraycopy(paddingRecord, 0, record, 0, fieldOffsets[lastIndex]);
+		for (int i = 0; i < lastIndex; i++) {
+			CharSequence element = getCharSequenceValue(row[i]);
+			if (element != null && !copyElement(element, fieldOffsets[i], fieldLengths[i])) {
+				processRowPerChar(row, lastIndex);
+				return;
+			}
+		}
+		appendToRow(record, 0, fieldOffsets[lastIndex]);
+	}
+
+	/**
+	 * Copies the characters of a value to the given field of {@link #record}, truncating it to the field length.
+	 * @param element the value to copy
+	 * @param offset the position of the field in the record
+	 * @param fieldLength the length of the field
+	 * @return {@code false} if the value contains newlines, which must be converted to the line separator character by character.
+	 */
+	private boolean copyElement(CharSequence element, int offset, int fieldLength) {
+		int start = ignoreLeading ? skipLeadingWhitespace(element) : 0;
+		int end = element.length();
+		for (int i = start; i < end; i++) {
+			if (element.charAt(i) == newLine) {
+				return false;
+			}
+		}
+		if (ignoreTrailing) {
+			while (end > start && element.charAt(end - 1) <= ' ') {
+				end--;
+			}
+		}
+		if (end - start > fieldLength) {
+			end = start + fieldLength;
+		}
+
+		if (element instanceof String) {
+			((String) element).getChars(start, end, record, offset);
+		} else if (element instanceof FormattedValue) {
+			System.arraycopy(((FormattedValue) element).getChars(), start, record, offset, end - start);
+		} else {
+			for (int i = start; i < end; i++) {
+				record[offset++] = element.charAt(i);
+			}
+		}
+		return true;
+	}
+
+	private void processRowPerChar(Object[] row, int lastIndex) {
 		for (int i = 0; i < lastIndex; i++) {
 			length = fieldLengths[i];
-			String nextElement = getStringValue(row[i]);
+			CharSequence nextElement = getCharSequenceValue(row[i]);
 			processElement(nextElement);
 			appendValueToRow();
 		}
 	}
 
-	private void append(String element) {
+	private void append(CharSequence element) {
 		int start = 0;
 		if (this.ignoreLeading) {
 			start = skipLeadingWhitespace(element);
@@ -109,7 +221,7 @@ public class FixedWidthWriter extends AbstractWriter<FixedWidthWriterSettings> {
 		}
 	}
 
-	private void processElement(String element) {
+	private void processElement(CharSequence element) {
 		if (element != null) {
 			append(element);
 		}
@@ -0,0 +1,544 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.fixed;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import com.univocity.parsers.common.*;
+import com.univocity.parsers.common.processor.*;
+
+/**
+ * A parser for fixed-width files without record separators, where every record has exactly the sum of all field lengths defined in {@link FixedWidthFieldLengths}.
+ *
+ * <p> As the position of each record in the file can be calculated, records can be parsed in any order: {@link #parseRecord(long)} reads a single record directly from its position,
+ *     and {@link #parse(File, Charset, int)} divides the file into ranges of whole records that are parsed by multiple threads. Parsed records are still delivered to the
+ *     {@link RowProcessor} in the order they appear in the file.
+ * <p> Fields are read by their offset in the record, and only the bytes of the selected fields (with the field selection methods in {@link CommonSettings}) are decoded.
+ *     Values are trimmed as in {@link FixedWidthParser}, according to {@link FixedWidthFormat#getPadding()}, {@link CommonSettings#getIgnoreLeadingWhitespaces()}
+ *     and {@link CommonSettings#getIgnoreTrailingWhitespaces()}. Newlines have no special meaning, so {@link FixedWidthParserSettings#getRecordEndsOnNewline()} and
+ *     {@link FixedWidthParserSettings#getSkipTrailingCharsUntilNewline()} are ignored.
+ * <p> Only single-byte encodings (such as US-ASCII, ISO-8859-1, windows-1252 or the EBCDIC code pages) are supported, as the length of each record in bytes must be constant.
+ *     If the file size is not a multiple of the record length, the last record is incomplete and its missing characters are treated as padding.
+ * <p> If header extraction is enabled ({@link CommonParserSettings#isHeaderExtractionEnabled()}), the first record of the file provides the headers and is not counted as a data record.
+ * <p> Instances of this class are not thread-safe.
+ *
+ * @see FixedWidthParser
+ * @see FixedWidthParserSettings
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
+ *
+ */
+public class RandomAccessFixedWidthParser {
+
+	private static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+
+	private final FixedWidthParserSettings settings;
+	private final int[] lengths;
+	private final int[] offsets;
+	private final int recordLength;
+
+	private final boolean ignoreLeadingWhitespace;
+	private final boolean ignoreTrailingWhitespace;
+	private final char padding;
+	private final String nullValue;
+
+	private RandomAccessFile file;
+	private FileChannel channel;
+	private final char[] charTable = new char[256];
+	private long firstRecord;
+	private long recordCount;
+
+	private int[] fieldsToRead;
+	private int[] outputPositions;
+	private int rowLength;
+	private RecordContext context;
+	private RecordReader reader;
+
+	/**
+	 * Creates a parser for fixed-width files without record separators. It supports all settings provided by {@link FixedWidthParserSettings}, except the ones related to newlines.
+	 * @param settings the parser configuration
+	 */
+	public RandomAccessFixedWidthParser(FixedWidthParserSettings settings) {
+		settings.configure();
+		this.settings = settings;
+		this.lengths = settings.getFieldLengths();
+		this.offsets = new int[lengths.length + 1];
+		for (int i = 0; i < lengths.length; i++) {
+			offsets[i + 1] = offsets[i] + lengths[i];
+		}
+		this.recordLength = offsets[lengths.length];
+		if (recordLength == 0) {
+			throw new IllegalArgumentException("Record length must be positive");
+		}
+
+		this.ignoreLeadingWhitespace = settings.getIgnoreLeadingWhitespaces();
+		this.ignoreTrailingWhitespace = settings.getIgnoreTrailingWhitespaces();
+		this.padding = settings.getFormat().getPadding();
+		this.nullValue = settings.getNullValue();
+	}
+
+	/**
+	 * Opens a file for parsing, reads its headers if header extraction is enabled, and prepares the parser to read records with {@link #parseRecord(long)}.
+	 * <p> A {@link TextParsingException} will be thrown in case of any errors reading the file.
+	 * @param input the file to parse
+	 * @param encoding the encoding of the file. Must be a single-byte encoding.
+	 */
+	public final void beginParsing(File input, Charset encoding) {
+		if (input == null) {
+			throw new IllegalArgumentException("File cannot be null");
+		}
+		if (encoding == null) {
+			throw new IllegalArgumentException("Encoding cannot be null");
+		}
+		if (!encoding.canEncode() || encoding.newEncoder().maxBytesPerChar() != 1.0f) {
+			throw new IllegalArgumentException("Encoding " + encoding.name() + " is not supported. Records must have a constant length in bytes, so only single-byte encodings can be used");
+		}
+		stopParsing();
+
+		byte[] allBytes = new byte[256];
+		for (int i = 0; i < 256; i++) {
+			allBytes[i] = (byte) i;
+		}
+		String chars = new String(allBytes, encoding);
+		for (int i = 0; i < 256; i++) {
+			charTable[i] = chars.charAt(i);
+		}
+
+		context = new RecordContext();
+		try {
+			file = new RandomAccessFile(input, "r");
+			channel = file.getChannel();
+			long size = channel.size();
+			long records = size / recordLength + (size % recordLength == 0 ? 0 : 1);
+
+			String[] headers = settings.getHeaders();
+			firstRecord = 0;
+			reader = new RecordReader(1);
+			if (settings.isHeaderExtractionEnabled() && records > 0) {
+				headers = reader.readHeaders();
+				firstRecord = 1;
+			}
+			recordCount = records - firstRecord;
+
+			initializeFieldsToRead(headers);
+		} catch (Throwable ex) {
+			stopParsing();
+			throw toParsingException("Error opening file " + input.getAbsolutePath(), ex);
+		}
+	}
+
+	private void initializeFieldsToRead(String[] headers) {
+		int[] selected = settings.getSelectedFieldIndexes(headers == null ? new String[lengths.length] : headers);
+		boolean reordered = selected != null && settings.isColumnReorderingEnabled();
+
+		if (selected == null) {
+			fieldsToRead = new int[lengths.length];
+			for (int i = 0; i < fieldsToRead.length; i++) {
+				fieldsToRead[i] = i;
+			}
+			outputPositions = fieldsToRead;
+			rowLength = lengths.length;
+		} else {
+			for (int index : selected) {
+				if (index < 0 || index >= lengths.length) {
+					throw new IllegalArgumentException("Selected field not found in headers " + Arrays.toString(headers) + ". Records have " + lengths.length + " fields");
+				}
+			}
+			fieldsToRead = selected;
+			if (reordered) {
+				outputPositions = new int[selected.length];
+				for (int i = 0; i < outputPositions.length; i++) {
+					outputPositions[i] = i;
+				}
+				rowLength = selected.length;
+			} else {
+				outputPositions = selected;
+				rowLength = lengths.length;
+			}
+		}
+
+		context.headers = headers;
+		context.selectedIndexes = selected;
+		context.reordered = reordered;
+	}
+
+	/**
+	 * Returns the number of data records in the file being parsed, excluding the headers.
+	 * @return the number of records available for parsing.
+	 */
+	public final long getRecordCount() {
+		ensureStarted();
+		return recordCount;
+	}
+
+	/**
+	 * Returns the headers of the file being parsed, either extracted from its first record or as defined in {@link CommonSettings#getHeaders()}.
+	 * @return the headers of the file being parsed. Null if no headers are available.
+	 */
+	public final String[] getHeaders() {
+		ensureStarted();
+		return context.headers;
+	}
+
+	/**
+	 * Parses the record at a given position of the file opened with {@link #beginParsing(File, Charset)}. Records are read directly from their position, without reading the records before them.
+	 * <p> A {@link TextParsingException} will be thrown in case of any errors reading the file.
+	 * @param index the index of the data record to parse, starting from 0. The headers are not counted.
+	 * @return the values of the given record.
+	 */
+	public final String[] parseRecord(long index) {
+		ensureStarted();
+		if (index < 0 || index >= recordCount) {
+			throw new IllegalArgumentException("Record index " + index + " out of bounds. File has " + recordCount + " records");
+		}
+		try {
+			context.currentRecord = index + 1;
+			return reader.read(firstRecord + index, 1).get(0);
+		} catch (Throwable ex) {
+			throw toParsingException("Error parsing record " + index, ex);
+		}
+	}
+
+	/**
+	 * Closes the file being parsed.
+	 */
+	public final void stopParsing() {
+		if (context != null) {
+			context.stopped = true;
+		}
+		try {
+			if (file != null) {
+				file.close();
+			}
+		} catch (IOException ex) {
+			throw new IllegalStateException("Error closing input", ex);
+		} finally {
+			file = null;
+			channel = null;
+			reader = null;
+		}
+	}
+
+	/**
+	 * Parses all records of a file and delegates each one to the {@link RowProcessor} defined by {@link CommonParserSettings#getRowProcessor()}, in the order they appear in the file.
+	 * <p> The file is divided into ranges of records of about 1MB, which are parsed by the given number of threads.
+	 * <p> A {@link TextParsingException} will be thrown in case of any errors, and the file will be closed.
+	 * @param input the file to parse
+	 * @param encoding the encoding of the file. Must be a single-byte encoding.
+	 * @param threads the number of threads that will parse the file
+	 */
+	public final void parse(File input, Charset encoding, int threads) {
+		parse(input, encoding, threads, defaultRecordsPerChunk());
+	}
+
+	/**
+	 * Parses all records of a file and delegates each one to the {@link RowProcessor} defined by {@link CommonParserSettings#getRowProcessor()}, in the order they appear in the file.
+	 * <p> The file is divided into ranges of records, which are parsed by the given number of threads.
+	 * <p> A {@link TextParsingException} will be thrown in case of any errors, and the file will be closed.
+	 * @param input the file to parse
+	 * @param encoding the encoding of the file. Must be a single-byte encoding.
+	 * @param threads the number of threads that will parse the file
+	 * @param recordsPerChunk the number of records each thread parses at a time
+	 */
+	public final void parse(File input, Charset encoding, int threads, int recordsPerChunk) {
+		parse(input, encoding, threads, recordsPerChunk, settings.getRowProcessor());
+	}
+
+	/**
+	 * Parses all records of a file and returns them in a list. The file is divided into ranges of records of about 1MB, which are parsed by the given number of threads.
+	 * <p> A {@link TextParsingException} will be thrown in case of any errors, and the file will be closed.
+	 * @param input the file to parse
+	 * @param encoding the encoding of the file. Must be a single-byte encoding.
+	 * @param threads the number of threads that will parse the file
+	 * @return the list of all records parsed from the file.
+	 */
+	public final List<String[]> parseAll(File input, Charset encoding, int threads) {
+		RowListProcessor rows = new RowListProcessor();
+		parse(input, encoding, threads, defaultRecordsPerChunk(), rows);
+		return rows.getRows();
+	}
+
+	private int defaultRecordsPerChunk() {
+		return DEFAULT_CHUNK_SIZE > recordLength ? DEFAULT_CHUNK_SIZE / recordLength : 1;
+	}
+
+	private void parse(File input, Charset encoding, int threads, final int recordsPerChunk, RowProcessor processor) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("Number of threads must be positive. Got " + threads);
+		}
+		if (recordsPerChunk < 1) {
+			throw new IllegalArgumentException("Number of records per chunk must be positive. Got " + recordsPerChunk);
+		}
+		if ((long) recordsPerChunk * recordLength > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("Too many records per chunk: " + recordsPerChunk + " records of " + recordLength + " characters can't be stored in a single buffer");
+		}
+
+		beginParsing(input, encoding);
+		long end = firstRecord + recordCount;
+		long recordsToRead = settings.getNumberOfRecordsToRead();
+		if (recordsToRead >= 0 && recordsToRead < recordCount) {
+			end = firstRecord + recordsToRead;
+		}
+
+		ExecutorService executor = null;
+		try {
+			processor.processStarted(context);
+
+			long next = firstRecord;
+			if (threads == 1) {
+				RecordReader chunkReader = new RecordReader((int) Math.min(recordsPerChunk, end - next));
+				while (next < end && !context.stopped) {
+					int count = (int) Math.min(recordsPerChunk, end - next);
+					deliver(chunkReader.read(next, count), processor);
+					next += count;
+				}
+				return;
+			}
+
+			final ArrayBlockingQueue<RecordReader> readers = new ArrayBlockingQueue<RecordReader>(threads);
+			for (int i = 0; i < threads; i++) {
+				readers.add(new RecordReader((int) Math.min(recordsPerChunk, end - next)));
+			}
+			executor = Executors.newFixedThreadPool(threads);
+
+			LinkedList<Future<List<String[]>>> pending = new LinkedList<Future<List<String[]>>>();
+			int maxPending = threads * 2;
+			while ((next < end || !pending.isEmpty()) && !context.stopped) {
+				while (next < end && pending.size() < maxPending) {
+					final long first = next;
+					final int count = (int) Math.min(recordsPerChunk, end - next);
+					pending.add(executor.submit(new Callable<List<String[]>>() {
+						@Override
+						public List<String[]> call() throws Exception {
+							RecordReader chunkReader = readers.take();
+							try {
+								return chunkReader.read(first, count);
+							} finally {
+								readers.put(chunkReader);
+							}
+						}
+					}));
+					next += count;
+				}
+				deliver(pending.removeFirst().get(), processor);
+			}
+		} catch (ExecutionException ex) {
+			throw toParsingException("Error parsing records in parallel", ex.getCause());
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw toParsingException("Interrupted while parsing records in parallel", ex);
+		} catch (Throwable ex) {
+			throw toParsingException("Error parsing file " + input.getAbsolutePath(), ex);
+		} finally {
+			if (executor != null) {
+				executor.shutdownNow();
+			}
+			try {
+				processor.processEnded(context);
+			} finally {
+				stopParsing();
+			}
+		}
+	}
+
+	private void deliver(List<String[]> rows, RowProcessor processor) {
+		for (String[] row : rows) {
+			if (context.stopped) {
+				return;
+			}
+			context.currentRecord++;
+			if (context.recordsToSkip > 0) {
+				context.recordsToSkip--;
+				continue;
+			}
+			processor.rowProcessed(row, context);
+		}
+	}
+
+	private void ensureStarted() {
+		if (reader == null) {
+			throw new IllegalStateException("Parsing not started. Use beginParsing(File, Charset) to open a file");
+		}
+	}
+
+	private TextParsingException toParsingException(String message, Throwable ex) {
+		if (ex instanceof TextParsingException) {
+			return (TextParsingException) ex;
+		}
+		return new TextParsingException(context, message, ex);
+	}
+
+	/**
+	 * Reads ranges of records from the file into its own buffers. Each thread uses a separate instance.
+	 */
+	private final class RecordReader {
+		private final FileChannel channel;
+		private final ByteBuffer bytes;
+		private final char[] value;
+
+		RecordReader(int records) {
+			this.channel = RandomAccessFixedWidthParser.this.channel;
+			this.bytes = ByteBuffer.allocate(records * recordLength);
+			int maxLength = 0;
+			for (int length : lengths) {
+				maxLength = Math.max(maxLength, length);
+			}
+			this.value = new char[maxLength];
+		}
+
+		private int readBytes(long first, int count) throws IOException {
+			long position = first * recordLength;
+			bytes.clear();
+			bytes.limit(count * recordLength);
+			while (bytes.hasRemaining()) {
+				if (channel.read(bytes, position + bytes.position()) < 0) {
+					break;
+				}
+			}
+			return bytes.position();
+		}
+
+		/**
+		 * Trims and decodes the value of a field. Bytes beyond {@code available} are missing from an incomplete last record, and are treated as padding.
+		 */
+		private String readValue(byte[] array, int available, int start, int length) {
+			int end = Math.min(start + length, available);
+			while (start < end && charTable[array[start] & 0xFF] == padding) {
+				start++;
+			}
+			if (ignoreLeadingWhitespace) {
+				while (start < end && charTable[array[start] & 0xFF] <= ' ') {
+					start++;
+				}
+			}
+			if (ignoreTrailingWhitespace) {
+				char ch;
+				while (end > start && ((ch = charTable[array[end - 1] & 0xFF]) <= ' ' || ch == padding)) {
+					end--;
+				}
+			} else {
+				while (end > start && charTable[array[end - 1] & 0xFF] == padding) {
+					end--;
+				}
+			}
+			if (start >= end) {
+				return nullValue;
+			}
+			int count = end - start;
+			for (int i = 0; i < count; i++) {
+				value[i] = charTable[array[start + i] & 0xFF];
+			}
+			return new String(value, 0, count);
+		}
+
+		String[] readHeaders() throws IOException {
+			int available = readBytes(0, 1);
+			byte[] array = bytes.array();
+			String[] headers = new String[lengths.length];
+			for (int i = 0; i < lengths.length; i++) {
+				headers[i] = readValue(array, available, offsets[i], lengths[i]);
+			}
+			return headers;
+		}
+
+		List<String[]> read(long first, int count) throws IOException {
+			int available = readBytes(first, count);
+			byte[] array = bytes.array();
+			List<String[]> rows = new ArrayList<String[]>(count);
+			for (int r = 0, base = 0; r < count; r++, base += recordLength) {
+				String[] row = new String[rowLength];
+				for (int i = 0; i < fieldsToRead.length; i++) {
+					int field = fieldsToRead[i];
+					row[outputPositions[i]] = readValue(array, available, base + offsets[field], lengths[field]);
+				}
+				rows.add(row);
+			}
+			return rows;
+		}
+	}
+
+	/**
+	 * The context of a file being parsed. Records are counted as lines, as the file has no line separators.
+	 */
+	private static final class RecordContext implements ParsingContext {
+		private volatile boolean stopped;
+		private long currentRecord;
+		private long recordsToSkip;
+		private String[] headers;
+		private int[] selectedIndexes;
+		private boolean reordered;
+
+		@Override
+		public void stop() {
+			stopped = true;
+		}
+
+		@Override
+		public boolean isStopped() {
+			return stopped;
+		}
+
+		@Override
+		public long currentLine() {
+			return currentRecord;
+		}
+
+		@Override
+		public long currentChar() {
+			return -1;
+		}
+
+		@Override
+		public int currentColumn() {
+			return 0;
+		}
+
+		@Override
+		public long currentRecord() {
+			return currentRecord;
+		}
+
+		@Override
+		public void skipLines(int lines) {
+			recordsToSkip += lines;
+		}
+
+		@Override
+		public String[] headers() {
+			return headers;
+		}
+
+		@Override
+		public int[] extractedFieldIndexes() {
+			return selectedIndexes;
+		}
+
+		@Override
+		public boolean columnsReordered() {
+			return reordered;
+		}
+
+		@Override
+		public String currentParsedContent() {
+			return null;
+		}
+	}
+}
@@ -16,8 +16,11 @@
 package com.univocity.parsers.tsv;
 
 import java.io.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
 
 import com.univocity.parsers.common.*;
+import com.univocity.parsers.common.output.*;
 
 /**
  * A powerful and flexible TSV writer implementation.
@@ -43,13 +46,55 @@ public class TsvWriter extends AbstractWriter<TsvWriterSettings> {
 	 * @param settings the TSV writer configuration
 	 */
 	public TsvWriter(Writer writer, TsvWriterSettings settings) {
-		super(writer, settings);
+		this(writer, settings, false);
+	}
+
+	private TsvWriter(Writer writer, TsvWriterSettings settings, boolean formattingOnly) {
+		super(writer, settings, formattingOnly);
 
 		this.escapeChar = settings.getFormat().getEscapeChar();
 		this.ignoreLeading = settings.getIgnoreLeadingWhitespaces();
 		this.ignoreTrailing = settings.getIgnoreTrailingWhitespaces();
 	}
 
+	/**
+	 * Creates a TsvWriter that encodes its output directly into bytes written to an {@link OutputStream}. The output is compressed according to {@link CommonWriterSettings#getOutputCompression()}. See {@link EncodingWriter} for details.
+	 * @param output the output stream that will receive the TSV records produced by this class, encoded with the given charset.
+	 * @param encoding the encoding of the output.
+	 * @param settings the TSV writer configuration
+	 */
+	public TsvWriter(OutputStream output, Charset encoding, TsvWriterSettings settings) {
+		this(new EncodingWriter(output, encoding, settings), settings);
+	}
+
+	/**
+	 * Creates a TsvWriter that encodes its output directly into bytes written to a {@link WritableByteChannel}. The output is compressed according to {@link CommonWriterSettings#getOutputCompression()}. See {@link EncodingWriter} for details.
+	 * @param output the channel that will receive the TSV records produced by this class, encoded with the given charset.
+	 * @param encoding the encoding of the output.
+	 * @param settings the TSV writer configuration
+	 */
+	public TsvWriter(WritableByteChannel output, Charset encoding, TsvWriterSettings settings) {
+		this(new EncodingWriter(output, encoding, settings), settings);
+	}
+
+	/**
+	 * Creates a TsvWriter that encodes its output directly into bytes written to a file. If the file exists, it will be overwritten. The output is compressed according to {@link CommonWriterSettings#getOutputCompression()}. See {@link EncodingWriter} for details.
+	 * @param file the file that will receive the TSV records produced by this class, encoded with the given charset.
+	 * @param encoding the encoding of the output.
+	 * @param settings the TSV writer configuration
+	 */
+	public TsvWriter(File file, Charset encoding, TsvWriterSettings settings) {
+		this(new EncodingWriter(file, encoding, settings), settings);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected TsvWriter newFormatter(Writer output, TsvWriterSettings settings) {
+		return new TsvWriter(output, settings, true);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -60,7 +105,7 @@ public class TsvWriter extends AbstractWriter<TsvWriterSettings> {
 				appendToRow('\t');
 			}
 
-			String nextElement = getStringValue(row[i]);
+			CharSequence nextElement = getCharSequenceValue(row[i]);
 
 			int originalLength = appender.length();
 			append(nextElement);
@@ -74,7 +119,7 @@ public class TsvWriter extends AbstractWriter<TsvWriterSettings> {
 		}
 	}
 
-	private void append(String element) {
+	private void append(CharSequence element) {
 		if (element == null) {
 			element = nullValue;
 		}
@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.annotations.processing;
+
+import static org.testng.Assert.*;
+
+import java.io.*;
+import java.lang.reflect.*;
+import java.net.*;
+import java.util.*;
+
+import javax.tools.*;
+
+import org.testng.annotations.*;
+
+import com.univocity.parsers.annotations.helpers.*;
+import com.univocity.parsers.common.processor.*;
+import com.univocity.parsers.csv.*;
+
+public class BeanMapperGeneratorTest {
+
+	private static final String ITEM = ""
+			+ "package sample;\n"
+			+ "import com.univocity.parsers.annotations.*;\n"
+			+ "public class Item {\n"
+			+ "  @Parsed int quantity;\n"
+			+ "  @Parsed private String name;\n"
+			+ "  @Trim @Parsed(field = \"price\") public java.math.BigDecimal amount;\n"
+			+ "  @Parsed private String hidden;\n"
+			+ "  public void setName(String name) { this.name = \"set:\" + name; }\n"
+			+ "  public String getName() { return name; }\n"
+			+ "  public static class Nested {\n"
+			+ "    @Parsed public boolean active;\n"
+			+ "    private Nested() {}\n"
+			+ "  }\n"
+			+ "}\n";
+
+	private ClassLoader loader;
+
+	@BeforeClass
+	public void compile() throws Exception {
+		File dir = File.createTempFile("beanmapper", "");
+		dir.delete();
+		File sources = new File(dir, "sample");
+		sources.mkdirs();
+
+		File source = new File(sources, "Item.java");
+		Writer writer = new OutputStreamWriter(new FileOutputStream(source), "UTF-8");
+		writer.write(ITEM);
+		writer.close();
+
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+		List<String> options = Arrays.asList("-classpath", System.getProperty("java.class.path"), "-d", dir.getPath(), "-s", dir.getPath());
+		JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null, fileManager.getJavaFileObjects(source));
+		task.setProcessors(Collections.singletonList(new BeanMapperGenerator()));
+		assertTrue(task.call(), diagnostics.getDiagnostics().toString());
+		fileManager.close();
+
+		loader = new URLClassLoader(new URL[] { dir.toURI().toURL() }, getClass().getClassLoader());
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	@Test
+	public void testGeneratedMapper() throws Exception {
+		Class itemClass = loader.loadClass("sample.Item");
+		BeanMapper mapper = AnnotationHelper.getBeanMapper(itemClass);
+		assertNotNull(mapper);
+		assertEquals(mapper.getClass().getName(), "sample.Item" + BeanMapper.CLASS_NAME_SUFFIX);
+
+		Object item = mapper.newInstance();
+		assertNotNull(item);
+
+		int quantity = mapper.indexOf("quantity");
+		int name = mapper.indexOf("name");
+		int hidden = mapper.indexOf("hidden");
+		assertEquals(mapper.indexOf("price"), -1);
+
+		assertTrue(mapper.write(item, quantity, 5));
+		assertFalse(mapper.write(item, quantity, 5L));
+		assertFalse(mapper.write(item, quantity, null));
+		assertTrue(mapper.write(item, name, "x"));
+		assertFalse(mapper.write(item, hidden, "x"));
+		assertFalse(mapper.isReadable(hidden));
+
+		assertEquals(mapper.read(item, quantity), 5);
+		assertEquals(mapper.read(item, name), "set:x");
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	@Test
+	public void testBeanProcessorUsesMapper() throws Exception {
+		Class itemClass = loader.loadClass("sample.Item");
+		BeanListProcessor processor = new BeanListProcessor(itemClass);
+		CsvParserSettings settings = new CsvParserSettings();
+		settings.setHeaderExtractionEnabled(true);
+		settings.setRowProcessor(processor);
+		new CsvParser(settings).parse(new StringReader("quantity,name,price,hidden\n3,a,1.5,h"));
+
+		List beans = processor.getBeans();
+		assertEquals(beans.size(), 1);
+		Object item = beans.get(0);
+		assertEquals(field(item, "quantity"), 3);
+		assertEquals(field(item, "name"), "set:a");
+		assertEquals(field(item, "amount").toString(), "1.5");
+		assertEquals(field(item, "hidden"), "h");
+
+		BeanWriterProcessor writer = new BeanWriterProcessor(itemClass);
+		Object[] row = writer.write(item, new String[] { "quantity", "name", "price", "hidden" }, null);
+		assertEquals(row, new Object[] { "3", "set:a", "1.5", "h" });
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	@Test
+	public void testNestedClassWithPrivateConstructor() throws Exception {
+		Class nestedClass = loader.loadClass("sample.Item$Nested");
+		BeanMapper mapper = AnnotationHelper.getBeanMapper(nestedClass);
+		assertNotNull(mapper);
+		assertNull(mapper.newInstance());
+
+		BeanListProcessor processor = new BeanListProcessor(nestedClass);
+		CsvParserSettings settings = new CsvParserSettings();
+		settings.setHeaderExtractionEnabled(true);
+		settings.setRowProcessor(processor);
+		new CsvParser(settings).parse(new StringReader("active\ntrue"));
+		assertEquals(field(processor.getBeans().get(0), "active"), true);
+	}
+
+	private static Object field(Object bean, String name) throws Exception {
+		Field field = bean.getClass().getDeclaredField(name);
+		field.setAccessible(true);
+		return field.get(bean);
+	}
+}
@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common;
+
+import static org.testng.Assert.*;
+
+import java.math.*;
+
+import org.testng.annotations.*;
+
+public class NumberParsingUtilsTest {
+
+	private static char[] chars(String value) {
+		return ("##" + value + "##").toCharArray();
+	}
+
+	@DataProvider(name = "integers")
+	public Object[][] integers() {
+		return new Object[][] {
+				{ "0" }, { "-0" }, { "+7" }, { "123" }, { "-123" }, { "007" },
+				{ String.valueOf(Integer.MAX_VALUE) }, { String.valueOf(Integer.MIN_VALUE) },
+				{ String.valueOf(Long.MAX_VALUE) }, { String.valueOf(Long.MIN_VALUE) },
+				{ "9223372036854775808" }, { "-9223372036854775809" }, { "2147483648" },
+				{ "-" }, { "+" }, { "1a" }, { "1.0" }, { " 1" }
+		};
+	}
+
+	@Test(dataProvider = "integers")
+	public void testParseIntAndLong(String value) {
+		char[] chars = chars(value);
+
+		Object expected;
+		try {
+			expected = Integer.parseInt(value);
+		} catch (NumberFormatException ex) {
+			expected = ex.getClass();
+		}
+		Object result;
+		try {
+			result = NumberParsingUtils.parseInt(chars, 2, value.length());
+		} catch (NumberFormatException ex) {
+			result = ex.getClass();
+		}
+		assertEquals(result, expected);
+
+		try {
+			expected = Long.parseLong(value);
+		} catch (NumberFormatException ex) {
+			expected = ex.getClass();
+		}
+		try {
+			result = NumberParsingUtils.parseLong(chars, 2, value.length());
+		} catch (NumberFormatException ex) {
+			result = ex.getClass();
+		}
+		assertEquals(result, expected);
+	}
+
+	@DataProvider(name = "decimals")
+	public Object[][] decimals() {
+		return new Object[][] {
+				{ "0" }, { "-0.0" }, { "1.5" }, { "-0.25" }, { ".5" }, { "5." }, { "0.1" }, { "3.14159265358979" },
+				{ "123456789012345678" }, { "1234567890.12345678901" }, { "1e3" }, { "1.5E-7" }, { "-2e+22" },
+				{ "4.9e-324" }, { "1.7976931348623157e308" }, { "NaN" }, { "Infinity" }, { "1d" }, { "0x1p3" },
+				{ "1e5 " }, { "1e5d" }, { "2E-3F" }, { " 1.5 " },
+				{ "." }, { "-" }, { "1e" }, { "1e+" }, { "1e-x" }, { "1.2.3" }, { "abc" }, { "0.000000000000000000000001" }
+		};
+	}
+
+	@Test(dataProvider = "decimals")
+	public void testParseDouble(String value) {
+		Object expected;
+		try {
+			expected = Double.parseDouble(value);
+		} catch (NumberFormatException ex) {
+			expected = ex.getClass();
+		}
+		Object result;
+		try {
+			result = NumberParsingUtils.parseDouble(chars(value), 2, value.length());
+		} catch (NumberFormatException ex) {
+			result = ex.getClass();
+		}
+		assertEquals(result, expected);
+	}
+
+	@Test(dataProvider = "decimals")
+	public void testParseBigDecimal(String value) {
+		Object expected;
+		try {
+			expected = new BigDecimal(value);
+		} catch (NumberFormatException ex) {
+			expected = ex.getClass();
+		}
+		Object result;
+		try {
+			result = NumberParsingUtils.parseBigDecimal(chars(value), 2, value.length());
+		} catch (NumberFormatException ex) {
+			result = ex.getClass();
+		}
+		assertEquals(result, expected);
+	}
+}
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common.fields;
+
+import static org.testng.Assert.*;
+
+import java.util.*;
+
+import org.testng.annotations.*;
+
+public class ConversionCacheTest {
+
+	@Test
+	public void testLeastRecentlyUsedEviction() {
+		ConversionCache cache = new ConversionCache(2);
+		cache.put("a", 1);
+		cache.put("b", 2);
+		assertEquals(cache.get("a"), 1);
+		cache.put("c", 3);
+
+		assertEquals(cache.getSize(), 2);
+		assertEquals(cache.getEvictions(), 1);
+		assertSame(cache.get("b"), ConversionCache.NOT_CACHED);
+		assertEquals(cache.get("a"), 1);
+		assertEquals(cache.get("c"), 3);
+	}
+
+	@Test
+	public void testLookupFromChars() {
+		ConversionCache cache = new ConversionCache(10);
+		cache.put("abc", null);
+		char[] chars = "xxabcxx".toCharArray();
+
+		assertNull(cache.get(chars, 2, 3));
+		assertSame(cache.get(chars, 1, 3), ConversionCache.NOT_CACHED);
+		assertSame(cache.get(null), ConversionCache.NOT_CACHED);
+	}
+
+	@Test
+	public void testStatistics() {
+		ConversionCache cache = new ConversionCache(100);
+		for (int i = 0; i < 1000; i++) {
+			String key = String.valueOf(i % 10);
+			if (cache.get(key) == ConversionCache.NOT_CACHED) {
+				cache.put(key, i);
+			}
+		}
+		assertEquals(cache.getMisses(), 10);
+		assertEquals(cache.getHits(), 990);
+		assertEquals(cache.getHitRate(), 0.99, 0.0001);
+		assertEquals(cache.getEvictions(), 0);
+
+		cache.clear();
+		assertEquals(cache.getSize(), 0);
+		assertEquals(cache.getHitRate(), 0.0);
+		assertSame(cache.get("1"), ConversionCache.NOT_CACHED);
+	}
+
+	@Test
+	public void testGrowsUpToMaxSize() {
+		ConversionCache cache = new ConversionCache(5000);
+		for (int i = 0; i < 6000; i++) {
+			cache.put("k" + i, i);
+		}
+		assertEquals(cache.getSize(), 5000);
+		assertEquals(cache.getEvictions(), 1000);
+		assertSame(cache.get("k999"), ConversionCache.NOT_CACHED);
+		assertEquals(cache.get("k1000"), 1000);
+		assertEquals(cache.get("k5999"), 5999);
+	}
+
+	@Test
+	public void testMutableValuesAreCopied() {
+		ConversionCache cache = new ConversionCache(1);
+		Date date = new Date(1000L);
+		cache.put("date", date);
+		date.setTime(2000L);
+
+		Date cached = (Date) cache.get("date");
+		assertEquals(cached.getTime(), 1000L);
+		cached.setTime(3000L);
+		assertEquals(((Date) cache.get("date")).getTime(), 1000L);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testInvalidSize() {
+		new ConversionCache(0);
+	}
+}
@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common.fields;
+
+import static com.univocity.parsers.conversions.Conversions.*;
+import static org.testng.Assert.*;
+
+import org.testng.annotations.*;
+
+public class FieldConversionMappingTest {
+
+	private FieldConversionMapping newMapping() {
+		FieldConversionMapping mapping = new FieldConversionMapping();
+		mapping.applyConversionsOnFieldNames(trim()).add("b", "d");
+		mapping.applyConversionsOnFieldIndexes(toUpperCase()).add(3);
+		mapping.applyConversionsOnFieldNames(toInteger()).add("b");
+		mapping.prepareExecution(new String[] { "a", "b", "c", "d", "e" });
+		return mapping;
+	}
+
+	@Test
+	public void testConversionSequencesPerColumn() {
+		FieldConversionMapping mapping = newMapping();
+
+		assertEquals(mapping.getConvertedIndexes(), new int[] { 1, 3 });
+		assertFalse(mapping.hasConversions(0));
+		assertTrue(mapping.hasConversions(1));
+		assertFalse(mapping.hasConversions(2));
+		assertTrue(mapping.hasConversions(3));
+		assertFalse(mapping.hasConversions(4));
+		assertFalse(mapping.hasConversions(10));
+
+		assertEquals(mapping.applyConversions(0, " x "), " x ");
+		assertEquals(mapping.applyConversions(1, " 10 "), 10);
+		assertEquals(mapping.applyConversions(3, " abc "), "ABC");
+		assertEquals(mapping.applyConversions(10, " y "), " y ");
+	}
+
+	@Test
+	public void testReverseConversions() {
+		FieldConversionMapping mapping = newMapping();
+
+		assertEquals(mapping.reverseConversions(true, 1, 10), "10");
+		assertEquals(mapping.reverseConversions(false, 3, "abc"), "ABC");
+		assertEquals(mapping.reverseConversions(true, 2, 5), 5);
+	}
+
+	@Test
+	public void testErrorReportsFailedConversion() {
+		FieldConversionMapping mapping = newMapping();
+		try {
+			mapping.applyConversions(1, "x");
+			fail("Expected conversion error");
+		} catch (IllegalStateException ex) {
+			assertEquals(ex.getMessage(), "Error converting value 'x' using conversion com.univocity.parsers.conversions.IntegerConversion");
+		}
+	}
+}
@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common.input;
+
+import static org.testng.Assert.*;
+
+import java.math.*;
+import java.util.*;
+
+import org.testng.annotations.*;
+
+public class FormattedValueTest {
+
+	@Test
+	public void testLongs() {
+		long[] values = { 0, 1, -1, 9, 10, 99, 100, 123456789, -987654321, Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, Long.MIN_VALUE + 1, 999999999999999999L, 1000000000000000000L };
+		FormattedValue value = new FormattedValue(1);
+		for (long l : values) {
+			assertEquals(value.reset().append(l).toString(), String.valueOf(l));
+		}
+		Random random = new Random(1);
+		for (int i = 0; i < 1000; i++) {
+			long l = random.nextLong() >> random.nextInt(64);
+			assertEquals(value.reset().append(l).toString(), String.valueOf(l));
+		}
+	}
+
+	@Test
+	public void testDoublesAndFloats() {
+		double[] values = { 0.0, -0.0, 1.0, -1.0, 9999999.0, 10000000.0, -9999999.0, 0.1, 1.5, 1e-3, 1e-4, 123456.789, Double.NaN, Double.POSITIVE_INFINITY, Double.MIN_VALUE, Double.MAX_VALUE, 4.0E18 };
+		FormattedValue value = new FormattedValue();
+		for (double d : values) {
+			assertEquals(value.reset().append(d).toString(), String.valueOf(d));
+			assertEquals(value.reset().append((float) d).toString(), String.valueOf((float) d));
+		}
+	}
+
+	@Test
+	public void testBigDecimals() {
+		String[] values = { "0", "0.00", "-0.5", "1.5", "123.456", "-123.456", "0.000001", "0.0000001", "1E+3", "1.23E-10", "99999999999999999.99", "-4611686018427387903.5", "4611686018427387904.5", "12345678901234567890123.45" };
+		FormattedValue value = new FormattedValue(2);
+		for (String v : values) {
+			BigDecimal decimal = new BigDecimal(v);
+			assertEquals(value.reset().append(decimal).toString(), decimal.toString(), v);
+		}
+		Random random = new Random(7);
+		for (int i = 0; i < 1000; i++) {
+			BigDecimal decimal = BigDecimal.valueOf(random.nextLong() >> random.nextInt(64), random.nextInt(25) - 2);
+			assertEquals(value.reset().append(decimal).toString(), decimal.toString());
+		}
+	}
+
+	@Test
+	public void testAppendAndCharSequence() {
+		FormattedValue value = new FormattedValue(1);
+		value.append('a').append("bc").append(12L);
+		assertEquals(value.length(), 5);
+		assertEquals(value.charAt(3), '1');
+		assertEquals(value.subSequence(1, 3), "bc");
+		assertEquals(value.toString(), "abc12");
+		assertEquals(value.reset().length(), 0);
+	}
+
+	@Test
+	public void testFixedDecimalPlaces() {
+		double[] values = { 0.0, -0.0, 1.0, -1.0, 0.5, -0.5, 0.125, 2.675, 1.005, -2.005, 0.001, -0.004, 123456.789, 99.999, 1e-7, 1e11, 1e15, 1e20, Double.MIN_VALUE, Double.MAX_VALUE };
+		FormattedValue value = new FormattedValue(1);
+		for (double d : values) {
+			for (int decimalPlaces = 0; decimalPlaces < 12; decimalPlaces++) {
+				assertEquals(value.reset().appendDecimal(d, decimalPlaces).toString(), fixed(d, decimalPlaces), d + " with " + decimalPlaces + " decimal places");
+			}
+		}
+		Random random = new Random(3);
+		for (int i = 0; i < 10000; i++) {
+			double d = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(14) - 4);
+			int decimalPlaces = random.nextInt(10);
+			assertEquals(value.reset().appendDecimal(d, decimalPlaces).toString(), fixed(d, decimalPlaces), d + " with " + decimalPlaces + " decimal places");
+		}
+		assertEquals(value.reset().appendDecimal(Double.NaN, 2).toString(), "NaN");
+		assertEquals(value.reset().append(new char[] { 'a', 'b', 'c' }, 1, 2).toString(), "bc");
+	}
+
+	private static String fixed(double d, int decimalPlaces) {
+		return BigDecimal.valueOf(d).setScale(decimalPlaces, RoundingMode.HALF_UP).toPlainString();
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testNegativeDecimalPlaces() {
+		new FormattedValue().appendDecimal(1.0, -1);
+	}
+}
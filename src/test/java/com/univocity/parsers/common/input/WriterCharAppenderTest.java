@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common.input;
+
+import static org.testng.Assert.*;
+
+import org.testng.annotations.*;
+
+import com.univocity.parsers.csv.*;
+
+public class WriterCharAppenderTest {
+
+	private CsvFormat format() {
+		CsvFormat format = new CsvFormat();
+		format.setLineSeparator("\r\n");
+		format.setNormalizedNewline('\n');
+		return format;
+	}
+
+	@Test
+	public void testBufferGrowsOnDemand() {
+		WriterCharAppender appender = new WriterCharAppender(2, 100, "", ' ', format());
+		assertEquals(appender.getChars().length, 2);
+
+		StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 30; i++) {
+			char ch = (char) ('a' + (i % 26));
+			appender.appendIgnoringWhitespace(ch);
+			appender.appendIgnoringWhitespace('\n');
+			expected.append(ch).append("\r\n");
+		}
+		appender.appendIgnoringWhitespaceAndPadding(' ');
+		assertEquals(appender.toString(), expected.toString().trim());
+		assertTrue(appender.getChars().length <= 100);
+
+		WriterCharAppender row = new WriterCharAppender(1, 200, "", ' ', format());
+		row.append(appender);
+		row.appendNewLine();
+		assertEquals(row.getAndReset(), expected.toString().trim() + "\r\n");
+	}
+
+	@Test
+	public void testBufferDoesNotExceedLimit() {
+		WriterCharAppender appender = new WriterCharAppender(4, 10, "", ' ', format());
+		for (int i = 0; i < 10; i++) {
+			appender.append('x');
+		}
+		assertEquals(appender.getChars().length, 10);
+		try {
+			appender.append('x');
+			fail("Expected limit of characters to be enforced");
+		} catch (IllegalStateException e) {
+			assertTrue(e.getMessage().contains("10 characters"));
+		}
+	}
+}
@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common.output;
+
+import static org.testng.Assert.*;
+
+import java.io.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+
+import org.testng.annotations.*;
+
+public class EncodingWriterTest {
+
+	private static final String TEXT = "plain ascii, latin-1 éÿ, Ā߿ࠀ€, pair 😀, lone \ud800x\udfff.";
+
+	@DataProvider
+	public Object[][] charsetProvider() {
+		return new Object[][] { { "UTF-8" }, { "ISO-8859-1" }, { "US-ASCII" }, { "UTF-16" }, { "windows-1252" } };
+	}
+
+	@Test(dataProvider = "charsetProvider")
+	public void testEncodingMatchesOutputStreamWriter(String charsetName) throws IOException {
+		Charset charset = Charset.forName(charsetName);
+
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		Writer reference = new OutputStreamWriter(expected, charset);
+		reference.write(TEXT);
+		reference.close();
+
+		for (int chunk = 1; chunk <= 4; chunk++) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			Writer writer = chunk % 2 == 0 ? new EncodingWriter(out, charset) : new EncodingWriter(Channels.newChannel(out), charset);
+			char[] chars = TEXT.toCharArray();
+			for (int i = 0; i < chars.length; i += chunk) {
+				writer.write(chars, i, Math.min(chunk, chars.length - i));
+			}
+			writer.close();
+			assertEquals(out.toByteArray(), expected.toByteArray(), charsetName + " written in chunks of " + chunk);
+		}
+	}
+
+	@Test
+	public void testWritingToFile() throws IOException {
+		File file = File.createTempFile("encoding_writer", ".txt");
+		try {
+			StringBuilder text = new StringBuilder();
+			for (int i = 0; i < 10000; i++) {
+				text.append(TEXT).append('\n');
+			}
+			Writer writer = new EncodingWriter(file, Charset.forName("UTF-8"));
+			writer.write(text.toString());
+			writer.close();
+
+			assertEquals(file.length(), text.toString().replace('\ud800', '?').replace('\udfff', '?').getBytes("UTF-8").length);
+		} finally {
+			file.delete();
+		}
+	}
+}
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common.output.concurrent;
+
+import static org.testng.Assert.*;
+
+import java.io.*;
+
+import org.testng.annotations.*;
+
+public class ConcurrentWriterTest {
+
+	@Test
+	public void testWritesEverythingInOrder() throws IOException {
+		StringWriter output = new StringWriter();
+		ConcurrentWriter writer = new ConcurrentWriter(output, 7, 3);
+
+		StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			String text = "line " + i + "\n";
+			if (i % 3 == 0) {
+				writer.write(text);
+			} else if (i % 3 == 1) {
+				writer.write(text.toCharArray(), 0, text.length());
+			} else {
+				for (int j = 0; j < text.length(); j++) {
+					writer.write(text.charAt(j));
+				}
+			}
+			expected.append(text);
+
+			if (i == 500) {
+				writer.flush();
+				assertEquals(output.toString(), expected.toString());
+			}
+		}
+		writer.close();
+		assertEquals(output.toString(), expected.toString());
+	}
+
+	@Test
+	public void testErrorIsReportedToCaller() throws IOException {
+		Writer failing = new Writer() {
+			@Override
+			public void write(char[] cbuf, int off, int len) throws IOException {
+				throw new IOException("disk full");
+			}
+
+			@Override
+			public void flush() throws IOException {
+			}
+
+			@Override
+			public void close() throws IOException {
+			}
+		};
+
+		ConcurrentWriter writer = new ConcurrentWriter(failing, 4, 2);
+		try {
+			for (int i = 0; i < 100; i++) {
+				writer.write("abc");
+			}
+			writer.flush();
+			fail("Expected error writing to the output to be reported");
+		} catch (IOException e) {
+			assertEquals(e.getCause().getMessage(), "disk full");
+		}
+		writer.close(); //error already reported
+	}
+}
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common.output.concurrent;
+
+import static org.testng.Assert.*;
+
+import java.io.*;
+import java.util.zip.*;
+
+import org.testng.annotations.*;
+
+public class ParallelGzipOutputStreamTest {
+
+	private byte[] decompress(byte[] compressed) throws IOException {
+		GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[1024];
+		int read;
+		while ((read = in.read(buffer)) != -1) {
+			out.write(buffer, 0, read);
+		}
+		in.close();
+		return out.toByteArray();
+	}
+
+	@Test
+	public void testCompressesBlocksInOrder() throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		ParallelGzipOutputStream gzip = new ParallelGzipOutputStream(output, 100, 3);
+
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		for (int i = 0; i < 2000; i++) {
+			byte[] line = ("line " + i + "\n").getBytes("ASCII");
+			if (i % 2 == 0) {
+				gzip.write(line);
+			} else {
+				for (byte b : line) {
+					gzip.write(b);
+				}
+			}
+			expected.write(line);
+			if (i == 1000) {
+				gzip.flush();
+				assertEquals(decompress(output.toByteArray()), expected.toByteArray());
+			}
+		}
+		gzip.close();
+
+		assertEquals(decompress(output.toByteArray()), expected.toByteArray());
+	}
+
+	@Test
+	public void testEmptyOutput() throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		new ParallelGzipOutputStream(output, 100, 2).close();
+		assertEquals(decompress(output.toByteArray()).length, 0);
+	}
+
+	@Test
+	public void testConcurrentOutputStream() throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		ConcurrentOutputStream stream = new ConcurrentOutputStream(output, 7, 3);
+
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		for (int i = 0; i < 1000; i++) {
+			byte[] line = ("line " + i + "\n").getBytes("ASCII");
+			stream.write(line);
+			expected.write(line);
+		}
+		stream.close();
+		assertEquals(output.toByteArray(), expected.toByteArray());
+	}
+}
@@ -24,6 +24,7 @@ import java.util.*;
 import org.testng.annotations.*;
 
 import com.univocity.parsers.annotations.*;
+import com.univocity.parsers.annotations.helpers.*;
 import com.univocity.parsers.conversions.*;
 import com.univocity.parsers.csv.*;
 
@@ -122,4 +123,101 @@ public class AnnotatedBeanProcessorTest {
 		assertNull(bean.commts);
 	}
 
+
+	static class CachedBean {
+
+		@Trim
+		@UpperCase
+		@Parsed(conversionCacheSize = 10)
+		String code;
+
+		@Parsed(conversionCacheSize = 10)
+		Integer quantity;
+	}
+
+	@Test
+	public void testConversionCacheSize() {
+		BeanListProcessor<CachedBean> processor = new BeanListProcessor<CachedBean>(CachedBean.class);
+		CsvParserSettings settings = newCsvInputSettings();
+		settings.setHeaderExtractionEnabled(true);
+		settings.setRowProcessor(processor);
+
+		new CsvParser(settings).parse(new StringReader("code,quantity\na,1\nb,2\na,1\na,3"));
+
+		List<CachedBean> beans = processor.getBeans();
+		assertEquals(beans.size(), 4);
+		assertEquals(beans.get(2).code, "A");
+		assertEquals(beans.get(2).quantity, Integer.valueOf(1));
+		assertEquals(beans.get(3).quantity, Integer.valueOf(3));
+
+		assertEquals(processor.getConversionCache("code").getHits(), 2);
+		assertEquals(processor.getConversionCache("quantity").getHits(), 1);
+		assertEquals(processor.getConversionCache("quantity").getSize(), 3);
+	}
+
+	static class PrimitiveBean {
+
+		@Parsed
+		private int i;
+
+		@Parsed
+		private double d;
+
+		@Parsed
+		private boolean b;
+
+		@Parsed
+		private char c;
+
+		private PrimitiveBean() {
+		}
+	}
+
+	@Test
+	public void testPrimitiveFields() {
+		BeanListProcessor<PrimitiveBean> processor = new BeanListProcessor<PrimitiveBean>(PrimitiveBean.class);
+		CsvParserSettings settings = newCsvInputSettings();
+		settings.setHeaderExtractionEnabled(true);
+		settings.setRowProcessor(processor);
+
+		new CsvParser(settings).parse(new StringReader("i,d,b,c\n1,0.5,true,x\n-3,1e2,false,y"));
+
+		List<PrimitiveBean> beans = processor.getBeans();
+		assertEquals(beans.size(), 2);
+		assertEquals(beans.get(0).i, 1);
+		assertEquals(beans.get(0).d, 0.5);
+		assertTrue(beans.get(0).b);
+		assertEquals(beans.get(0).c, 'x');
+		assertEquals(beans.get(1).i, -3);
+		assertEquals(beans.get(1).d, 100.0);
+		assertFalse(beans.get(1).b);
+	}
+
+	@Test
+	public void testBeanMetadataIsShared() {
+		BeanMetadata metadata = BeanMetadata.forClass(TestBean.class);
+		assertSame(BeanMetadata.forClass(TestBean.class), metadata);
+
+		String[] headers = new String[] { "date", "amount", "quantity", "pending", "comments" };
+		FieldMapping[] readOrder = metadata.getReadOrder(5, headers, null, false);
+		assertSame(metadata.getReadOrder(5, headers.clone(), null, false), readOrder);
+		assertNotSame(metadata.getReadOrder(5, headers, new int[] { 1, 2, 3, 4 }, false), readOrder);
+
+		for (int i = 0; i < 2; i++) {
+			BeanListProcessor<TestBean> processor = new BeanListProcessor<TestBean>(TestBean.class);
+			processor.convertAll(Conversions.toNull("", "?"));
+			CsvParserSettings settings = newCsvInputSettings();
+			settings.setHeaderExtractionEnabled(true);
+			settings.setRowProcessor(processor);
+
+			new CsvParser(settings).parse(new StringReader(input));
+
+			List<TestBean> beans = processor.getBeans();
+			assertEquals(beans.size(), 2);
+			assertEquals(beans.get(0).amnt, new BigDecimal("555.999"));
+			assertEquals(beans.get(0).commts, null);
+			assertEquals(beans.get(1).quantity, Integer.valueOf(0));
+			assertEquals(beans.get(1).commts, "\" something \"");
+		}
+	}
 }
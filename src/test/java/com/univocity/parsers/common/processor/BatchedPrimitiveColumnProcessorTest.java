@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common.processor;
+
+import static org.testng.Assert.*;
+
+import java.io.*;
+import java.util.*;
+
+import org.testng.annotations.*;
+
+import com.univocity.parsers.csv.*;
+
+public class BatchedPrimitiveColumnProcessorTest {
+
+	private static final String INPUT = "" +
+			"A,B,C,D,E" +
+			"\n1,true,x,10000000000,1.5" +
+			"\n-2,FALSE,y" +
+			"\n3,,x,-7,-0.25" +
+			"\n,false,z,8,1e3";
+
+	private BatchedPrimitiveColumnProcessor newProcessor(final List<String> batches) {
+		BatchedPrimitiveColumnProcessor processor = new BatchedPrimitiveColumnProcessor(2) {
+			@Override
+			public void batchProcessed(int rowsInThisBatch) {
+				StringBuilder out = new StringBuilder();
+				for (int i = 0; i < rowsInThisBatch; i++) {
+					out.append(getIntColumn("A").isNull(i) ? "null" : getIntColumn("A").get(i)).append(';');
+					out.append(getBooleanColumn(1).isNull(i) ? "null" : getBooleanColumn(1).get(i)).append(';');
+					out.append(getStringColumn("C").getCode(i)).append('=').append(getStringColumn("C").get(i)).append(';');
+					out.append(getLongColumn("D").isNull(i) ? "null" : getLongColumn("D").get(i)).append(';');
+					out.append(getDoubleColumn("E").isNull(i) ? "null" : getDoubleColumn("E").get(i)).append('|');
+				}
+				batches.add(out.toString());
+			}
+		};
+
+		processor.declareFields(ColumnType.INT).add("A");
+		processor.declareIndexes(ColumnType.BOOLEAN).add(1);
+		processor.declareFields(ColumnType.STRING).add("C");
+		processor.declareFields(ColumnType.LONG).add("D");
+		processor.declareFields(ColumnType.DOUBLE).add("E");
+		return processor;
+	}
+
+	@Test
+	public void testColumnVectors() {
+		final List<String> batches = new ArrayList<String>();
+		BatchedPrimitiveColumnProcessor processor = newProcessor(batches);
+
+		CsvParserSettings settings = new CsvParserSettings();
+		settings.setHeaderExtractionEnabled(true);
+		settings.setRowProcessor(processor);
+
+		new CsvParser(settings).parse(new StringReader(INPUT));
+
+		assertEquals(processor.getBatchesProcessed(), 2);
+		assertEquals(batches.size(), 2);
+		assertEquals(batches.get(0), "1;true;0=x;10000000000;1.5|-2;false;1=y;null;null|");
+		assertEquals(batches.get(1), "3;null;0=x;-7;-0.25|null;false;2=z;8;1000.0|");
+		assertEquals(processor.getStringColumn("C").getDictionary(), new String[] { "x", "y", "z" });
+		assertEquals(processor.getHeaders(), new String[] { "A", "B", "C", "D", "E" });
+	}
+
+	@Test
+	public void testColumnVectorsWithStringRows() {
+		final List<String> batches = new ArrayList<String>();
+		BatchedPrimitiveColumnProcessor processor = newProcessor(batches);
+
+		CsvParserSettings settings = new CsvParserSettings();
+		settings.setHeaderExtractionEnabled(true);
+		settings.setRowProcessor(processor);
+
+		CsvParser parser = new CsvParser(settings);
+		parser.beginParsing(new StringReader(INPUT));
+		while (parser.parseNext() != null) {
+			//rows are processed as Strings
+		}
+
+		assertEquals(batches.size(), 2);
+		assertEquals(batches.get(0), "1;true;0=x;10000000000;1.5|-2;false;1=y;null;null|");
+		assertEquals(batches.get(1), "3;null;0=x;-7;-0.25|null;false;2=z;8;1000.0|");
+	}
+
+	@Test
+	public void testColumnVectorsWithReorderedSelection() {
+		final List<String> batches = new ArrayList<String>();
+		BatchedPrimitiveColumnProcessor processor = new BatchedPrimitiveColumnProcessor(10) {
+			@Override
+			public void batchProcessed(int rowsInThisBatch) {
+				StringBuilder out = new StringBuilder();
+				for (int i = 0; i < rowsInThisBatch; i++) {
+					out.append(getLongColumn("D").isNull(i) ? "null" : getLongColumn("D").get(i)).append(';');
+					out.append(getIntColumn("A").isNull(i) ? "null" : getIntColumn("A").get(i)).append('|');
+				}
+				batches.add(out.toString());
+			}
+		};
+		processor.declareFields(ColumnType.INT).add("A");
+		processor.declareFields(ColumnType.LONG).add("D");
+
+		CsvParserSettings settings = new CsvParserSettings();
+		settings.setHeaderExtractionEnabled(true);
+		settings.selectFields("D", "A");
+		settings.setRowProcessor(processor);
+
+		new CsvParser(settings).parse(new StringReader(INPUT));
+
+		assertEquals(batches.size(), 1);
+		assertEquals(batches.get(0), "10000000000;1|null;-2|-7;3|8;null|");
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testDuplicateDeclaration() {
+		BatchedPrimitiveColumnProcessor processor = new BatchedPrimitiveColumnProcessor(10) {
+			@Override
+			public void batchProcessed(int rowsInThisBatch) {
+			}
+		};
+		processor.declareFields(ColumnType.INT).add("A");
+		processor.declareIndexes(ColumnType.LONG).add(0);
+
+		CsvParserSettings settings = new CsvParserSettings();
+		settings.setHeaderExtractionEnabled(true);
+		settings.setRowProcessor(processor);
+
+		try {
+			new CsvParser(settings).parse(new StringReader(INPUT));
+		} catch (RuntimeException ex) {
+			Throwable cause = ex;
+			while (cause.getCause() != null) {
+				cause = cause.getCause();
+			}
+			throw (RuntimeException) cause;
+		}
+	}
+}
@@ -17,12 +17,18 @@ package com.univocity.parsers.common.processor;
 
 import static org.testng.Assert.*;
 
+import java.io.*;
 import java.math.*;
+import java.text.*;
+import java.util.*;
 
 import org.testng.annotations.*;
 
 import com.univocity.parsers.annotations.*;
+import com.univocity.parsers.annotations.Format;
+import com.univocity.parsers.common.input.*;
 import com.univocity.parsers.conversions.*;
+import com.univocity.parsers.csv.*;
 
 public class BeanWriterProcessorTest {
 
@@ -85,4 +91,76 @@ public class BeanWriterProcessorTest {
 		assertEquals(row[3], "no");
 		assertEquals(row[4], "something"); // trimmed
 	}
+
+	static class FormattedBean {
+		@Parsed
+		int count;
+
+		@Parsed
+		long id;
+
+		@Parsed
+		double ratio;
+
+		@Parsed
+		float weight;
+
+		@Parsed(defaultNullWrite = "N/A")
+		Integer code;
+
+		@Parsed
+		BigDecimal price;
+
+		@Format(formats = "yyyy-MM-dd HH:mm:ss")
+		@Parsed
+		Date time;
+
+		@Parsed
+		String name;
+	}
+
+	@Test
+	public void testFormattedBeanWriting() {
+		String[] fields = "count,id,ratio,weight,code,price,time,name".split(",");
+
+		FormattedBean bean = new FormattedBean();
+		bean.count = -42;
+		bean.id = Long.MAX_VALUE;
+		bean.ratio = 2.5;
+		bean.weight = 3.0f;
+		bean.price = new BigDecimal("-0.050");
+		bean.time = new Date(1427451330123L);
+		bean.name = "a, b";
+
+		BeanWriterProcessor<FormattedBean> processor = new BeanWriterProcessor<FormattedBean>(FormattedBean.class);
+		Object[] expected = processor.write(bean, fields, null);
+
+		CsvWriterSettings settings = new CsvWriterSettings();
+		settings.setHeaders(fields);
+		settings.setRowWriterProcessor(new BeanWriterProcessor<FormattedBean>(FormattedBean.class));
+
+		StringWriter output = new StringWriter();
+		CsvWriter writer = new CsvWriter(output, settings);
+		writer.processRecord(bean);
+
+		Object[] row = ((BeanWriterProcessor<FormattedBean>) settings.getRowWriterProcessor()).writeFormatted(bean, fields, null);
+		assertTrue(row[0] instanceof FormattedValue);
+		assertTrue(row[6] instanceof FormattedValue);
+		assertSame(((BeanWriterProcessor<FormattedBean>) settings.getRowWriterProcessor()).writeFormatted(bean, fields, null), row);
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(String.valueOf(row[i]), String.valueOf(expected[i]), fields[i]);
+		}
+
+		bean.count = 7;
+		bean.price = null;
+		bean.code = 12;
+		bean.time = null;
+		writer.processRecord(bean);
+		writer.close();
+
+		String time = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date(1427451330123L));
+		assertEquals(output.toString(), ""
+				+ "-42,9223372036854775807,2.5,3.0,N/A,-0.050," + time + ",\"a, b\"\n"
+				+ "7,9223372036854775807,2.5,3.0,12,,,\"a, b\"\n");
+	}
 }
@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.common.processor;
+
+import static com.univocity.parsers.conversions.Conversions.*;
+import static org.testng.Assert.*;
+
+import java.io.*;
+import java.math.*;
+import java.util.*;
+
+import org.testng.annotations.*;
+
+import com.univocity.parsers.common.*;
+import com.univocity.parsers.conversions.*;
+import com.univocity.parsers.csv.*;
+
+public class LazyObjectRowProcessorTest {
+
+	private String input = "id,amount,status\n"
+			+ "1,10.5,open\n"
+			+ "2,20.25,closed\n"
+			+ "3,30,open\n";
+
+	private static class CountingConversion extends ObjectConversion<String> {
+		int executions;
+
+		@Override
+		public String execute(String input) {
+			executions++;
+			return super.execute(input);
+		}
+
+		@Override
+		protected String fromString(String input) {
+			return input.toUpperCase();
+		}
+	}
+
+	@Test
+	public void testConversionsExecutedOnAccess() {
+		final CountingConversion counting = new CountingConversion();
+		final List<Object[]> rows = new ArrayList<Object[]>();
+
+		LazyObjectRowProcessor processor = new LazyObjectRowProcessor() {
+			@Override
+			public void rowProcessed(LazyObjectRow row, ParsingContext context) {
+				if ("open".equals(row.getString(2))) {
+					assertSame(row.get(1), row.get(1));
+					rows.add(row.toArray());
+				}
+			}
+		};
+		processor.convertFields(toBigDecimal()).add("amount");
+		processor.convertFields(counting).add("status");
+		processor.convertIndexes(toInteger()).add(0);
+
+		CsvParserSettings settings = new CsvParserSettings();
+		settings.setHeaderExtractionEnabled(true);
+		settings.setRowProcessor(processor);
+		new CsvParser(settings).parse(new StringReader(input));
+
+		assertEquals(counting.executions, 2);
+		assertEquals(rows.size(), 2);
+		assertEquals(rows.get(0), new Object[] { 1, new BigDecimal("10.5"), "OPEN" });
+		assertEquals(rows.get(1), new Object[] { 3, new BigDecimal("30"), "OPEN" });
+	}
+
+	@Test
+	public void testReorderedColumns() {
+		final List<Object[]> rows = new ArrayList<Object[]>();
+
+		LazyObjectRowProcessor processor = new LazyObjectRowProcessor() {
+			@Override
+			public void rowProcessed(LazyObjectRow row, ParsingContext context) {
+				assertEquals(row.length(), 2);
+				rows.add(new Object[] { row.get(0), row.get(1) });
+			}
+		};
+		processor.convertFields(toBigDecimal()).add("amount");
+
+		CsvParserSettings settings = new CsvParserSettings();
+		settings.setHeaderExtractionEnabled(true);
+		settings.selectFields("amount", "id");
+		settings.setRowProcessor(processor);
+		new CsvParser(settings).parse(new StringReader(input));
+
+		assertEquals(rows.size(), 3);
+		assertEquals(rows.get(1), new Object[] { new BigDecimal("20.25"), "2" });
+	}
+}
@@ -24,6 +24,7 @@ import java.util.*;
 
 import org.testng.annotations.*;
 
+import com.univocity.parsers.common.fields.*;
 import com.univocity.parsers.conversions.*;
 import com.univocity.parsers.csv.*;
 
@@ -163,4 +164,97 @@ public class ObjectRowListProcessorTest {
 		assertEquals(row[3], false);
 		assertNull(row[2]);
 	}
+
+	@Test
+	public void conversionFromCharRanges() {
+		ObjectRowListProcessor processor = new ObjectRowListProcessor();
+		processor.convertIndexes(toInteger()).set(0);
+		processor.convertIndexes(toLong()).set(1);
+		processor.convertIndexes(toDouble()).set(2);
+		processor.convertIndexes(toBigDecimal(), new Conversion<Object, String>() {
+			@Override
+			public String execute(Object input) {
+				return "[" + input + "]";
+			}
+
+			@Override
+			public Object revert(String input) {
+				return input;
+			}
+		}).set(3);
+
+		List<Object[]> rows = process("a,b,c,d\n1,-20000000000,0.5,10.50\n,,,\n-3,4,1e2,-0.1", processor, newCsvInputSettings());
+		assertEquals(rows.size(), 3);
+		assertEquals(rows.get(0), new Object[] { 1, -20000000000L, 0.5, "[10.50]" });
+		assertEquals(rows.get(1), new Object[] { null, null, null, "[null]" });
+		assertEquals(rows.get(2), new Object[] { -3, 4L, 100.0, "[-0.1]" });
+	}
+
+	@Test
+	public void conversionErrorFromCharRanges() {
+		ObjectRowListProcessor processor = new ObjectRowListProcessor();
+		processor.convertIndexes(toInteger()).set(1);
+		try {
+			process("a,b\n1,2\n3,x4", processor, newCsvInputSettings());
+			fail("Expecting conversion error");
+		} catch (Exception ex) {
+			Throwable cause = ex;
+			while (cause != null && !(cause instanceof IllegalStateException)) {
+				cause = cause.getCause();
+			}
+			assertNotNull(cause);
+			assertTrue(cause.getMessage().startsWith("Error converting value 'x4' using conversion " + IntegerConversion.class.getName()));
+		}
+	}
+
+	@Test
+	public void overriddenConversionFromCharRanges() {
+		ObjectRowListProcessor processor = new ObjectRowListProcessor();
+		processor.convertIndexes(new IntegerConversion() {
+			@Override
+			protected Integer fromString(String input) {
+				return Integer.valueOf(input.replace("_", ""));
+			}
+		}).set(0);
+		processor.convertIndexes(new DoubleConversion() {
+			@Override
+			protected Double fromString(String input) {
+				return Double.valueOf(input.replace(',', '.'));
+			}
+		}).set(1);
+
+		CsvParserSettings settings = newCsvInputSettings();
+		settings.getFormat().setDelimiter(';');
+		List<Object[]> rows = process("a;b\n1_000;0,5", processor, settings);
+		assertEquals(rows.size(), 1);
+		assertEquals(rows.get(0), new Object[] { 1000, 0.5 });
+	}
+
+	@Test
+	public void conversionCache() {
+		ObjectRowListProcessor processor = new ObjectRowListProcessor();
+		processor.convertFields(toInteger()).set("a");
+		processor.convertFields(trim(), toUpperCase()).set("b");
+		processor.convertIndexes(toNull("?")).set(2);
+		processor.cacheConvertedFields(2).add("a", "b");
+		processor.cacheConvertedIndexes(10).add(2);
+
+		List<Object[]> rows = process("a,b,c\n1, x,?\n2,y,z\n1, x,?\n3,y,\n1,y,?", processor, newCsvInputSettings());
+		assertEquals(rows.size(), 5);
+		assertEquals(rows.get(0), new Object[] { 1, "X", null });
+		assertEquals(rows.get(1), new Object[] { 2, "Y", "z" });
+		assertEquals(rows.get(2), new Object[] { 1, "X", null });
+		assertEquals(rows.get(3), new Object[] { 3, "Y", null });
+		assertEquals(rows.get(4), new Object[] { 1, "Y", null });
+
+		ConversionCache a = processor.getConversionCache("a");
+		assertEquals(a.getHits(), 2);
+		assertEquals(a.getMisses(), 3);
+		assertEquals(a.getEvictions(), 1);
+		assertEquals(a.getSize(), 2);
+
+		assertEquals(processor.getConversionCache(1).getHits(), 3);
+		assertEquals(processor.getConversionCache(2).getHits(), 2);
+		assertNull(processor.getConversionCache("d"));
+	}
 }
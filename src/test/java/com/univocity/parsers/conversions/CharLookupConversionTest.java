@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.conversions;
+
+import static org.testng.Assert.*;
+
+import java.util.*;
+
+import org.testng.annotations.*;
+
+public class CharLookupConversionTest {
+
+	enum Status {
+		ACTIVE("A"), INACTIVE("I"), ON_HOLD("1");
+
+		private final String code;
+
+		Status(String code) {
+			this.code = code;
+		}
+
+		@Override
+		public String toString() {
+			return code;
+		}
+	}
+
+	private static Object convert(CharRangeConversion<?> conversion, String value) {
+		char[] chars = ("--" + value + "--").toCharArray();
+		return conversion.convert(chars, 2, value.length());
+	}
+
+	@Test
+	public void testEnumLookup() {
+		EnumConversion<Status> conversion = new EnumConversion<Status>(Status.class);
+		for (String input : new String[] { "ACTIVE", "INACTIVE", "ON_HOLD", "0", "2", "A", "I" }) {
+			Status expected = conversion.execute(input);
+			assertNotNull(expected);
+			assertSame(convert(conversion, input), expected);
+		}
+		// ordinal has precedence over toString when both match
+		assertSame(conversion.execute("1"), Status.INACTIVE);
+		assertSame(convert(conversion, "1"), Status.INACTIVE);
+		assertSame(new EnumConversion<Status>(Status.class, EnumSelector.STRING, EnumSelector.ORDINAL).execute("1"), Status.ON_HOLD);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "Cannot convert 'active' to enumeration of type .*Status")
+	public void testEnumLookupIsCaseSensitive() {
+		convert(new EnumConversion<Status>(Status.class), "active");
+	}
+
+	@Test
+	public void testBooleanLookup() {
+		BooleanConversion conversion = new BooleanConversion(new String[] { "Yes", "Y", "\u00c7" }, new String[] { "no", "N", null });
+		for (String input : new String[] { "yes", " YES ", "y", "Y", "\u00e7", "\u00c7" }) {
+			assertEquals(conversion.execute(input), Boolean.TRUE, input);
+			assertEquals(convert(conversion, input), Boolean.TRUE, input);
+		}
+		for (String input : new String[] { "no", "No ", "n", "\tN" }) {
+			assertEquals(conversion.execute(input), Boolean.FALSE, input);
+			assertEquals(convert(conversion, input), Boolean.FALSE, input);
+		}
+		assertNull(conversion.execute(null));
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "Unable to convert 'ye' to Boolean.*")
+	public void testBooleanLookupError() {
+		convert(new BooleanConversion(new String[] { "yes" }, new String[] { "no" }), "ye");
+	}
+
+	@Test
+	public void testLocaleSensitiveLookup() {
+		Locale locale = Locale.getDefault();
+		try {
+			Locale.setDefault(new Locale("tr"));
+			BooleanConversion conversion = new BooleanConversion(new String[] { "IN" }, new String[] { "OUT" });
+			assertEquals(convert(conversion, "IN"), conversion.execute("IN"));
+			assertEquals(convert(conversion, "OUT"), Boolean.FALSE);
+		} finally {
+			Locale.setDefault(locale);
+		}
+	}
+}
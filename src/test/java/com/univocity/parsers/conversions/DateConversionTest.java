@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.conversions;
+
+import static org.testng.Assert.*;
+
+import java.text.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.testng.annotations.*;
+
+import com.univocity.parsers.common.input.*;
+
+public class DateConversionTest {
+
+	@DataProvider(name = "dates")
+	public Object[][] dates() {
+		return new Object[][] {
+				{ "yyyy-MM-dd", "2015-03-27" },
+				{ "yyyy-MM-dd", "2016-02-29" },
+				{ "yyyy-MM-dd", "2015-02-29" }, //lenient
+				{ "yyyy-MM-dd", "2015-13-01" }, //lenient
+				{ "yyyy-MM-dd", "2015-3-7" },
+				{ "yyyy-MM-dd", "2015-03-071" },
+				{ "yyyy-MM-dd", "1500-03-07" },
+				{ "yyyy-MM-dd", "0015-03-07" },
+				{ "yyyy-MM-dd", "2015/03/07" },
+				{ "yyyyMMdd", "20150307" },
+				{ "yyyy-MM-dd'T'HH:mm:ss", "2015-03-27T23:59:59" },
+				{ "yyyy-MM-dd'T'HH:mm:ss", "2015-03-29T02:30:00" },
+				{ "yyyy-MM-dd'T'HH:mm:ss", "2015-10-25T02:30:00" },
+				{ "yyyy-MM-dd'T'HH:mm:ss.SSSZ", "2015-03-27T10:15:30.123+0530" },
+				{ "yyyy-MM-dd'T'HH:mm:ss.SSSZ", "2015-03-27T10:15:30.123-0800" },
+				{ "yyyy-MM-dd'T'HH:mm:ss'Z'", "2015-03-27T10:15:30Z" },
+				{ "dd/MM/yyyy HH:mm:ss", "27/03/2015 10:15:30" },
+				{ "dd/MM/yyyy HH:mm:ss", "27/03/2015 24:15:30" },
+				{ "dd/MM/yyyy HH:mm:ss", "27/03/2015 10:15:30 extra" },
+				{ "dd-MMM-yyyy", "10-oct-2001" },
+		};
+	}
+
+	private Object parseWithSimpleDateFormat(String pattern, TimeZone timeZone, String input) {
+		SimpleDateFormat format = new SimpleDateFormat(pattern);
+		format.setTimeZone(timeZone);
+		try {
+			return format.parse(input);
+		} catch (ParseException ex) {
+			return IllegalArgumentException.class;
+		}
+	}
+
+	private Object convert(DateConversion conversion, String input, boolean fromChars) {
+		try {
+			if (fromChars) {
+				char[] chars = (" " + input + " ").toCharArray();
+				return conversion.convert(chars, 1, input.length());
+			}
+			return conversion.execute(input);
+		} catch (IllegalArgumentException ex) {
+			return IllegalArgumentException.class;
+		}
+	}
+
+	@Test(dataProvider = "dates")
+	public void testParsingMatchesSimpleDateFormat(String pattern, String input) {
+		for (String zone : new String[] { "UTC", "Europe/London", "America/Sao_Paulo", "Australia/Sydney" }) {
+			TimeZone timeZone = TimeZone.getTimeZone(zone);
+			DateConversion conversion = new DateConversion(pattern);
+			conversion.getFormatterObjects()[0].setTimeZone(timeZone);
+
+			Object expected = parseWithSimpleDateFormat(pattern, timeZone, input);
+			assertEquals(convert(conversion, input, false), expected, zone);
+			assertEquals(convert(conversion, input, true), expected, zone);
+		}
+	}
+
+	@Test
+	public void testMultipleFormats() {
+		DateConversion conversion = new DateConversion("yyyy-MM-dd", "dd/MM/yyyy");
+		TimeZone timeZone = conversion.getFormatterObjects()[0].getTimeZone();
+
+		assertEquals(conversion.execute("2015-03-27"), parseWithSimpleDateFormat("yyyy-MM-dd", timeZone, "2015-03-27"));
+		assertEquals(conversion.execute("27/03/2015"), parseWithSimpleDateFormat("dd/MM/yyyy", timeZone, "27/03/2015"));
+		assertEquals(conversion.revert(conversion.execute("27/03/2015")), "2015-03-27");
+
+		try {
+			conversion.execute("27.03.2015");
+			fail("Expecting parse error");
+		} catch (IllegalArgumentException ex) {
+			assertEquals(ex.getMessage(), "Cannot parse '27.03.2015' as a valid date. Supported formats are: [yyyy-MM-dd, dd/MM/yyyy]");
+		}
+	}
+
+	@Test
+	public void testConcurrentParsing() throws Exception {
+		final DateConversion conversion = new DateConversion("yyyy-MM-dd", "dd MMM yyyy");
+		final TimeZone timeZone = conversion.getFormatterObjects()[0].getTimeZone();
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+			for (int t = 0; t < 4; t++) {
+				final int thread = t;
+				results.add(executor.submit(new Callable<Boolean>() {
+					@Override
+					public Boolean call() throws Exception {
+						for (int i = 0; i < 2000; i++) {
+							int day = 1 + (i + thread) % 28;
+							String iso = "2015-01-" + (day < 10 ? "0" + day : String.valueOf(day));
+							String text = day + " Jan 2015";
+							if (!conversion.execute(iso).equals(parseWithSimpleDateFormat("yyyy-MM-dd", timeZone, iso))) {
+								return false;
+							}
+							if (!conversion.execute(text).equals(parseWithSimpleDateFormat("dd MMM yyyy", timeZone, text))) {
+								return false;
+							}
+						}
+						return true;
+					}
+				}));
+			}
+			for (Future<Boolean> result : results) {
+				assertTrue(result.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testFormattingMatchesSimpleDateFormat() {
+		String[] patterns = { "yyyy-MM-dd", "yyyyMMdd", "yyyy-MM-dd'T'HH:mm:ss.SSSZ", "dd/MM/yyyy HH:mm:ss", "dd-MMM-yyyy" };
+		long[] times = { 0L, 1427451330123L, -1L, 1425175199999L, 1445734800000L, 253402300799999L, 253402300800000L, -12219292800000L, -12219292800001L, 951782400000L };
+		Random random = new Random(42);
+
+		for (String zone : new String[] { "UTC", "Europe/London", "America/Sao_Paulo", "Asia/Kolkata" }) {
+			TimeZone timeZone = TimeZone.getTimeZone(zone);
+			for (String pattern : patterns) {
+				DateConversion conversion = new DateConversion(pattern);
+				conversion.getFormatterObjects()[0].setTimeZone(timeZone);
+				SimpleDateFormat format = new SimpleDateFormat(pattern);
+				format.setTimeZone(timeZone);
+
+				for (int i = 0; i < times.length + 200; i++) {
+					long time = i < times.length ? times[i] : (random.nextLong() % 8000000000000L);
+					Date date = new Date(time);
+					FormattedValue output = new FormattedValue();
+					conversion.revert(date, output);
+					assertEquals(output.toString(), format.format(date), zone + " " + pattern + " " + time);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.conversions;
+
+import static org.testng.Assert.*;
+
+import java.math.*;
+import java.text.*;
+
+import org.testng.annotations.*;
+
+public class NumericConversionTest {
+
+	private static final String[] PATTERNS = { "#,##0.00", "#0", "$#,##0.00", "0.00%", "\u00A4#,##0.00", "#,##0.###;(#,##0.###)" };
+
+	private static final String[] INPUTS = {
+			"0", "-0", "0.0", "-0.0", "1", "-1", "007", "1.0", "1.50", "-1.50", "0.05", "1,234", "1,234.5", "1,,234", ",123", "123,", "1.2.3",
+			"1,234.56,7", "12.5%", "-12.5%", "50%", "-0%", "$1,234.56", "-$1,234.56", "$-1", "1e3", "1E3", "12abc", "", "-", ".", ".5", "5.",
+			"123456789012345678", "1234567890123456789", "9223372036854775807", "0.1234567890123456789", "1,234.56789012345678", "(1,234.5)",
+			"\u00A41.5", "abc", "NaN", "\u221E"
+	};
+
+	private Object parseWithDecimalFormat(String pattern, boolean bigDecimal, String input) {
+		DecimalFormat format = new DecimalFormat(pattern);
+		format.setParseBigDecimal(bigDecimal);
+		try {
+			return format.parse(input);
+		} catch (ParseException ex) {
+			return IllegalArgumentException.class;
+		}
+	}
+
+	private Object convert(NumericConversion<?> conversion, String input, boolean fromChars) {
+		try {
+			if (fromChars) {
+				char[] chars = ("#" + input + "#").toCharArray();
+				return conversion.convert(chars, 1, input.length());
+			}
+			return conversion.execute(input);
+		} catch (IllegalArgumentException ex) {
+			return IllegalArgumentException.class;
+		}
+	}
+
+	@Test
+	public void testParsingMatchesDecimalFormat() {
+		for (String pattern : PATTERNS) {
+			NumericConversion<Number> numberConversion = Conversions.formatToNumber(pattern);
+			FormattedBigDecimalConversion bigDecimalConversion = Conversions.formatToBigDecimal(pattern);
+
+			for (String input : INPUTS) {
+				String message = "Pattern " + pattern + ", input " + input;
+
+				Object expected = parseWithDecimalFormat(pattern, false, input);
+				assertEquals(convert(numberConversion, input, false), expected, message);
+				assertEquals(convert(numberConversion, input, true), expected, message);
+
+				expected = parseWithDecimalFormat(pattern, true, input);
+				assertEquals(convert(bigDecimalConversion, input, false), expected, message);
+				assertEquals(convert(bigDecimalConversion, input, true), expected, message);
+			}
+		}
+	}
+
+	@Test
+	public void testFormatsAreTriedInOrder() {
+		NumericConversion<Number> conversion = Conversions.formatToNumber("#0", "#,##0.00");
+		assertEquals(conversion.execute("1,234"), 1L);
+		assertEquals(conversion.execute("1234.5"), 1234.5);
+
+		try {
+			conversion.execute("abc");
+			fail("Expecting parse error");
+		} catch (IllegalArgumentException ex) {
+			assertEquals(ex.getMessage(), "Cannot parse 'abc' as a valid number. Supported formats are: [#0, #,##0.00]");
+		}
+	}
+
+	@Test
+	public void testFormatterSettingsAreRespected() {
+		FormattedBigDecimalConversion conversion = Conversions.formatToBigDecimal("#,##0.00");
+		DecimalFormatSymbols symbols = new DecimalFormatSymbols();
+		symbols.setDecimalSeparator(',');
+		symbols.setGroupingSeparator('.');
+		conversion.getFormatterObjects()[0].setDecimalFormatSymbols(symbols);
+
+		assertEquals(conversion.execute("1.234,50"), new BigDecimal("1234.50"));
+		assertEquals(conversion.revert(new BigDecimal("1234.5")), "1.234,50");
+	}
+}
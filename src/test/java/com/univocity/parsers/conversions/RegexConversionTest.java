@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.conversions;
+
+import static org.testng.Assert.*;
+
+import org.testng.annotations.*;
+
+public class RegexConversionTest {
+
+	@DataProvider(name = "replacements")
+	public Object[][] replacements() {
+		return new Object[][] {
+				{ "-", "", "2015-03-27" },
+				{ "ab", "x", "ababcab" },
+				{ "ab", "x", "nothing to replace" },
+				{ "aa", "b", "aaa" },
+				{ ",", ";", ",a,,b," },
+				{ "[^\\d]", "", "(555) 123-4567" },
+				{ "\\s+", " ", "a   b \t c" },
+				{ "(\\w+)@(\\w+)", "$2 at $1", "user@host" },
+				{ "x", "\\$", "axb" },
+				{ "", "-", "abc" },
+				{ "a.c", "?", "abc a.c" },
+		};
+	}
+
+	@Test(dataProvider = "replacements")
+	public void testReplacementMatchesReplaceAll(String regex, String replacement, String input) {
+		RegexConversion conversion = new RegexConversion(regex, replacement);
+		String expected = input.replaceAll(regex, replacement);
+		assertEquals(conversion.execute(input), expected);
+		assertEquals(conversion.execute(input), expected);
+		assertEquals(conversion.revert(input), expected);
+		assertNull(conversion.execute(null));
+	}
+}
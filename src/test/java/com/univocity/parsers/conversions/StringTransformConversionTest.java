@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.conversions;
+
+import static com.univocity.parsers.conversions.Conversions.*;
+import static org.testng.Assert.*;
+
+import org.testng.annotations.*;
+
+public class StringTransformConversionTest {
+
+	private static final String[] inputs = { "", "  ", " Abc ", "NULL", " null ", "n/a", "N/A  ", "A-B-C", " x-y ", "\u00c9cole ", "  -  ", "none" };
+
+	@DataProvider(name = "sequences")
+	public Object[][] sequences() {
+		return new Object[][] {
+				{ new Conversion[] { trim() } },
+				{ new Conversion[] { trim(), toLowerCase() } },
+				{ new Conversion[] { toUpperCase(), trim() } },
+				{ new Conversion[] { trim(), toLowerCase(), toNull("null", "n/a") } },
+				{ new Conversion[] { toNull("NULL"), trim(), toUpperCase(), toNull("NONE", "") } },
+				{ new Conversion[] { trim(), replace("-", ""), toLowerCase() } },
+				{ new Conversion[] { toLowerCase(), replace("a", "AA"), trim(), toNull("aa") } },
+				{ new Conversion[] { toUpperCase(), replace("-", "\u00e9"), toLowerCase() } },
+				{ new Conversion[] { replace("-", " "), trim(), toNull("") } },
+		};
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	@Test(dataProvider = "sequences")
+	public void testSameResultsAsSequence(Conversion[] sequence) {
+		StringTransformConversion transform = new StringTransformConversion(sequence);
+		for (String input : inputs) {
+			Object expected = input;
+			for (Conversion conversion : sequence) {
+				expected = conversion.execute(expected);
+			}
+			assertEquals(transform.execute(input), expected, "Input '" + input + "'");
+
+			char[] chars = ("##" + input + "##").toCharArray();
+			if (input.length() > 0) {
+				assertEquals(transform.convert(chars, 2, input.length()), expected, "Input '" + input + "'");
+			}
+		}
+		assertNull(transform.execute(null));
+	}
+
+	@Test
+	public void testUnchangedInputIsReturned() {
+		StringTransformConversion transform = new StringTransformConversion(trim(), toLowerCase(), toNull("?"));
+		String input = "abc";
+		assertSame(transform.execute(input), input);
+	}
+
+	@Test
+	public void testSupportedConversions() {
+		assertTrue(StringTransformConversion.isSupported(trim()));
+		assertTrue(StringTransformConversion.isSupported(replace("a", "b")));
+		assertFalse(StringTransformConversion.isSupported(replace("a+", "b")));
+		assertFalse(StringTransformConversion.isSupported(toInteger()));
+		assertFalse(StringTransformConversion.isSupported(new TrimConversion() {
+		}));
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testUnsupportedConversion() {
+		new StringTransformConversion(trim(), toInteger());
+	}
+
+	@Test
+	public void testRevert() {
+		StringTransformConversion transform = new StringTransformConversion(trim(), toNull("?"));
+		assertEquals(transform.revert(null), "?");
+		assertEquals(transform.revert(" a "), "a");
+	}
+}
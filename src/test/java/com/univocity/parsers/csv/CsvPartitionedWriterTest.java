@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.csv;
+
+import static org.testng.Assert.*;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.util.*;
+import java.util.zip.*;
+
+import org.testng.annotations.*;
+
+import com.univocity.parsers.common.*;
+import com.univocity.parsers.common.output.*;
+
+public class CsvPartitionedWriterTest {
+
+	private File directory;
+
+	@BeforeMethod
+	public void createDirectory() throws IOException {
+		directory = File.createTempFile("partitions", "");
+		directory.delete();
+		directory.mkdirs();
+	}
+
+	@AfterMethod
+	public void deleteDirectory() {
+		File[] files = directory.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+		directory.delete();
+	}
+
+	private String read(File file) throws IOException {
+		Reader reader = new InputStreamReader(new FileInputStream(file), "UTF-8");
+		StringBuilder out = new StringBuilder();
+		char[] buffer = new char[1024];
+		int read;
+		while ((read = reader.read(buffer)) != -1) {
+			out.append(buffer, 0, read);
+		}
+		reader.close();
+		return out.toString();
+	}
+
+	@Test
+	public void testWritingPartitionsWithEvictions() throws IOException {
+		CsvWriterSettings settings = new CsvWriterSettings();
+		settings.getFormat().setLineSeparator("\n");
+		settings.setHeaders("customer", "amount");
+		settings.setHeaderWritingEnabled(true);
+
+		String template = new File(directory, "customer_" + PartitionedWriter.KEY_PLACEHOLDER + ".csv").getPath();
+		CsvPartitionedWriter writer = new CsvPartitionedWriter(template, Charset.forName("UTF-8"), "customer", 3, settings);
+
+		Map<String, StringBuilder> expected = new TreeMap<String, StringBuilder>();
+		Random random = new Random(42);
+		for (int i = 0; i < 2000; i++) {
+			String customer = "c" + random.nextInt(10);
+			writer.writeRow(customer, i);
+			assertTrue(writer.getOpenPartitionCount() <= 3);
+
+			StringBuilder content = expected.get(customer);
+			if (content == null) {
+				content = new StringBuilder("customer,amount\n");
+				expected.put(customer, content);
+			}
+			content.append(customer).append(',').append(i).append('\n');
+		}
+		writer.close();
+
+		assertEquals(writer.getRecordCount(), 2000);
+		assertEquals(new TreeSet<String>(writer.getPartitions()), expected.keySet());
+		for (Map.Entry<String, StringBuilder> e : expected.entrySet()) {
+			assertEquals(read(new File(directory, "customer_" + e.getKey() + ".csv")), e.getValue().toString());
+		}
+	}
+
+	@Test
+	public void testPartitionsDoNotStartThreads() throws IOException {
+		CsvWriterSettings settings = new CsvWriterSettings();
+		settings.getFormat().setLineSeparator("\n");
+		settings.setWriteOutputOnSeparateThread(true);
+		settings.setOutputCompression(OutputCompression.GZIP);
+		settings.setCompressionThreads(4);
+
+		int threads = Thread.activeCount();
+		CsvPartitionedWriter writer = new CsvPartitionedWriter(new File(directory, "{key}.csv.gz").getPath(), Charset.forName("UTF-8"), 0, 200, settings);
+		for (int i = 0; i < 600; i++) {
+			writer.writeRow("p" + (i % 300), i);
+			assertTrue(Thread.activeCount() <= threads, "Partitions must not start threads");
+		}
+		assertEquals(writer.getOpenPartitionCount(), 200);
+		writer.close();
+
+		for (int p = 0; p < 300; p++) {
+			GZIPInputStream input = new GZIPInputStream(new FileInputStream(writer.getPartitionFile("p" + p)));
+			try {
+				Reader reader = new InputStreamReader(input, "UTF-8");
+				StringBuilder out = new StringBuilder();
+				for (int ch = reader.read(); ch != -1; ch = reader.read()) {
+					out.append((char) ch);
+				}
+				assertEquals(out.toString(), "p" + p + "," + p + "\np" + p + "," + (p + 300) + "\n");
+			} finally {
+				input.close();
+			}
+		}
+	}
+
+	@Test
+	public void testPartitionKeysAreSanitized() {
+		CsvPartitionedWriter writer = new CsvPartitionedWriter(new File(directory, "{key}.csv").getPath(), Charset.forName("UTF-8"), 0, 1, new CsvWriterSettings());
+		assertEquals(writer.getPartitionFile("../x").getName(), "..%2Fx.csv");
+		assertEquals(writer.getPartitionFile("..").getName(), "%2E%2E.csv");
+		assertEquals(writer.getPartitionFile("a b%").getName(), "a%20b%25.csv");
+		assertEquals(writer.getPartitionFile("\u00e7").getName(), "%u00E7.csv");
+		assertEquals(writer.getPartitionFile("2015-01-31").getName(), "2015-01-31.csv");
+	}
+
+	@Test
+	public void testSimilarPartitionKeysAreWrittenToDistinctFiles() throws IOException {
+		CsvWriterSettings settings = new CsvWriterSettings();
+		settings.getFormat().setLineSeparator("\n");
+
+		CsvPartitionedWriter writer = new CsvPartitionedWriter(new File(directory, "{key}.csv").getPath(), Charset.forName("UTF-8"), 0, 1, settings);
+		writer.writeRow("a/b", "1");
+		writer.writeRow("a_b", "2");
+		writer.writeRow("a/b", "3");
+		writer.close();
+
+		assertEquals(read(writer.getPartitionFile("a/b")), "a/b,1\na/b,3\n");
+		assertEquals(read(writer.getPartitionFile("a_b")), "a_b,2\n");
+		assertEquals(writer.getPartitions().size(), 2);
+	}
+
+	@Test(expectedExceptions = TextWritingException.class)
+	public void testNullPartitionKey() {
+		CsvPartitionedWriter writer = new CsvPartitionedWriter(new File(directory, "{key}.csv").getPath(), Charset.forName("UTF-8"), 1, 1, new CsvWriterSettings());
+		writer.writeRow("a", null);
+	}
+}
@@ -18,9 +18,14 @@ package com.univocity.parsers.csv;
 import static org.testng.Assert.*;
 
 import java.io.*;
+import java.nio.charset.*;
+import java.util.*;
+import java.util.zip.*;
 
 import org.testng.annotations.*;
 
+import com.univocity.parsers.common.*;
+import com.univocity.parsers.common.output.*;
 import com.univocity.parsers.common.processor.*;
 
 public class CsvWriterTest extends CsvParserTest {
@@ -196,4 +201,266 @@ public class CsvWriterTest extends CsvParserTest {
 
 		assertEquals(csvResult.toString(), expected);
 	}
+
+	@Test
+	public void testWritingPrimitiveValues() throws Exception {
+		CsvWriterSettings settings = new CsvWriterSettings();
+		settings.getFormat().setLineSeparator("\n");
+		settings.setHeaders("id", "amount", "code");
+
+		StringWriter output = new StringWriter();
+		CsvWriter writer = new CsvWriter(output, settings);
+
+		char[] code = "xa,by".toCharArray();
+		writer.writeValue(1);
+		writer.writeDecimal(-2.005, 2);
+		writer.writeValue(code, 1, 3);
+		writer.writeValuesToRow();
+
+		RowBuilder row = writer.getRowBuilder();
+		row.add(Long.MAX_VALUE).add(0.125, 2).add(code, 0, 0).write();
+		row.set("amount", 99.999, 1).set(0, 7L).write();
+		row.add(3L).discard();
+		row.add("x").add("y").set("code", 5L).write();
+		writer.close();
+
+		assertEquals(output.toString(), "" +
+				"1,-2.01,\"a,b\",\n" +
+				Long.MAX_VALUE + ",0.13,,\n" +
+				"7,100.0\n" +
+				"x,y,5\n");
+	}
+
+	@Test
+	public void testWritingCharValues() throws Exception {
+		CsvWriterSettings settings = new CsvWriterSettings();
+		settings.getFormat().setLineSeparator("\n");
+		settings.setHeaders("a", "b");
+
+		StringWriter output = new StringWriter();
+		CsvWriter writer = new CsvWriter(output, settings);
+
+		writer.writeValue('x');
+		writer.writeValue("y");
+		writer.writeValuesToRow();
+
+		writer.getRowBuilder().add('z').set("b", 'w').write();
+		writer.close();
+
+		assertEquals(output.toString(), "" +
+				"x,y,\n" +
+				"z,w\n");
+	}
+
+	@Test
+	public void testWritingValuesLargerThanInitialBuffer() throws Exception {
+		CsvWriterSettings settings = new CsvWriterSettings();
+		settings.getFormat().setLineSeparator("\n");
+		settings.setMaxCharsPerColumn(5000);
+		settings.setMaxCharsPerRow(9000);
+
+		char[] chars = new char[4000];
+		Arrays.fill(chars, 'a');
+		String value = new String(chars);
+
+		StringWriter output = new StringWriter();
+		CsvWriter writer = new CsvWriter(output, settings);
+		writer.writeRow(value, "b", value);
+		try {
+			writer.writeRow(value, value, value);
+			fail("Expected row larger than maximum number of characters per row to be rejected");
+		} catch (TextWritingException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+		assertEquals(output.toString(), value + ",b," + value + "\n");
+	}
+
+	@Test
+	public void testQuotingAndEscapingInSinglePass() throws Exception {
+		CsvWriterSettings settings = new CsvWriterSettings();
+		settings.getFormat().setLineSeparator("\n");
+
+		StringWriter output = new StringWriter();
+		CsvWriter writer = new CsvWriter(output, settings);
+		writer.writeRow("a\"b", "a\"b,c", "a,b\"c", "  x\ny  ", "\n", null, "last");
+		writer.close();
+		assertEquals(output.toString(), "a\"b,\"a\"\"b,c\",\"a,b\"\"c\",\"x\ny\",\"\",,last\n");
+
+		settings.setQuoteAllFields(true);
+		settings.setIgnoreLeadingWhitespaces(false);
+		settings.setIgnoreTrailingWhitespaces(false);
+
+		output = new StringWriter();
+		writer = new CsvWriter(output, settings);
+		writer.writeRow(" a\"b ", null);
+		writer.close();
+		assertEquals(output.toString(), "\" a\"\"b \",\"\"\n");
+	}
+
+	@Test
+	public void testWritingOutputOnSeparateThread() throws Exception {
+		CsvWriterSettings settings = new CsvWriterSettings();
+		settings.getFormat().setLineSeparator("\n");
+		settings.setWriteOutputOnSeparateThread(true);
+		settings.setOutputBufferSize(16);
+
+		StringWriter output = new StringWriter();
+		CsvWriter writer = new CsvWriter(output, settings);
+		StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			writer.writeRow(i, "value " + i, "a,b");
+			expected.append(i).append(",value ").append(i).append(",\"a,b\"\n");
+		}
+		writer.close();
+
+		assertEquals(output.toString(), expected.toString());
+	}
+
+	@Test
+	public void testWritingToOutputStream() throws Exception {
+		CsvWriterSettings settings = new CsvWriterSettings();
+		settings.getFormat().setLineSeparator("\n");
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		CsvWriter writer = new CsvWriter(output, Charset.forName("UTF-8"), settings);
+		writer.writeRow("\u00e9t\u00e9", "\u20ac 10,00", 3);
+		writer.close();
+
+		assertEquals(output.toString("UTF-8"), "\u00e9t\u00e9,\"\u20ac 10,00\",3\n");
+	}
+
+	@DataProvider
+	public Object[][] compressionProvider() {
+		return new Object[][] {
+				{ OutputCompression.GZIP, 1 },
+				{ OutputCompression.GZIP, 3 },
+				{ OutputCompression.DEFLATE, 1 },
+		};
+	}
+
+	@Test(dataProvider = "compressionProvider")
+	public void testWritingCompressedOutput(OutputCompression compression, int threads) throws Exception {
+		CsvWriterSettings settings = new CsvWriterSettings();
+		settings.getFormat().setLineSeparator("\n");
+		settings.setOutputCompression(compression);
+		settings.setCompressionThreads(threads);
+
+		StringBuilder expected = new StringBuilder();
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		CsvWriter writer = new CsvWriter(output, Charset.forName("UTF-8"), settings);
+		for (int i = 0; i < 50000; i++) {
+			writer.writeRow(i, "value " + i, "\u00e9t\u00e9");
+			expected.append(i).append(",value ").append(i).append(",\u00e9t\u00e9\n");
+		}
+		writer.close();
+
+		InputStream compressed = new ByteArrayInputStream(output.toByteArray());
+		InputStream in = compression == OutputCompression.GZIP ? new GZIPInputStream(compressed) : new InflaterInputStream(compressed);
+		Reader reader = new InputStreamReader(in, "UTF-8");
+		StringBuilder result = new StringBuilder();
+		char[] buffer = new char[8192];
+		int read;
+		while ((read = reader.read(buffer)) != -1) {
+			result.append(buffer, 0, read);
+		}
+		reader.close();
+
+		assertEquals(result.toString(), expected.toString());
+	}
+
+	private String readFile(File file) throws IOException {
+		Reader reader = new InputStreamReader(new FileInputStream(file), "UTF-8");
+		StringBuilder out = new StringBuilder();
+		char[] buffer = new char[1024];
+		int read;
+		while ((read = reader.read(buffer)) != -1) {
+			out.append(buffer, 0, read);
+		}
+		reader.close();
+		return out.toString();
+	}
+
+	@Test
+	public void testWritingRollingOutput() throws Exception {
+		File directory = File.createTempFile("rolling", "");
+		directory.delete();
+
+		CsvWriterSettings settings = new CsvWriterSettings();
+		settings.getFormat().setLineSeparator("\n");
+		settings.setHeaders("id", "text");
+		settings.setHeaderWritingEnabled(true);
+		settings.setMaxRecordsPerOutput(100);
+		settings.setMaxBytesPerOutput(800);
+
+		RollingFileWriter output = new RollingFileWriter(new File(directory, "part-{index}.csv").getPath(), Charset.forName("UTF-8"), settings);
+		CsvWriter writer = new CsvWriter(output, settings);
+		StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			String text = i % 10 == 0 ? "long \u00e9t\u00e9 value " + i : "v" + i;
+			writer.writeRow(i, text);
+			expected.append(i).append(',').append(text).append('\n');
+		}
+		writer.close();
+
+		StringBuilder result = new StringBuilder();
+		for (File file : output.getFiles()) {
+			assertTrue(file.length() <= 800, file + " has " + file.length() + " bytes");
+			String content = readFile(file);
+			assertTrue(content.startsWith("id,text\n"));
+			content = content.substring("id,text\n".length());
+			assertTrue(content.split("\n").length <= 100);
+			result.append(content);
+			file.delete();
+		}
+		directory.delete();
+
+		assertTrue(output.getFiles().size() > 10);
+		assertEquals(result.toString(), expected.toString());
+	}
+
+	@Test
+	public void testWritingRowsInParallel() throws Exception {
+		CsvWriterSettings settings = new CsvWriterSettings();
+		settings.getFormat().setLineSeparator("\n");
+		settings.setHeaders("id", "text", "amount");
+		settings.setHeaderWritingEnabled(true);
+
+		List<Object[]> rows = new ArrayList<Object[]>();
+		for (int i = 0; i < 5000; i++) {
+			rows.add(new Object[] { i, "row, \"" + i + "\"", i % 7 == 0 ? null : i * 1.5 });
+		}
+
+		StringWriter expected = new StringWriter();
+		CsvWriter writer = new CsvWriter(expected, settings);
+		writer.writeRows(rows);
+		writer.close();
+
+		StringWriter output = new StringWriter();
+		writer = new CsvWriter(output, settings);
+		writer.writeRowsParallel(rows, 4, 7);
+		writer.writeRow("last");
+		writer.close();
+
+		assertEquals(output.toString(), expected.toString() + "last\n");
+		assertTrue(output.toString().startsWith("id,text,amount\n0,"));
+	}
+
+	@Test
+	public void testErrorWritingRowsInParallel() throws Exception {
+		CsvWriterSettings settings = new CsvWriterSettings();
+		settings.setMaxCharsPerColumn(10);
+
+		List<Object[]> rows = new ArrayList<Object[]>();
+		for (int i = 0; i < 1000; i++) {
+			rows.add(new Object[] { i == 777 ? "this value is too long" : "ok" });
+		}
+
+		CsvWriter writer = new CsvWriter(new StringWriter(), settings);
+		try {
+			writer.writeRowsParallel(rows, 3, 10);
+			fail("Expected error formatting a row to be reported");
+		} catch (TextWritingException e) {
+			assertTrue(e.getCause() instanceof TextWritingException);
+		}
+	}
 }
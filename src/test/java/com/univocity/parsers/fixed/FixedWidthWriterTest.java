@@ -196,4 +196,27 @@ public class FixedWidthWriterTest extends FixedWidthParserTest {
 
 		assertEquals(correctLength, length);
 	}
+
+	@Test
+	public void testWritingValuesOverPaddingTemplate() {
+		FixedWidthWriterSettings settings = new FixedWidthWriterSettings(new FixedWidthFieldLengths(4, 6, 3));
+		settings.getFormat().setPadding('_');
+		settings.getFormat().setLineSeparator("\n");
+		settings.setIgnoreLeadingWhitespaces(true);
+		settings.setIgnoreTrailingWhitespaces(true);
+
+		StringWriter output = new StringWriter();
+		FixedWidthWriter writer = new FixedWidthWriter(output, settings);
+		writer.writeRow("  ab  ", "truncated", 12345);
+		writer.writeRow(null, new StringBuilder("x y  "), "");
+		writer.writeRow("a", "b");
+		writer.writeRow("line\nbreak", "ok", "z");
+		writer.close();
+
+		assertEquals(output.toString(), "" +
+				"ab__trunca123\n" +
+				"____x y______\n" +
+				"a___b_____\n" +
+				"lineok____z__\n");
+	}
 }
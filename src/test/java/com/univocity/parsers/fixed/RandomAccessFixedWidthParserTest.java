@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright 2014 uniVocity Software Pty Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.univocity.parsers.fixed;
+
+import static org.testng.Assert.*;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.util.*;
+
+import org.testng.annotations.*;
+
+import com.univocity.parsers.common.*;
+import com.univocity.parsers.common.processor.*;
+
+public class RandomAccessFixedWidthParserTest {
+
+	private static final Charset ENCODING = Charset.forName("ISO-8859-1");
+
+	private File file;
+	private StringBuilder lines;
+
+	@BeforeMethod
+	public void writeFile() throws IOException {
+		file = File.createTempFile("records", ".txt");
+		StringBuilder content = new StringBuilder("id   name      city    ");
+		lines = new StringBuilder("id   name      city    \n");
+		Random random = new Random(7);
+		for (int i = 0; i < 5000; i++) {
+			String name = random.nextInt(5) == 0 ? "" : " né" + random.nextInt(1000);
+			String record = pad(String.valueOf(i), 5, '_') + pad(name, 10, ' ') + pad("c" + (i % 13) + "  ", 8, '_');
+			content.append(record);
+			lines.append(record).append('\n');
+		}
+		Writer writer = new OutputStreamWriter(new FileOutputStream(file), ENCODING);
+		writer.write(content.toString());
+		writer.close();
+	}
+
+	@AfterMethod
+	public void deleteFile() {
+		file.delete();
+	}
+
+	private String pad(String value, int length, char padding) {
+		StringBuilder out = new StringBuilder(value);
+		while (out.length() < length) {
+			out.append(padding);
+		}
+		return out.toString();
+	}
+
+	private FixedWidthParserSettings newSettings() {
+		FixedWidthParserSettings settings = new FixedWidthParserSettings(new FixedWidthFieldLengths(5, 10, 8));
+		settings.getFormat().setPadding('_');
+		settings.getFormat().setLineSeparator("\n");
+		settings.setHeaderExtractionEnabled(true);
+		return settings;
+	}
+
+	private List<String[]> parseSequentially(FixedWidthParserSettings settings) {
+		RowListProcessor processor = new RowListProcessor();
+		settings.setRowProcessor(processor);
+		new FixedWidthParser(settings).parse(new StringReader(lines.toString()));
+		return processor.getRows();
+	}
+
+	private void assertSameRows(List<String[]> actual, List<String[]> expected) {
+		assertEquals(actual.size(), expected.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(actual.get(i), expected.get(i), "Record " + i);
+		}
+	}
+
+	@DataProvider
+	public Object[][] threadsProvider() {
+		return new Object[][] { { 1 }, { 4 } };
+	}
+
+	@Test(dataProvider = "threadsProvider")
+	public void testParsingInParallel(int threads) {
+		List<String[]> expected = parseSequentially(newSettings());
+
+		FixedWidthParserSettings settings = newSettings();
+		RowListProcessor processor = new RowListProcessor();
+		settings.setRowProcessor(processor);
+		new RandomAccessFixedWidthParser(settings).parse(file, ENCODING, threads, 77);
+
+		assertEquals(processor.getHeaders(), new String[] { "id", "name", "city" });
+		assertSameRows(processor.getRows(), expected);
+	}
+
+	@Test(dataProvider = "threadsProvider")
+	public void testParsingSelectedFields(int threads) {
+		FixedWidthParserSettings settings = newSettings();
+		settings.selectFields("city", "id");
+		List<String[]> expected = parseSequentially(settings);
+
+		settings = newSettings();
+		settings.selectFields("city", "id");
+		assertSameRows(new RandomAccessFixedWidthParser(settings).parseAll(file, ENCODING, threads), expected);
+
+		settings = newSettings();
+		settings.selectFields("city", "id");
+		settings.setColumnReorderingEnabled(false);
+		expected = parseSequentially(settings);
+
+		settings = newSettings();
+		settings.selectFields("city", "id");
+		settings.setColumnReorderingEnabled(false);
+		assertSameRows(new RandomAccessFixedWidthParser(settings).parseAll(file, ENCODING, threads), expected);
+	}
+
+	@Test
+	public void testSeekingToRecords() {
+		List<String[]> expected = parseSequentially(newSettings());
+
+		RandomAccessFixedWidthParser parser = new RandomAccessFixedWidthParser(newSettings());
+		parser.beginParsing(file, ENCODING);
+		assertEquals(parser.getRecordCount(), 5000);
+		for (long index : new long[] { 4999, 0, 1234, 1, 4998 }) {
+			assertEquals(parser.parseRecord(index), expected.get((int) index));
+		}
+		parser.stopParsing();
+	}
+
+	@Test
+	public void testIncompleteLastRecord() throws IOException {
+		Writer writer = new OutputStreamWriter(new FileOutputStream(file, true), ENCODING);
+		writer.write("99999abc");
+		writer.close();
+
+		RandomAccessFixedWidthParser parser = new RandomAccessFixedWidthParser(newSettings());
+		parser.beginParsing(file, ENCODING);
+		assertEquals(parser.getRecordCount(), 5001);
+		assertEquals(parser.parseRecord(5000), new String[] { "99999", "abc", null });
+		parser.stopParsing();
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testMultiByteEncodingNotSupported() {
+		new RandomAccessFixedWidthParser(newSettings()).beginParsing(file, Charset.forName("UTF-8"));
+	}
+}